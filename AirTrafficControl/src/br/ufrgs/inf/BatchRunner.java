@@ -0,0 +1,548 @@
+package br.ufrgs.inf;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GenerationListener;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.exceptions.AlgorithmException;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.Solution;
+import br.ufrgs.inf.ga.utils.JsonHelper;
+
+/**
+ * Runs a batch of genetic algorithm experiments (instances x parameter sets x repetitions) in a single JVM, and writes
+ * the results of each run and their aggregates to a JSON lines file.
+ *
+ * <p>
+ * The runs are executed in parallel, one per thread, and each run is single threaded, so the run times are comparable.
+ * Some warm up runs (of the first parameter set on the first instance) are executed and discarded first, so the
+ * measured runs don't pay the JIT compilation. The repetition r of every instance and parameter set uses the seed
+ * <code>seed + r</code> (initial population and generations), so the parameter sets are compared on the same initial
+ * populations, and a run can be repeated from its seed.
+ * </p>
+ *
+ * <p>
+ * The batch is described by a plan file:
+ * <pre>
+ * # comment
+ * instances resources/airland1.txt resources/airland2.txt
+ * config small 500 0.3 0.1 300
+ * config ox 500 0.3 0.1 300 -crossover ox -mutation neighbour_swap
+ * repetitions 5
+ * seed 1
+ * warmup 2
+ * </pre>
+ * Each <code>config</code> line has a name and the parameters of {@link MainProgram} after the file name: population max
+ * individuals, reproduction rate, mutation rate, max generations and the genetic algorithm options (the modes that don't
+ * run the genetic algorithm are not supported).
+ * </p>
+ *
+ * <p>
+ * Each line of the results file is a JSON object: one <code>"run"</code> object per run (cost, time, time to the best
+ * individual, generations, evaluations and seed; the cost of an infeasible solution is null) and one
+ * <code>"aggregate"</code> object per instance and parameter set (min, mean and standard deviation of the cost of the
+ * feasible runs, mean and standard deviation of the time, and mean time to best, generations and evaluations).
+ * </p>
+ *
+ * Usage: java br.ufrgs.inf.BatchRunner &lt;plan file&gt; &lt;results file&gt; [threads]
+ *
+ * @author diego
+ *
+ */
+public class BatchRunner {
+
+	private static final int DEFAULT_WARM_UP_RUNS = 2;
+
+	/**
+	 * Options of the {@link MainProgram} modes that don't run (only) the genetic algorithm, that write files, that are
+	 * set by the batch runner itself, or that run stages in their own threads (so the runs wouldn't be single threaded).
+	 */
+	private static final List<String> UNSUPPORTED_OPTIONS = Arrays.asList("fast", "annealing", "cps", "exact", "decompose", "portfolio",
+																		   "nsga2", "export", "warmstart", "diversity", "metrics", "seed", "initthreads",
+																		   "localsearch", "relinking");
+
+	private final int threads;
+
+	private final Map<String, AircraftStaticData[]> instances = new LinkedHashMap<String, AircraftStaticData[]>();
+
+	private final Map<String, String[]> configs = new LinkedHashMap<String, String[]>();
+
+	private int repetitions = 1;
+
+	private long seed = 1;
+
+	private int warmUpRuns = DEFAULT_WARM_UP_RUNS;
+
+	/**
+	 * @param threads number of runs executed at the same time.
+	 */
+	public BatchRunner(int threads) {
+		this.threads = threads;
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+		if (args.length < 2) {
+			System.out.println("Usage: java " + BatchRunner.class.getName() + " <plan file> <results file> [threads]");
+			return;
+		}
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		BatchRunner batchRunner = new BatchRunner(threads);
+		batchRunner.loadPlan(args[0]);
+
+		long startTime = System.nanoTime();
+		List<RunResult> results = batchRunner.execute();
+		PrintWriter writer = new PrintWriter(new File(args[1]), "UTF-8");
+		try {
+			batchRunner.writeResults(results, writer);
+		} finally {
+			writer.close();
+		}
+		for (Aggregate aggregate : batchRunner.aggregate(results)) {
+			System.out.println(String.format(Locale.US, "%s\t%s\tcost min %s mean %.1f std %.1f (%d of %d feasible)\ttime %.3f s",
+					aggregate.instance, aggregate.config, aggregate.feasibleRuns > 0 ? String.valueOf(aggregate.minCost) : "-",
+					aggregate.meanCost, aggregate.costStandardDeviation, aggregate.feasibleRuns, aggregate.runs, aggregate.meanTime / 1000));
+		}
+		System.out.println(results.size() + " runs in " + (System.nanoTime() - startTime) / 1e9f + " s (" + threads + " threads)");
+	}
+
+	/**
+	 * Reads a plan file (see the class description) and loads its instances.
+	 *
+	 * @param fileName plan file name.
+	 * @throws IOException thrown if the plan or an instance file can't be read.
+	 */
+	public void loadPlan(String fileName) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), "UTF-8"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				String[] tokens = line.split("\\s+");
+				String keyword = tokens[0].toLowerCase();
+				if (keyword.equals("instances")) {
+					for (int i = 1; i < tokens.length; i++) {
+						addInstance(tokens[i], AtcLoader.createATCInstanceFromFile(tokens[i]));
+					}
+				} else if (keyword.equals("config")) {
+					addConfig(tokens[1], Arrays.copyOfRange(tokens, 2, tokens.length));
+				} else if (keyword.equals("repetitions")) {
+					setRepetitions(Integer.parseInt(tokens[1]));
+				} else if (keyword.equals("seed")) {
+					setSeed(Long.parseLong(tokens[1]));
+				} else if (keyword.equals("warmup")) {
+					setWarmUpRuns(Integer.parseInt(tokens[1]));
+				} else {
+					throw new IllegalArgumentException("Unknown plan line: " + line);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * @param name instance name, written in the results.
+	 * @param aircrafts aircrafts data of the instance.
+	 */
+	public void addInstance(String name, AircraftStaticData[] aircrafts) {
+		instances.put(name, aircrafts);
+	}
+
+	/**
+	 * @param name parameter set name, written in the results.
+	 * @param parameters population max individuals, reproduction rate, mutation rate, max generations and the options
+	 * 		   of the genetic algorithm, as given to the {@link MainProgram}.
+	 */
+	public void addConfig(String name, String[] parameters) {
+		if (parameters.length < MainProgram.MANDATORY_PARAMETERS - 1) {
+			throw new IllegalArgumentException("Missing parameters of the config " + name);
+		}
+		for (String option : parseOptions(parameters).keySet()) {
+			if (UNSUPPORTED_OPTIONS.contains(option)) {
+				throw new IllegalArgumentException("The option -" + option + " of the config " + name + " is not supported by the batch runner.");
+			}
+		}
+		configs.put(name, parameters);
+	}
+
+	public void setRepetitions(int repetitions) {
+		this.repetitions = repetitions;
+	}
+
+	/**
+	 * @param seed initial population seed of the first repetition.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public void setWarmUpRuns(int warmUpRuns) {
+		this.warmUpRuns = warmUpRuns;
+	}
+
+	/**
+	 * Runs the warm up runs and then all the runs of the batch.
+	 *
+	 * @return the result of each run, in order of instance, parameter set and repetition.
+	 * @throws InterruptedException thrown if the thread is interrupted while waiting for the runs.
+	 * @throws ExecutionException thrown if a run fails.
+	 */
+	public List<RunResult> execute() throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			if (!instances.isEmpty() && !configs.isEmpty()) {
+				String instance = instances.keySet().iterator().next();
+				String config = configs.keySet().iterator().next();
+				List<Future<RunResult>> warmUp = new ArrayList<Future<RunResult>>();
+				for (int r = 0; r < warmUpRuns; r++) {
+					warmUp.add(executor.submit(createRun(instance, config, -1 - r)));
+				}
+				for (Future<RunResult> run : warmUp) {
+					run.get();
+				}
+			}
+
+			List<Future<RunResult>> runs = new ArrayList<Future<RunResult>>();
+			for (String instance : instances.keySet()) {
+				for (String config : configs.keySet()) {
+					for (int r = 0; r < repetitions; r++) {
+						runs.add(executor.submit(createRun(instance, config, r)));
+					}
+				}
+			}
+			List<RunResult> results = new ArrayList<RunResult>(runs.size());
+			for (Future<RunResult> run : runs) {
+				results.add(run.get());
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Callable<RunResult> createRun(final String instance, final String config, final int repetition) {
+		return new Callable<RunResult>() {
+			@Override
+			public RunResult call() throws AlgorithmException {
+				return run(instance, config, repetition);
+			}
+		};
+	}
+
+	/**
+	 * Runs the genetic algorithm once, in the current thread.
+	 */
+	private RunResult run(String instance, String config, int repetition) throws AlgorithmException {
+		String[] parameters = configs.get(config);
+		Map<String, String> options = parseOptions(parameters);
+		PopulationConfig populationConfig = new PopulationConfig(Integer.parseInt(parameters[0]), Float.parseFloat(parameters[1]),
+																 Float.parseFloat(parameters[2]), Boolean.parseBoolean(options.get("dedup")));
+		final GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(populationConfig, Integer.parseInt(parameters[3]), instances.get(instance));
+		MainProgram.configureGeneticAlgorithm(geneticAlgorithm, options);
+		if (options.containsKey("target")) {
+			geneticAlgorithm.setTargetFitnessValue(Integer.parseInt(options.get("target")));
+		}
+		final RunResult result = new RunResult(instance, config, repetition, seed + repetition);
+		geneticAlgorithm.setInitializationSeed(result.seed);
+		geneticAlgorithm.setInitializationThreads(1);
+
+		final long startTime = System.nanoTime();
+		geneticAlgorithm.setGenerationListener(new GenerationListener() {
+			@Override
+			public void generationEvaluated(int generation, Individual bestIndividual) {
+				if (bestIndividual.getFitnessValue() < result.cost) {
+					result.cost = bestIndividual.getFitnessValue();
+					result.timeToBest = (System.nanoTime() - startTime) / 1e6;
+					result.bestGeneration = generation;
+				}
+			}
+		});
+		geneticAlgorithm.execute();
+		result.time = (System.nanoTime() - startTime) / 1e6;
+
+		Solution solution = geneticAlgorithm.getSolution();
+		if (solution.getBestIndividualFound().getFitnessValue() < result.cost) {
+			// found by the last generation, after the last listener call.
+			result.cost = solution.getBestIndividualFound().getFitnessValue();
+			result.timeToBest = result.time;
+			result.bestGeneration = solution.getGenerationCount();
+		}
+		result.generations = solution.getGenerationCount();
+		result.evaluations = geneticAlgorithm.getEvaluationCount();
+		return result;
+	}
+
+	/**
+	 * Reads the options of a parameter set, in the positions of the {@link MainProgram} arguments.
+	 */
+	private static Map<String, String> parseOptions(String[] parameters) {
+		String[] args = new String[parameters.length + 1];
+		System.arraycopy(parameters, 0, args, 1, parameters.length);
+		return MainProgram.parseOptions(args);
+	}
+
+	/**
+	 * Calculates the aggregates of the runs of each instance and parameter set.
+	 *
+	 * @param results results of the runs.
+	 * @return the aggregates, in order of instance and parameter set.
+	 */
+	public List<Aggregate> aggregate(List<RunResult> results) {
+		Map<String, Aggregate> aggregates = new LinkedHashMap<String, Aggregate>();
+		for (RunResult result : results) {
+			String key = result.instance + "\n" + result.config;
+			Aggregate aggregate = aggregates.get(key);
+			if (aggregate == null) {
+				aggregate = new Aggregate(result.instance, result.config);
+				aggregates.put(key, aggregate);
+			}
+			aggregate.add(result);
+		}
+		List<Aggregate> aggregateList = new ArrayList<Aggregate>(aggregates.values());
+		for (Aggregate aggregate : aggregateList) {
+			aggregate.finish();
+		}
+		return aggregateList;
+	}
+
+	/**
+	 * Writes the runs and their aggregates as JSON lines.
+	 *
+	 * @param results results of the runs.
+	 * @param writer output of the lines.
+	 */
+	public void writeResults(List<RunResult> results, Writer writer) throws IOException {
+		for (RunResult result : results) {
+			writer.write(String.format(Locale.US, "{\"type\":\"run\",\"instance\":%s,\"config\":%s,\"repetition\":%d,\"seed\":%d,\"cost\":%s," +
+					"\"time_ms\":%.3f,\"time_to_best_ms\":%.3f,\"best_generation\":%d,\"generations\":%d,\"evaluations\":%d}\n",
+					JsonHelper.quote(result.instance), JsonHelper.quote(result.config), result.repetition + 1, result.seed,
+					result.isFeasible() ? String.valueOf(result.cost) : "null", result.time, result.timeToBest, result.bestGeneration,
+					result.generations, result.evaluations));
+		}
+		for (Aggregate aggregate : aggregate(results)) {
+			boolean feasible = aggregate.feasibleRuns > 0;
+			writer.write(String.format(Locale.US, "{\"type\":\"aggregate\",\"instance\":%s,\"config\":%s,\"runs\":%d,\"feasible_runs\":%d," +
+					"\"cost_min\":%s,\"cost_mean\":%s,\"cost_std\":%s,\"time_ms_mean\":%.3f,\"time_ms_std\":%.3f,\"time_to_best_ms_mean\":%.3f," +
+					"\"generations_mean\":%.1f,\"evaluations_mean\":%.1f}\n",
+					JsonHelper.quote(aggregate.instance), JsonHelper.quote(aggregate.config), aggregate.runs, aggregate.feasibleRuns,
+					feasible ? String.valueOf(aggregate.minCost) : "null",
+					feasible ? String.format(Locale.US, "%.3f", aggregate.meanCost) : "null",
+					feasible ? String.format(Locale.US, "%.3f", aggregate.costStandardDeviation) : "null",
+					aggregate.meanTime, aggregate.timeStandardDeviation, aggregate.meanTimeToBest, aggregate.meanGenerations, aggregate.meanEvaluations));
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Result of a run.
+	 */
+	public static class RunResult {
+
+		final String instance;
+
+		final String config;
+
+		/**
+		 * Repetition index (0 is the first one).
+		 */
+		final int repetition;
+
+		final long seed;
+
+		int cost = Integer.MAX_VALUE;
+
+		/**
+		 * Run time and time until the best individual was found, in milliseconds.
+		 */
+		double time;
+
+		double timeToBest;
+
+		int bestGeneration;
+
+		int generations;
+
+		long evaluations;
+
+		RunResult(String instance, String config, int repetition, long seed) {
+			this.instance = instance;
+			this.config = config;
+			this.repetition = repetition;
+			this.seed = seed;
+		}
+
+		public String getInstance() {
+			return instance;
+		}
+
+		public String getConfig() {
+			return config;
+		}
+
+		public long getSeed() {
+			return seed;
+		}
+
+		/**
+		 * @return the cost of the best individual found (the maximum integer value if it is infeasible).
+		 */
+		public int getCost() {
+			return cost;
+		}
+
+		public boolean isFeasible() {
+			return cost != Integer.MAX_VALUE;
+		}
+
+		public double getTime() {
+			return time;
+		}
+
+		public double getTimeToBest() {
+			return timeToBest;
+		}
+
+		public int getGenerations() {
+			return generations;
+		}
+
+		public long getEvaluations() {
+			return evaluations;
+		}
+	}
+
+	/**
+	 * Aggregates of the runs of an instance and parameter set. The cost statistics only include the feasible runs, and the
+	 * standard deviations are the sample ones.
+	 */
+	public static class Aggregate {
+
+		final String instance;
+
+		final String config;
+
+		int runs;
+
+		int feasibleRuns;
+
+		int minCost = Integer.MAX_VALUE;
+
+		double meanCost;
+
+		double costStandardDeviation;
+
+		double meanTime;
+
+		double timeStandardDeviation;
+
+		double meanTimeToBest;
+
+		double meanGenerations;
+
+		double meanEvaluations;
+
+		/**
+		 * Sums of the values and of their squares, until {@link #finish()}.
+		 */
+		private double costSum;
+
+		private double costSquareSum;
+
+		private double timeSum;
+
+		private double timeSquareSum;
+
+		Aggregate(String instance, String config) {
+			this.instance = instance;
+			this.config = config;
+		}
+
+		void add(RunResult result) {
+			runs++;
+			if (result.isFeasible()) {
+				feasibleRuns++;
+				minCost = Math.min(minCost, result.cost);
+				costSum += result.cost;
+				costSquareSum += (double) result.cost * result.cost;
+			}
+			timeSum += result.time;
+			timeSquareSum += result.time * result.time;
+			meanTimeToBest += result.timeToBest;
+			meanGenerations += result.generations;
+			meanEvaluations += result.evaluations;
+		}
+
+		void finish() {
+			meanCost = feasibleRuns > 0 ? costSum / feasibleRuns : 0;
+			costStandardDeviation = standardDeviation(costSum, costSquareSum, feasibleRuns);
+			meanTime = timeSum / runs;
+			timeStandardDeviation = standardDeviation(timeSum, timeSquareSum, runs);
+			meanTimeToBest /= runs;
+			meanGenerations /= runs;
+			meanEvaluations /= runs;
+		}
+
+		private static double standardDeviation(double sum, double squareSum, int count) {
+			if (count < 2) {
+				return 0;
+			}
+			double variance = (squareSum - sum * sum / count) / (count - 1);
+			return Math.sqrt(Math.max(0, variance));
+		}
+
+		public String getInstance() {
+			return instance;
+		}
+
+		public String getConfig() {
+			return config;
+		}
+
+		public int getRuns() {
+			return runs;
+		}
+
+		public int getFeasibleRuns() {
+			return feasibleRuns;
+		}
+
+		public int getMinCost() {
+			return minCost;
+		}
+
+		public double getMeanCost() {
+			return meanCost;
+		}
+
+		public double getCostStandardDeviation() {
+			return costStandardDeviation;
+		}
+
+		public double getMeanTime() {
+			return meanTime;
+		}
+	}
+}
@@ -1,47 +1,653 @@
 package br.ufrgs.inf;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import javax.management.JMException;
 
 import br.ufrgs.inf.atc.AirTrafficControl;
 import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.InstanceDecomposition;
+import br.ufrgs.inf.atc.SolutionFile;
+import br.ufrgs.inf.atc.model.Aircraft;
 import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.BranchAndBound;
+import br.ufrgs.inf.ga.ConstrainedPositionShifting;
+import br.ufrgs.inf.ga.ConstructiveHeuristic;
+import br.ufrgs.inf.ga.ConstructiveScheduler;
+import br.ufrgs.inf.ga.DecomposedScheduler;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.GenerationListener;
 import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.GeneticAlgorithmFactory;
+import br.ufrgs.inf.ga.GeneticAlgorithmMetrics;
+import br.ufrgs.inf.ga.MultiObjectiveGeneticAlgorithm;
+import br.ufrgs.inf.ga.PortfolioScheduler;
+import br.ufrgs.inf.ga.SimulatedAnnealing;
 import br.ufrgs.inf.ga.exceptions.AlgorithmException;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.LocalSearchConfig;
+import br.ufrgs.inf.ga.model.PathRelinkingConfig;
 import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.PopulationDiversity;
+import br.ufrgs.inf.ga.model.Solution;
+import br.ufrgs.inf.ga.objectives.ObjectiveType;
+import br.ufrgs.inf.ga.operators.CrossoverType;
+import br.ufrgs.inf.ga.operators.MutationType;
+import br.ufrgs.inf.ga.operators.Neighbourhood;
+import br.ufrgs.inf.ga.operators.PathRelinkingOperator;
+import br.ufrgs.inf.ga.operators.SelectionType;
+import br.ufrgs.inf.ga.operators.VariableNeighbourhoodDescent;
 
 /**
  * Creates an instance of ATC problem from a input file and execute the ATC
  * schedule based on a genetic algorithm.
- * 
+ *
+ * <p>
+ * Optional parameters are given after the mandatory ones as <code>-name value</code> pairs:
+ * <ul>
+ * <li><code>-warmstart &lt;file&gt;</code>: initializes the population from a solution exported by a previous run.</li>
+ * <li><code>-export &lt;file&gt;</code>: exports the solution (best individual and elite) to a file.</li>
+ * <li><code>-target &lt;cost&gt;</code>: stops as soon as a solution with this cost (or lower) is found.</li>
+ * <li><code>-localsearch &lt;elite size&gt;</code>: improves the elite individuals of each generation by a local search.</li>
+ * <li><code>-lsmoves &lt;moves&gt;</code>: local search moves evaluated per generation (default 20000).</li>
+ * <li><code>-neighbourhoods &lt;swap,insertion,2opt&gt;</code>: neighbourhoods explored by the local search, in order.</li>
+ * <li><code>-relinking &lt;elite pool size&gt;</code>: when the best individual hasn't improved for 10 generations (or
+ * <code>-relinkafter</code> generations), walks the paths between the elite landing sequences and adds the best sequences
+ * found in them to the population (path relinking).</li>
+ * <li><code>-relinkafter &lt;generations&gt;</code>: generations without improvement between two path relinking stages (default 10).</li>
+ * <li><code>-objective &lt;linear|makespan|delay|quadratic&gt;</code>: objective minimized by the genetic algorithm (default linear,
+ * the earliness and tardiness cost): the landing time of the last aircraft, the tardiness cost only, or the quadratic earliness
+ * and tardiness cost. Not available with <code>-decompose</code> and <code>-portfolio</code>, which combine linear costs.</li>
+ * <li><code>-crossover &lt;parent_copies|ox|pmx|erx&gt;</code>: crossover operation (default parent_copies).</li>
+ * <li><code>-mutation &lt;shuffle|neighbour_swap|neighbour_insertion&gt;</code>: mutation operation (default shuffle). The neighbour mutations
+ * only trade places of aircrafts whose landing time windows overlap.</li>
+ * <li><code>-selection &lt;rank|tournament|sus&gt;</code>: parents selection method (default rank).</li>
+ * <li><code>-tournament &lt;size&gt;</code>: number of individuals in each tournament (default 2).</li>
+ * <li><code>-pressure &lt;exponent&gt;</code>: selection pressure of the stochastic universal sampling (default 1).</li>
+ * <li><code>-dedup &lt;true|false&gt;</code>: rejects individuals with the same landing schedule of another one in the population (default false).</li>
+ * <li><code>-precedence &lt;true|false&gt;</code>: rejects the landing orders that can't be feasible (by the time windows and gap times)
+ * without scheduling and evaluating them (default false).</li>
+ * <li><code>-symmetry &lt;true|false&gt;</code>: identical aircrafts (same gap times and penalty costs) land in
+ * first come, first served order, removing the equivalent landing orders from the search space (default false).</li>
+ * <li><code>-diversity &lt;sampled pairs&gt;</code>: prints the population diversity of each generation.</li>
+ * <li><code>-metrics &lt;milliseconds&gt;</code>: measures the genetic algorithm (time spent in each phase, evaluations per second,
+ * infeasible and accepted reproduction sons, best cost of the last generations), prints the metrics of each period (if it isn't 0) and of the whole execution,
+ * and registers them as a JMX MBean (<code>br.ufrgs.inf.ga:type=GeneticAlgorithmMetrics</code>) while the algorithm runs.</li>
+ * <li><code>-seed &lt;seed&gt;</code>: seed of the initial population and of the generations (the same seed always creates the
+ * same population, and repeats the same run if the generations aren't cut by <code>-timelimit</code>).</li>
+ * <li><code>-initthreads &lt;threads&gt;</code>: threads creating the initial population (default: number of processors).</li>
+ * <li><code>-decompose &lt;threads&gt;</code>: splits the instance in independent clusters (by the time windows and gap times)
+ * and solves them in parallel, each one by its own genetic algorithm (or exactly, if it has up to 8 aircrafts).</li>
+ * <li><code>-annealing &lt;moves&gt;</code>: doesn't run the genetic algorithm, improves the best constructive schedule by
+ * simulated annealing (swap and insertion moves). The time limit (<code>-timelimit</code>) and the seed (<code>-seed</code>)
+ * apply to it too.</li>
+ * <li><code>-tabu &lt;tenure&gt;</code>: number of the last (aircraft, position) pairs removed by the annealing that can't be
+ * restored (default 0, no tabu list).</li>
+ * <li><code>-cps &lt;max shift&gt;</code>: doesn't run the genetic algorithm, finds the best schedule where no aircraft lands more than
+ * max shift positions away from its first come, first served position (constrained position shifting, up to 6 positions).
+ * It takes linear time in the number of aircrafts, for large instances.</li>
+ * <li><code>-exact &lt;threads&gt;</code>: doesn't run the genetic algorithm, finds an optimal schedule by branch and bound
+ * (for small and medium instances).</li>
+ * <li><code>-portfolio &lt;annealing,tabu,exact&gt;</code>: runs the genetic algorithm and the given engines concurrently, sharing the
+ * best schedule found so far, and prints the best schedule of all of them. It stops when the branch and bound (exact) proves a
+ * schedule optimal or when the time limit is reached. The tabu engine is an annealing with a tabu list (tenure given by
+ * <code>-tabu</code>, default 20).</li>
+ * <li><code>-nsga2 &lt;threads&gt;</code>: doesn't run the genetic algorithm, finds the trade-offs between the cost, the makespan and
+ * the number of aircrafts landing off their target times by a multi-objective genetic algorithm (NSGA-II), with the population size,
+ * mutation rate, max generations and seed of the genetic algorithm, and prints the Pareto front.</li>
+ * <li><code>-timelimit &lt;milliseconds&gt;</code>: max execution time of the branch and bound, of the annealing or of the portfolio.
+ * If it is reached by the branch and bound, the best schedule found so far is printed, but it is not proven optimal.</li>
+ * <li><code>-fast &lt;fast|all|edf|lookahead|tardiness|regret&gt;</code>: doesn't run the genetic algorithm, just builds a schedule
+ * by a constructive heuristic (fast: the best of the fast heuristics, all: the best of all heuristics).</li>
+ * </ul>
+ * </p>
+ *
  * @author diego
- * 
+ *
  */
 public class MainProgram {
 
+	/**
+	 * Number of mandatory parameters.
+	 */
+	static final int MANDATORY_PARAMETERS = 5;
+
+	/**
+	 * Names of the optional parameters.
+	 */
+	private static final List<String> OPTIONS = Arrays.asList("warmstart", "export", "target", "localsearch", "lsmoves", "neighbourhoods",
+															  "relinking", "relinkafter", "objective", "crossover", "mutation", "selection",
+															  "tournament", "pressure", "dedup", "precedence", "symmetry", "diversity", "metrics",
+															  "seed", "initthreads", "decompose", "annealing", "tabu", "cps", "exact", "portfolio",
+															  "nsga2", "timelimit", "fast");
+
+	/**
+	 * Number of individuals of the final population exported after the best one.
+	 */
+	private static final int EXPORTED_ELITE_SIZE = 10;
+
+	/**
+	 * Default number of local search moves evaluated per generation.
+	 */
+	private static final int DEFAULT_LOCAL_SEARCH_MOVES = 20000;
+
+	/**
+	 * Default number of individuals in each tournament.
+	 */
+	private static final int DEFAULT_TOURNAMENT_SIZE = 2;
+
+	/**
+	 * Default number of generations without improvement between two path relinking stages.
+	 */
+	private static final int DEFAULT_RELINKING_STAGNATION_GENERATIONS = 10;
+
+	/**
+	 * Min number of different positions between the landing sequences of the path relinking elite pool.
+	 */
+	private static final int RELINKING_MIN_DISTANCE = 2;
+
+	/**
+	 * Default tabu tenure of the tabu engine of the portfolio.
+	 */
+	private static final int DEFAULT_PORTFOLIO_TABU_TENURE = 20;
+
 	public static void main(String[] args) throws AlgorithmException {
-		if (args == null || args.length == 0 || args.length < 5) {
-			System.out.println("Usage: java "+ MainProgram.class.getName() + " <fileName.txt> <population max individuals> <reproduction rate> <mutation rate> <max generations>");
+		if (args == null || args.length == 0 || args.length < MANDATORY_PARAMETERS) {
+			System.out.println("Usage: java "+ MainProgram.class.getName() + " <fileName.txt> <population max individuals> <reproduction rate> <mutation rate> <max generations>" +
+							   " [-warmstart <solution file>] [-export <solution file>] [-target <cost>]" +
+							   " [-localsearch <elite size>] [-lsmoves <moves>] [-neighbourhoods <swap,insertion,2opt>]" +
+							   " [-relinking <elite pool size>] [-relinkafter <generations>]" +
+							   " [-objective <linear|makespan|delay|quadratic>] [-crossover <parent_copies|ox|pmx|erx>] [-mutation <shuffle|neighbour_swap|neighbour_insertion>]" +
+							   " [-selection <rank|tournament|sus>] [-tournament <size>] [-pressure <exponent>] [-dedup <true|false>] [-precedence <true|false>] [-symmetry <true|false>]" +
+							   " [-diversity <sampled pairs>] [-metrics <milliseconds>] [-seed <seed>] [-initthreads <threads>]" +
+							   " [-decompose <threads>] [-annealing <moves>] [-tabu <tenure>] [-cps <max shift>] [-exact <threads>] [-portfolio <annealing,tabu,exact>] [-nsga2 <threads>] [-timelimit <milliseconds>] [-fast <fast|all|edf|lookahead|tardiness|regret>]");
 		} else {
 			String fileName = args[0];
 			int maxIndividuals = Integer.parseInt(args[1]);
 			float reproductionRate = Float.parseFloat(args[2]);
 			float mutationRate = Float.parseFloat(args[3]);
 			int maxGenerations = Integer.parseInt(args[4]);
-			
+			Map<String, String> options = parseOptions(args);
+
 			try {
 				AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
-				PopulationConfig populationConfig = new PopulationConfig(maxIndividuals, reproductionRate, mutationRate);
+				if (options.containsKey("fast")) {
+					scheduleByConstructiveHeuristic(aircrafts, options.get("fast"));
+					return;
+				}
+				if (options.containsKey("annealing")) {
+					scheduleBySimulatedAnnealing(aircrafts, Long.parseLong(options.get("annealing")), options);
+					return;
+				}
+				if (options.containsKey("cps")) {
+					scheduleByConstrainedPositionShifting(aircrafts, Integer.parseInt(options.get("cps")), options);
+					return;
+				}
+				if (options.containsKey("exact")) {
+					scheduleByBranchAndBound(aircrafts, options);
+					return;
+				}
+				if (options.containsKey("nsga2")) {
+					scheduleByMultiObjectiveGeneticAlgorithm(aircrafts, maxIndividuals, mutationRate, maxGenerations, options);
+					return;
+				}
+				if (options.containsKey("objective") && parseObjectiveType(options.get("objective")) != ObjectiveType.LINEAR_COST &&
+					(options.containsKey("decompose") || options.containsKey("portfolio"))) {
+					throw new IllegalArgumentException("The decomposition and the portfolio only minimize the linear cost.");
+				}
+				boolean duplicateFree = Boolean.parseBoolean(options.get("dedup"));
+				PopulationConfig populationConfig = new PopulationConfig(maxIndividuals, reproductionRate, mutationRate, duplicateFree);
+				if (options.containsKey("decompose")) {
+					scheduleByDecomposition(aircrafts, populationConfig, maxGenerations, options);
+					return;
+				}
 				GeneticAlgorithm geneticAlgorithmScheduler = new GeneticAlgorithm(populationConfig, maxGenerations, aircrafts);
 
-				AirTrafficControl atc = new AirTrafficControl(geneticAlgorithmScheduler);
-				
-				System.out.println(atc.scheduleAircraftsLandings());
-				
+				if (options.containsKey("warmstart")) {
+					geneticAlgorithmScheduler.setWarmStartLandingSequences(SolutionFile.loadLandingSequencesFromFile(options.get("warmstart")));
+				}
+				if (options.containsKey("target")) {
+					geneticAlgorithmScheduler.setTargetFitnessValue(Integer.parseInt(options.get("target")));
+				}
+				configureGeneticAlgorithm(geneticAlgorithmScheduler, options);
+				boolean precedenceFiltering = geneticAlgorithmScheduler.getPrecedenceMatrix() != null;
+
+				if (options.containsKey("diversity")) {
+					geneticAlgorithmScheduler.enableDiversityTracking(Integer.parseInt(options.get("diversity")));
+					geneticAlgorithmScheduler.setGenerationListener(createDiversityPrinter(geneticAlgorithmScheduler));
+				}
+
+				GeneticAlgorithmMetrics metrics = null;
+				ScheduledExecutorService metricsReporter = null;
+				if (options.containsKey("metrics")) {
+					metrics = geneticAlgorithmScheduler.enableMetrics();
+					metricsReporter = startMetricsReporter(metrics, fileName, Long.parseLong(options.get("metrics")));
+				}
+
+				PortfolioScheduler portfolioScheduler = null;
+				AirTrafficControl atc;
+				if (options.containsKey("portfolio")) {
+					portfolioScheduler = createPortfolio(aircrafts, geneticAlgorithmScheduler, options);
+					atc = new AirTrafficControl(portfolioScheduler);
+				} else {
+					atc = new AirTrafficControl(geneticAlgorithmScheduler);
+				}
+
+				Solution solution = atc.scheduleAircraftsLandings();
+				if (metricsReporter != null) {
+					metricsReporter.shutdownNow();
+					unregisterMetrics(metrics);
+				}
+				System.out.println(solution);
+				if (portfolioScheduler != null && portfolioScheduler.getIncumbent() != null) {
+					System.out.println("Found by: " + portfolioScheduler.getIncumbent().getEngine());
+				}
+				if (geneticAlgorithmScheduler.getPathRelinkingOperator() != null) {
+					PathRelinkingOperator relinking = geneticAlgorithmScheduler.getPathRelinkingOperator();
+					System.out.println("Relinked paths: " + relinking.getRelinkedPathCount() + " (improving: " + relinking.getImprovingPathCount() +
+									   ", total cost reduction: " + relinking.getTotalImprovement() + ")");
+				}
+				if (precedenceFiltering) {
+					System.out.println("Landing orders rejected before evaluation: " + geneticAlgorithmScheduler.getPrecedenceMatrix().getRejectedOrderCount() +
+									   " (evaluations: " + geneticAlgorithmScheduler.getEvaluationCount() + ")");
+				}
+
+				if (metrics != null) {
+					System.out.println("Metrics: " + metrics.snapshot());
+				}
+
+				if (options.containsKey("export")) {
+					SolutionFile.exportSolutionToFile(solution, options.get("export"), EXPORTED_ELITE_SIZE);
+				}
+
 			} catch (IOException e) {
 				System.out.println("An I/O error occured. The input file may not be in the standard form.");
 			}
 		}
 	}
 
-	
+	/**
+	 * Applies the optional parameters of the genetic algorithm operators.
+	 *
+	 * @param geneticAlgorithm the genetic algorithm.
+	 * @param options optional parameters.
+	 */
+	static void configureGeneticAlgorithm(GeneticAlgorithm geneticAlgorithm, Map<String, String> options) {
+		if (options.containsKey("seed")) {
+			geneticAlgorithm.setInitializationSeed(Long.parseLong(options.get("seed")));
+		}
+		if (options.containsKey("initthreads")) {
+			geneticAlgorithm.setInitializationThreads(Integer.parseInt(options.get("initthreads")));
+		}
+		if (options.containsKey("objective")) {
+			geneticAlgorithm.setObjectiveType(parseObjectiveType(options.get("objective")));
+		}
+		if (options.containsKey("crossover")) {
+			geneticAlgorithm.setCrossoverType(CrossoverType.valueOf(options.get("crossover").toUpperCase()));
+		}
+		if (options.containsKey("mutation")) {
+			geneticAlgorithm.setMutationType(MutationType.valueOf(options.get("mutation").toUpperCase()));
+		}
+		if (options.containsKey("selection")) {
+			int tournamentSize = options.containsKey("tournament") ? Integer.parseInt(options.get("tournament")) : DEFAULT_TOURNAMENT_SIZE;
+			float pressure = options.containsKey("pressure") ? Float.parseFloat(options.get("pressure")) : 1;
+			geneticAlgorithm.setSelection(parseSelectionType(options.get("selection")), tournamentSize, pressure);
+		}
+		if (options.containsKey("localsearch")) {
+			int eliteSize = Integer.parseInt(options.get("localsearch"));
+			int moves = options.containsKey("lsmoves") ? Integer.parseInt(options.get("lsmoves")) : DEFAULT_LOCAL_SEARCH_MOVES;
+			String neighbourhoods = options.containsKey("neighbourhoods") ? options.get("neighbourhoods") : "swap,insertion,2opt";
+			geneticAlgorithm.enableLocalSearch(new VariableNeighbourhoodDescent(parseNeighbourhoods(neighbourhoods)),
+											   new LocalSearchConfig(eliteSize, moves));
+		}
+		if (options.containsKey("relinking")) {
+			int stagnationGenerations = options.containsKey("relinkafter") ? Integer.parseInt(options.get("relinkafter")) : DEFAULT_RELINKING_STAGNATION_GENERATIONS;
+			geneticAlgorithm.enablePathRelinking(new PathRelinkingConfig(Integer.parseInt(options.get("relinking")), RELINKING_MIN_DISTANCE,
+																		 stagnationGenerations));
+		}
+		if (Boolean.parseBoolean(options.get("precedence"))) {
+			geneticAlgorithm.enablePrecedenceFiltering();
+		}
+		if (Boolean.parseBoolean(options.get("symmetry"))) {
+			geneticAlgorithm.enableSymmetryBreaking();
+		}
+	}
+
+	/**
+	 * Creates a portfolio of the genetic algorithm and the engines given by the <code>-portfolio</code> option.
+	 *
+	 * @param aircrafts aircrafts data loaded from the input file.
+	 * @param geneticAlgorithm the configured genetic algorithm.
+	 * @param options optional parameters.
+	 */
+	private static PortfolioScheduler createPortfolio(AircraftStaticData[] aircrafts, GeneticAlgorithm geneticAlgorithm, Map<String, String> options) {
+		PortfolioScheduler portfolioScheduler = new PortfolioScheduler(aircrafts, geneticAlgorithm);
+		if (options.containsKey("timelimit")) {
+			portfolioScheduler.setTimeLimit(Long.parseLong(options.get("timelimit")));
+		}
+		for (String name : options.get("portfolio").split(",")) {
+			name = name.trim().toUpperCase();
+			if (name.equals("EXACT")) {
+				portfolioScheduler.addBranchAndBound(new BranchAndBound(aircrafts, 1));
+			} else if (name.equals("ANNEALING") || name.equals("TABU")) {
+				SimulatedAnnealing annealing = new SimulatedAnnealing(aircrafts);
+				if (options.containsKey("timelimit")) {
+					// the annealing runs until the time limit.
+					annealing.setMaxMoves(Long.MAX_VALUE);
+				}
+				if (name.equals("TABU")) {
+					annealing.setTabuTenure(options.containsKey("tabu") ? Integer.parseInt(options.get("tabu")) : DEFAULT_PORTFOLIO_TABU_TENURE);
+				}
+				if (options.containsKey("seed")) {
+					annealing.setSeed(Long.parseLong(options.get("seed")));
+				}
+				portfolioScheduler.addSimulatedAnnealing(annealing);
+			} else {
+				throw new IllegalArgumentException("Unknown portfolio engine: " + name);
+			}
+		}
+		return portfolioScheduler;
+	}
+
+	/**
+	 * Decomposition mode: solves the independent clusters of the instance in parallel, each one by its own
+	 * genetic algorithm (or exactly, if it is small), and prints the concatenated solution.
+	 *
+	 * @param aircrafts aircrafts data loaded from the input file.
+	 * @param populationConfig population configuration of the genetic algorithms.
+	 * @param maxGenerations max number of generations of the genetic algorithms.
+	 * @param options optional parameters.
+	 */
+	private static void scheduleByDecomposition(AircraftStaticData[] aircrafts, final PopulationConfig populationConfig, final int maxGenerations,
+												final Map<String, String> options) throws AlgorithmException, IOException {
+		long startTime = System.nanoTime();
+		DecomposedScheduler scheduler = new DecomposedScheduler(aircrafts, new GeneticAlgorithmFactory() {
+			@Override
+			public GeneticAlgorithm create(AircraftStaticData[] clusterAircrafts) {
+				GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(populationConfig, maxGenerations, clusterAircrafts);
+				// the clusters already run in parallel.
+				geneticAlgorithm.setInitializationThreads(1);
+				configureGeneticAlgorithm(geneticAlgorithm, options);
+				return geneticAlgorithm;
+			}
+		}, maxGenerations, Integer.parseInt(options.get("decompose")));
+		scheduler.execute();
+
+		InstanceDecomposition decomposition = scheduler.getDecomposition();
+		System.out.println("Clusters: " + decomposition.getClusterCount() + " (largest: " + decomposition.getMaxClusterSize() + " aircrafts)");
+		System.out.println("Tempo em seg: " + (System.nanoTime() - startTime) / 1e9f);
+		System.out.println(scheduler.getSolution());
+		if (options.containsKey("export")) {
+			SolutionFile.exportSolutionToFile(scheduler.getSolution(), options.get("export"), EXPORTED_ELITE_SIZE);
+		}
+	}
+
+	/**
+	 * Annealing mode: improves the best constructive schedule by simulated annealing, without the genetic algorithm, and prints it.
+	 *
+	 * @param aircrafts aircrafts data loaded from the input file.
+	 * @param maxMoves max number of evaluated moves.
+	 * @param options optional parameters.
+	 */
+	private static void scheduleBySimulatedAnnealing(AircraftStaticData[] aircrafts, long maxMoves, Map<String, String> options) throws IOException {
+		long startTime = System.nanoTime();
+		SimulatedAnnealing annealing = new SimulatedAnnealing(aircrafts);
+		annealing.setMaxMoves(maxMoves);
+		if (options.containsKey("timelimit")) {
+			annealing.setTimeLimit(Long.parseLong(options.get("timelimit")));
+		}
+		if (options.containsKey("tabu")) {
+			annealing.setTabuTenure(Integer.parseInt(options.get("tabu")));
+		}
+		if (options.containsKey("seed")) {
+			annealing.setSeed(Long.parseLong(options.get("seed")));
+		}
+		annealing.execute();
+
+		System.out.println("Evaluated moves: " + annealing.getEvaluatedMoves() + " (accepted: " + annealing.getAcceptedMoves() + ")");
+		System.out.println("Tempo em seg: " + (System.nanoTime() - startTime) / 1e9f);
+		System.out.println(annealing.getSolution());
+		if (options.containsKey("export")) {
+			SolutionFile.exportSolutionToFile(annealing.getSolution(), options.get("export"), EXPORTED_ELITE_SIZE);
+		}
+	}
+
+	/**
+	 * Constrained position shifting mode: finds the best landing schedule where each aircraft is shifted at most a few
+	 * positions from the first come, first served order, without the genetic algorithm, and prints it.
+	 *
+	 * @param aircrafts aircrafts data loaded from the input file.
+	 * @param maxShift max number of positions that an aircraft may be shifted.
+	 * @param options optional parameters.
+	 */
+	private static void scheduleByConstrainedPositionShifting(AircraftStaticData[] aircrafts, int maxShift, Map<String, String> options) throws IOException {
+		long startTime = System.nanoTime();
+		ConstrainedPositionShifting scheduler = new ConstrainedPositionShifting(aircrafts, maxShift);
+		scheduler.execute();
+
+		System.out.println("Reached states: " + scheduler.getReachedStateCount());
+		System.out.println("Tempo em seg: " + (System.nanoTime() - startTime) / 1e9f);
+		System.out.println(scheduler.getSolution());
+		if (options.containsKey("export")) {
+			SolutionFile.exportSolutionToFile(scheduler.getSolution(), options.get("export"), EXPORTED_ELITE_SIZE);
+		}
+	}
+
+	/**
+	 * Exact mode: finds an optimal landing schedule by branch and bound, without the genetic algorithm, and prints it.
+	 *
+	 * @param aircrafts aircrafts data loaded from the input file.
+	 * @param options optional parameters.
+	 */
+	private static void scheduleByBranchAndBound(AircraftStaticData[] aircrafts, Map<String, String> options) throws AlgorithmException, IOException {
+		long startTime = System.nanoTime();
+		BranchAndBound branchAndBound = new BranchAndBound(aircrafts, Integer.parseInt(options.get("exact")));
+		if (options.containsKey("timelimit")) {
+			branchAndBound.setTimeLimit(Long.parseLong(options.get("timelimit")));
+		}
+		branchAndBound.execute();
+
+		System.out.println("Explored nodes: " + branchAndBound.getExploredNodeCount());
+		System.out.println("Tempo em seg: " + (System.nanoTime() - startTime) / 1e9f);
+		System.out.println(branchAndBound.getSolution());
+		if (options.containsKey("export")) {
+			SolutionFile.exportSolutionToFile(branchAndBound.getSolution(), options.get("export"), EXPORTED_ELITE_SIZE);
+		}
+	}
+
+	/**
+	 * Multi-objective mode: finds the trade-offs between cost, makespan and off target landings by NSGA-II, and prints the Pareto front.
+	 *
+	 * @param aircrafts aircrafts data loaded from the input file.
+	 * @param populationSize number of parents of each generation.
+	 * @param mutationRate probability of a son to be mutated.
+	 * @param maxGenerations number of generations.
+	 * @param options optional parameters.
+	 */
+	private static void scheduleByMultiObjectiveGeneticAlgorithm(AircraftStaticData[] aircrafts, int populationSize, float mutationRate, int maxGenerations,
+																 Map<String, String> options) throws AlgorithmException, IOException {
+		long startTime = System.nanoTime();
+		MultiObjectiveGeneticAlgorithm algorithm = new MultiObjectiveGeneticAlgorithm(aircrafts, populationSize, maxGenerations, mutationRate);
+		algorithm.setThreads(Integer.parseInt(options.get("nsga2")));
+		if (options.containsKey("seed")) {
+			algorithm.setSeed(Long.parseLong(options.get("seed")));
+		}
+		algorithm.execute();
+
+		System.out.println("Tempo em seg: " + (System.nanoTime() - startTime) / 1e9f);
+		System.out.println(algorithm.getSolution());
+		if (options.containsKey("export")) {
+			SolutionFile.exportSolutionToFile(algorithm.getSolution(), options.get("export"), EXPORTED_ELITE_SIZE);
+		}
+	}
+
+	/**
+	 * Fast mode: builds a landing schedule by constructive heuristics, without the genetic algorithm, and prints it.
+	 *
+	 * @param aircrafts aircrafts data loaded from the input file.
+	 * @param heuristicName fast (best of the fast heuristics), all (best of all heuristics) or a heuristic name.
+	 */
+	private static void scheduleByConstructiveHeuristic(AircraftStaticData[] aircrafts, String heuristicName) {
+		long startTime = System.nanoTime();
+		AtcInstance instance = new AtcInstance(aircrafts);
+		ConstructiveScheduler scheduler = new ConstructiveScheduler(instance);
+		int[] aircraftIds = new int[aircrafts.length];
+		int[] landingTimes = new int[aircrafts.length];
+
+		ConstructiveHeuristic heuristic;
+		heuristicName = heuristicName.trim().toUpperCase();
+		if (heuristicName.equals("FAST") || heuristicName.equals("ALL")) {
+			heuristic = scheduler.createBestSchedule(heuristicName.equals("FAST"), aircraftIds, landingTimes);
+		} else {
+			heuristic = parseConstructiveHeuristic(heuristicName);
+			System.arraycopy(scheduler.createLandingOrder(heuristic), 0, aircraftIds, 0, aircraftIds.length);
+			scheduler.schedule(aircraftIds, landingTimes);
+		}
+		Aircraft[] landingSequence = instance.createLandingSequence(aircraftIds, landingTimes);
+		int cost = new FitnessEvaluator().evaluate(landingSequence);
+		long executionTime = System.nanoTime() - startTime;
+
+		System.out.println("Heuristic: " + heuristic + " (" + executionTime / 1000 + " us)");
+		System.out.println("\nSolution cost: " + (cost == Integer.MAX_VALUE ? "infeasible" : String.valueOf(cost)) +
+						   "\nLanding sequence: " + Arrays.toString(landingSequence));
+	}
+
+	/**
+	 * Reads a constructive heuristic name (edf, lookahead, tardiness or regret).
+	 */
+	private static ConstructiveHeuristic parseConstructiveHeuristic(String name) {
+		if (name.equals("EDF")) {
+			return ConstructiveHeuristic.EARLIEST_DEADLINE_FIRST;
+		} else if (name.equals("LOOKAHEAD")) {
+			return ConstructiveHeuristic.TARGET_TIME_LOOK_AHEAD;
+		} else if (name.equals("TARDINESS")) {
+			return ConstructiveHeuristic.WEIGHTED_TARDINESS;
+		} else if (name.equals("REGRET")) {
+			return ConstructiveHeuristic.REGRET_INSERTION;
+		}
+		return ConstructiveHeuristic.valueOf(name);
+	}
+
+	/**
+	 * Registers the metrics MBean and, if the period isn't 0, prints the metrics of each period.
+	 *
+	 * @return the executor printing the metrics, to be shut down at the end of the execution.
+	 */
+	private static ScheduledExecutorService startMetricsReporter(GeneticAlgorithmMetrics metrics, String name, long period) {
+		try {
+			metrics.registerMBean(name);
+		} catch (JMException e) {
+			System.out.println("The metrics couldn't be registered by JMX: " + e.getMessage());
+		}
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "atc-metrics");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		if (period > 0) {
+			metrics.scheduleSnapshots(executor, period, new GeneticAlgorithmMetrics.SnapshotListener() {
+				@Override
+				public void snapshotTaken(GeneticAlgorithmMetrics.Snapshot interval, GeneticAlgorithmMetrics.Snapshot total) {
+					System.out.println("Metrics of the last period: " + interval);
+				}
+			});
+		}
+		return executor;
+	}
+
+	private static void unregisterMetrics(GeneticAlgorithmMetrics metrics) {
+		try {
+			metrics.unregisterMBean();
+		} catch (JMException e) {
+			System.out.println("The metrics couldn't be unregistered from JMX: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Creates a listener that prints the best cost and the population diversity of each generation.
+	 */
+	private static GenerationListener createDiversityPrinter(final GeneticAlgorithm geneticAlgorithm) {
+		return new GenerationListener() {
+			@Override
+			public void generationEvaluated(int generation, Individual bestIndividual) {
+				PopulationDiversity diversity = geneticAlgorithm.getPopulationDiversity();
+				System.out.println(String.format("generation %d cost %d position entropy %.3f kendall distance %.3f",
+												 generation, bestIndividual.getFitnessValue(), diversity.getPositionEntropy(), diversity.getKendallDistance()));
+			}
+		};
+	}
+
+	/**
+	 * Reads an objective function name (linear, makespan, delay or quadratic).
+	 */
+	private static ObjectiveType parseObjectiveType(String name) {
+		name = name.trim().toUpperCase();
+		if (name.equals("LINEAR")) {
+			return ObjectiveType.LINEAR_COST;
+		} else if (name.equals("DELAY")) {
+			return ObjectiveType.WEIGHTED_DELAY;
+		} else if (name.equals("QUADRATIC")) {
+			return ObjectiveType.QUADRATIC_DELAY;
+		}
+		return ObjectiveType.valueOf(name);
+	}
+
+	/**
+	 * Reads a selection method name (rank, tournament or sus).
+	 */
+	private static SelectionType parseSelectionType(String name) {
+		name = name.trim().toUpperCase();
+		if (name.equals("RANK")) {
+			return SelectionType.RANK_PAIRS;
+		} else if (name.equals("SUS")) {
+			return SelectionType.STOCHASTIC_UNIVERSAL_SAMPLING;
+		}
+		return SelectionType.valueOf(name);
+	}
+
+	/**
+	 * Reads a comma separated list of neighbourhood names (swap, insertion or 2opt).
+	 */
+	private static Neighbourhood[] parseNeighbourhoods(String names) {
+		String[] splitNames = names.split(",");
+		Neighbourhood[] neighbourhoods = new Neighbourhood[splitNames.length];
+		for (int i = 0; i < splitNames.length; i++) {
+			String name = splitNames[i].trim().toUpperCase();
+			neighbourhoods[i] = name.equals("2OPT") ? Neighbourhood.TWO_OPT : Neighbourhood.valueOf(name);
+		}
+		return neighbourhoods;
+	}
+
+	/**
+	 * Reads the optional <code>-name value</code> parameters given after the mandatory ones.
+	 *
+	 * @param args program arguments.
+	 * @return map from option name (without the leading '-') to its value.
+	 * @throws IllegalArgumentException if an option is unknown or has no value.
+	 */
+	static Map<String, String> parseOptions(String[] args) {
+		Map<String, String> options = new HashMap<String, String>();
+		for (int i = MANDATORY_PARAMETERS; i < args.length; i += 2) {
+			String name = args[i].startsWith("-") ? args[i].substring(1) : args[i];
+			if (!OPTIONS.contains(name)) {
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value of the option " + args[i]);
+			}
+			options.put(name, args[i + 1]);
+		}
+		return options;
+	}
 }
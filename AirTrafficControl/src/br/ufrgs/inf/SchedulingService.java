@@ -0,0 +1,578 @@
+package br.ufrgs.inf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.BranchAndBound;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.SharedIncumbent;
+import br.ufrgs.inf.ga.SimulatedAnnealing;
+import br.ufrgs.inf.ga.exceptions.AlgorithmException;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.Solution;
+import br.ufrgs.inf.ga.utils.JsonHelper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Resident scheduling service: solves ATC instances sent over a local HTTP endpoint, keeping the instances loaded and the
+ * JIT warm between the requests.
+ *
+ * <p>
+ * Endpoints (the responses are JSON objects):
+ * <ul>
+ * <li><code>PUT /instances/&lt;name&gt;</code>: loads an instance (the body is the text of an input file) and keeps it.</li>
+ * <li><code>DELETE /instances/&lt;name&gt;</code>: forgets an instance.</li>
+ * <li><code>POST /solve?instance=&lt;name&gt;&amp;...</code>: solves a loaded instance, or the instance in the body (which is
+ * kept, if it is named), and answers the best schedule found with its timing (queue, solve and total milliseconds).</li>
+ * <li><code>DELETE /jobs/&lt;id&gt;</code>: cancels a solve request: a queued request is answered with 409, a running one
+ * stops and answers the best schedule found so far.</li>
+ * <li><code>GET /status</code>: workers, running and queued requests, and counters.</li>
+ * </ul>
+ * The solve parameters are <code>engine</code> (ga, annealing or exact; default ga), <code>timelimit</code> (milliseconds,
+ * at most the max time limit of the service), <code>id</code> (job id, used to cancel it), the genetic algorithm
+ * parameters <code>population</code>, <code>reproduction</code>, <code>mutation</code> and <code>generations</code>, the
+ * genetic algorithm options of {@link MainProgram} (crossover, mutation type, seed, ...), and the annealing parameters
+ * <code>moves</code>, <code>tabu</code> and <code>seed</code>.
+ * </p>
+ *
+ * <p>
+ * Each request is solved by a single thread of a bounded pool of workers (one per processor by default), and at most
+ * <code>queueCapacity</code> requests wait for a worker: the others are rejected at once with 503 (and a
+ * <code>Retry-After</code> header), so an overloaded service answers fast instead of piling up work. The HTTP threads only
+ * parse the requests and wait for the workers. Each request has a deadline: it is answered with 504 if it is still queued
+ * then, and its engine (through a {@link SharedIncumbent}) stops and answers the best schedule found so far if it is running.
+ * </p>
+ *
+ * Usage: java br.ufrgs.inf.SchedulingService [port] [workers] [queue capacity] [max time limit in milliseconds]
+ *
+ * @author diego
+ *
+ */
+public class SchedulingService {
+
+	private static final int DEFAULT_PORT = 8080;
+
+	private static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+	private static final long DEFAULT_MAX_TIME_LIMIT = 60000;
+
+	/**
+	 * HTTP threads beyond the ones waiting for the running and queued requests (status, cancellations and rejections).
+	 */
+	private static final int CONTROL_THREADS = 4;
+
+	/**
+	 * Default genetic algorithm parameters (the ones of the small instances experiments).
+	 */
+	private static final int DEFAULT_POPULATION = 500;
+
+	private static final float DEFAULT_REPRODUCTION_RATE = 0.3f;
+
+	private static final float DEFAULT_MUTATION_RATE = 0.1f;
+
+	private static final int DEFAULT_GENERATIONS = 300;
+
+	private static final long DEFAULT_ANNEALING_MOVES = 1000000;
+
+	/**
+	 * Seconds suggested to the clients of rejected requests.
+	 */
+	private static final int RETRY_AFTER = 1;
+
+	/**
+	 * Genetic algorithm options that run their own thread pools, beyond the bounded workers.
+	 */
+	private static final List<String> UNSUPPORTED_OPTIONS = Arrays.asList("localsearch", "relinking", "initthreads");
+
+	private static final int QUEUED = 0;
+
+	private static final int RUNNING = 1;
+
+	private static final int CANCELLED = 2;
+
+	private final int port;
+
+	private final int workers;
+
+	private final int queueCapacity;
+
+	private final long maxTimeLimit;
+
+	private final Map<String, AircraftStaticData[]> instances = new ConcurrentHashMap<String, AircraftStaticData[]>();
+
+	/**
+	 * Queued and running requests, by job id.
+	 */
+	private final Map<String, Job> jobs = new ConcurrentHashMap<String, Job>();
+
+	private final AtomicLong jobIds = new AtomicLong();
+
+	private final LongAdder completedRequests = new LongAdder();
+
+	private final LongAdder rejectedRequests = new LongAdder();
+
+	private ThreadPoolExecutor solvers;
+
+	private ExecutorService httpThreads;
+
+	private HttpServer server;
+
+	/**
+	 * @param port local port of the HTTP endpoint (0 chooses a free port).
+	 * @param workers number of requests solved at the same time.
+	 * @param queueCapacity max number of requests waiting for a worker.
+	 * @param maxTimeLimit max time (in milliseconds) of a request, from its arrival, and its default time limit.
+	 */
+	public SchedulingService(int port, int workers, int queueCapacity, long maxTimeLimit) {
+		this.port = port;
+		this.workers = workers;
+		this.queueCapacity = queueCapacity;
+		this.maxTimeLimit = maxTimeLimit;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int queueCapacity = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_QUEUE_CAPACITY;
+		long maxTimeLimit = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_MAX_TIME_LIMIT;
+		SchedulingService service = new SchedulingService(port, workers, queueCapacity, maxTimeLimit);
+		service.start();
+		System.out.println("Scheduling service listening on port " + service.getPort() + " (" + workers + " workers, queue capacity " + queueCapacity + ")");
+	}
+
+	/**
+	 * Starts the workers and the HTTP endpoint (bound to the loopback address).
+	 *
+	 * @throws IOException thrown if the port can't be bound.
+	 */
+	public void start() throws IOException {
+		solvers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity),
+										 createThreadFactory("atc-solver"));
+		httpThreads = Executors.newFixedThreadPool(workers + queueCapacity + CONTROL_THREADS, createThreadFactory("atc-http"));
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.setExecutor(httpThreads);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					Response response;
+					try {
+						response = dispatch(exchange);
+					} catch (IllegalArgumentException e) {
+						// includes the number format errors of the parameters and of the instance text.
+						response = error(400, "Invalid request: " + e.getMessage());
+					} catch (ArrayIndexOutOfBoundsException e) {
+						response = error(400, "Invalid instance.");
+					} catch (RuntimeException e) {
+						// any other failure still gets a JSON answer, instead of a closed connection.
+						response = error(500, "Internal error: " + e);
+					}
+					send(exchange, response);
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+		server.start();
+	}
+
+	/**
+	 * Stops the endpoint and the workers: the running requests stop at their next check of the shared incumbent.
+	 */
+	public void stop() {
+		server.stop(0);
+		for (Job job : jobs.values()) {
+			job.incumbent.stop();
+		}
+		solvers.shutdownNow();
+		httpThreads.shutdownNow();
+	}
+
+	/**
+	 * @return the local port of the HTTP endpoint.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	private Response dispatch(HttpExchange exchange) throws IOException {
+		String method = exchange.getRequestMethod();
+		String path = exchange.getRequestURI().getPath();
+		if (path.equals("/solve") && method.equals("POST")) {
+			return solve(parseQuery(exchange.getRequestURI().getRawQuery()), readBody(exchange));
+		}
+		if (path.equals("/status") && method.equals("GET")) {
+			return status();
+		}
+		if (path.startsWith("/instances/") && path.length() > "/instances/".length()) {
+			String name = path.substring("/instances/".length());
+			if (method.equals("PUT")) {
+				AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromText(readBody(exchange));
+				instances.put(name, aircrafts);
+				return new Response(201, "{\"instance\":" + JsonHelper.quote(name) + ",\"aircrafts\":" + aircrafts.length + "}");
+			}
+			if (method.equals("DELETE")) {
+				return instances.remove(name) != null ? new Response(200, "{\"instance\":" + JsonHelper.quote(name) + "}") : error(404, "Unknown instance: " + name);
+			}
+		}
+		if (path.startsWith("/jobs/") && method.equals("DELETE")) {
+			return cancel(path.substring("/jobs/".length()));
+		}
+		return error(404, "Unknown endpoint: " + method + " " + path);
+	}
+
+	/**
+	 * Admits a solve request (or rejects it, if the queue is full) and waits for its answer.
+	 */
+	private Response solve(Map<String, String> parameters, String body) {
+		long arrivalTime = System.nanoTime();
+		String instanceName = parameters.get("instance");
+		AircraftStaticData[] aircrafts;
+		if (!body.trim().isEmpty()) {
+			aircrafts = AtcLoader.createATCInstanceFromText(body);
+			if (instanceName != null) {
+				instances.put(instanceName, aircrafts);
+			}
+		} else if (instanceName == null) {
+			return error(400, "No instance given.");
+		} else {
+			aircrafts = instances.get(instanceName);
+			if (aircrafts == null) {
+				return error(404, "Unknown instance: " + instanceName);
+			}
+		}
+		long timeLimit = parameters.containsKey("timelimit") ? Math.min(Long.parseLong(parameters.get("timelimit")), maxTimeLimit) : maxTimeLimit;
+		String id = parameters.containsKey("id") ? parameters.get("id") : "job-" + jobIds.incrementAndGet();
+
+		// the engine is created (and its parameters validated) before the request is admitted.
+		Job job = new Job(id, instanceName, aircrafts, parameters, System.currentTimeMillis() + timeLimit, arrivalTime);
+		if (jobs.putIfAbsent(id, job) != null) {
+			return error(409, "Job id in use: " + id);
+		}
+		try {
+			solvers.execute(job.future);
+		} catch (RejectedExecutionException e) {
+			jobs.remove(id);
+			rejectedRequests.increment();
+			Response response = error(503, "Too many requests: " + queueCapacity + " requests are waiting for the workers.");
+			response.retryAfter = true;
+			return response;
+		}
+
+		try {
+			try {
+				return job.future.get(Math.max(0, job.deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				if (job.state.compareAndSet(QUEUED, CANCELLED)) {
+					solvers.remove(job.future);
+					job.future.cancel(false);
+					return error(504, "The deadline was reached before a worker was free.");
+				}
+				// running: the engine stops at the deadline, with the best schedule found so far.
+				return job.future.get();
+			}
+		} catch (CancellationException e) {
+			return error(409, "The job " + id + " was cancelled before it started.");
+		} catch (ExecutionException e) {
+			return error(500, "The solver has failed: " + e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return error(503, "The service is stopping.");
+		} finally {
+			jobs.remove(id);
+		}
+	}
+
+	/**
+	 * Cancels a queued request (it is answered with 409) or stops a running one (it answers its best schedule so far).
+	 */
+	private Response cancel(String id) {
+		Job job = jobs.get(id);
+		if (job == null) {
+			return error(404, "Unknown job: " + id);
+		}
+		job.cancelled = true;
+		if (job.state.compareAndSet(QUEUED, CANCELLED)) {
+			solvers.remove(job.future);
+			job.future.cancel(false);
+		} else {
+			job.incumbent.stop();
+		}
+		return new Response(200, "{\"id\":" + JsonHelper.quote(id) + ",\"cancelled\":true}");
+	}
+
+	private Response status() {
+		StringBuilder names = new StringBuilder();
+		for (String name : instances.keySet()) {
+			names.append(names.length() > 0 ? "," : "").append(JsonHelper.quote(name));
+		}
+		return new Response(200, "{\"workers\":" + workers + ",\"running\":" + solvers.getActiveCount() + ",\"queued\":" + solvers.getQueue().size() +
+							",\"queue_capacity\":" + queueCapacity + ",\"completed\":" + completedRequests.sum() + ",\"rejected\":" + rejectedRequests.sum() +
+							",\"instances\":[" + names + "]}");
+	}
+
+	/**
+	 * A solve request.
+	 */
+	private class Job implements Callable<Response> {
+
+		final String id;
+
+		final String instanceName;
+
+		final AircraftStaticData[] aircrafts;
+
+		final Map<String, String> parameters;
+
+		/**
+		 * Time (in milliseconds, as {@link System#currentTimeMillis()}) when the request must be answered.
+		 */
+		final long deadline;
+
+		final long arrivalTime;
+
+		/**
+		 * Stops the engine at the deadline or when the request is cancelled.
+		 */
+		final SharedIncumbent incumbent;
+
+		/**
+		 * Genetic algorithm, simulated annealing or branch and bound.
+		 */
+		final Object engine;
+
+		final AtomicInteger state = new AtomicInteger(QUEUED);
+
+		volatile boolean cancelled;
+
+		/**
+		 * Task executed by a worker. It is created with the job, so it exists before the job can be found by a cancellation.
+		 */
+		final FutureTask<Response> future;
+
+		Job(String id, String instanceName, AircraftStaticData[] aircrafts, Map<String, String> parameters, long deadline, long arrivalTime) {
+			this.id = id;
+			this.instanceName = instanceName;
+			this.aircrafts = aircrafts;
+			this.parameters = parameters;
+			this.deadline = deadline;
+			this.arrivalTime = arrivalTime;
+			this.incumbent = new SharedIncumbent(deadline);
+			this.engine = createEngine();
+			this.future = new FutureTask<Response>(this);
+		}
+
+		@Override
+		public Response call() throws AlgorithmException {
+			if (!state.compareAndSet(QUEUED, RUNNING)) {
+				return error(409, "The job " + id + " was cancelled before it started.");
+			}
+			long startTime = System.nanoTime();
+			Solution solution;
+			if (engine instanceof GeneticAlgorithm) {
+				GeneticAlgorithm geneticAlgorithm = (GeneticAlgorithm) engine;
+				geneticAlgorithm.execute();
+				solution = geneticAlgorithm.getSolution();
+			} else if (engine instanceof SimulatedAnnealing) {
+				SimulatedAnnealing annealing = (SimulatedAnnealing) engine;
+				annealing.setTimeLimit(Math.max(1, deadline - System.currentTimeMillis()));
+				annealing.execute();
+				solution = annealing.getSolution();
+			} else {
+				BranchAndBound branchAndBound = (BranchAndBound) engine;
+				branchAndBound.setTimeLimit(Math.max(1, deadline - System.currentTimeMillis()));
+				branchAndBound.execute();
+				solution = branchAndBound.getSolution();
+			}
+			long endTime = System.nanoTime();
+			completedRequests.increment();
+			return new Response(200, toJson(solution, startTime, endTime));
+		}
+
+		private String engineName() {
+			return parameters.containsKey("engine") ? parameters.get("engine").trim().toLowerCase() : "ga";
+		}
+
+		/**
+		 * Creates and configures the engine of the request (single threaded, stopped by the shared incumbent).
+		 */
+		private Object createEngine() {
+			String engine = engineName();
+			if (engine.equals("ga")) {
+				for (String option : UNSUPPORTED_OPTIONS) {
+					if (parameters.containsKey(option)) {
+						throw new IllegalArgumentException("The option " + option + " is not supported by the service.");
+					}
+				}
+				PopulationConfig populationConfig = new PopulationConfig(getInt("population", DEFAULT_POPULATION),
+						getFloat("reproduction", DEFAULT_REPRODUCTION_RATE), getFloat("mutation", DEFAULT_MUTATION_RATE),
+						Boolean.parseBoolean(parameters.get("dedup")));
+				GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(populationConfig, getInt("generations", DEFAULT_GENERATIONS), aircrafts);
+				Map<String, String> options = new HashMap<String, String>(parameters);
+				// "mutation" is the mutation rate here, and the mutation type is "mutationtype".
+				options.remove("mutation");
+				if (parameters.containsKey("mutationtype")) {
+					options.put("mutation", parameters.get("mutationtype"));
+				}
+				MainProgram.configureGeneticAlgorithm(geneticAlgorithm, options);
+				if (parameters.containsKey("target")) {
+					geneticAlgorithm.setTargetFitnessValue(Integer.parseInt(parameters.get("target")));
+				}
+				geneticAlgorithm.setInitializationThreads(1);
+				geneticAlgorithm.setIncumbent(incumbent);
+				return geneticAlgorithm;
+			} else if (engine.equals("annealing")) {
+				SimulatedAnnealing annealing = new SimulatedAnnealing(aircrafts);
+				annealing.setMaxMoves(parameters.containsKey("moves") ? Long.parseLong(parameters.get("moves")) : DEFAULT_ANNEALING_MOVES);
+				annealing.setTabuTenure(getInt("tabu", 0));
+				if (parameters.containsKey("seed")) {
+					annealing.setSeed(Long.parseLong(parameters.get("seed")));
+				}
+				annealing.setIncumbent(incumbent);
+				return annealing;
+			} else if (engine.equals("exact")) {
+				BranchAndBound branchAndBound = new BranchAndBound(aircrafts, 1);
+				branchAndBound.setIncumbent(incumbent);
+				return branchAndBound;
+			}
+			throw new IllegalArgumentException("Unknown engine: " + engine);
+		}
+
+		private int getInt(String name, int defaultValue) {
+			return parameters.containsKey(name) ? Integer.parseInt(parameters.get(name)) : defaultValue;
+		}
+
+		private float getFloat(String name, float defaultValue) {
+			return parameters.containsKey(name) ? Float.parseFloat(parameters.get(name)) : defaultValue;
+		}
+
+		private String toJson(Solution solution, long startTime, long endTime) {
+			int cost = solution.getBestIndividualFound().getFitnessValue();
+			StringBuilder json = new StringBuilder();
+			json.append("{\"id\":").append(JsonHelper.quote(id));
+			json.append(",\"instance\":").append(instanceName != null ? JsonHelper.quote(instanceName) : "null");
+			json.append(",\"engine\":").append(JsonHelper.quote(engineName()));
+			json.append(",\"cost\":").append(cost != Integer.MAX_VALUE ? String.valueOf(cost) : "null");
+			json.append(",\"feasible\":").append(cost != Integer.MAX_VALUE);
+			json.append(",\"proven_optimal\":").append(solution.isProvenOptimal());
+			json.append(",\"cancelled\":").append(cancelled);
+			json.append(",\"deadline_reached\":").append(!cancelled && System.currentTimeMillis() >= deadline);
+			json.append(",\"generations\":").append(solution.getGenerationCount());
+			json.append(",\"landing_sequence\":[");
+			Aircraft[] landingSequence = solution.getBestIndividualFound().getAircraftLandingSequence();
+			for (int i = 0; i < landingSequence.length; i++) {
+				json.append(i > 0 ? "," : "").append("{\"aircraft\":").append(landingSequence[i].getId())
+					.append(",\"time\":").append(landingSequence[i].getLandingTime()).append('}');
+			}
+			json.append(']');
+			json.append(String.format(Locale.US, ",\"queue_ms\":%.3f,\"solve_ms\":%.3f,\"total_ms\":%.3f}",
+									  (startTime - arrivalTime) / 1e6, (endTime - startTime) / 1e6, (endTime - arrivalTime) / 1e6));
+			return json.toString();
+		}
+	}
+
+	/**
+	 * HTTP status and JSON body of an answer.
+	 */
+	private static class Response {
+
+		final int status;
+
+		final String body;
+
+		boolean retryAfter;
+
+		Response(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+
+	private static Response error(int status, String message) {
+		return new Response(status, "{\"error\":" + JsonHelper.quote(message) + "}");
+	}
+
+	private static void send(HttpExchange exchange, Response response) throws IOException {
+		byte[] body = response.body.getBytes("UTF-8");
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		if (response.retryAfter) {
+			exchange.getResponseHeaders().set("Retry-After", String.valueOf(RETRY_AFTER));
+		}
+		exchange.sendResponseHeaders(response.status, body.length);
+		OutputStream output = exchange.getResponseBody();
+		output.write(body);
+		output.close();
+	}
+
+	private static String readBody(HttpExchange exchange) throws IOException {
+		InputStream input = exchange.getRequestBody();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = input.read(buffer)) > 0) {
+			bytes.write(buffer, 0, read);
+		}
+		return bytes.toString("UTF-8");
+	}
+
+	/**
+	 * Reads the <code>name=value</code> pairs of a query string.
+	 */
+	private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+		Map<String, String> parameters = new HashMap<String, String>();
+		if (query == null) {
+			return parameters;
+		}
+		for (String pair : query.split("&")) {
+			int separator = pair.indexOf('=');
+			if (separator > 0) {
+				parameters.put(URLDecoder.decode(pair.substring(0, separator), "UTF-8").toLowerCase(), URLDecoder.decode(pair.substring(separator + 1), "UTF-8"));
+			}
+		}
+		return parameters;
+	}
+
+	private static ThreadFactory createThreadFactory(final String name) {
+		return new ThreadFactory() {
+			private final AtomicInteger threads = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, name + "-" + threads.incrementAndGet());
+			}
+		};
+	}
+}
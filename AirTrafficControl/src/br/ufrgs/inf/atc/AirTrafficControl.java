@@ -2,6 +2,7 @@ package br.ufrgs.inf.atc;
 
 import br.ufrgs.inf.atc.model.AircraftStaticData;
 import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.PortfolioScheduler;
 import br.ufrgs.inf.ga.exceptions.AlgorithmException;
 import br.ufrgs.inf.ga.model.PopulationConfig;
 import br.ufrgs.inf.ga.model.Solution;
@@ -19,6 +20,11 @@ public class AirTrafficControl {
 	 * 
 	 */
 	private GeneticAlgorithm geneticAlgorithm;
+	
+	/**
+	 * Runs the genetic algorithm together with other engines. If null, the genetic algorithm runs alone.
+	 */
+	private PortfolioScheduler portfolioScheduler;
 
 	/**
 	 * Constructs the Air traffic control core.
@@ -28,22 +34,35 @@ public class AirTrafficControl {
 	public AirTrafficControl(GeneticAlgorithm geneticAlgorithm) {
 		this.geneticAlgorithm = geneticAlgorithm;
 	}
+	
+	/**
+	 * Constructs the Air traffic control core with a portfolio of engines running concurrently.
+	 * 
+	 * @param portfolioScheduler
+	 */
+	public AirTrafficControl(PortfolioScheduler portfolioScheduler) {
+		this.portfolioScheduler = portfolioScheduler;
+	}
 
 	/**
 	 * Generate a landing schedule based on the aircrafts data using a genetic
-	 * algorithm.
+	 * algorithm (or the best schedule of all the engines of the portfolio, in the time of one).
 	 * @throws AlgorithmException 
 	 */
 	public Solution scheduleAircraftsLandings() throws AlgorithmException {
 		
 		
 		long startTime = System.currentTimeMillis();
-		geneticAlgorithm.execute();
+		if (portfolioScheduler != null) {
+			portfolioScheduler.execute();
+		} else {
+			geneticAlgorithm.execute();
+		}
 		long endTime = System.currentTimeMillis();
 		float executionTime = (endTime - startTime) * 0.001f;
 		
 		System.out.println("Tempo em seg: " + executionTime);
 	
-		return geneticAlgorithm.getSolution();
+		return portfolioScheduler != null ? portfolioScheduler.getSolution() : geneticAlgorithm.getSolution();
 	}
 }
@@ -2,6 +2,8 @@ package br.ufrgs.inf.atc;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import br.ufrgs.inf.atc.model.Aircraft;
@@ -32,8 +34,20 @@ public class AtcLoader {
 		textFromFile = textFromFile.replace("  ", " ");
 
 		textFromFile = textFromFile.substring(1, textFromFile.length() - 1);
-		String[] atcInstanceParameters = textFromFile.split(" ");
+		return createATCInstance(textFromFile.split(" "));
+	}
+
+	/**
+	 * Creates the ATC instance from the text of an input file (the parameters may be separated by any white space).
+	 * 
+	 * @param text
+	 *            text in the input file format.
+	 */
+	public static AircraftStaticData[] createATCInstanceFromText(String text) {
+		return createATCInstance(text.trim().split("\\s+"));
+	}
 
+	private static AircraftStaticData[] createATCInstance(String[] atcInstanceParameters) {
 		// number of aircrafts in the ATC problem instance.
 		int aircraftCount = Integer.valueOf(atcInstanceParameters[0]);
 
@@ -44,10 +58,60 @@ public class AtcLoader {
 			// creates the aircraft
 			aircrafts[i] = createAircraftStaticData(i, atcInstanceParameters, aircraftCount);
 		}
+		detectAircraftClasses(aircrafts);
 
 		return aircrafts;
 	}
 
+	/**
+	 * Groups the aircrafts in classes of identical aircrafts: same penalty costs and same gap times from and to
+	 * every other aircraft (the OR-Library instances have a few aircraft types). The class of each aircraft is
+	 * set in its static data.
+	 * 
+	 * @param aircrafts aircrafts static data.
+	 * @return number of classes.
+	 */
+	public static int detectAircraftClasses(AircraftStaticData[] aircrafts) {
+		// "identical" is transitive, so each aircraft is only compared with the first aircraft of each class.
+		List<AircraftStaticData> representatives = new ArrayList<AircraftStaticData>();
+		for (AircraftStaticData aircraft : aircrafts) {
+			aircraft.setAircraftClass(-1);
+			for (int aircraftClass = 0; aircraftClass < representatives.size(); aircraftClass++) {
+				if (areIdentical(aircrafts, aircraft, representatives.get(aircraftClass))) {
+					aircraft.setAircraftClass(aircraftClass);
+					break;
+				}
+			}
+			if (aircraft.getAircraftClass() < 0) {
+				aircraft.setAircraftClass(representatives.size());
+				representatives.add(aircraft);
+			}
+		}
+		return representatives.size();
+	}
+
+	private static boolean areIdentical(AircraftStaticData[] aircrafts, AircraftStaticData aircraft1, AircraftStaticData aircraft2) {
+		if (aircraft1.getLandingBeforeTargetTimePenaltyCost() != aircraft2.getLandingBeforeTargetTimePenaltyCost()
+				|| aircraft1.getLandingAfterTargetTimePenaltyCost() != aircraft2.getLandingAfterTargetTimePenaltyCost()) {
+			return false;
+		}
+		int id1 = aircraft1.getAircraftId();
+		int id2 = aircraft2.getAircraftId();
+		int[] gapTimes1 = aircraft1.getGapTimeBetweenLandings();
+		int[] gapTimes2 = aircraft2.getGapTimeBetweenLandings();
+		if (gapTimes1[id2] != gapTimes2[id1]) {
+			return false;
+		}
+		for (AircraftStaticData other : aircrafts) {
+			int id = other.getAircraftId();
+			if (id != id1 && id != id2 && (gapTimes1[id] != gapTimes2[id]
+					|| other.getGapTimeBetweenLandings()[id1] != other.getGapTimeBetweenLandings()[id2])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Creates an {@link AircraftStaticData} based on the parameters retrieved from a file.
 	 * 
@@ -0,0 +1,135 @@
+package br.ufrgs.inf.atc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+
+/**
+ * Splits an ATC problem instance in independent clusters of aircrafts.
+ * 
+ * <p>
+ * Let A and B be groups of aircrafts where <code>L(a) + S(a, b) &lt;= E(b)</code> for every a in A and b in B.
+ * Every aircraft of B lands after every aircraft of A, and the gap time after the last landing of A is always respected,
+ * so the landing sequences of A and B can be optimized independently and concatenated. The clusters are found by a
+ * sweep over the aircrafts sorted by earliest landing time: a new cluster starts when the earliest landing time of the
+ * next aircraft isn't less than the latest landing time plus the max gap time of every previous aircraft.
+ * </p>
+ * 
+ * @author diego
+ * 
+ */
+public class InstanceDecomposition {
+
+	/**
+	 * Aircrafts static data of the whole instance.
+	 */
+	private final AircraftStaticData[] aircrafts;
+
+	/**
+	 * Aircraft ids of each cluster, in cluster order (the clusters land one after the other).
+	 */
+	private final List<int[]> clusters = new ArrayList<int[]>();
+
+	/**
+	 * Finds the independent clusters of an instance.
+	 * 
+	 * @param aircrafts aircrafts static data loaded from an input file.
+	 */
+	public InstanceDecomposition(AircraftStaticData[] aircrafts) {
+		this.aircrafts = aircrafts;
+		int aircraftCount = aircrafts.length;
+
+		// aircrafts sorted by earliest landing time.
+		long[] keys = new long[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			keys[i] = ((long) aircrafts[i].getEarliestLandingTime() << 32) | i;
+		}
+		Arrays.sort(keys);
+
+		int clusterStart = 0;
+		long clusterEnd = Long.MIN_VALUE;
+		for (int k = 0; k < aircraftCount; k++) {
+			int aircraft = (int) keys[k];
+			if (k > 0 && aircrafts[aircraft].getEarliestLandingTime() >= clusterEnd) {
+				addCluster(keys, clusterStart, k);
+				clusterStart = k;
+				clusterEnd = Long.MIN_VALUE;
+			}
+			clusterEnd = Math.max(clusterEnd, (long) aircrafts[aircraft].getLatestLandingTime() + getMaxGapTimeAfter(aircraft));
+		}
+		if (aircraftCount > 0) {
+			addCluster(keys, clusterStart, aircraftCount);
+		}
+	}
+
+	/**
+	 * @return the max time that another aircraft must wait after the landing of the aircraft.
+	 */
+	private int getMaxGapTimeAfter(int aircraftId) {
+		int maxGapTime = 0;
+		for (AircraftStaticData next : aircrafts) {
+			if (next.getAircraftId() != aircraftId) {
+				// the gap is read from the aircraft that lands later.
+				maxGapTime = Math.max(maxGapTime, next.getGapTimeBetweenLandings()[aircraftId]);
+			}
+		}
+		return maxGapTime;
+	}
+
+	private void addCluster(long[] keys, int start, int end) {
+		int[] aircraftIds = new int[end - start];
+		for (int k = start; k < end; k++) {
+			aircraftIds[k - start] = (int) keys[k];
+		}
+		Arrays.sort(aircraftIds);
+		clusters.add(aircraftIds);
+	}
+
+	public int getClusterCount() {
+		return clusters.size();
+	}
+
+	/**
+	 * @return ids (in the whole instance) of the aircrafts of a cluster.
+	 */
+	public int[] getAircraftIds(int cluster) {
+		return clusters.get(cluster);
+	}
+
+	/**
+	 * @return size of the largest cluster.
+	 */
+	public int getMaxClusterSize() {
+		int maxClusterSize = 0;
+		for (int[] cluster : clusters) {
+			maxClusterSize = Math.max(maxClusterSize, cluster.length);
+		}
+		return maxClusterSize;
+	}
+
+	/**
+	 * Creates the instance of a cluster. The aircraft at the index i of the cluster instance is the aircraft
+	 * <code>getAircraftIds(cluster)[i]</code> of the whole instance.
+	 * 
+	 * @param cluster cluster index.
+	 * @return aircrafts static data of the cluster, with the aircraft ids and gap times renumbered.
+	 */
+	public AircraftStaticData[] createClusterInstance(int cluster) {
+		int[] aircraftIds = clusters.get(cluster);
+		AircraftStaticData[] clusterAircrafts = new AircraftStaticData[aircraftIds.length];
+		for (int i = 0; i < aircraftIds.length; i++) {
+			AircraftStaticData aircraft = aircrafts[aircraftIds[i]];
+			int[] gapTimeBetweenLandings = new int[aircraftIds.length];
+			for (int j = 0; j < aircraftIds.length; j++) {
+				gapTimeBetweenLandings[j] = aircraft.getGapTimeBetweenLandings()[aircraftIds[j]];
+			}
+			clusterAircrafts[i] = new AircraftStaticData(i, aircraft.getAppearanceTime(), aircraft.getEarliestLandingTime(),
+					aircraft.getTargetLandingTime(), aircraft.getLatestLandingTime(), aircraft.getLandingBeforeTargetTimePenaltyCost(),
+					aircraft.getLandingAfterTargetTimePenaltyCost(), gapTimeBetweenLandings);
+		}
+		AtcLoader.detectAircraftClasses(clusterAircrafts);
+		return clusterAircrafts;
+	}
+}
@@ -0,0 +1,116 @@
+package br.ufrgs.inf.atc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.Solution;
+
+/**
+ * Exports a {@link Solution} to a text file and loads it back as landing sequences,
+ * so a new run can be warm started from a previous one.
+ *
+ * <p>
+ * Each line of the file is a landing sequence: its fitness value followed by the
+ * <code>aircraftId:landingTime</code> pairs in landing order. The first line is the
+ * best individual found and the next ones are the elite of the final population.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class SolutionFile {
+
+	/**
+	 * Exports a solution to a text file.
+	 *
+	 * @param solution solution to be exported.
+	 * @param fileName name of the output file.
+	 * @param eliteSize max number of individuals of the final population exported after the best one.
+	 * @throws IOException thrown if any I/O operation goes wrong.
+	 */
+	public static void exportSolutionToFile(Solution solution, String fileName, int eliteSize) throws IOException {
+		PrintWriter writer = new PrintWriter(new File(fileName), "UTF-8");
+		try {
+			Individual bestIndividual = solution.getBestIndividualFound();
+			writer.println(toLine(bestIndividual));
+
+			Population population = solution.getPopulation();
+			if (population != null) {
+				population.sortByFitness();
+				int exported = 0;
+				for (Individual individual : population) {
+					if (exported == eliteSize) {
+						break;
+					}
+					if (individual != bestIndividual) {
+						writer.println(toLine(individual));
+						exported++;
+					}
+				}
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Loads the landing sequences of a solution exported by {@link #exportSolutionToFile(Solution, String, int)}.
+	 *
+	 * @param fileName name of the input file.
+	 * @return aircraft ids of each landing sequence, the best one first.
+	 * @throws IOException thrown if any I/O operation goes wrong.
+	 */
+	public static List<int[]> loadLandingSequencesFromFile(String fileName) throws IOException {
+		List<int[]> landingSequences = new ArrayList<int[]>();
+		Scanner scanner = new Scanner(new File(fileName), "UTF-8");
+		try {
+			while (scanner.hasNextLine()) {
+				String line = scanner.nextLine().trim();
+				if (line.length() > 0) {
+					landingSequences.add(parseAircraftIds(line));
+				}
+			}
+		} finally {
+			scanner.close();
+		}
+
+		return landingSequences;
+	}
+
+	/**
+	 * Writes an individual as a line of the solution file.
+	 */
+	private static String toLine(Individual individual) {
+		StringBuilder line = new StringBuilder();
+		line.append(individual.getFitnessValue());
+		for (Aircraft aircraft : individual.getAircraftLandingSequence()) {
+			line.append(' ').append(aircraft.getId()).append(':').append(aircraft.getLandingTime());
+		}
+		return line.toString();
+	}
+
+	/**
+	 * Reads the aircraft ids from a line of the solution file.
+	 */
+	private static int[] parseAircraftIds(String line) throws IOException {
+		String[] fields = line.split("\\s+");
+		int[] aircraftIds = new int[fields.length - 1];
+		try {
+			for (int i = 1; i < fields.length; i++) {
+				String field = fields[i];
+				int separatorIndex = field.indexOf(':');
+				aircraftIds[i - 1] = Integer.parseInt(separatorIndex < 0 ? field : field.substring(0, separatorIndex));
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid landing sequence in solution file: " + line);
+		}
+		return aircraftIds;
+	}
+}
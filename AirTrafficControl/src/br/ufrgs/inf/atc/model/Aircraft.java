@@ -3,6 +3,7 @@ package br.ufrgs.inf.atc.model;
 import java.util.Arrays;
 
 import sun.misc.GC.LatencyRequest;
+import br.ufrgs.inf.ga.utils.RandomHelper;
 
 /**
  * Encapsulates all aircraft data necessary for a ATC (air traffic control) schedules all landings.
@@ -196,13 +197,13 @@ public class Aircraft implements Cloneable, Comparable<Aircraft> {
 	public void setRandomLandingTime() {
 		int min = this.getTargetLandingTime() - 8;
 		int max = this.getTargetLandingTime() + 8;
-		this.setLandingTime(min + (int) (Math.random() * (max - min)));
+		this.setLandingTime(min + (int) (RandomHelper.random() * (max - min)));
 	}
 	
 	public void setRandomLandingTimeLessThenTargetTime() {
 		int min = this.getEarliestLandingTime();
 		int max = this.getTargetLandingTime();
-		this.setLandingTime(min + (int) (Math.random() * (max - min)));
+		this.setLandingTime(min + (int) (RandomHelper.random() * (max - min)));
 	}
 	
 	/**
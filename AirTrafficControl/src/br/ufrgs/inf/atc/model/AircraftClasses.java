@@ -0,0 +1,255 @@
+package br.ufrgs.inf.atc.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Symmetry breaking for identical aircrafts (same class, see {@link br.ufrgs.inf.atc.AtcLoader#detectAircraftClasses}).
+ *
+ * <p>
+ * Let i and j be identical aircrafts with <code>T(i) &lt;= T(j)</code>, <code>E(i) &lt;= E(j)</code> and
+ * <code>L(i) &lt;= L(j)</code>. In any feasible schedule where j lands before i, exchanging their places and landing
+ * times keeps the schedule feasible (the gap times are the same) and doesn't increase its cost (the penalty costs are the
+ * same convex functions shifted by the target times). So there is an optimal schedule where i lands first, and the landing
+ * orders where j lands first can be removed from the search space.
+ * </p>
+ *
+ * <p>
+ * The members of each class are split in chains where each aircraft dominates the next one in this way (first come,
+ * first served by target time), and the operators put the aircrafts of each chain in the chain order, keeping the
+ * positions (and the landing times) occupied by the chain.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class AircraftClasses {
+
+	private final int classCount;
+
+	/**
+	 * Chain of each aircraft.
+	 */
+	private final int[] chains;
+
+	/**
+	 * Position of each aircraft in its chain.
+	 */
+	private final int[] ranks;
+
+	/**
+	 * Aircrafts of each chain, in the chain order.
+	 */
+	private final int[][] chainMembers;
+
+	/**
+	 * Scratch buffers of each thread.
+	 */
+	private final ThreadLocal<Scratch> scratches = new ThreadLocal<Scratch>() {
+		@Override
+		protected Scratch initialValue() {
+			return new Scratch();
+		}
+	};
+
+	/**
+	 * Builds the chains of the classes set in the aircrafts static data. An aircraft without a class is a class of its own.
+	 *
+	 * @param instance ATC problem instance.
+	 */
+	public AircraftClasses(AtcInstance instance) {
+		final int[] earliestLandingTimes = instance.getEarliestLandingTimes();
+		final int[] targetLandingTimes = instance.getTargetLandingTimes();
+		final int[] latestLandingTimes = instance.getLatestLandingTimes();
+		AircraftStaticData[] aircraftsStaticData = instance.getAircraftsStaticData();
+		int aircraftCount = instance.getAircraftCount();
+
+		// aircrafts by class and target time (the order of the chains).
+		Integer[] aircrafts = new Integer[aircraftCount];
+		final int[] classes = new int[aircraftCount];
+		int maxClass = -1;
+		for (int i = 0; i < aircraftCount; i++) {
+			aircrafts[i] = i;
+			classes[i] = aircraftsStaticData[i].getAircraftClass();
+			maxClass = Math.max(maxClass, classes[i]);
+		}
+		int singletonClass = maxClass;
+		for (int i = 0; i < aircraftCount; i++) {
+			if (classes[i] < 0) {
+				classes[i] = ++singletonClass;
+			}
+		}
+		this.classCount = singletonClass + 1;
+		Arrays.sort(aircrafts, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				if (classes[i] != classes[j]) {
+					return classes[i] < classes[j] ? -1 : 1;
+				}
+				if (targetLandingTimes[i] != targetLandingTimes[j]) {
+					return targetLandingTimes[i] < targetLandingTimes[j] ? -1 : 1;
+				}
+				if (earliestLandingTimes[i] != earliestLandingTimes[j]) {
+					return earliestLandingTimes[i] < earliestLandingTimes[j] ? -1 : 1;
+				}
+				if (latestLandingTimes[i] != latestLandingTimes[j]) {
+					return latestLandingTimes[i] < latestLandingTimes[j] ? -1 : 1;
+				}
+				return i.compareTo(j);
+			}
+		});
+
+		// each aircraft goes to the first chain of its class whose last aircraft dominates it.
+		this.chains = new int[aircraftCount];
+		this.ranks = new int[aircraftCount];
+		List<List<Integer>> chainLists = new ArrayList<List<Integer>>();
+		int firstChainOfClass = 0;
+		for (int k = 0; k < aircraftCount; k++) {
+			int aircraft = aircrafts[k];
+			if (k > 0 && classes[aircraft] != classes[aircrafts[k - 1]]) {
+				firstChainOfClass = chainLists.size();
+			}
+			int chain = firstChainOfClass;
+			while (chain < chainLists.size()) {
+				List<Integer> chainList = chainLists.get(chain);
+				int last = chainList.get(chainList.size() - 1);
+				if (earliestLandingTimes[last] <= earliestLandingTimes[aircraft] && latestLandingTimes[last] <= latestLandingTimes[aircraft]) {
+					break;
+				}
+				chain++;
+			}
+			if (chain == chainLists.size()) {
+				chainLists.add(new ArrayList<Integer>());
+			}
+			chains[aircraft] = chain;
+			ranks[aircraft] = chainLists.get(chain).size();
+			chainLists.get(chain).add(aircraft);
+		}
+
+		this.chainMembers = new int[chainLists.size()][];
+		for (int chain = 0; chain < chainMembers.length; chain++) {
+			List<Integer> chainList = chainLists.get(chain);
+			chainMembers[chain] = new int[chainList.size()];
+			for (int rank = 0; rank < chainList.size(); rank++) {
+				chainMembers[chain][rank] = chainList.get(rank);
+			}
+		}
+	}
+
+	/**
+	 * @return true if the aircraft <code>first</code> lands before the aircraft <code>second</code> in the reduced search space.
+	 */
+	public boolean mustLandBefore(int first, int second) {
+		return chains[first] == chains[second] && ranks[first] < ranks[second];
+	}
+
+	/**
+	 * @return the aircraft that lands right before the given one in its chain, or -1 if it is the first one of the chain.
+	 */
+	public int getChainPredecessor(int aircraft) {
+		int rank = ranks[aircraft];
+		return rank == 0 ? -1 : chainMembers[chains[aircraft]][rank - 1];
+	}
+
+	/**
+	 * Puts the aircrafts of each chain in the chain order. The positions occupied by each chain don't change.
+	 *
+	 * @param aircraftIds aircraft ids in landing order.
+	 */
+	public void enforce(int[] aircraftIds) {
+		int[] nextRanks = scratches.get().nextRanks(chainMembers.length);
+		for (int i = 0; i < aircraftIds.length; i++) {
+			int chain = chains[aircraftIds[i]];
+			aircraftIds[i] = chainMembers[chain][nextRanks[chain]++];
+		}
+	}
+
+	/**
+	 * Puts the aircrafts of each chain in the chain order. The positions occupied by each chain and their landing times
+	 * don't change, so the schedule stays feasible if it was and its cost doesn't increase.
+	 *
+	 * @param aircraftLandingSequence landing sequence.
+	 */
+	public void enforce(Aircraft[] aircraftLandingSequence) {
+		Scratch scratch = scratches.get();
+		int[] nextRanks = scratch.nextRanks(chainMembers.length);
+		Aircraft[] aircraftsById = scratch.aircraftsById(chains.length);
+		int[] landingTimes = scratch.landingTimes(aircraftLandingSequence.length);
+		for (int i = 0; i < aircraftLandingSequence.length; i++) {
+			aircraftsById[aircraftLandingSequence[i].getId()] = aircraftLandingSequence[i];
+			landingTimes[i] = aircraftLandingSequence[i].getLandingTime();
+		}
+		for (int i = 0; i < aircraftLandingSequence.length; i++) {
+			int chain = chains[aircraftLandingSequence[i].getId()];
+			Aircraft aircraft = aircraftsById[chainMembers[chain][nextRanks[chain]++]];
+			aircraft.setLandingTime(landingTimes[i]);
+			aircraftLandingSequence[i] = aircraft;
+		}
+	}
+
+	/**
+	 * @return true if the aircrafts of each chain are in the chain order.
+	 */
+	public boolean isCanonical(int[] aircraftIds) {
+		int[] nextRanks = scratches.get().nextRanks(chainMembers.length);
+		for (int aircraft : aircraftIds) {
+			if (ranks[aircraft] != nextRanks[chains[aircraft]]++) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int getClassCount() {
+		return classCount;
+	}
+
+	public int getChainCount() {
+		return chainMembers.length;
+	}
+
+	/**
+	 * @return log10 of the number of landing orders represented by each landing order of the reduced search space
+	 * 		   (the product of the factorials of the chains sizes).
+	 */
+	public double getSearchSpaceReductionLog10() {
+		double reduction = 0;
+		for (int[] members : chainMembers) {
+			for (int k = 2; k <= members.length; k++) {
+				reduction += Math.log10(k);
+			}
+		}
+		return reduction;
+	}
+
+	private static class Scratch {
+		private int[] nextRanks = new int[0];
+		private Aircraft[] aircraftsById = new Aircraft[0];
+		private int[] landingTimes = new int[0];
+
+		private int[] nextRanks(int chainCount) {
+			if (nextRanks.length < chainCount) {
+				nextRanks = new int[chainCount];
+			} else {
+				Arrays.fill(nextRanks, 0, chainCount, 0);
+			}
+			return nextRanks;
+		}
+
+		private Aircraft[] aircraftsById(int aircraftCount) {
+			if (aircraftsById.length < aircraftCount) {
+				aircraftsById = new Aircraft[aircraftCount];
+			}
+			return aircraftsById;
+		}
+
+		private int[] landingTimes(int aircraftCount) {
+			if (landingTimes.length < aircraftCount) {
+				landingTimes = new int[aircraftCount];
+			}
+			return landingTimes;
+		}
+	}
+}
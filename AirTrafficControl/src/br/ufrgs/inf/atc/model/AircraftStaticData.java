@@ -48,6 +48,12 @@ public class AircraftStaticData {
 	 */
 	private final int[] gapTimeBetweenLandings;
 	
+	/**
+	 * Class of the aircrafts with the same gap times and penalty costs (see {@link br.ufrgs.inf.atc.AtcLoader#detectAircraftClasses}),
+	 * or -1 if the classes weren't detected.
+	 */
+	private int aircraftClass = -1;
+	
 	/**
 	 * Constructor.
 	 * Initializes the aircraft parameters.
@@ -108,4 +114,12 @@ public class AircraftStaticData {
 	public int getAircraftId() {
 		return aircraftId;
 	}
+
+	public int getAircraftClass() {
+		return aircraftClass;
+	}
+
+	public void setAircraftClass(int aircraftClass) {
+		this.aircraftClass = aircraftClass;
+	}
 }
@@ -0,0 +1,151 @@
+package br.ufrgs.inf.atc.model;
+
+/**
+ * Primitive array view of an ATC problem instance.
+ *
+ * <p>
+ * The aircrafts static data are copied to flat arrays indexed by aircraft id, so the algorithms that
+ * work on aircraft ids permutations (instead of {@link Aircraft} vectors) can read them without
+ * any object dereference in their hot loops.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class AtcInstance {
+
+	/**
+	 * The aircrafts static data loaded from the input file.
+	 */
+	private final AircraftStaticData[] aircraftsStaticData;
+
+	/**
+	 * Number of aircrafts in the instance.
+	 */
+	private final int aircraftCount;
+
+	private final int[] earliestLandingTimes;
+
+	private final int[] targetLandingTimes;
+
+	private final int[] latestLandingTimes;
+
+	private final float[] landingBeforeTargetTimePenaltyCosts;
+
+	private final float[] landingAfterTargetTimePenaltyCosts;
+
+	/**
+	 * Gap times between landings in a flat matrix: <code>separationTimes[i * aircraftCount + j]</code> is the time that
+	 * the aircraft j must wait after the landing of the aircraft i, when j lands right after i.
+	 */
+	private final int[] separationTimes;
+
+	/**
+	 * Copies the aircrafts static data to primitive arrays.
+	 *
+	 * @param aircraftsStaticData aircrafts static data loaded from the input file.
+	 */
+	public AtcInstance(AircraftStaticData[] aircraftsStaticData) {
+		this.aircraftsStaticData = aircraftsStaticData;
+		this.aircraftCount = aircraftsStaticData.length;
+		this.earliestLandingTimes = new int[aircraftCount];
+		this.targetLandingTimes = new int[aircraftCount];
+		this.latestLandingTimes = new int[aircraftCount];
+		this.landingBeforeTargetTimePenaltyCosts = new float[aircraftCount];
+		this.landingAfterTargetTimePenaltyCosts = new float[aircraftCount];
+		this.separationTimes = new int[aircraftCount * aircraftCount];
+
+		for (int i = 0; i < aircraftCount; i++) {
+			AircraftStaticData aircraft = aircraftsStaticData[i];
+			earliestLandingTimes[i] = aircraft.getEarliestLandingTime();
+			targetLandingTimes[i] = aircraft.getTargetLandingTime();
+			latestLandingTimes[i] = aircraft.getLatestLandingTime();
+			landingBeforeTargetTimePenaltyCosts[i] = aircraft.getLandingBeforeTargetTimePenaltyCost();
+			landingAfterTargetTimePenaltyCosts[i] = aircraft.getLandingAfterTargetTimePenaltyCost();
+
+			// the same convention of Aircraft#respectsGapTimeBetween: the gap is read from the aircraft that lands later.
+			int[] gapTimeBetweenLandings = aircraft.getGapTimeBetweenLandings();
+			for (int previous = 0; previous < aircraftCount; previous++) {
+				separationTimes[previous * aircraftCount + i] = gapTimeBetweenLandings[previous];
+			}
+		}
+	}
+
+	/**
+	 * Creates an aircraft landing sequence from a permutation of aircraft ids and its landing times.
+	 *
+	 * @param aircraftIds aircraft ids in landing order.
+	 * @param landingTimes landing time of each position of the landing sequence.
+	 * @return an aircraft landing sequence.
+	 */
+	public Aircraft[] createLandingSequence(int[] aircraftIds, int[] landingTimes) {
+		Aircraft[] landingSequence = new Aircraft[aircraftIds.length];
+		for (int i = 0; i < aircraftIds.length; i++) {
+			landingSequence[i] = new Aircraft(aircraftsStaticData[aircraftIds[i]]);
+			landingSequence[i].setLandingTime(landingTimes[i]);
+		}
+		return landingSequence;
+	}
+
+	/**
+	 * Retrieves the aircraft ids of a landing sequence.
+	 *
+	 * @param landingSequence an aircraft landing sequence.
+	 * @param aircraftIds vector where the ids are written, in landing order.
+	 */
+	public static void getAircraftIds(Aircraft[] landingSequence, int[] aircraftIds) {
+		for (int i = 0; i < landingSequence.length; i++) {
+			aircraftIds[i] = landingSequence[i].getId();
+		}
+	}
+
+	/**
+	 * Return the time that the aircraft <code>next</code> must wait after the landing of the aircraft <code>previous</code>.
+	 */
+	public int getSeparationTime(int previous, int next) {
+		return separationTimes[previous * aircraftCount + next];
+	}
+
+	/**
+	 * Calculates the cost of an aircraft landing at a given time (see {@link Aircraft#getLandingCost()}).
+	 */
+	public float getLandingCost(int aircraftId, int landingTime) {
+		int target = targetLandingTimes[aircraftId];
+		if (landingTime < target) {
+			return landingBeforeTargetTimePenaltyCosts[aircraftId] * (target - landingTime);
+		}
+		return landingAfterTargetTimePenaltyCosts[aircraftId] * (landingTime - target);
+	}
+
+	public AircraftStaticData[] getAircraftsStaticData() {
+		return aircraftsStaticData;
+	}
+
+	public int getAircraftCount() {
+		return aircraftCount;
+	}
+
+	public int[] getEarliestLandingTimes() {
+		return earliestLandingTimes;
+	}
+
+	public int[] getTargetLandingTimes() {
+		return targetLandingTimes;
+	}
+
+	public int[] getLatestLandingTimes() {
+		return latestLandingTimes;
+	}
+
+	public float[] getLandingBeforeTargetTimePenaltyCosts() {
+		return landingBeforeTargetTimePenaltyCosts;
+	}
+
+	public float[] getLandingAfterTargetTimePenaltyCosts() {
+		return landingAfterTargetTimePenaltyCosts;
+	}
+
+	public int[] getSeparationTimes() {
+		return separationTimes;
+	}
+}
@@ -1,8 +1,10 @@
 package br.ufrgs.inf.atc.model;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 
 import br.ufrgs.inf.ga.utils.ShuffleHelper;
 
@@ -19,12 +21,51 @@ public class LandingSequenceCreator {
 	 */
 	private final AircraftStaticData[] aircraftsStaticData;
 	
+	/**
+	 * Aircraft indexes sorted by target time, by latest time and by penalty cost for landing after the target time.
+	 * These orderings depend only on the instance, so they are sorted once and shared by all landing sequences
+	 * (and by the threads creating them).
+	 */
+	private final int[] targetLandingTimeOrder;
+	private final int[] latestLandingTimeOrder;
+	private final int[] penaltyCostOrder;
+	
 	/**
 	 * Resolves class dependencies.
 	 * @param aircraftsStaticData aircrafts static data loaded from the input file.
 	 */
 	public LandingSequenceCreator(AircraftStaticData[] aircraftsStaticData) {
 		this.aircraftsStaticData = aircraftsStaticData;
+		
+		// the orderings are the ones of the (stable) sorts of the aircrafts vector.
+		Aircraft[] aircrafts = createAircraftsWithDefaultLandingTime();
+		Arrays.sort(aircrafts);
+		this.targetLandingTimeOrder = getIndexes(aircrafts);
+		
+		aircrafts = createAircraftsWithLatestLandingTime();
+		Arrays.sort(aircrafts);
+		this.latestLandingTimeOrder = getIndexes(aircrafts);
+		
+		aircrafts = createAircraftsWithDefaultLandingTime();
+		Arrays.sort(aircrafts, new Comparator<Aircraft>() {
+
+			@Override
+			public int compare(Aircraft aircraft1, Aircraft aircraft2) {
+				if (aircraft1.getLandingAfterTargetTimePenaltyCost() < aircraft2.getLandingAfterTargetTimePenaltyCost()) {
+					return 1;
+				} else if (aircraft1.getLandingAfterTargetTimePenaltyCost() > aircraft2.getLandingAfterTargetTimePenaltyCost()) {
+					return -1;
+				} else {
+					return 0;
+				}
+			}
+			
+		});
+		this.penaltyCostOrder = getIndexes(aircrafts);
+	}
+	
+	public AircraftStaticData[] getAircraftsStaticData() {
+		return aircraftsStaticData;
 	}
 	
 	/**
@@ -34,12 +75,9 @@ public class LandingSequenceCreator {
 	 * @return an aircraft landing sequence.
 	 */
 	public Aircraft[] createLandingSequenceSortedByTargetLandingTimes() {
-		// Creates a landing sequence where for each aircraft, it's landing time is close as possible to it's target time.
-		Aircraft[] aircraftLandingSequence = createAircraftsWithDefaultLandingTime();
-		// sort the list of aircraft by it's landing time to generate the landing sequence.
-		Arrays.sort(aircraftLandingSequence);
-
-		return aircraftLandingSequence;
+		// Creates a landing sequence where for each aircraft, it's landing time is close as possible to it's target time,
+		// in the order of the aircraft target times.
+		return createAircraftsWithDefaultLandingTime(targetLandingTimeOrder);
 	}
 	
 	/**
@@ -48,10 +86,11 @@ public class LandingSequenceCreator {
 	 * @return an aircraft landing sequence.
 	 */
 	public Aircraft[] createLandingSequenceSortedByLatestLandingTimes() {
-		// Creates a landing sequence where for each aircraft, it's landing time is close as possible to it's target time.
-		Aircraft[] aircraftLandingSequence = createAircraftsWithLatestLandingTime();
-		// sort the list of aircraft by it's appearance time to generate the landing sequence.
-		Arrays.sort(aircraftLandingSequence);
+		// Creates a landing sequence in the order of the aircraft latest times, where each aircraft lands at its latest time.
+		Aircraft[] aircraftLandingSequence = createAircraftsWithDefaultLandingTime(latestLandingTimeOrder);
+		for (Aircraft aircraft : aircraftLandingSequence) {
+			aircraft.setLatestLandingTime();
+		}
 
 		return aircraftLandingSequence;
 	}
@@ -62,24 +101,9 @@ public class LandingSequenceCreator {
 	 * @return landing sequence ordered by penalty costs.
 	 */
 	public Aircraft[] createLandingSequenceSortedByPenaltyCost() {
-		// Creates a landing sequence where for each aircraft, it's landing time is close as possible to it's target time.
-		Aircraft[] aircraftLandingSequence = createAircraftsWithDefaultLandingTime();
-	
-		// sort the list of aircraft by it's penalty cost for landing after target time.
-		Arrays.sort(aircraftLandingSequence, new Comparator<Aircraft>() {
-
-			@Override
-			public int compare(Aircraft aircraft1, Aircraft aircraft2) {
-				if (aircraft1.getLandingAfterTargetTimePenaltyCost() < aircraft2.getLandingAfterTargetTimePenaltyCost()) {
-					return 1;
-				} else if (aircraft1.getLandingAfterTargetTimePenaltyCost() > aircraft2.getLandingAfterTargetTimePenaltyCost()) {
-					return -1;
-				} else {
-					return 0;
-				}
-			}
-			
-		});
+		// Creates a landing sequence where for each aircraft, it's landing time is close as possible to it's target time,
+		// in the order of the aircraft penalty costs for landing after target time (the highest first).
+		Aircraft[] aircraftLandingSequence = createAircraftsWithDefaultLandingTime(penaltyCostOrder);
 
 		return aircraftLandingSequence;
 	}
@@ -140,6 +164,46 @@ public class LandingSequenceCreator {
 		return landingSequence;
 	}
 
+	/**
+	 * Creates a landing sequence that follows the order of a previously computed landing sequence.
+	 * 
+	 * <p>
+	 * The previous landing sequence may have been computed for a slightly different ATC problem instance (a re-plan).
+	 * So, aircraft ids that do not belong to this instance (or that appear more than once) are ignored, and each aircraft of
+	 * this instance that is missing in the previous sequence is inserted before the first aircraft with a greater target time.
+	 * The landing time of each aircraft is its target time.
+	 * </p>
+	 * 
+	 * @param aircraftIds aircraft ids in the order of a previous landing sequence.
+	 * @return an aircraft landing sequence with all aircrafts of this instance.
+	 */
+	public Aircraft[] createLandingSequenceFromAircraftIds(int[] aircraftIds) {
+		List<Aircraft> landingSequence = new ArrayList<Aircraft>(aircraftsStaticData.length);
+		boolean[] sequenced = new boolean[aircraftsStaticData.length];
+		
+		for (int aircraftId : aircraftIds) {
+			if (aircraftId >= 0 && aircraftId < aircraftsStaticData.length && !sequenced[aircraftId]) {
+				landingSequence.add(new Aircraft(aircraftsStaticData[aircraftId]));
+				sequenced[aircraftId] = true;
+			}
+		}
+		
+		// new aircrafts (not present in the previous landing sequence) are inserted by target time.
+		for (int i = 0; i < aircraftsStaticData.length; i++) {
+			if (!sequenced[i]) {
+				Aircraft newAircraft = new Aircraft(aircraftsStaticData[i]);
+				int position = 0;
+				while (position < landingSequence.size() &&
+					   landingSequence.get(position).getTargetLandingTime() <= newAircraft.getTargetLandingTime()) {
+					position++;
+				}
+				landingSequence.add(position, newAircraft);
+			}
+		}
+		
+		return landingSequence.toArray(new Aircraft[landingSequence.size()]);
+	}
+
 	/**
 	 * Creates a vector of aircrafts, where each aircraft landing time is, by default, equals to it's target time.
 	 * 
@@ -156,6 +220,33 @@ public class LandingSequenceCreator {
 		return aircrafts;
 	}
 	
+	/**
+	 * Creates a vector of aircrafts in the given order, where each aircraft landing time is, by default, equals to it's target time.
+	 * 
+	 * @param order aircraft indexes in the landing order.
+	 * @return Aircraft landing sequence.
+	 */
+	private Aircraft[] createAircraftsWithDefaultLandingTime(int[] order) {
+		Aircraft[] aircrafts = new Aircraft[order.length];
+		
+		for (int i = 0; i < order.length; i++) {
+			aircrafts[i] = new Aircraft(aircraftsStaticData[order[i]]);
+		}
+		
+		return aircrafts;
+	}
+	
+	/**
+	 * @return the indexes (aircraft ids) of the aircrafts of a landing sequence.
+	 */
+	private static int[] getIndexes(Aircraft[] aircrafts) {
+		int[] indexes = new int[aircrafts.length];
+		for (int i = 0; i < aircrafts.length; i++) {
+			indexes[i] = aircrafts[i].getId();
+		}
+		return indexes;
+	}
+	
 	/**
 	 * Creates a vector of aircrafts, where each aircraft landing time is a random time between the earliest landing time and the target time the aircraft.
 	 * 
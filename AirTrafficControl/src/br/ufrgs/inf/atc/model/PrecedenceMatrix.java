@@ -0,0 +1,179 @@
+package br.ufrgs.inf.atc.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Precedence relations between aircrafts that hold in every feasible landing sequence, packed in bit matrices.
+ *
+ * <p>
+ * The relations only depend on the static time windows and gap times:
+ * <ul>
+ * <li>the aircraft i can't land immediately before j when <code>earliest(i) + gap(i, j) &gt; latest(j)</code>;</li>
+ * <li>the aircraft i must land before j (not necessarily immediately) when <code>latest(i) &lt; earliest(j)</code>,
+ * because the landing times never decrease along a feasible landing sequence.</li>
+ * </ul>
+ * A landing order that breaks one of them is rejected by the {@link br.ufrgs.inf.ga.FitnessEvaluator} whatever the
+ * landing times are, so the operators can discard it without scheduling and evaluating it.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class PrecedenceMatrix {
+
+	private final int aircraftCount;
+
+	/**
+	 * Number of <code>long</code> words of each matrix row.
+	 */
+	private final int words;
+
+	/**
+	 * Bit j of the row i is set if the aircraft i can't land immediately before the aircraft j.
+	 */
+	private final long[] forbiddenImmediatePrecedences;
+
+	/**
+	 * Bit j of the row i is set if the aircraft i must land before the aircraft j.
+	 */
+	private final long[] forcedPrecedences;
+
+	/**
+	 * Transpose of the forced precedences: bit i of the row j is set if the aircraft i must land before the aircraft j.
+	 */
+	private final long[] forcedPredecessors;
+
+	private final int[] earliestLandingTimes;
+
+	private final int[] latestLandingTimes;
+
+	/**
+	 * Number of landing orders rejected by {@link #isFeasibleOrder(Aircraft[])}. The matrix may be shared by threads.
+	 */
+	private final LongAdder rejectedOrders = new LongAdder();
+
+	/**
+	 * Computes the precedence relations of an instance.
+	 *
+	 * @param instance ATC problem instance.
+	 */
+	public PrecedenceMatrix(AtcInstance instance) {
+		this.aircraftCount = instance.getAircraftCount();
+		this.words = (aircraftCount + 63) >>> 6;
+		this.forbiddenImmediatePrecedences = new long[aircraftCount * words];
+		this.forcedPrecedences = new long[aircraftCount * words];
+		this.forcedPredecessors = new long[aircraftCount * words];
+		this.earliestLandingTimes = instance.getEarliestLandingTimes();
+		this.latestLandingTimes = instance.getLatestLandingTimes();
+
+		for (int i = 0; i < aircraftCount; i++) {
+			for (int j = 0; j < aircraftCount; j++) {
+				if (i == j) {
+					continue;
+				}
+				int bit = i * words + (j >>> 6);
+				if (earliestLandingTimes[i] + instance.getSeparationTime(i, j) > latestLandingTimes[j]) {
+					forbiddenImmediatePrecedences[bit] |= 1L << j;
+				}
+				if (latestLandingTimes[i] < earliestLandingTimes[j]) {
+					forcedPrecedences[bit] |= 1L << j;
+					forcedPredecessors[j * words + (i >>> 6)] |= 1L << i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true if the aircraft <code>previous</code> may land immediately before the aircraft <code>next</code>.
+	 */
+	public boolean canLandImmediatelyBefore(int previous, int next) {
+		return (forbiddenImmediatePrecedences[previous * words + (next >>> 6)] & (1L << next)) == 0;
+	}
+
+	/**
+	 * @return true if the aircraft <code>first</code> must land before the aircraft <code>second</code>.
+	 */
+	public boolean mustLandBefore(int first, int second) {
+		return (forcedPrecedences[first * words + (second >>> 6)] & (1L << second)) != 0;
+	}
+
+	/**
+	 * Checks if an aircraft may land after a set of aircrafts (the prefix of a landing sequence being built), that is,
+	 * if all the aircrafts that must land before it are in the set.
+	 *
+	 * @param landedAircrafts set of aircrafts: the aircraft i is in the set if the bit <code>i % 64</code> of the word
+	 * 		  <code>i / 64</code> is set.
+	 * @param aircraft aircraft id.
+	 * @return false if an aircraft that must land before the given one is not in the set.
+	 */
+	public boolean canLandAfter(long[] landedAircrafts, int aircraft) {
+		int row = aircraft * words;
+		for (int word = 0; word < words; word++) {
+			if ((forcedPredecessors[row + word] & ~landedAircrafts[word]) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks a landing order against the precedence relations. The forced precedences of all the pairs are checked in a
+	 * single pass with the max earliest landing time of the previous aircrafts: an aircraft breaks a forced precedence
+	 * only if its latest landing time is less than the earliest landing time of an aircraft that lands before it.
+	 *
+	 * @param aircraftLandingSequence landing sequence (only its order is checked).
+	 * @return false if no landing times make the landing order feasible.
+	 */
+	public boolean isFeasibleOrder(Aircraft[] aircraftLandingSequence) {
+		int maxEarliestLandingTime = Integer.MIN_VALUE;
+		int previous = -1;
+		for (Aircraft aircraft : aircraftLandingSequence) {
+			int current = aircraft.getId();
+			if (latestLandingTimes[current] < maxEarliestLandingTime || (previous >= 0 && !canLandImmediatelyBefore(previous, current))) {
+				rejectedOrders.increment();
+				return false;
+			}
+			maxEarliestLandingTime = Math.max(maxEarliestLandingTime, earliestLandingTimes[current]);
+			previous = current;
+		}
+		return true;
+	}
+
+	/**
+	 * @see #isFeasibleOrder(Aircraft[])
+	 */
+	public boolean isFeasibleOrder(int[] aircraftIds) {
+		int maxEarliestLandingTime = Integer.MIN_VALUE;
+		for (int i = 0; i < aircraftIds.length; i++) {
+			int current = aircraftIds[i];
+			if (latestLandingTimes[current] < maxEarliestLandingTime || (i > 0 && !canLandImmediatelyBefore(aircraftIds[i - 1], current))) {
+				rejectedOrders.increment();
+				return false;
+			}
+			maxEarliestLandingTime = Math.max(maxEarliestLandingTime, earliestLandingTimes[current]);
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of forbidden immediate precedences and forced precedences, in this order.
+	 */
+	public int[] countRelations() {
+		return new int[] { bitCount(forbiddenImmediatePrecedences), bitCount(forcedPrecedences) };
+	}
+
+	/**
+	 * @return number of landing orders rejected so far.
+	 */
+	public long getRejectedOrderCount() {
+		return rejectedOrders.sum();
+	}
+
+	private static int bitCount(long[] matrix) {
+		int count = 0;
+		for (long word : matrix) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+}
@@ -0,0 +1,100 @@
+package br.ufrgs.inf.atc.model;
+
+import java.util.Arrays;
+
+/**
+ * Graph of the aircrafts whose landing time windows overlap.
+ *
+ * <p>
+ * Two aircrafts whose [earliest, latest] landing time windows don't overlap always land in the same order in a feasible
+ * landing sequence, so they can never trade places. The candidates of each aircraft are the aircrafts whose windows
+ * overlap its window, sorted by the distance between their target times and optionally limited to the nearest ones.
+ * The lists are computed once from the static data and stored in two flat vectors.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class TimeWindowOverlapGraph {
+
+	/**
+	 * The candidates of the aircraft i are <code>candidates[offsets[i]]</code> to <code>candidates[offsets[i + 1] - 1]</code>.
+	 */
+	private final int[] offsets;
+
+	private final int[] candidates;
+
+	/**
+	 * Builds the candidate lists.
+	 *
+	 * @param instance ATC problem instance.
+	 * @param maxCandidates max number of candidates of each aircraft (the nearest by target time), or 0 for no limit.
+	 */
+	public TimeWindowOverlapGraph(AtcInstance instance, int maxCandidates) {
+		int aircraftCount = instance.getAircraftCount();
+		int[] earliestLandingTimes = instance.getEarliestLandingTimes();
+		int[] targetLandingTimes = instance.getTargetLandingTimes();
+		int[] latestLandingTimes = instance.getLatestLandingTimes();
+
+		// aircrafts sorted by earliest landing time: the windows that may overlap a window [E, L] start before L.
+		long[] keys = new long[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			keys[i] = ((long) earliestLandingTimes[i] << 32) | i;
+		}
+		Arrays.sort(keys);
+		int[] byEarliestLandingTime = new int[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			byEarliestLandingTime[i] = (int) keys[i];
+		}
+
+		int[][] lists = new int[aircraftCount][];
+		long[] distances = new long[aircraftCount];
+		int total = 0;
+		for (int aircraft = 0; aircraft < aircraftCount; aircraft++) {
+			int count = 0;
+			for (int k = 0; k < aircraftCount && earliestLandingTimes[byEarliestLandingTime[k]] <= latestLandingTimes[aircraft]; k++) {
+				int other = byEarliestLandingTime[k];
+				if (other != aircraft && latestLandingTimes[other] >= earliestLandingTimes[aircraft]) {
+					distances[count++] = ((long) Math.abs(targetLandingTimes[other] - targetLandingTimes[aircraft]) << 32) | other;
+				}
+			}
+			Arrays.sort(distances, 0, count);
+			if (maxCandidates > 0 && count > maxCandidates) {
+				count = maxCandidates;
+			}
+			lists[aircraft] = new int[count];
+			for (int i = 0; i < count; i++) {
+				lists[aircraft][i] = (int) distances[i];
+			}
+			total += count;
+		}
+
+		this.offsets = new int[aircraftCount + 1];
+		this.candidates = new int[total];
+		for (int aircraft = 0; aircraft < aircraftCount; aircraft++) {
+			offsets[aircraft + 1] = offsets[aircraft] + lists[aircraft].length;
+			System.arraycopy(lists[aircraft], 0, candidates, offsets[aircraft], lists[aircraft].length);
+		}
+	}
+
+	/**
+	 * @return number of candidates of an aircraft.
+	 */
+	public int getCandidateCount(int aircraftId) {
+		return offsets[aircraftId + 1] - offsets[aircraftId];
+	}
+
+	/**
+	 * @return the k-th candidate of an aircraft (the candidates are sorted by the distance between the target times).
+	 */
+	public int getCandidate(int aircraftId, int k) {
+		return candidates[offsets[aircraftId] + k];
+	}
+
+	/**
+	 * @return average number of candidates per aircraft.
+	 */
+	public double getAverageCandidateCount() {
+		return offsets.length == 1 ? 0 : (double) candidates.length / (offsets.length - 1);
+	}
+}
@@ -0,0 +1,477 @@
+package br.ufrgs.inf.ga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftClasses;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.PrecedenceMatrix;
+import br.ufrgs.inf.ga.exceptions.AlgorithmException;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.Solution;
+
+/**
+ * Exact landing scheduler: a depth first branch and bound over the landing orders, for small and medium instances.
+ *
+ * <p>
+ * Each node of the search tree is a prefix of a landing sequence, and its children append one more aircraft to it.
+ * A node is pruned when its lower bound is not less than the cost of the best landing sequence found so far:
+ * <ul>
+ * <li>the best cost of the prefix, scheduled by a {@link DeltaCostEvaluator} (it never decreases when aircrafts are appended);</li>
+ * <li>plus the least cost of each aircraft out of the prefix, which can't land before the earliest landing time of the last
+ * aircraft of the prefix plus its smallest gap time after any other aircraft.</li>
+ * </ul>
+ * Before the bounds, the appended aircraft is checked against the precedence relations of the instance ({@link PrecedenceMatrix})
+ * and against the order of the identical aircrafts ({@link AircraftClasses}). The search starts with the best schedule of the
+ * constructive heuristics as the upper bound, and the children of each node are explored in order of lower bound.
+ * </p>
+ *
+ * <p>
+ * The subtrees are explored in parallel in a fork/join pool: when a thread is exploring a node near the root and there is no
+ * queued work left for the idle threads, the unexplored siblings of the current child are forked as new tasks, and the idle
+ * threads steal them.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class BranchAndBound {
+
+	/**
+	 * Name of the engine in the shared incumbent.
+	 */
+	public static final String ENGINE_NAME = "branch and bound";
+
+	/**
+	 * Costs closer than this are considered equal (the penalty costs are floats).
+	 */
+	private static final double COST_TOLERANCE = 1e-6;
+
+	/**
+	 * The subtrees whose prefix is at least this close to a complete landing sequence are never split in new tasks.
+	 */
+	private static final int MIN_SPLIT_HEIGHT = 6;
+
+	/**
+	 * Number of explored nodes between two checks of the time limit.
+	 */
+	private static final int TIME_CHECK_INTERVAL = 4096;
+
+	private final AircraftStaticData[] aircrafts;
+
+	private final AtcInstance instance;
+
+	private final int aircraftCount;
+
+	private final int[] earliestLandingTimes;
+
+	private final int[] targetLandingTimes;
+
+	private final int[] latestLandingTimes;
+
+	private final float[] landingAfterTargetTimePenaltyCosts;
+
+	private final int[] separationTimes;
+
+	/**
+	 * Smallest gap time of each aircraft after any other aircraft.
+	 */
+	private final int[] minSeparationTimes;
+
+	private final PrecedenceMatrix precedenceMatrix;
+
+	private final AircraftClasses aircraftClasses;
+
+	/**
+	 * Number of threads exploring the search tree.
+	 */
+	private final int threads;
+
+	/**
+	 * Max execution time in milliseconds. If it is reached, the best landing sequence found so far is returned,
+	 * but it is not proven optimal.
+	 */
+	private long timeLimit = Long.MAX_VALUE;
+
+	/**
+	 * Best landing sequence shared with other engines (see {@link PortfolioScheduler}). If null, the search runs alone.
+	 */
+	private SharedIncumbent incumbent;
+
+	/**
+	 * Cost of the best landing sequence found so far. It is read by all the threads without locking.
+	 */
+	private volatile double upperBound;
+
+	/**
+	 * Best landing sequence found so far (guarded by this object).
+	 */
+	private int[] bestAircraftIds;
+
+	/**
+	 * Set when the time limit is reached: the threads stop exploring.
+	 */
+	private volatile boolean aborted;
+
+	private long deadline;
+
+	private final AtomicLong exploredNodes = new AtomicLong();
+
+	/**
+	 * Search state of each thread.
+	 */
+	private final ThreadLocal<SearchState> searchStates = new ThreadLocal<SearchState>() {
+		@Override
+		protected SearchState initialValue() {
+			return new SearchState();
+		}
+	};
+
+	/**
+	 * Solution found by the last execution.
+	 */
+	private Solution solution;
+
+	/**
+	 * @param aircrafts aircrafts static data loaded from an input file.
+	 * @param threads number of threads exploring the search tree.
+	 */
+	public BranchAndBound(AircraftStaticData[] aircrafts, int threads) {
+		this.aircrafts = aircrafts;
+		this.instance = new AtcInstance(aircrafts);
+		this.aircraftCount = instance.getAircraftCount();
+		this.earliestLandingTimes = instance.getEarliestLandingTimes();
+		this.targetLandingTimes = instance.getTargetLandingTimes();
+		this.latestLandingTimes = instance.getLatestLandingTimes();
+		this.landingAfterTargetTimePenaltyCosts = instance.getLandingAfterTargetTimePenaltyCosts();
+		this.separationTimes = instance.getSeparationTimes();
+		this.precedenceMatrix = new PrecedenceMatrix(instance);
+		this.aircraftClasses = new AircraftClasses(instance);
+		this.threads = Math.max(1, threads);
+
+		this.minSeparationTimes = new int[aircraftCount];
+		for (int j = 0; j < aircraftCount; j++) {
+			int minSeparationTime = aircraftCount > 1 ? Integer.MAX_VALUE : 0;
+			for (int i = 0; i < aircraftCount; i++) {
+				if (i != j) {
+					minSeparationTime = Math.min(minSeparationTime, Math.max(0, instance.getSeparationTime(i, j)));
+				}
+			}
+			minSeparationTimes[j] = minSeparationTime;
+		}
+	}
+
+	/**
+	 * @param timeLimit max execution time in milliseconds. If it is reached, the solution is the best landing sequence found
+	 * 		  so far, and it is not proven optimal.
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Shares the best landing sequence with other engines running concurrently: the incumbent is an upper bound of the
+	 * search, each better landing sequence found is offered to it, and it is proven optimal when the search finishes.
+	 * The search stops when the incumbent is stopped.
+	 *
+	 * @param incumbent best landing sequence shared by the engines.
+	 */
+	public void setIncumbent(SharedIncumbent incumbent) {
+		this.incumbent = incumbent;
+	}
+
+	/**
+	 * Explores the search tree and builds the solution.
+	 *
+	 * @throws AlgorithmException thrown if the search fails.
+	 */
+	public void execute() throws AlgorithmException {
+		exploredNodes.set(0);
+		aborted = false;
+		long now = System.currentTimeMillis();
+		deadline = timeLimit > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + timeLimit;
+
+		// the best constructive heuristic schedule is the first upper bound.
+		ConstructiveScheduler constructiveScheduler = new ConstructiveScheduler(instance);
+		int[] aircraftIds = new int[aircraftCount];
+		int[] landingTimes = new int[aircraftCount];
+		constructiveScheduler.createBestSchedule(false, aircraftIds, landingTimes);
+		bestAircraftIds = aircraftIds;
+		upperBound = new DeltaCostEvaluator(instance).evaluate(aircraftIds);
+		if (incumbent != null) {
+			incumbent.offer(aircraftIds, upperBound, ENGINE_NAME);
+			importIncumbent();
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			pool.invoke(new SubtreeSearch(new int[0]));
+		} catch (RuntimeException e) {
+			throw new AlgorithmException("The branch and bound search has failed.", e);
+		} finally {
+			pool.shutdown();
+		}
+
+		int[] solutionAircraftIds = getBestAircraftIds();
+		if (incumbent != null && !aborted) {
+			incumbent.proveOptimal(solutionAircraftIds, upperBound, ENGINE_NAME);
+		}
+		constructiveScheduler.schedule(solutionAircraftIds, landingTimes);
+		Aircraft[] landingSequence = instance.createLandingSequence(solutionAircraftIds, landingTimes);
+		Individual bestIndividual = new Individual(landingSequence, new FitnessEvaluator().evaluate(landingSequence));
+		this.solution = new Solution(null, bestIndividual, 0, 0, 0, !aborted);
+	}
+
+	/**
+	 * @return the solution found by the last execution.
+	 */
+	public Solution getSolution() {
+		return solution;
+	}
+
+	/**
+	 * @return number of nodes of the search tree explored by the last execution.
+	 */
+	public long getExploredNodeCount() {
+		return exploredNodes.get();
+	}
+
+	public AircraftStaticData[] getAircrafts() {
+		return aircrafts;
+	}
+
+	/**
+	 * @return true if the pool may have idle threads: the current thread has no queued tasks left for them to steal.
+	 */
+	private boolean hasIdleThreads() {
+		return threads > 1 && ForkJoinTask.getSurplusQueuedTaskCount() <= 0;
+	}
+
+	/**
+	 * Keeps a complete landing sequence if it is better than the best one found so far.
+	 */
+	private synchronized void offerSolution(int[] aircraftIds, double cost) {
+		if (cost < upperBound - COST_TOLERANCE) {
+			bestAircraftIds = aircraftIds.clone();
+			upperBound = cost;
+			if (incumbent != null) {
+				incumbent.offer(bestAircraftIds, cost, ENGINE_NAME);
+			}
+		}
+	}
+
+	/**
+	 * Takes the shared incumbent as the best landing sequence found so far, if it is better.
+	 */
+	private synchronized void importIncumbent() {
+		Incumbent current = incumbent.get();
+		if (current != null && current.getCost() < upperBound - COST_TOLERANCE) {
+			bestAircraftIds = current.getAircraftIds();
+			upperBound = current.getCost();
+		}
+	}
+
+	private synchronized int[] getBestAircraftIds() {
+		return bestAircraftIds;
+	}
+
+	/**
+	 * Task exploring the subtree of a landing sequence prefix.
+	 */
+	private class SubtreeSearch extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] prefix;
+
+		SubtreeSearch(int[] prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		protected void compute() {
+			// the state of this thread may have been left by another task: the prefix is scheduled again.
+			SearchState state = searchStates.get();
+			state.clear();
+			for (int depth = 0; depth < prefix.length; depth++) {
+				if (state.append(depth, prefix[depth]) >= upperBound - COST_TOLERANCE) {
+					return;
+				}
+				state.place(depth, prefix[depth]);
+			}
+
+			List<SubtreeSearch> forkedTasks = new ArrayList<SubtreeSearch>();
+			state.explore(prefix.length, forkedTasks);
+			state.flushNodeCount();
+			// the state is not used anymore, so this thread may run other tasks while it waits.
+			for (SubtreeSearch task : forkedTasks) {
+				task.join();
+			}
+		}
+	}
+
+	/**
+	 * Buffers of a thread exploring the search tree.
+	 */
+	private class SearchState {
+
+		private final DeltaCostEvaluator evaluator = new DeltaCostEvaluator(instance);
+
+		/**
+		 * Prefix being explored.
+		 */
+		private final int[] sequence = new int[aircraftCount];
+
+		/**
+		 * Aircrafts of the prefix (bit set).
+		 */
+		private final long[] landedAircrafts = new long[(aircraftCount + 63) >>> 6];
+
+		/**
+		 * Earliest landing time of each position of the prefix.
+		 */
+		private final int[] earliestTimes = new int[aircraftCount];
+
+		/**
+		 * Children of the node at each depth, and their lower bounds, in order of lower bound.
+		 */
+		private final int[][] children = new int[aircraftCount][aircraftCount];
+
+		private final double[][] lowerBounds = new double[aircraftCount][aircraftCount];
+
+		private long nodes;
+
+		private void clear() {
+			for (int word = 0; word < landedAircrafts.length; word++) {
+				landedAircrafts[word] = 0;
+			}
+		}
+
+		private boolean isLanded(int aircraft) {
+			return (landedAircrafts[aircraft >>> 6] & (1L << aircraft)) != 0;
+		}
+
+		private void place(int depth, int aircraft) {
+			sequence[depth] = aircraft;
+			landedAircrafts[aircraft >>> 6] |= 1L << aircraft;
+		}
+
+		private void remove(int aircraft) {
+			landedAircrafts[aircraft >>> 6] &= ~(1L << aircraft);
+		}
+
+		/**
+		 * Appends an aircraft to the prefix (the prefix up to depth - 1 must be placed) and schedules it.
+		 *
+		 * @return the lower bound of the landing sequences starting with the new prefix, or {@link DeltaCostEvaluator#INFEASIBLE_COST}.
+		 */
+		private double append(int depth, int aircraft) {
+			int earliestTime = earliestLandingTimes[aircraft];
+			if (depth > 0) {
+				int previous = sequence[depth - 1];
+				if (!precedenceMatrix.canLandImmediatelyBefore(previous, aircraft)) {
+					return DeltaCostEvaluator.INFEASIBLE_COST;
+				}
+				earliestTime = Math.max(earliestTime, earliestTimes[depth - 1] + separationTimes[previous * aircraftCount + aircraft]);
+			}
+			int chainPredecessor = aircraftClasses.getChainPredecessor(aircraft);
+			if (earliestTime > latestLandingTimes[aircraft] || (chainPredecessor >= 0 && !isLanded(chainPredecessor)) ||
+				!precedenceMatrix.canLandAfter(landedAircrafts, aircraft)) {
+				return DeltaCostEvaluator.INFEASIBLE_COST;
+			}
+			earliestTimes[depth] = earliestTime;
+
+			double lowerBound = evaluator.evaluatePrefix(depth, aircraft);
+			for (int other = 0; other < aircraftCount && lowerBound != DeltaCostEvaluator.INFEASIBLE_COST; other++) {
+				if (other == aircraft || isLanded(other)) {
+					continue;
+				}
+				int landingTime = Math.max(earliestLandingTimes[other], earliestTime + minSeparationTimes[other]);
+				if (landingTime > latestLandingTimes[other]) {
+					return DeltaCostEvaluator.INFEASIBLE_COST;
+				}
+				if (landingTime > targetLandingTimes[other]) {
+					lowerBound += (landingTime - targetLandingTimes[other]) * landingAfterTargetTimePenaltyCosts[other];
+				}
+			}
+			return lowerBound;
+		}
+
+		/**
+		 * Explores the subtree of the placed prefix.
+		 *
+		 * @param depth length of the prefix.
+		 * @param forkedTasks list where the tasks forked to explore the siblings of the nodes are added.
+		 */
+		private void explore(int depth, List<SubtreeSearch> forkedTasks) {
+			if (++nodes == TIME_CHECK_INTERVAL) {
+				flushNodeCount();
+				if (System.currentTimeMillis() > deadline || (incumbent != null && incumbent.isStopped())) {
+					aborted = true;
+				} else if (incumbent != null && incumbent.getCost() < upperBound - COST_TOLERANCE) {
+					importIncumbent();
+				}
+			}
+			if (depth == aircraftCount) {
+				// the complete sequence was scheduled when its last aircraft was appended.
+				offerSolution(sequence, evaluator.getCost());
+				return;
+			}
+
+			int[] nodeChildren = children[depth];
+			double[] nodeLowerBounds = lowerBounds[depth];
+			int childCount = 0;
+			for (int aircraft = 0; aircraft < aircraftCount; aircraft++) {
+				if (isLanded(aircraft)) {
+					continue;
+				}
+				double lowerBound = append(depth, aircraft);
+				if (lowerBound < upperBound - COST_TOLERANCE) {
+					// insertion sort by lower bound.
+					int k = childCount++;
+					while (k > 0 && nodeLowerBounds[k - 1] > lowerBound) {
+						nodeChildren[k] = nodeChildren[k - 1];
+						nodeLowerBounds[k] = nodeLowerBounds[k - 1];
+						k--;
+					}
+					nodeChildren[k] = aircraft;
+					nodeLowerBounds[k] = lowerBound;
+				}
+			}
+
+			for (int k = 0; k < childCount && !aborted; k++) {
+				if (nodeLowerBounds[k] >= upperBound - COST_TOLERANCE) {
+					break;
+				}
+				if (k + 1 < childCount && aircraftCount - depth >= MIN_SPLIT_HEIGHT && hasIdleThreads()) {
+					for (int sibling = k + 1; sibling < childCount; sibling++) {
+						int[] prefix = new int[depth + 1];
+						System.arraycopy(sequence, 0, prefix, 0, depth);
+						prefix[depth] = nodeChildren[sibling];
+						SubtreeSearch task = new SubtreeSearch(prefix);
+						task.fork();
+						forkedTasks.add(task);
+					}
+					childCount = k + 1;
+				}
+
+				int child = nodeChildren[k];
+				append(depth, child);
+				place(depth, child);
+				explore(depth + 1, forkedTasks);
+				remove(child);
+			}
+		}
+
+		private void flushNodeCount() {
+			exploredNodes.addAndGet(nodes);
+			nodes = 0;
+		}
+	}
+}
@@ -0,0 +1,363 @@
+package br.ufrgs.inf.ga;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.Solution;
+
+/**
+ * Constrained position shifting (CPS) scheduler: a dynamic programming over the landing orders where each aircraft lands
+ * at most <code>k</code> positions away from its position in the first come, first served order (by target time).
+ *
+ * <p>
+ * After the first p positions of a CPS landing sequence are filled, every aircraft whose FCFS position is less than p - k
+ * has landed, and none whose FCFS position is p + k or more has. So the set of landed aircrafts is given by a mask of the
+ * 2k FCFS positions around p, and a state of the position p is that mask plus the last landed aircraft (one of the 2k + 1
+ * FCFS positions before the window end), encoded in a single int. There are at most <code>C(2k, k) (2k + 1)</code>
+ * reachable states per position, so the search takes <code>O(n C(2k, k) k)</code> time for n aircrafts.
+ * </p>
+ *
+ * <p>
+ * As the landing times are not fixed by the landing order, each state keeps a few labels: pairs of (cost, landing time of the
+ * last aircraft) that don't dominate each other. Each aircraft lands as soon as possible after the previous one or, if it is
+ * before its target time, at the target time. The best landing times of the final landing order are calculated by a
+ * {@link DeltaCostEvaluator}.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class ConstrainedPositionShifting {
+
+	/**
+	 * Max number of positions that an aircraft may be shifted (the states of a position are stored in arrays of
+	 * <code>2^(2k) (2k + 1)</code> entries).
+	 */
+	public static final int MAX_SHIFT = 6;
+
+	/**
+	 * Max number of non dominated labels kept by each state.
+	 */
+	private static final int MAX_LABELS = 4;
+
+	private final AtcInstance instance;
+
+	private final int aircraftCount;
+
+	private final int[] earliestLandingTimes;
+
+	private final int[] targetLandingTimes;
+
+	private final int[] latestLandingTimes;
+
+	private final int[] separationTimes;
+
+	/**
+	 * Aircraft ids in first come, first served order (by target time).
+	 */
+	private final int[] fcfsOrder;
+
+	/**
+	 * Max number of positions that an aircraft may be shifted.
+	 */
+	private final int maxShift;
+
+	/**
+	 * Number of possible last aircrafts of a state (2k + 1).
+	 */
+	private final int width;
+
+	/**
+	 * Labels of the states of the current and of the next position, indexed by <code>state * MAX_LABELS + label</code>.
+	 */
+	private StateLayer current;
+
+	private StateLayer next;
+
+	/**
+	 * Parent label and landed FCFS position of every label created (the labels are never removed from it, so the landing
+	 * order of any label can be rebuilt).
+	 */
+	private int[] labelParents = new int[1024];
+
+	private int[] labelPositions = new int[1024];
+
+	private int labelCount;
+
+	/**
+	 * Number of states reached by the last execution.
+	 */
+	private long reachedStates;
+
+	/**
+	 * Solution found by the last execution.
+	 */
+	private Solution solution;
+
+	/**
+	 * @param aircrafts aircrafts static data loaded from an input file.
+	 * @param maxShift max number of positions that an aircraft may be shifted from its first come, first served position
+	 * 		  (from 0 to {@link #MAX_SHIFT}).
+	 */
+	public ConstrainedPositionShifting(AircraftStaticData[] aircrafts, int maxShift) {
+		if (maxShift < 0 || maxShift > MAX_SHIFT) {
+			throw new IllegalArgumentException("The max position shift must be between 0 and " + MAX_SHIFT + ".");
+		}
+		this.instance = new AtcInstance(aircrafts);
+		this.aircraftCount = instance.getAircraftCount();
+		this.earliestLandingTimes = instance.getEarliestLandingTimes();
+		this.targetLandingTimes = instance.getTargetLandingTimes();
+		this.latestLandingTimes = instance.getLatestLandingTimes();
+		this.separationTimes = instance.getSeparationTimes();
+		this.maxShift = maxShift;
+		this.width = 2 * maxShift + 1;
+
+		Integer[] order = new Integer[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				if (targetLandingTimes[i] != targetLandingTimes[j]) {
+					return targetLandingTimes[i] < targetLandingTimes[j] ? -1 : 1;
+				}
+				if (earliestLandingTimes[i] != earliestLandingTimes[j]) {
+					return earliestLandingTimes[i] < earliestLandingTimes[j] ? -1 : 1;
+				}
+				return i.compareTo(j);
+			}
+		});
+		this.fcfsOrder = new int[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			fcfsOrder[i] = order[i];
+		}
+	}
+
+	/**
+	 * Finds the best CPS landing sequence and builds the solution. If there is no feasible CPS landing sequence,
+	 * the solution is the FCFS landing order (with infeasible landing times).
+	 */
+	public void execute() {
+		int states = (1 << (2 * maxShift)) * width;
+		current = new StateLayer(states);
+		next = new StateLayer(states);
+		labelCount = 0;
+		reachedStates = 0;
+
+		// the FCFS positions before the first one are landed.
+		int initialMask = (1 << maxShift) - 1;
+		current.labelIds[current.add(initialMask * width, 0, Integer.MIN_VALUE)] = -1;
+
+		for (int position = 0; position < aircraftCount && current.activeCount > 0; position++) {
+			expand(position);
+			reachedStates += next.activeCount;
+			StateLayer swap = current;
+			current = next;
+			next = swap;
+			next.clear();
+		}
+
+		int[] aircraftIds = new int[aircraftCount];
+		int bestLabel = current.getBestLabel();
+		if (aircraftCount > 0 && bestLabel >= 0) {
+			int label = current.labelIds[bestLabel];
+			for (int position = aircraftCount - 1; position >= 0; position--) {
+				aircraftIds[position] = fcfsOrder[labelPositions[label]];
+				label = labelParents[label];
+			}
+		} else {
+			System.arraycopy(fcfsOrder, 0, aircraftIds, 0, aircraftCount);
+		}
+
+		int[] landingTimes = new int[aircraftCount];
+		new ConstructiveScheduler(instance).schedule(aircraftIds, landingTimes);
+		Aircraft[] landingSequence = instance.createLandingSequence(aircraftIds, landingTimes);
+		Individual bestIndividual = new Individual(landingSequence, new FitnessEvaluator().evaluate(landingSequence));
+		this.solution = new Solution(null, bestIndividual, 0, 0, 0);
+	}
+
+	/**
+	 * Creates the states of the position + 1 by landing an aircraft at the position from each state of the position.
+	 */
+	private void expand(int position) {
+		int windowStart = position - maxShift;
+		for (int s = 0; s < current.activeCount; s++) {
+			int state = current.activeStates[s];
+			int mask = state / width;
+			int previous = position == 0 ? -1 : fcfsOrder[windowStart - 1 + state % width];
+
+			for (int offset = 0; offset < width; offset++) {
+				int fcfsPosition = windowStart + offset;
+				if (fcfsPosition >= aircraftCount) {
+					break;
+				}
+				if (fcfsPosition < 0 || (mask & (1 << offset)) != 0) {
+					continue;
+				}
+				// the aircraft whose window ends at this position must land now.
+				if (offset > 0 && (mask & 1) == 0) {
+					break;
+				}
+				int aircraft = fcfsOrder[fcfsPosition];
+				int nextState = ((mask | (1 << offset)) >>> 1) * width + offset;
+
+				for (int l = 0; l < current.labelCounts[state]; l++) {
+					int slot = state * MAX_LABELS + l;
+					int earliestTime = earliestLandingTimes[aircraft];
+					if (previous >= 0) {
+						earliestTime = Math.max(earliestTime, current.times[slot] + separationTimes[previous * aircraftCount + aircraft]);
+					}
+					if (earliestTime > latestLandingTimes[aircraft]) {
+						continue;
+					}
+					double cost = current.costs[slot];
+					int parent = current.labelIds[slot];
+					addLabel(nextState, cost + instance.getLandingCost(aircraft, earliestTime), earliestTime, parent, fcfsPosition);
+					if (earliestTime < targetLandingTimes[aircraft]) {
+						addLabel(nextState, cost, targetLandingTimes[aircraft], parent, fcfsPosition);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a label to a state of the next position and, if it is kept, registers it in the landing orders log.
+	 */
+	private void addLabel(int state, double cost, int time, int parent, int fcfsPosition) {
+		int slot = next.add(state, cost, time);
+		if (slot < 0) {
+			return;
+		}
+		if (labelCount == labelParents.length) {
+			labelParents = Arrays.copyOf(labelParents, 2 * labelCount);
+			labelPositions = Arrays.copyOf(labelPositions, 2 * labelCount);
+		}
+		labelParents[labelCount] = parent;
+		labelPositions[labelCount] = fcfsPosition;
+		next.labelIds[slot] = labelCount++;
+	}
+
+	/**
+	 * @return the solution found by the last execution.
+	 */
+	public Solution getSolution() {
+		return solution;
+	}
+
+	/**
+	 * @return number of states reached by the last execution.
+	 */
+	public long getReachedStateCount() {
+		return reachedStates;
+	}
+
+	/**
+	 * @return number of labels created by the last execution.
+	 */
+	public int getLabelCount() {
+		return labelCount;
+	}
+
+	/**
+	 * @return the aircraft ids in first come, first served order (by target time).
+	 */
+	public int[] getFcfsOrder() {
+		return fcfsOrder.clone();
+	}
+
+	/**
+	 * Labels of the states of a position, in primitive arrays.
+	 */
+	private static class StateLayer {
+		private final int[] labelCounts;
+		private final double[] costs;
+		private final int[] times;
+		private final int[] labelIds;
+
+		/**
+		 * States with at least one label.
+		 */
+		private final int[] activeStates;
+		private int activeCount;
+
+		StateLayer(int states) {
+			this.labelCounts = new int[states];
+			this.costs = new double[states * MAX_LABELS];
+			this.times = new int[states * MAX_LABELS];
+			this.labelIds = new int[states * MAX_LABELS];
+			this.activeStates = new int[states];
+		}
+
+		/**
+		 * Adds a label to a state, unless it is dominated by a label of the state. The labels it dominates are removed and,
+		 * if the state is full, it replaces the label with the highest cost.
+		 *
+		 * @return the slot of the label, or -1 if it is not kept.
+		 */
+		int add(int state, double cost, int time) {
+			int first = state * MAX_LABELS;
+			int count = labelCounts[state];
+			if (count == 0) {
+				activeStates[activeCount++] = state;
+			}
+			int worst = -1;
+			for (int slot = first; slot < first + count; slot++) {
+				if (costs[slot] <= cost && times[slot] <= time) {
+					return -1;
+				}
+				if (cost <= costs[slot] && time <= times[slot]) {
+					// removes the dominated label (the last label takes its slot).
+					count--;
+					costs[slot] = costs[first + count];
+					times[slot] = times[first + count];
+					labelIds[slot] = labelIds[first + count];
+					slot--;
+				} else if (worst < 0 || costs[slot] > costs[worst]) {
+					worst = slot;
+				}
+			}
+			int slot = first + count;
+			if (count == MAX_LABELS) {
+				if (cost >= costs[worst]) {
+					return -1;
+				}
+				slot = worst;
+			} else {
+				count++;
+			}
+			costs[slot] = cost;
+			times[slot] = time;
+			labelCounts[state] = count;
+			return slot;
+		}
+
+		/**
+		 * @return the slot of the label with the lowest cost, or -1 if there is no label.
+		 */
+		int getBestLabel() {
+			int best = -1;
+			for (int s = 0; s < activeCount; s++) {
+				int state = activeStates[s];
+				for (int slot = state * MAX_LABELS; slot < state * MAX_LABELS + labelCounts[state]; slot++) {
+					if (best < 0 || costs[slot] < costs[best]) {
+						best = slot;
+					}
+				}
+			}
+			return best;
+		}
+
+		void clear() {
+			for (int s = 0; s < activeCount; s++) {
+				labelCounts[activeStates[s]] = 0;
+			}
+			activeCount = 0;
+		}
+	}
+}
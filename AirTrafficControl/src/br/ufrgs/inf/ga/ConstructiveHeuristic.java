@@ -0,0 +1,46 @@
+package br.ufrgs.inf.ga;
+
+/**
+ * Constructive heuristics that build a landing order without any search.
+ * 
+ * @author diego
+ *
+ */
+public enum ConstructiveHeuristic {
+	
+	/**
+	 * Aircrafts in the order of their latest landing times (deadlines). O(n log n).
+	 */
+	EARLIEST_DEADLINE_FIRST(true),
+	
+	/**
+	 * First come first served by target time: at each step, the next aircraft is chosen among the next unscheduled ones
+	 * in target time order, by the cost of landing it plus the delay it imposes on the others. O(n k^2) for k aircrafts in the window.
+	 */
+	TARGET_TIME_LOOK_AHEAD(true),
+	
+	/**
+	 * Apparent tardiness cost priority rule: at each step, the aircraft with the highest tardiness penalty, discounted
+	 * by how early it can land before its target time, is the next one. O(n^2).
+	 */
+	WEIGHTED_TARDINESS(true),
+	
+	/**
+	 * Greedy insertion by regret: at each step, the aircraft with the largest difference between its best and its second best
+	 * insertion positions is inserted at its best position. O(n^3) insertion evaluations, so it isn't used by the fast mode.
+	 */
+	REGRET_INSERTION(false);
+	
+	/**
+	 * True if the heuristic has a low latency even for large instances.
+	 */
+	private final boolean fast;
+	
+	private ConstructiveHeuristic(boolean fast) {
+		this.fast = fast;
+	}
+	
+	public boolean isFast() {
+		return fast;
+	}
+}
@@ -0,0 +1,438 @@
+package br.ufrgs.inf.ga;
+
+import java.util.Arrays;
+
+import br.ufrgs.inf.atc.model.AtcInstance;
+
+/**
+ * Builds landing schedules with the {@link ConstructiveHeuristic}s, without running the genetic algorithm.
+ * 
+ * <p>
+ * The heuristics build a landing order: while building it, each aircraft lands at its target time, or as soon as
+ * possible after the previous landing. The landing times of the final order are then the best ones for that order,
+ * calculated by the {@link DeltaCostEvaluator}. These schedules are a fallback when there is no time to optimize,
+ * and strong seeds for the genetic algorithm population.
+ * </p>
+ * 
+ * <p>
+ * An instance of this class keeps reusable buffers: it is not thread safe.
+ * </p>
+ * 
+ * @author diego
+ * 
+ */
+public class ConstructiveScheduler {
+	
+	/**
+	 * Number of unscheduled aircrafts (in target time order) considered by the look ahead heuristic.
+	 */
+	private static final int LOOK_AHEAD_WINDOW = 4;
+	
+	/**
+	 * Scale of the target time slack in the apparent tardiness cost priority, in average gap times.
+	 */
+	private static final double TARDINESS_LOOK_AHEAD = 2;
+	
+	private static final double INFEASIBLE_COST = DeltaCostEvaluator.INFEASIBLE_COST;
+	
+	private final AtcInstance instance;
+	
+	private final int aircraftCount;
+	
+	private final int[] earliestLandingTimes;
+	
+	private final int[] targetLandingTimes;
+	
+	private final int[] latestLandingTimes;
+	
+	private final float[] landingAfterTargetTimePenaltyCosts;
+	
+	/**
+	 * Aircraft ids sorted by target time.
+	 */
+	private final int[] targetTimeOrder;
+	
+	/**
+	 * Average gap time between two landings.
+	 */
+	private final double averageSeparationTime;
+	
+	/**
+	 * Calculates the best landing times of the built landing orders.
+	 */
+	private final DeltaCostEvaluator evaluator;
+	
+	/**
+	 * Buffers of the heuristics: aircrafts already in the landing order, and the landing times and costs of the partial order.
+	 */
+	private final boolean[] scheduled;
+	
+	private final int[] window;
+	
+	private final int[] partialLandingTimes;
+	
+	private final double[] partialLandingCosts;
+	
+	/**
+	 * @param instance ATC problem instance.
+	 */
+	public ConstructiveScheduler(AtcInstance instance) {
+		this.instance = instance;
+		this.aircraftCount = instance.getAircraftCount();
+		this.earliestLandingTimes = instance.getEarliestLandingTimes();
+		this.targetLandingTimes = instance.getTargetLandingTimes();
+		this.latestLandingTimes = instance.getLatestLandingTimes();
+		this.landingAfterTargetTimePenaltyCosts = instance.getLandingAfterTargetTimePenaltyCosts();
+		this.evaluator = new DeltaCostEvaluator(instance);
+		this.scheduled = new boolean[aircraftCount];
+		this.window = new int[LOOK_AHEAD_WINDOW];
+		this.partialLandingTimes = new int[aircraftCount];
+		this.partialLandingCosts = new double[aircraftCount];
+		
+		this.targetTimeOrder = sortBy(targetLandingTimes, null);
+		
+		long separationTimeSum = 0;
+		for (int separationTime : instance.getSeparationTimes()) {
+			separationTimeSum += separationTime;
+		}
+		long pairs = (long) aircraftCount * (aircraftCount - 1);
+		this.averageSeparationTime = pairs == 0 ? 1 : Math.max(1, (double) separationTimeSum / pairs);
+	}
+	
+	/**
+	 * Builds a landing order with a heuristic.
+	 * 
+	 * @param heuristic constructive heuristic.
+	 * @return aircraft ids in landing order.
+	 */
+	public int[] createLandingOrder(ConstructiveHeuristic heuristic) {
+		switch (heuristic) {
+		case EARLIEST_DEADLINE_FIRST:
+			return sortBy(latestLandingTimes, targetTimeOrder);
+		case TARGET_TIME_LOOK_AHEAD:
+			return createTargetTimeLookAheadOrder();
+		case WEIGHTED_TARDINESS:
+			return createWeightedTardinessOrder();
+		default:
+			return createRegretInsertionOrder();
+		}
+	}
+	
+	/**
+	 * Calculates the best landing times for a landing order. If the order can't be scheduled inside the landing time windows,
+	 * each aircraft lands at its target time or as soon as possible after the previous one (an infeasible schedule).
+	 * 
+	 * @param aircraftIds aircraft ids in landing order.
+	 * @param landingTimes vector where the landing time of each position is written.
+	 * @return the cost of the schedule, or {@link DeltaCostEvaluator#INFEASIBLE_COST}.
+	 */
+	public double schedule(int[] aircraftIds, int[] landingTimes) {
+		double cost = evaluator.evaluate(aircraftIds);
+		if (cost != INFEASIBLE_COST) {
+			evaluator.getLandingTimes(landingTimes);
+			return cost;
+		}
+		int previous = -1;
+		for (int i = 0; i < aircraftCount; i++) {
+			landingTimes[i] = getLandingTime(previous, i == 0 ? 0 : landingTimes[i - 1], aircraftIds[i]);
+			previous = aircraftIds[i];
+		}
+		return INFEASIBLE_COST;
+	}
+	
+	/**
+	 * Builds a landing order with each heuristic and keeps the schedule with the lowest cost.
+	 * 
+	 * @param fastOnly if true, just the {@link ConstructiveHeuristic#isFast() fast} heuristics are used.
+	 * @param aircraftIds vector where the best landing order is written.
+	 * @param landingTimes vector where the landing times of the best landing order are written.
+	 * @return the heuristic that built the best landing order.
+	 */
+	public ConstructiveHeuristic createBestSchedule(boolean fastOnly, int[] aircraftIds, int[] landingTimes) {
+		ConstructiveHeuristic bestHeuristic = null;
+		double bestCost = 0;
+		int[] trialLandingTimes = new int[aircraftCount];
+		for (ConstructiveHeuristic heuristic : ConstructiveHeuristic.values()) {
+			if (fastOnly && !heuristic.isFast()) {
+				continue;
+			}
+			int[] order = createLandingOrder(heuristic);
+			double cost = schedule(order, trialLandingTimes);
+			if (bestHeuristic == null || cost < bestCost) {
+				bestHeuristic = heuristic;
+				bestCost = cost;
+				System.arraycopy(order, 0, aircraftIds, 0, aircraftCount);
+				System.arraycopy(trialLandingTimes, 0, landingTimes, 0, aircraftCount);
+			}
+		}
+		return bestHeuristic;
+	}
+	
+	/**
+	 * First come first served by target time, with a look ahead: the next aircraft is the one, among the next unscheduled
+	 * aircrafts in target time order, that minimizes its landing cost plus the cost of landing the others right after it.
+	 */
+	private int[] createTargetTimeLookAheadOrder() {
+		int[] order = new int[aircraftCount];
+		Arrays.fill(scheduled, false);
+		int previous = -1;
+		int previousTime = 0;
+		int first = 0;
+		
+		for (int position = 0; position < aircraftCount; position++) {
+			while (scheduled[targetTimeOrder[first]]) {
+				first++;
+			}
+			int windowSize = 0;
+			for (int k = first; k < aircraftCount && windowSize < LOOK_AHEAD_WINDOW; k++) {
+				if (!scheduled[targetTimeOrder[k]]) {
+					window[windowSize++] = targetTimeOrder[k];
+				}
+			}
+			
+			int next = -1;
+			double nextCost = INFEASIBLE_COST;
+			for (int i = 0; i < windowSize; i++) {
+				int candidate = window[i];
+				int landingTime = getLandingTime(previous, previousTime, candidate);
+				double cost = getLandingCost(candidate, landingTime);
+				for (int j = 0; j < windowSize && cost < nextCost; j++) {
+					if (j != i) {
+						cost += getLandingCost(window[j], getLandingTime(candidate, landingTime, window[j]));
+					}
+				}
+				if (cost < nextCost) {
+					next = candidate;
+					nextCost = cost;
+				}
+			}
+			if (next < 0) {
+				// no candidate keeps the window feasible: the most urgent one lands first.
+				next = getEarliestDeadline(window, windowSize);
+			}
+			
+			order[position] = next;
+			scheduled[next] = true;
+			previousTime = getLandingTime(previous, previousTime, next);
+			previous = next;
+		}
+		return order;
+	}
+	
+	/**
+	 * Apparent tardiness cost priority rule: the priority of an aircraft is its tardiness penalty per gap time,
+	 * discounted exponentially by the time it would wait for its target time. If landing the chosen aircraft makes
+	 * another one miss its latest landing time, the aircraft with the least slack lands first instead.
+	 */
+	private int[] createWeightedTardinessOrder() {
+		int[] order = new int[aircraftCount];
+		Arrays.fill(scheduled, false);
+		int previous = -1;
+		int previousTime = 0;
+		
+		for (int position = 0; position < aircraftCount; position++) {
+			int next = -1;
+			double nextPriority = -1;
+			for (int aircraft = 0; aircraft < aircraftCount; aircraft++) {
+				if (scheduled[aircraft]) {
+					continue;
+				}
+				int start = getEarliestLandingTime(previous, previousTime, aircraft);
+				int separationTime = previous < 0 ? 1 : Math.max(1, instance.getSeparationTime(previous, aircraft));
+				double priority = (landingAfterTargetTimePenaltyCosts[aircraft] + 1) / separationTime *
+						Math.exp(-Math.max(0, targetLandingTimes[aircraft] - start) / (TARDINESS_LOOK_AHEAD * averageSeparationTime));
+				if (priority > nextPriority) {
+					next = aircraft;
+					nextPriority = priority;
+				}
+			}
+			
+			int nextLandingTime = getLandingTime(previous, previousTime, next);
+			int urgent = -1;
+			int urgentSlack = Integer.MAX_VALUE;
+			boolean missedDeadline = false;
+			for (int aircraft = 0; aircraft < aircraftCount; aircraft++) {
+				if (scheduled[aircraft] || aircraft == next) {
+					continue;
+				}
+				int slack = latestLandingTimes[aircraft] - getEarliestLandingTime(previous, previousTime, aircraft);
+				if (slack < urgentSlack) {
+					urgent = aircraft;
+					urgentSlack = slack;
+				}
+				missedDeadline |= getEarliestLandingTime(next, nextLandingTime, aircraft) > latestLandingTimes[aircraft];
+			}
+			if (missedDeadline) {
+				next = urgent;
+			}
+			
+			order[position] = next;
+			scheduled[next] = true;
+			previousTime = getLandingTime(previous, previousTime, next);
+			previous = next;
+		}
+		return order;
+	}
+	
+	/**
+	 * Greedy insertion by regret: starts from an empty order and, at each step, inserts the aircraft with the largest
+	 * difference between the costs of its second best and its best insertion positions (the one that would lose more by
+	 * waiting), at its best position. Aircrafts that can be inserted at a single position go first.
+	 */
+	private int[] createRegretInsertionOrder() {
+		int[] order = new int[aircraftCount];
+		Arrays.fill(scheduled, false);
+		
+		for (int size = 0; size < aircraftCount; size++) {
+			int next = -1;
+			int nextPosition = size;
+			double nextRegret = -1;
+			double nextBestCost = INFEASIBLE_COST;
+			for (int aircraft = 0; aircraft < aircraftCount; aircraft++) {
+				if (scheduled[aircraft]) {
+					continue;
+				}
+				int bestPosition = size;
+				double bestCost = INFEASIBLE_COST;
+				double secondBestCost = INFEASIBLE_COST;
+				for (int position = 0; position <= size; position++) {
+					double cost = getInsertionCost(order, size, aircraft, position);
+					if (cost < bestCost) {
+						secondBestCost = bestCost;
+						bestCost = cost;
+						bestPosition = position;
+					} else if (cost < secondBestCost) {
+						secondBestCost = cost;
+					}
+				}
+				if (bestCost == INFEASIBLE_COST) {
+					continue;
+				}
+				double regret = secondBestCost == INFEASIBLE_COST ? Double.MAX_VALUE : secondBestCost - bestCost;
+				if (regret > nextRegret || (regret == nextRegret && bestCost < nextBestCost)) {
+					next = aircraft;
+					nextPosition = bestPosition;
+					nextRegret = regret;
+					nextBestCost = bestCost;
+				}
+			}
+			if (next < 0) {
+				// no aircraft fits in the partial order: the most urgent one is appended (the order is infeasible).
+				next = getEarliestDeadlineUnscheduled();
+				nextPosition = size;
+			}
+			
+			System.arraycopy(order, nextPosition, order, nextPosition + 1, size - nextPosition);
+			order[nextPosition] = next;
+			scheduled[next] = true;
+			updatePartialSchedule(order, size + 1, nextPosition);
+		}
+		return order;
+	}
+	
+	/**
+	 * Calculates how much the cost of the partial order increases if an aircraft is inserted at a position.
+	 * The landing times after the position are recalculated until they are the same of the partial order.
+	 */
+	private double getInsertionCost(int[] order, int size, int aircraft, int position) {
+		int previous = position == 0 ? -1 : order[position - 1];
+		int previousTime = position == 0 ? 0 : partialLandingTimes[position - 1];
+		int landingTime = getLandingTime(previous, previousTime, aircraft);
+		double cost = getLandingCost(aircraft, landingTime);
+		
+		previous = aircraft;
+		previousTime = landingTime;
+		for (int k = position; k < size && cost != INFEASIBLE_COST; k++) {
+			landingTime = getLandingTime(previous, previousTime, order[k]);
+			if (landingTime == partialLandingTimes[k] && k > position) {
+				break;
+			}
+			cost += getLandingCost(order[k], landingTime) - partialLandingCosts[k];
+			previous = order[k];
+			previousTime = landingTime;
+		}
+		return cost;
+	}
+	
+	/**
+	 * Recalculates the landing times and costs of the partial order from a position on.
+	 */
+	private void updatePartialSchedule(int[] order, int size, int from) {
+		for (int k = from; k < size; k++) {
+			int previous = k == 0 ? -1 : order[k - 1];
+			int previousTime = k == 0 ? 0 : partialLandingTimes[k - 1];
+			partialLandingTimes[k] = getLandingTime(previous, previousTime, order[k]);
+			partialLandingCosts[k] = getLandingCost(order[k], partialLandingTimes[k]);
+		}
+	}
+	
+	/**
+	 * @return the earliest time an aircraft can land after the previous landing (-1 if it is the first one).
+	 */
+	private int getEarliestLandingTime(int previous, int previousTime, int aircraft) {
+		if (previous < 0) {
+			return earliestLandingTimes[aircraft];
+		}
+		return Math.max(earliestLandingTimes[aircraft], previousTime + instance.getSeparationTime(previous, aircraft));
+	}
+	
+	/**
+	 * @return the target time of an aircraft, or the earliest time it can land after the previous landing, if it is later.
+	 */
+	private int getLandingTime(int previous, int previousTime, int aircraft) {
+		return Math.max(targetLandingTimes[aircraft], getEarliestLandingTime(previous, previousTime, aircraft));
+	}
+	
+	/**
+	 * @return the landing cost of an aircraft, or {@link #INFEASIBLE_COST} if it is after its latest landing time.
+	 */
+	private double getLandingCost(int aircraft, int landingTime) {
+		return landingTime > latestLandingTimes[aircraft] ? INFEASIBLE_COST : instance.getLandingCost(aircraft, landingTime);
+	}
+	
+	private int getEarliestDeadline(int[] aircrafts, int count) {
+		int earliest = aircrafts[0];
+		for (int i = 1; i < count; i++) {
+			if (latestLandingTimes[aircrafts[i]] < latestLandingTimes[earliest]) {
+				earliest = aircrafts[i];
+			}
+		}
+		return earliest;
+	}
+	
+	private int getEarliestDeadlineUnscheduled() {
+		int earliest = -1;
+		for (int aircraft = 0; aircraft < aircraftCount; aircraft++) {
+			if (!scheduled[aircraft] && (earliest < 0 || latestLandingTimes[aircraft] < latestLandingTimes[earliest])) {
+				earliest = aircraft;
+			}
+		}
+		return earliest;
+	}
+	
+	/**
+	 * Sorts the aircraft ids by a time.
+	 * 
+	 * @param times time of each aircraft.
+	 * @param tieOrder order of the aircrafts with the same time, or null for the aircraft id order.
+	 * @return the sorted aircraft ids.
+	 */
+	private int[] sortBy(int[] times, int[] tieOrder) {
+		int[] ranks = new int[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			ranks[tieOrder == null ? i : tieOrder[i]] = i;
+		}
+		long[] keys = new long[aircraftCount];
+		for (int aircraft = 0; aircraft < aircraftCount; aircraft++) {
+			keys[aircraft] = ((long) times[aircraft] << 32) | ranks[aircraft];
+		}
+		Arrays.sort(keys);
+		
+		int[] order = new int[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			int rank = (int) keys[i];
+			order[i] = tieOrder == null ? rank : tieOrder[rank];
+		}
+		return order;
+	}
+}
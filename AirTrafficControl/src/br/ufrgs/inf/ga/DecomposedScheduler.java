@@ -0,0 +1,257 @@
+package br.ufrgs.inf.ga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import br.ufrgs.inf.atc.InstanceDecomposition;
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.exceptions.AlgorithmException;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.Solution;
+
+/**
+ * Schedules the landings of an instance by solving its independent clusters (see {@link InstanceDecomposition}) in parallel,
+ * and concatenating the landing sequences of the clusters in a single solution.
+ * 
+ * <p>
+ * The small clusters are solved exactly, by enumerating their landing orders with the best landing times of each order.
+ * The other ones are solved by a genetic algorithm created by a {@link GeneticAlgorithmFactory}.
+ * </p>
+ * 
+ * @author diego
+ *
+ */
+public class DecomposedScheduler {
+	
+	/**
+	 * Max number of aircrafts of the clusters solved by enumeration of their landing orders.
+	 */
+	public static final int EXACT_SOLVER_MAX_AIRCRAFTS = 8;
+	
+	/**
+	 * Aircrafts static data of the whole instance.
+	 */
+	private final AircraftStaticData[] aircrafts;
+	
+	/**
+	 * Independent clusters of the instance.
+	 */
+	private final InstanceDecomposition decomposition;
+	
+	/**
+	 * Creates the genetic algorithms of the large clusters.
+	 */
+	private final GeneticAlgorithmFactory geneticAlgorithmFactory;
+	
+	/**
+	 * Max number of generations of the genetic algorithms (reported in the solution).
+	 */
+	private final int maxGenerations;
+	
+	/**
+	 * Number of clusters solved at the same time.
+	 */
+	private final int threads;
+	
+	/**
+	 * Solution found by the last execution.
+	 */
+	private Solution solution;
+	
+	/**
+	 * @param aircrafts aircrafts static data loaded from an input file.
+	 * @param geneticAlgorithmFactory creates the genetic algorithms of the large clusters.
+	 * @param maxGenerations max number of generations of the genetic algorithms.
+	 * @param threads number of clusters solved at the same time.
+	 */
+	public DecomposedScheduler(AircraftStaticData[] aircrafts, GeneticAlgorithmFactory geneticAlgorithmFactory, int maxGenerations, int threads) {
+		this.aircrafts = aircrafts;
+		this.decomposition = new InstanceDecomposition(aircrafts);
+		this.geneticAlgorithmFactory = geneticAlgorithmFactory;
+		this.maxGenerations = maxGenerations;
+		this.threads = Math.max(1, threads);
+	}
+	
+	/**
+	 * Solves the clusters and builds the solution of the whole instance.
+	 * 
+	 * @throws AlgorithmException thrown if the algorithm of a cluster fails.
+	 */
+	public void execute() throws AlgorithmException {
+		int clusterCount = decomposition.getClusterCount();
+		
+		// the largest clusters are started first, so that they don't end up running alone at the end.
+		Integer[] clusters = new Integer[clusterCount];
+		for (int cluster = 0; cluster < clusterCount; cluster++) {
+			clusters[cluster] = cluster;
+		}
+		Arrays.sort(clusters, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer cluster1, Integer cluster2) {
+				return decomposition.getAircraftIds(cluster2).length - decomposition.getAircraftIds(cluster1).length;
+			}
+		});
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, clusterCount)));
+		try {
+			List<Future<ClusterSolution>> results = new ArrayList<Future<ClusterSolution>>(clusterCount);
+			for (int cluster = 0; cluster < clusterCount; cluster++) {
+				results.add(null);
+			}
+			for (final Integer cluster : clusters) {
+				results.set(cluster, executor.submit(new Callable<ClusterSolution>() {
+					@Override
+					public ClusterSolution call() throws Exception {
+						return solveCluster(cluster);
+					}
+				}));
+			}
+			
+			List<ClusterSolution> clusterSolutions = new ArrayList<ClusterSolution>(clusterCount);
+			for (Future<ClusterSolution> result : results) {
+				clusterSolutions.add(result.get());
+			}
+			this.solution = createSolution(clusterSolutions);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AlgorithmException("The decomposed scheduling was interrupted.", e);
+		} catch (ExecutionException e) {
+			throw new AlgorithmException("The scheduling of a cluster has failed.", e);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Solves a cluster by enumeration (small clusters) or by a genetic algorithm.
+	 */
+	private ClusterSolution solveCluster(int cluster) throws AlgorithmException {
+		AircraftStaticData[] clusterAircrafts = decomposition.createClusterInstance(cluster);
+		if (clusterAircrafts.length <= EXACT_SOLVER_MAX_AIRCRAFTS) {
+			return solveClusterExactly(cluster, new AtcInstance(clusterAircrafts));
+		}
+		
+		GeneticAlgorithm geneticAlgorithm = geneticAlgorithmFactory.create(clusterAircrafts);
+		geneticAlgorithm.execute();
+		Solution clusterSolution = geneticAlgorithm.getSolution();
+		Aircraft[] landingSequence = clusterSolution.getBestIndividualFound().getAircraftLandingSequence();
+		
+		ClusterSolution result = new ClusterSolution(cluster, landingSequence.length);
+		for (int i = 0; i < landingSequence.length; i++) {
+			result.aircraftIds[i] = landingSequence[i].getId();
+			result.landingTimes[i] = landingSequence[i].getLandingTime();
+		}
+		result.generationCount = clusterSolution.getGenerationCount();
+		result.generationsWithoutImprovement = clusterSolution.getGenerationsWithoutImprovement();
+		return result;
+	}
+	
+	/**
+	 * Enumerates the landing orders of a small cluster (Heap's algorithm), with the best landing times of each order.
+	 */
+	private ClusterSolution solveClusterExactly(int cluster, AtcInstance instance) {
+		int aircraftCount = instance.getAircraftCount();
+		DeltaCostEvaluator deltaCostEvaluator = new DeltaCostEvaluator(instance);
+		ClusterSolution result = new ClusterSolution(cluster, aircraftCount);
+		int[] aircraftIds = new int[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			aircraftIds[i] = i;
+		}
+		
+		double bestCost = deltaCostEvaluator.evaluate(aircraftIds);
+		System.arraycopy(aircraftIds, 0, result.aircraftIds, 0, aircraftCount);
+		int[] counters = new int[aircraftCount];
+		int i = 1;
+		while (i < aircraftCount) {
+			if (counters[i] < i) {
+				int j = i % 2 == 0 ? 0 : counters[i];
+				int swap = aircraftIds[i];
+				aircraftIds[i] = aircraftIds[j];
+				aircraftIds[j] = swap;
+				
+				double cost = deltaCostEvaluator.evaluate(aircraftIds);
+				if (cost < bestCost) {
+					bestCost = cost;
+					System.arraycopy(aircraftIds, 0, result.aircraftIds, 0, aircraftCount);
+				}
+				counters[i]++;
+				i = 1;
+			} else {
+				counters[i] = 0;
+				i++;
+			}
+		}
+		
+		deltaCostEvaluator.evaluate(result.aircraftIds);
+		if (!deltaCostEvaluator.getLandingTimes(result.landingTimes)) {
+			// there are no valid landing times for any landing order.
+			for (int k = 0; k < aircraftCount; k++) {
+				result.landingTimes[k] = instance.getTargetLandingTimes()[result.aircraftIds[k]];
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Concatenates the landing sequences of the clusters, in cluster order.
+	 */
+	private Solution createSolution(List<ClusterSolution> clusterSolutions) {
+		Aircraft[] landingSequence = new Aircraft[aircrafts.length];
+		int position = 0;
+		int generationCount = 0;
+		int generationsWithoutImprovement = Integer.MAX_VALUE;
+		for (ClusterSolution clusterSolution : clusterSolutions) {
+			int[] clusterAircraftIds = decomposition.getAircraftIds(clusterSolution.cluster);
+			for (int i = 0; i < clusterSolution.aircraftIds.length; i++) {
+				Aircraft aircraft = new Aircraft(aircrafts[clusterAircraftIds[clusterSolution.aircraftIds[i]]]);
+				aircraft.setLandingTime(clusterSolution.landingTimes[i]);
+				landingSequence[position++] = aircraft;
+			}
+			generationCount = Math.max(generationCount, clusterSolution.generationCount);
+			generationsWithoutImprovement = Math.min(generationsWithoutImprovement, clusterSolution.generationsWithoutImprovement);
+		}
+		
+		Individual bestIndividual = new Individual(landingSequence, new FitnessEvaluator().evaluate(landingSequence));
+		return new Solution(null, bestIndividual, maxGenerations, generationCount, generationsWithoutImprovement);
+	}
+	
+	/**
+	 * @return the solution of the whole instance found by the last execution.
+	 */
+	public Solution getSolution() {
+		return solution;
+	}
+	
+	/**
+	 * @return the independent clusters of the instance.
+	 */
+	public InstanceDecomposition getDecomposition() {
+		return decomposition;
+	}
+	
+	/**
+	 * Landing sequence of a cluster, with the aircraft ids of the cluster instance.
+	 */
+	private static class ClusterSolution {
+		private final int cluster;
+		private final int[] aircraftIds;
+		private final int[] landingTimes;
+		private int generationCount;
+		private int generationsWithoutImprovement;
+		
+		ClusterSolution(int cluster, int aircraftCount) {
+			this.cluster = cluster;
+			this.aircraftIds = new int[aircraftCount];
+			this.landingTimes = new int[aircraftCount];
+		}
+	}
+}
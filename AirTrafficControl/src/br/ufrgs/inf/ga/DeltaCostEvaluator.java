@@ -0,0 +1,520 @@
+package br.ufrgs.inf.ga;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AtcInstance;
+
+/**
+ * Evaluates the cost of a landing sequence (a permutation of aircraft ids) and the cost of
+ * its neighbour sequences (swap, insertion and reversal moves) without re-evaluating the whole sequence.
+ *
+ * <p>
+ * For a fixed landing sequence, the best landing times are found by a pool adjacent violators algorithm:
+ * writing each landing time as <code>xk = y + Ck</code>, where Ck is the sum of the gap times from the first
+ * landing to the k-th one, the restriction xk+1 &ge; xk + Sk,k+1 becomes yk+1 &ge; yk, and the cost of the sequence is
+ * minimized by blocks of consecutive aircrafts sharing the same y. The blocks are processed from the begin of the sequence
+ * and kept in a persistent stack, one node per position, so the schedule of any prefix of the sequence is kept.
+ * A move that changes the sequence from position p on re-uses the blocks of the first p positions and schedules just the rest.
+ * </p>
+ *
+ * <p>
+ * An instance of this class keeps a current landing sequence and reusable buffers: it is not thread safe,
+ * and no memory is allocated when moves are evaluated.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class DeltaCostEvaluator {
+
+	/**
+	 * Cost of a landing sequence that can't be scheduled inside the aircrafts landing time windows.
+	 */
+	public static final double INFEASIBLE_COST = Double.POSITIVE_INFINITY;
+
+	/**
+	 * Value returned by the block optimization when the block landing time windows have no intersection.
+	 */
+	private static final int INFEASIBLE_VALUE = Integer.MIN_VALUE;
+
+	private final AtcInstance instance;
+
+	private final int aircraftCount;
+
+	private final int[] earliestLandingTimes;
+
+	private final int[] targetLandingTimes;
+
+	private final int[] latestLandingTimes;
+
+	private final float[] landingBeforeTargetTimePenaltyCosts;
+
+	private final float[] landingAfterTargetTimePenaltyCosts;
+
+	private final int[] separationTimes;
+
+	/**
+	 * Current landing sequence (aircraft ids).
+	 */
+	private final int[] sequence;
+
+	/**
+	 * Sum of the gap times from the first landing to each position of the current landing sequence.
+	 */
+	private final int[] cumulativeSeparationTimes;
+
+	/**
+	 * Suffix of the landing sequence under evaluation (just the positions changed by a move are valid).
+	 */
+	private final int[] trialSequence;
+
+	private final int[] trialCumulativeSeparationTimes;
+
+	/**
+	 * Blocks stack nodes. The node <code>k</code> is created when the position k of the current sequence is scheduled,
+	 * and the node <code>aircraftCount + k</code> when the position k of a sequence under evaluation is scheduled.
+	 */
+	private final int[] blockStarts;
+
+	private final int[] blockValues;
+
+	private final int[] previousBlocks;
+
+	/**
+	 * Cost of each block plus the cost of all blocks below it in the stack.
+	 */
+	private final double[] blockCosts;
+
+	/**
+	 * Scratch buffer used to select the weighted median of the block target times.
+	 */
+	private final long[] sortKeys;
+
+	/**
+	 * Number of positions of the current sequence that have been scheduled. It is less than the number of aircrafts
+	 * only if the current sequence is infeasible or just a prefix of it has been set by {@link #evaluatePrefix(int, int)}.
+	 */
+	private int scheduledPositions;
+
+	/**
+	 * Cost of the current sequence.
+	 */
+	private double cost;
+
+	/**
+	 * Number of moves evaluated so far.
+	 */
+	private long evaluatedMoves;
+
+	/**
+	 * Allocates the buffers for an ATC problem instance.
+	 *
+	 * @param instance ATC problem instance.
+	 */
+	public DeltaCostEvaluator(AtcInstance instance) {
+		this.instance = instance;
+		this.aircraftCount = instance.getAircraftCount();
+		this.earliestLandingTimes = instance.getEarliestLandingTimes();
+		this.targetLandingTimes = instance.getTargetLandingTimes();
+		this.latestLandingTimes = instance.getLatestLandingTimes();
+		this.landingBeforeTargetTimePenaltyCosts = instance.getLandingBeforeTargetTimePenaltyCosts();
+		this.landingAfterTargetTimePenaltyCosts = instance.getLandingAfterTargetTimePenaltyCosts();
+		this.separationTimes = instance.getSeparationTimes();
+
+		this.sequence = new int[aircraftCount];
+		this.cumulativeSeparationTimes = new int[aircraftCount];
+		this.trialSequence = new int[aircraftCount];
+		this.trialCumulativeSeparationTimes = new int[aircraftCount];
+		this.blockStarts = new int[2 * aircraftCount];
+		this.blockValues = new int[2 * aircraftCount];
+		this.previousBlocks = new int[2 * aircraftCount];
+		this.blockCosts = new double[2 * aircraftCount];
+		this.sortKeys = new long[aircraftCount];
+	}
+
+	/**
+	 * Sets the current landing sequence and calculates its cost.
+	 *
+	 * @param aircraftIds landing sequence (aircraft ids in landing order).
+	 * @return the cost of the landing sequence, or {@link #INFEASIBLE_COST}.
+	 */
+	public double evaluate(int[] aircraftIds) {
+		System.arraycopy(aircraftIds, 0, sequence, 0, aircraftCount);
+		commit(0);
+		return cost;
+	}
+
+	/**
+	 * Sets the current landing sequence from an aircraft landing sequence and calculates its cost.
+	 * The aircrafts landing times are ignored: the best ones for the landing order are calculated.
+	 *
+	 * @param landingSequence aircraft landing sequence.
+	 * @return the cost of the landing sequence, or {@link #INFEASIBLE_COST}.
+	 */
+	public double evaluate(Aircraft[] landingSequence) {
+		AtcInstance.getAircraftIds(landingSequence, sequence);
+		commit(0);
+		return cost;
+	}
+
+	/**
+	 * Sets the aircraft of a position of the current sequence and schedules the prefix that ends at it, re-using the blocks
+	 * of the previous positions. A landing sequence can be built one aircraft at a time (as in a tree search), and the
+	 * positions after the given one are ignored until they are set too.
+	 *
+	 * <p>
+	 * The best cost of a prefix never decreases when aircrafts are appended to it, since they just add restrictions
+	 * and costs, so it is a lower bound of the cost of any landing sequence starting with the prefix.
+	 * </p>
+	 *
+	 * @param position position being set. The previous positions must have been set and must be feasible.
+	 * @param aircraft aircraft id.
+	 * @return the best cost of the prefix, or {@link #INFEASIBLE_COST}.
+	 */
+	public double evaluatePrefix(int position, int aircraft) {
+		sequence[position] = aircraft;
+		cumulativeSeparationTimes[position] = position == 0 ? 0 :
+			cumulativeSeparationTimes[position - 1] + separationTimes[sequence[position - 1] * aircraftCount + aircraft];
+		cost = schedule(position, sequence, cumulativeSeparationTimes, 0, position + 1, INFEASIBLE_COST);
+		return cost;
+	}
+
+	/**
+	 * Calculates the cost of the current sequence with the aircrafts at positions i and j swapped.
+	 */
+	public double evaluateSwap(int i, int j) {
+		return evaluateTrial(prepareSwap(i, j), INFEASIBLE_COST);
+	}
+
+	/**
+	 * Calculates the cost of the current sequence with the aircrafts at positions i and j swapped, stopping as soon as
+	 * the cost of a prefix of the swapped sequence reaches a cutoff (the cost of a prefix never decreases with its length).
+	 *
+	 * @param cutoff moves that cost this or more are not evaluated to the end.
+	 * @return the cost of the move, if it is less than the cutoff, or a lower bound of it not less than the cutoff.
+	 */
+	public double evaluateSwap(int i, int j, double cutoff) {
+		return evaluateTrial(prepareSwap(i, j), cutoff);
+	}
+
+	/**
+	 * Calculates the cost of the current sequence with the aircraft at position <code>from</code> moved to position <code>to</code>.
+	 */
+	public double evaluateInsertion(int from, int to) {
+		return evaluateTrial(prepareInsertion(from, to), INFEASIBLE_COST);
+	}
+
+	/**
+	 * Calculates the cost of the current sequence with an aircraft moved to another position, stopping as soon as the
+	 * cost reaches a cutoff (see {@link #evaluateSwap(int, int, double)}).
+	 */
+	public double evaluateInsertion(int from, int to, double cutoff) {
+		return evaluateTrial(prepareInsertion(from, to), cutoff);
+	}
+
+	/**
+	 * Calculates the cost of the current sequence with the positions from i to j (inclusive) reversed (2-opt move).
+	 */
+	public double evaluateReversal(int i, int j) {
+		return evaluateTrial(prepareReversal(i, j), INFEASIBLE_COST);
+	}
+
+	/**
+	 * Swaps the aircrafts at positions i and j of the current sequence.
+	 */
+	public void applySwap(int i, int j) {
+		applyTrial(prepareSwap(i, j));
+	}
+
+	/**
+	 * Moves the aircraft at position <code>from</code> of the current sequence to position <code>to</code>.
+	 */
+	public void applyInsertion(int from, int to) {
+		applyTrial(prepareInsertion(from, to));
+	}
+
+	/**
+	 * Reverses the positions from i to j (inclusive) of the current sequence.
+	 */
+	public void applyReversal(int i, int j) {
+		applyTrial(prepareReversal(i, j));
+	}
+
+	/**
+	 * Retrieves the best landing times for the current sequence.
+	 *
+	 * @param landingTimes vector where the landing time of each position is written.
+	 * @return false if the current sequence is infeasible (and no time is written).
+	 */
+	public boolean getLandingTimes(int[] landingTimes) {
+		if (cost == INFEASIBLE_COST) {
+			return false;
+		}
+		int end = aircraftCount - 1;
+		int block = aircraftCount - 1;
+		while (block >= 0) {
+			int start = blockStarts[block];
+			int value = blockValues[block];
+			for (int k = start; k <= end; k++) {
+				landingTimes[k] = value + cumulativeSeparationTimes[k];
+			}
+			end = start - 1;
+			block = previousBlocks[block];
+		}
+		return true;
+	}
+
+	/**
+	 * @return the cost of the current sequence, or {@link #INFEASIBLE_COST}.
+	 */
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * @return the current landing sequence (aircraft ids). The vector must not be changed.
+	 */
+	public int[] getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the number of moves evaluated since this evaluator was created.
+	 */
+	public long getEvaluatedMoves() {
+		return evaluatedMoves;
+	}
+
+	public AtcInstance getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Writes the suffix of the swapped sequence in the trial buffer.
+	 * @return the first changed position.
+	 */
+	private int prepareSwap(int i, int j) {
+		int first = Math.min(i, j);
+		System.arraycopy(sequence, first, trialSequence, first, aircraftCount - first);
+		trialSequence[i] = sequence[j];
+		trialSequence[j] = sequence[i];
+		return first;
+	}
+
+	/**
+	 * Writes the suffix of the sequence with a moved aircraft in the trial buffer.
+	 * @return the first changed position.
+	 */
+	private int prepareInsertion(int from, int to) {
+		int first = Math.min(from, to);
+		System.arraycopy(sequence, first, trialSequence, first, aircraftCount - first);
+		if (from < to) {
+			System.arraycopy(sequence, from + 1, trialSequence, from, to - from);
+		} else {
+			System.arraycopy(sequence, to, trialSequence, to + 1, from - to);
+		}
+		trialSequence[to] = sequence[from];
+		return first;
+	}
+
+	/**
+	 * Writes the suffix of the sequence with a reversed segment in the trial buffer.
+	 * @return the first changed position.
+	 */
+	private int prepareReversal(int i, int j) {
+		System.arraycopy(sequence, i, trialSequence, i, aircraftCount - i);
+		for (int k = i; k <= j; k++) {
+			trialSequence[k] = sequence[i + j - k];
+		}
+		return i;
+	}
+
+	/**
+	 * Schedules the trial sequence from a position on, re-using the blocks of the current sequence before that position.
+	 */
+	private double evaluateTrial(int from, double cutoff) {
+		evaluatedMoves++;
+		if (from > scheduledPositions) {
+			// the unchanged prefix is already infeasible.
+			return INFEASIBLE_COST;
+		}
+		updateCumulativeSeparationTimes(from, trialSequence, trialCumulativeSeparationTimes);
+		return schedule(from, trialSequence, trialCumulativeSeparationTimes, aircraftCount, aircraftCount, cutoff);
+	}
+
+	/**
+	 * Makes the trial sequence the current one.
+	 */
+	private void applyTrial(int from) {
+		System.arraycopy(trialSequence, from, sequence, from, aircraftCount - from);
+		commit(Math.min(from, scheduledPositions));
+	}
+
+	/**
+	 * Schedules the current sequence from a position on.
+	 */
+	private void commit(int from) {
+		updateCumulativeSeparationTimes(from, sequence, cumulativeSeparationTimes);
+		cost = schedule(from, sequence, cumulativeSeparationTimes, 0, aircraftCount, INFEASIBLE_COST);
+	}
+
+	private void updateCumulativeSeparationTimes(int from, int[] aircraftIds, int[] cumulative) {
+		int previousAircraft = from == 0 ? -1 : sequence[from - 1];
+		int previousCumulative = from == 0 ? 0 : cumulativeSeparationTimes[from - 1];
+		for (int k = from; k < aircraftCount; k++) {
+			int aircraft = aircraftIds[k];
+			cumulative[k] = previousAircraft < 0 ? 0 : previousCumulative + separationTimes[previousAircraft * aircraftCount + aircraft];
+			previousAircraft = aircraft;
+			previousCumulative = cumulative[k];
+		}
+	}
+
+	/**
+	 * Pool adjacent violators: schedules the positions from <code>from</code> to <code>end</code> (exclusive).
+	 *
+	 * @param from first position to be scheduled. The blocks of the current sequence are used before it.
+	 * @param aircraftIds sequence being scheduled (valid from <code>from</code> on).
+	 * @param cumulative cumulative gap times of the sequence being scheduled (valid from <code>from</code> on).
+	 * @param nodeOffset 0 for the current sequence, aircraftCount for a trial sequence.
+	 * @param end number of positions of the scheduled prefix.
+	 * @param cutoff the scheduling stops when the cost of the positions scheduled so far reaches it.
+	 * @return the cost of the prefix, or the cost of a shorter prefix that has reached the cutoff.
+	 */
+	private double schedule(int from, int[] aircraftIds, int[] cumulative, int nodeOffset, int end, double cutoff) {
+		if (end == 0) {
+			return 0;
+		}
+		if (nodeOffset == 0) {
+			scheduledPositions = from;
+		}
+
+		int top = from - 1;
+		for (int position = from; position < end; position++) {
+			int aircraft = aircraftIds[position];
+			int shift = cumulative[position];
+			int start = position;
+			int value = clamp(targetLandingTimes[aircraft] - shift, earliestLandingTimes[aircraft] - shift, latestLandingTimes[aircraft] - shift);
+
+			// merges the blocks that would land later than this one.
+			while (top >= 0 && blockValues[top] > value) {
+				start = blockStarts[top];
+				top = previousBlocks[top];
+				value = optimizeBlock(start, position, from, aircraftIds, cumulative);
+				if (value == INFEASIBLE_VALUE) {
+					return INFEASIBLE_COST;
+				}
+			}
+			double blockCost = start == position ? instance.getLandingCost(aircraft, value + shift) :
+								calculateBlockCost(start, position, value, from, aircraftIds, cumulative);
+
+			int node = nodeOffset + position;
+			blockStarts[node] = start;
+			blockValues[node] = value;
+			previousBlocks[node] = top;
+			blockCosts[node] = (top >= 0 ? blockCosts[top] : 0) + blockCost;
+			top = node;
+			if (blockCosts[node] >= cutoff) {
+				return blockCosts[node];
+			}
+
+			if (nodeOffset == 0) {
+				scheduledPositions = position + 1;
+			}
+		}
+		return blockCosts[top];
+	}
+
+	/**
+	 * Finds the smallest y that minimizes the cost of a block of positions landing at <code>y + Ck</code>.
+	 * It is the weighted median of the block shifted target times, limited by the block shifted landing time windows.
+	 */
+	private int optimizeBlock(int start, int end, int from, int[] aircraftIds, int[] cumulative) {
+		int lower = Integer.MIN_VALUE;
+		int upper = Integer.MAX_VALUE;
+		double slope = 0;
+		int count = 0;
+		for (int k = start; k <= end; k++) {
+			int aircraft = k < from ? sequence[k] : aircraftIds[k];
+			int shift = k < from ? cumulativeSeparationTimes[k] : cumulative[k];
+			lower = Math.max(lower, earliestLandingTimes[aircraft] - shift);
+			upper = Math.min(upper, latestLandingTimes[aircraft] - shift);
+			slope -= landingBeforeTargetTimePenaltyCosts[aircraft];
+			sortKeys[count++] = ((long) (targetLandingTimes[aircraft] - shift) << 32) | aircraft;
+		}
+		if (lower > upper) {
+			return INFEASIBLE_VALUE;
+		}
+		if (slope >= 0) {
+			return lower;
+		}
+
+		int median = selectWeightedMedian(count, -slope);
+		int value = median < 0 ? upper : (int) (sortKeys[median] >> 32);
+		return clamp(value, lower, upper);
+	}
+
+	/**
+	 * Finds the first block target time, in sorted order, where the sum of the weights (the before and after target time
+	 * penalty costs) of the target times up to it reaches a given weight. It is a weighted quickselect: the keys are
+	 * partitioned around pivots instead of sorted, in linear expected time.
+	 *
+	 * @param count number of keys in {@link #sortKeys} (target time and aircraft id, all distinct).
+	 * @param weight weight to be reached (positive).
+	 * @return the index of the key in {@link #sortKeys}, or -1 if the sum of all the weights is less than the weight.
+	 */
+	private int selectWeightedMedian(int count, double weight) {
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long pivot = sortKeys[middle];
+			sortKeys[middle] = sortKeys[high];
+			sortKeys[high] = pivot;
+
+			// the keys less than the pivot go to the begin of the range.
+			int store = low;
+			double lessWeight = 0;
+			for (int k = low; k < high; k++) {
+				long key = sortKeys[k];
+				if (key < pivot) {
+					lessWeight += getWeight(key);
+					sortKeys[k] = sortKeys[store];
+					sortKeys[store++] = key;
+				}
+			}
+			sortKeys[high] = sortKeys[store];
+			sortKeys[store] = pivot;
+
+			if (lessWeight >= weight) {
+				high = store - 1;
+			} else {
+				weight -= lessWeight;
+				double pivotWeight = getWeight(pivot);
+				if (pivotWeight >= weight) {
+					return store;
+				}
+				weight -= pivotWeight;
+				low = store + 1;
+			}
+		}
+		return -1;
+	}
+
+	private double getWeight(long key) {
+		int aircraft = (int) key;
+		return (double) landingBeforeTargetTimePenaltyCosts[aircraft] + landingAfterTargetTimePenaltyCosts[aircraft];
+	}
+
+	private double calculateBlockCost(int start, int end, int value, int from, int[] aircraftIds, int[] cumulative) {
+		double blockCost = 0;
+		for (int k = start; k <= end; k++) {
+			int aircraft = k < from ? sequence[k] : aircraftIds[k];
+			int shift = k < from ? cumulativeSeparationTimes[k] : cumulative[k];
+			blockCost += instance.getLandingCost(aircraft, value + shift);
+		}
+		return blockCost;
+	}
+
+	private static int clamp(int value, int lower, int upper) {
+		return value < lower ? lower : (value > upper ? upper : value);
+	}
+}
@@ -1,6 +1,10 @@
 package br.ufrgs.inf.ga;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.ga.objectives.LinearCostObjective;
+import br.ufrgs.inf.ga.objectives.ObjectiveFunction;
 
 
 /**
@@ -13,11 +17,41 @@ import br.ufrgs.inf.atc.model.Aircraft;
  * solution in case it is not good enough or it is an invalid landing sequence (aircrafts scheduled to landing at the same time for example).
  * </p>
  * 
+ * <p>
+ * The objective function is pluggable (see {@link ObjectiveFunction}): the linear cost of the ATC problem by default.
+ * </p>
+ * 
  * @author diego
  *
  */
 public class FitnessEvaluator {
 	
+	/**
+	 * Number of evaluations done so far. The evaluator may be shared by threads, so the counter is a {@link LongAdder}.
+	 */
+	private final LongAdder evaluations = new LongAdder();
+	
+	/**
+	 * Objective function minimized (by default, the linear cost of the ATC problem).
+	 */
+	private ObjectiveFunction objectiveFunction;
+	
+	/**
+	 * Times a sample of the evaluations. If null, the evaluations aren't timed.
+	 */
+	private GeneticAlgorithmMetrics metrics;
+	
+	public FitnessEvaluator() {
+		this(new LinearCostObjective());
+	}
+	
+	/**
+	 * @param objectiveFunction objective function minimized.
+	 */
+	public FitnessEvaluator(ObjectiveFunction objectiveFunction) {
+		this.objectiveFunction = objectiveFunction;
+	}
+	
 	/**
 	 * Calculates the fitness of an individual.
 	 *
@@ -26,41 +60,43 @@ public class FitnessEvaluator {
 	 * 		   the result is tha maximum integer value.
 	 */
 	public int evaluate(Aircraft[] aircraftLandingSequence) {
-		int fitnessValue = 0;
-		
-		for(int i = 0; i < aircraftLandingSequence.length; i++) {
-			Aircraft aircraft = aircraftLandingSequence[i];
-			
-			/*
-			 * Checkes the restriction xi ∈ [Ei , Li]
-			 *	where xi = aircraft landing time
-			 * 		  Ei = aircraft earliest landing time
-			 *		  Li = aircraft latest landing time   
-			 */
-			if (!aircraft.landingTimeIsInLandingTimeWindow()) {
-				// Invalid solution! The cost is realy high!
-				return Integer.MAX_VALUE;
-			}
-			
-			/*
-			 * Checks the restriction xj ≥ xi + Sij
-			 * where xj = the current aircraft landing time
-			 * 		 xi = the last aircraft landing time (landed before xj)
-			 * 		 Sij = the time that xj must wait after xi has been landed.
-			 */
-			if (i != 0) {
-				Aircraft previousAircraft = aircraftLandingSequence[i - 1]; 
-				if (!aircraft.respectsGapTimeBetween(previousAircraft)) {
-					// Invalid solution! The cost is realy high!
-					return Integer.MAX_VALUE;
-				}
-			}
-			
-			// if the landing sequence is a valid one, the fitness value will be, in the end, the cost of the landing sequence.
-			// And we aim on the minimization of this cost!
-			fitnessValue += aircraft.getLandingCost();
+		evaluations.increment();
+		if (metrics != null && metrics.isEvaluationSampled()) {
+			long startTime = System.nanoTime();
+			int fitnessValue = objectiveFunction.evaluate(aircraftLandingSequence);
+			metrics.evaluationSampled(System.nanoTime() - startTime);
+			return fitnessValue;
 		}
-		
-		return fitnessValue;
+		// a single call per landing sequence: the loop over the aircrafts is specialized by each objective function.
+		return objectiveFunction.evaluate(aircraftLandingSequence);
+	}
+	
+	/**
+	 * Changes the objective function. It must be called before the evaluator is shared by threads.
+	 *
+	 * @param objectiveFunction objective function minimized.
+	 */
+	public void setObjectiveFunction(ObjectiveFunction objectiveFunction) {
+		this.objectiveFunction = objectiveFunction;
+	}
+	
+	public ObjectiveFunction getObjectiveFunction() {
+		return objectiveFunction;
+	}
+	
+	/**
+	 * Times a sample of the evaluations. It must be called before the evaluator is shared by threads.
+	 *
+	 * @param metrics metrics of the algorithm, or null to stop timing the evaluations.
+	 */
+	void setMetrics(GeneticAlgorithmMetrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * @return the number of evaluations done so far.
+	 */
+	public long getEvaluationCount() {
+		return evaluations.sum();
 	}
 }
@@ -0,0 +1,20 @@
+package br.ufrgs.inf.ga;
+
+import br.ufrgs.inf.ga.model.Individual;
+
+/**
+ * Receives the progress of a {@link GeneticAlgorithm} execution, one call per generation.
+ *
+ * @author diego
+ *
+ */
+public interface GenerationListener {
+
+	/**
+	 * Called after the best individual of a generation is found.
+	 *
+	 * @param generation the generation number.
+	 * @param bestIndividual the global best individual so far.
+	 */
+	void generationEvaluated(int generation, Individual bestIndividual);
+}
@@ -1,19 +1,35 @@
 package br.ufrgs.inf.ga;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AircraftClasses;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.PrecedenceMatrix;
 import br.ufrgs.inf.atc.model.LandingSequenceCreator;
 import br.ufrgs.inf.ga.exceptions.AlgorithmException;
 import br.ufrgs.inf.ga.model.Individual;
 import br.ufrgs.inf.ga.model.IndividualCreator;
+import br.ufrgs.inf.ga.model.IndividualPool;
+import br.ufrgs.inf.ga.model.LocalSearchConfig;
 import br.ufrgs.inf.ga.model.Parents;
+import br.ufrgs.inf.ga.model.PathRelinkingConfig;
 import br.ufrgs.inf.ga.model.Population;
 import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.PopulationDiversity;
 import br.ufrgs.inf.ga.model.Solution;
+import br.ufrgs.inf.ga.objectives.ObjectiveType;
 import br.ufrgs.inf.ga.operators.CrossoverOperator;
+import br.ufrgs.inf.ga.operators.CrossoverType;
+import br.ufrgs.inf.ga.operators.LocalSearch;
+import br.ufrgs.inf.ga.operators.LocalSearchOperator;
 import br.ufrgs.inf.ga.operators.MutationOperator;
+import br.ufrgs.inf.ga.operators.MutationType;
+import br.ufrgs.inf.ga.operators.PathRelinkingOperator;
 import br.ufrgs.inf.ga.operators.SelectionOperator;
+import br.ufrgs.inf.ga.operators.SelectionType;
+import br.ufrgs.inf.ga.utils.RandomHelper;
 
 /**
  * Genetic Algorithm Class.
@@ -29,6 +45,17 @@ import br.ufrgs.inf.ga.operators.SelectionOperator;
  */
 public class GeneticAlgorithm {
 	
+	/**
+	 * Name of the engine in the shared incumbent.
+	 */
+	public static final String ENGINE_NAME = "genetic algorithm";
+	
+	/**
+	 * Index of the random stream of the generations among the streams of the seed
+	 * (the individuals of the initial population use the streams from 0).
+	 */
+	private static final long GENERATIONS_STREAM_INDEX = -1;
+	
 	/**
 	 * Max number of generations that the algorithm will run until a valid solution is find.
 	 */
@@ -43,7 +70,7 @@ public class GeneticAlgorithm {
 	/**
 	 * Operator used to select parents to a reproduction process.
 	 */
-	private final SelectionOperator selectionOperator = new SelectionOperator();
+	private SelectionOperator selectionOperator = new SelectionOperator();
 	
 	/**
 	 * Executes the crossover operator in a reproduction process.
@@ -55,6 +82,46 @@ public class GeneticAlgorithm {
 	 */
 	private final MutationOperator mutationOperator;
 	
+	/**
+	 * Improves the most adapted individuals of each generation. If null, the local search stage is disabled.
+	 */
+	private LocalSearchOperator localSearchOperator;
+	
+	/**
+	 * Relinks the elite landing sequences when the best individual stops improving. If null, the path relinking stage is disabled.
+	 */
+	private PathRelinkingOperator pathRelinkingOperator;
+	
+	/**
+	 * Primitive array view of the ATC problem instance.
+	 */
+	private final AtcInstance instance;
+	
+	/**
+	 * Creates the individuals of the initial population.
+	 */
+	private final IndividualCreator individualCreator;
+	
+	/**
+	 * Precedence relations used to reject infeasible landing orders before scheduling them. If null, every order is scheduled.
+	 */
+	private PrecedenceMatrix precedenceMatrix;
+	
+	/**
+	 * Classes of identical aircrafts whose order is enforced in the landing orders. If null, the orders are kept.
+	 */
+	private AircraftClasses aircraftClasses;
+	
+	/**
+	 * Calculator for the fitness value of an individual in the population.
+	 */
+	private final FitnessEvaluator fitnessEvaluator;
+	
+	/**
+	 * Receives the algorithm progress. May be null.
+	 */
+	private GenerationListener generationListener;
+	
 	/**
 	 * Population where each individual represents a solution for the problem that is been solved.
 	 */
@@ -65,11 +132,27 @@ public class GeneticAlgorithm {
 	 */
 	private List<Parents> selectedParents;
 	
+	/**
+	 * Individuals discarded by the reproduction, reused as buffers for the next sons.
+	 */
+	private final IndividualPool individualPool;
+	
+	/**
+	 * Parents replaced by their sons in the current reproduction, released to the pool at its end.
+	 */
+	private final List<Individual> replacedParents = new ArrayList<Individual>();
+	
 	/**
 	 * The best individual found at the end of the algorithm execution.
 	 */
 	private Individual bestIndividual;
 	
+	/**
+	 * Fitness value of the best individual when it was found (or improved). The local search improves the most adapted
+	 * individuals in place, the best one included, so the improvements are detected by this value, not by the individual.
+	 */
+	private int bestFitnessValue;
+	
 	/**
 	 * Counts how many generations that none best solution is found.
 	 */
@@ -80,6 +163,52 @@ public class GeneticAlgorithm {
 	 */
 	private Solution solution;
 	
+	/**
+	 * Landing sequences (aircraft ids) of a previous solution used to warm start the population.
+	 * If null, the population is initialized from scratch.
+	 */
+	private List<int[]> warmStartLandingSequences;
+	
+	/**
+	 * Fitness value that, once reached, stops the algorithm. Disabled by default.
+	 */
+	private int targetFitnessValue = Integer.MIN_VALUE;
+	
+	/**
+	 * Number of individuals pairs sampled per generation to estimate the population Kendall distance.
+	 * If zero, the population diversity isn't tracked.
+	 */
+	private int diversitySampledPairs = 0;
+	
+	/**
+	 * Best landing sequence shared with other engines (see {@link PortfolioScheduler}). If null, the algorithm runs alone.
+	 */
+	private SharedIncumbent incumbent;
+	
+	/**
+	 * Incumbent read in the last generation, and the best individual offered to it (with its fitness value when it was offered).
+	 */
+	private Incumbent lastIncumbent;
+	
+	private Individual offeredIndividual;
+	
+	private int offeredFitnessValue;
+	
+	/**
+	 * Calculates the best cost of the landing sequences offered to the incumbent.
+	 */
+	private DeltaCostEvaluator incumbentEvaluator;
+	
+	/**
+	 * Counters and timers of the execution. If null, the execution isn't measured.
+	 */
+	private GeneticAlgorithmMetrics metrics;
+	
+	/**
+	 * Seed of the initial population and of the random choices of the generations.
+	 */
+	private long seed = System.nanoTime();
+	
 	/**
 	 * Initializes the dependencies.
 	 * 
@@ -97,13 +226,16 @@ public class GeneticAlgorithm {
 		LandingSequenceCreator landingSequenceCreator = new LandingSequenceCreator(aircrafts);
 		
 		// Calculator for the fitness value of an individual in the population.
-		FitnessEvaluator fitnessEvaluator = new FitnessEvaluator();
+		this.fitnessEvaluator = new FitnessEvaluator();
+		
+		this.instance = new AtcInstance(aircrafts);
 		
 		// 
-		IndividualCreator individualCreator = new IndividualCreator(landingSequenceCreator, fitnessEvaluator, scheduler);
+		this.individualCreator = new IndividualCreator(landingSequenceCreator, fitnessEvaluator, scheduler);
 
 		this.populationInitializer = new PopulationInitializer(individualCreator, populationConfig);
-		this.crossoverOperator = new CrossoverOperator(scheduler, fitnessEvaluator);
+		this.individualPool = new IndividualPool(populationConfig.getMaxIndividuals());
+		this.crossoverOperator = new CrossoverOperator(scheduler, fitnessEvaluator, individualPool);
 		this.mutationOperator = new MutationOperator(scheduler, fitnessEvaluator);
 	}
 
@@ -113,50 +245,94 @@ public class GeneticAlgorithm {
 	 */
 	public void execute() throws AlgorithmException {
 		try {
+			long phaseStartTime = metrics != null ? metrics.executionStarted() : 0;
 			initializePopulation();
+			if (metrics != null) {
+				population.setSortingTime(metrics.getSortingTimeCounter());
+				phaseStartTime = metrics.phaseFinished(GeneticAlgorithmMetrics.INITIALIZATION, phaseStartTime);
+			}
+			if (diversitySampledPairs > 0) {
+				population.enableDiversityTracking(diversitySampledPairs);
+			}
+			RandomHelper.setThreadRandom(RandomHelper.createStream(seed, GENERATIONS_STREAM_INDEX));
 			
 			// Initial generation value
 			int generation = 1;
 			
 			// The algorithm stop condition
 			while(!solutionFound() && generation < maxGenerations) {
-				//System.out.println("### generation " + generation);
-				
 				// swap the global best individual so far for the best individual of the current
 				// generation, if this last one is better!
 				findTheBestIndividualInCurrentGeneration();
+				if (incumbent != null) {
+					exchangeWithIncumbent();
+				}
+				if (population.getDiversity() != null) {
+					population.getDiversity().sampleKendallDistance(population);
+				}
+				if (generationListener != null) {
+					generationListener.generationEvaluated(generation, bestIndividual);
+				}
+				if (metrics != null) {
+					metrics.generationEvaluated(generation, bestIndividual.getFitnessValue());
+					phaseStartTime = System.nanoTime();
+				}
 				
 				// generating the next generation
 				selectParentsForReproduction();
+				phaseStartTime = phaseFinished(GeneticAlgorithmMetrics.SELECTION, phaseStartTime);
 				reproduct();
+				phaseStartTime = phaseFinished(GeneticAlgorithmMetrics.REPRODUCTION, phaseStartTime);
 				mutate();
+				phaseStartTime = phaseFinished(GeneticAlgorithmMetrics.MUTATION, phaseStartTime);
+				improveElite();
+				relinkElite();
+				phaseFinished(GeneticAlgorithmMetrics.IMPROVEMENT, phaseStartTime);
 				
 				// next generation...
 				generation++;
 			}
+			if (bestIndividual == null) {
+				// stopped (deadline or cancellation) before the first generation was evaluated.
+				findTheBestIndividualInCurrentGeneration();
+			}
 			
 			this.solution = new Solution(population, bestIndividual, maxGenerations, generation, generationsWithoutImprovement);
 
 		} catch (Exception e) {
 			throw new AlgorithmException("An exception has occured when the algorithm was running.", e);
+		} finally {
+			RandomHelper.setThreadRandom(null);
+			if (metrics != null) {
+				metrics.executionFinished();
+			}
 		}
 	}
 	
+	/**
+	 * Adds the time of a phase to the metrics, if they are enabled.
+	 * 
+	 * @return the current time (in nanoseconds), the start of the next phase.
+	 */
+	private long phaseFinished(int phase, long phaseStartTime) {
+		return metrics != null ? metrics.phaseFinished(phase, phaseStartTime) : 0;
+	}
+	
 	/**
 	 * Verify if the best individual in the current generation is better than the global one found so far.
 	 */
 	private void findTheBestIndividualInCurrentGeneration() {
 		// The best individual found in this population.
 		Individual generationBestIndividual = population.getMostAdaptedIndividual();
-		//System.out.println("#### generation best individual: " + generationBestIndividual);
-		//System.out.println("#### global best individual: " + bestIndividual);
 		
 		// if the best individual in this generation is more adapted than the global best individual so far,
 		// than, the best individual in this generation becomes the global best individual.
 		if (this.bestIndividual == null) {
 			this.bestIndividual = generationBestIndividual;
-		} else if (!this.bestIndividual.isMoreAdaptedThan(generationBestIndividual)) {
+			this.bestFitnessValue = generationBestIndividual.getFitnessValue();
+		} else if (generationBestIndividual.getFitnessValue() < bestFitnessValue) {
 			this.bestIndividual = generationBestIndividual;
+			this.bestFitnessValue = generationBestIndividual.getFitnessValue();
 			generationsWithoutImprovement = 0;
 		} else {
 			// counts how many generations none global best solution is found.
@@ -165,11 +341,39 @@ public class GeneticAlgorithm {
 		
 	}
 
+	/**
+	 * Offers the best individual to the shared incumbent and, if another engine has found a better landing sequence,
+	 * adds it to the population in place of the less adapted individual.
+	 */
+	private void exchangeWithIncumbent() {
+		if (bestIndividual != offeredIndividual || bestFitnessValue != offeredFitnessValue) {
+			int[] aircraftIds = new int[instance.getAircraftCount()];
+			AtcInstance.getAircraftIds(bestIndividual.getAircraftLandingSequence(), aircraftIds);
+			incumbent.offer(aircraftIds, incumbentEvaluator.evaluate(aircraftIds), ENGINE_NAME);
+			offeredIndividual = bestIndividual;
+			offeredFitnessValue = bestFitnessValue;
+		}
+		
+		Incumbent current = incumbent.get();
+		if (current != null && current != lastIncumbent && !ENGINE_NAME.equals(current.getEngine())) {
+			Individual seed = individualCreator.createIndividualFromAircraftIds(current.getAircraftIds());
+			Individual lessAdaptedIndividual = population.getLessAdaptedIndividual();
+			if (seed.isMoreAdaptedThan(lessAdaptedIndividual) && lessAdaptedIndividual != bestIndividual) {
+				population.replace(seed, lessAdaptedIndividual);
+			}
+		}
+		lastIncumbent = current;
+	}
+	
 	/**
 	 * initializes the population and make the first fitness evaluation. 
 	 */
 	protected void initializePopulation() {
-		this.population = populationInitializer.createPopulation();
+		if (warmStartLandingSequences == null) {
+			this.population = populationInitializer.createPopulation();
+		} else {
+			this.population = populationInitializer.createPopulation(warmStartLandingSequences);
+		}
 	}
 	
 	/**
@@ -185,16 +389,40 @@ public class GeneticAlgorithm {
 	 * This process generates a new individual for each parents reproduction.
 	 * This son can join the population just if he is more adapted than one of his parents.
 	 * If true, the less adapted parent is replaced by his son.
+	 * The rejected sons and the replaced parents are released to the individual pool.
 	 */
 	protected void reproduct() {
+		int infeasibleSons = 0;
+		int acceptedSons = 0;
 
 		for (Parents parents : selectedParents) {
 			Individual son = crossoverOperator.execute(parents);
+			if (son.getFitnessValue() == Integer.MAX_VALUE) {
+				infeasibleSons++;
+			}
 			Individual lessAdaptedParent = parents.getLessAdaptedParent();
-			if (son.isMoreAdaptedThan(lessAdaptedParent)) {
-				population.replace(son, lessAdaptedParent);
+			if (son.isMoreAdaptedThan(lessAdaptedParent) && population.replace(son, lessAdaptedParent)) {
+				replacedParents.add(lessAdaptedParent);
+				acceptedSons++;
+			} else {
+				individualPool.release(son);
+			}
+		}
+		if (metrics != null) {
+			metrics.offspringEvaluated(selectedParents.size(), infeasibleSons, acceptedSons);
+		}
+		
+		// a replaced parent may still be used by a later parents pair, so it is released just at the end.
+		for (Individual replacedParent : replacedParents) {
+			if (replacedParent != bestIndividual) {
+				if (replacedParent == offeredIndividual) {
+					// the reused individual will be another landing sequence.
+					offeredIndividual = null;
+				}
+				individualPool.release(replacedParent);
 			}
 		}
+		replacedParents.clear();
 	}
 	
 	/**
@@ -203,17 +431,56 @@ public class GeneticAlgorithm {
 	 */
 	protected void mutate() {
 		int n = (int)(population.getSize() * population.getMutationRate());
+		
+		if (!selectionOperator.requiresSortedPopulation()) {
+			// the individuals to be mutated are chosen by inverse tournaments, so the population isn't sorted.
+			for (int i = 0; i < n; i++) {
+				Individual individualToBeMutated = selectionOperator.selectLessAdapted(population);
+				if (individualToBeMutated != bestIndividual) {
+					mutationOperator.execute(individualToBeMutated);
+					population.individualChanged(individualToBeMutated);
+				}
+			}
+			return;
+		}
+		
+		population.sortByFitness();
 		int mutationStartIndex = (int)(population.getSize() * 0.5f);
 		
 		// Executes n randomly mutations in individuals starting from the middle of the sorted population to the end.
 		for (int i = 0; i < n; i++) {
 			// generates a random index between mutationStartIndex and the size of the population.
-			int individualToBeMutatedIndex = mutationStartIndex + (int) (Math.random() * (population.getSize() - mutationStartIndex));
+			int individualToBeMutatedIndex = mutationStartIndex + (int) (RandomHelper.random() * (population.getSize() - mutationStartIndex));
 			Individual individualToBeMutated = population.get(individualToBeMutatedIndex);
 			mutationOperator.execute(individualToBeMutated);
+			// keeps the population sorted, moving just the mutated individual.
+			population.fitnessValueChanged(individualToBeMutatedIndex);
+		}
+	}
+	
+	/**
+	 * Applies the local search on the most adapted individuals (memetic stage), if it is enabled.
+	 * 
+	 * @throws Exception thrown if a local search task fails.
+	 */
+	protected void improveElite() throws Exception {
+		if (localSearchOperator != null) {
+			localSearchOperator.execute(population);
+			population.setSorted(false);
+		}
+	}
+	
+	/**
+	 * Applies the path relinking on the elite landing sequences, if it is enabled and the best individual hasn't improved
+	 * for the configured number of generations (and again after each such number of generations).
+	 * 
+	 * @throws Exception thrown if a relinking task fails.
+	 */
+	protected void relinkElite() throws Exception {
+		if (pathRelinkingOperator != null && generationsWithoutImprovement > 0 &&
+			generationsWithoutImprovement % pathRelinkingOperator.getStagnationGenerations() == 0) {
+			pathRelinkingOperator.execute(population);
 		}
-		population.setSorted(false);
-		population.sortByFitness();
 	}
 	
 	/**
@@ -226,7 +493,15 @@ public class GeneticAlgorithm {
 	 * @return true if the stop condition is reached, false otherwise.
 	 */
 	protected boolean solutionFound() {
-		if (generationsWithoutImprovement > this.maxGenerations * 2/3) {
+		if (generationsWithoutImprovement > (long) this.maxGenerations * 2/3) {
+			return true;
+		}
+		
+		if (bestIndividual != null && bestIndividual.getFitnessValue() <= targetFitnessValue) {
+			return true;
+		}
+		
+		if (incumbent != null && incumbent.isStopped()) {
 			return true;
 		}
 		
@@ -240,4 +515,225 @@ public class GeneticAlgorithm {
 	public Solution getSolution() {
 		return this.solution;
 	}
+	
+	/**
+	 * @return the current population (e.g. for a {@link GenerationListener}), or null if the execution hasn't started.
+	 */
+	public Population getPopulation() {
+		return population;
+	}
+	
+	/**
+	 * Warm starts the next execution from the landing sequences of a previous solution.
+	 * 
+	 * @param warmStartLandingSequences aircraft ids of the previous landing sequences (the best one first).
+	 */
+	public void setWarmStartLandingSequences(List<int[]> warmStartLandingSequences) {
+		this.warmStartLandingSequences = warmStartLandingSequences;
+	}
+	
+	/**
+	 * Enables the local search stage: in each generation, the most adapted individuals are improved by a local search.
+	 * 
+	 * @param localSearch local search method.
+	 * @param localSearchConfig local search stage configuration parameters.
+	 */
+	public void enableLocalSearch(LocalSearch localSearch, LocalSearchConfig localSearchConfig) {
+		this.localSearchOperator = new LocalSearchOperator(localSearch, localSearchConfig, instance, fitnessEvaluator);
+	}
+	
+	/**
+	 * Enables the path relinking stage: when the best individual stops improving, paths between the elite landing sequences
+	 * are explored, and the best sequences found in them join the population.
+	 * 
+	 * @param pathRelinkingConfig path relinking stage configuration parameters.
+	 */
+	public void enablePathRelinking(PathRelinkingConfig pathRelinkingConfig) {
+		this.pathRelinkingOperator = new PathRelinkingOperator(pathRelinkingConfig, instance, fitnessEvaluator);
+	}
+	
+	/**
+	 * @return the path relinking stage, or null if it isn't enabled.
+	 */
+	public PathRelinkingOperator getPathRelinkingOperator() {
+		return pathRelinkingOperator;
+	}
+	
+	/**
+	 * Sets the seed of the population initialization and of the random stream of the generations (the parents
+	 * selection, the crossover cut points and the mutations). For a fixed seed, the initial population is always the
+	 * same, and so is the whole run if it is limited by generations (not by time).
+	 * 
+	 * @param seed the seed.
+	 */
+	public void setInitializationSeed(long seed) {
+		this.seed = seed;
+		populationInitializer.setSeed(seed);
+	}
+	
+	/**
+	 * @param threads number of threads creating the initial population (by default, the number of processors).
+	 */
+	public void setInitializationThreads(int threads) {
+		populationInitializer.setThreads(threads);
+	}
+	
+	/**
+	 * Selects the parents selection method used in the reproduction.
+	 * 
+	 * @param selectionType selection method.
+	 * @param tournamentSize number of individuals in each tournament (also used to choose the individuals to be mutated).
+	 * @param selectionPressure exponent applied on the individuals weights in the stochastic universal sampling.
+	 */
+	public void setSelection(SelectionType selectionType, int tournamentSize, float selectionPressure) {
+		this.selectionOperator = new SelectionOperator(selectionType, tournamentSize, selectionPressure);
+	}
+	
+	/**
+	 * Selects the crossover operation used in the reproduction.
+	 * 
+	 * @param crossoverType crossover operation.
+	 */
+	public void setCrossoverType(CrossoverType crossoverType) {
+		crossoverOperator.setPermutationCrossover(crossoverType.createPermutationCrossover(instance), instance);
+	}
+	
+	/**
+	 * Selects the mutation operation.
+	 * 
+	 * @param mutationType mutation operation.
+	 */
+	public void setMutationType(MutationType mutationType) {
+		mutationOperator.setMutationType(mutationType, instance);
+	}
+	
+	/**
+	 * Selects the objective function minimized (by default, the linear cost of the ATC problem). The landing times are still
+	 * scheduled by the same heuristics, and the local search, the path relinking and the portfolio engines still walk by the
+	 * linear cost, but all the individuals are evaluated by this objective: the schedules found by the local search and the
+	 * path relinking join the population only if they improve it.
+	 * 
+	 * @param objectiveType objective function.
+	 */
+	public void setObjectiveType(ObjectiveType objectiveType) {
+		fitnessEvaluator.setObjectiveFunction(objectiveType.createObjectiveFunction());
+	}
+	
+	/**
+	 * @return pool of the individuals discarded by the reproduction.
+	 */
+	public IndividualPool getIndividualPool() {
+		return individualPool;
+	}
+	
+	/**
+	 * @return the number of fitness evaluations done so far.
+	 */
+	public long getEvaluationCount() {
+		return fitnessEvaluator.getEvaluationCount();
+	}
+	
+	/**
+	 * Measures the next executions (see {@link GeneticAlgorithmMetrics}): time spent in each phase, fitness evaluations,
+	 * infeasible and accepted reproduction sons, and the best cost of each generation. It must be called before the execution.
+	 * 
+	 * @return the metrics, which can be read while the algorithm runs.
+	 */
+	public GeneticAlgorithmMetrics enableMetrics() {
+		if (metrics == null) {
+			metrics = new GeneticAlgorithmMetrics(fitnessEvaluator);
+			fitnessEvaluator.setMetrics(metrics);
+		}
+		return metrics;
+	}
+	
+	/**
+	 * @return the metrics of the executions, or null if they aren't enabled.
+	 */
+	public GeneticAlgorithmMetrics getMetrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Tracks the population diversity (see {@link PopulationDiversity}), updated in each generation.
+	 * 
+	 * @param sampledPairs number of individuals pairs sampled per generation to estimate the Kendall distance.
+	 */
+	public void enableDiversityTracking(int sampledPairs) {
+		this.diversitySampledPairs = sampledPairs;
+	}
+	
+	/**
+	 * Rejects the landing orders that break a precedence relation of the instance (in the initialization, crossover and mutation)
+	 * without scheduling and evaluating them.
+	 */
+	public void enablePrecedenceFiltering() {
+		if (precedenceMatrix == null) {
+			precedenceMatrix = new PrecedenceMatrix(instance);
+		}
+		individualCreator.setPrecedenceMatrix(precedenceMatrix);
+		crossoverOperator.setPrecedenceMatrix(precedenceMatrix);
+		mutationOperator.setPrecedenceMatrix(precedenceMatrix);
+	}
+	
+	/**
+	 * Removes the equivalent landing orders from the search space: the identical aircrafts (see {@link AircraftClasses})
+	 * land in first come, first served order in the individuals created by the initialization, crossover and mutation.
+	 */
+	public void enableSymmetryBreaking() {
+		if (aircraftClasses == null) {
+			aircraftClasses = new AircraftClasses(instance);
+		}
+		individualCreator.setAircraftClasses(aircraftClasses);
+		crossoverOperator.setAircraftClasses(aircraftClasses);
+		mutationOperator.setAircraftClasses(aircraftClasses);
+	}
+	
+	/**
+	 * @return the classes of identical aircrafts, or null if the symmetry breaking isn't enabled.
+	 */
+	public AircraftClasses getAircraftClasses() {
+		return aircraftClasses;
+	}
+	
+	/**
+	 * @return the precedence relations of the instance, or null if the precedence filtering isn't enabled.
+	 */
+	public PrecedenceMatrix getPrecedenceMatrix() {
+		return precedenceMatrix;
+	}
+	
+	/**
+	 * @return the diversity metrics of the current population, or null if the diversity isn't tracked.
+	 */
+	public PopulationDiversity getPopulationDiversity() {
+		return population == null ? null : population.getDiversity();
+	}
+	
+	public void setGenerationListener(GenerationListener generationListener) {
+		this.generationListener = generationListener;
+	}
+	
+	/**
+	 * Shares the best landing sequence with other engines running concurrently: the best individual of each generation
+	 * is offered to the incumbent, the better landing sequences found by the other engines join the population, and
+	 * the algorithm stops when the incumbent is stopped.
+	 * 
+	 * @param incumbent best landing sequence shared by the engines.
+	 */
+	public void setIncumbent(SharedIncumbent incumbent) {
+		this.incumbent = incumbent;
+		if (incumbentEvaluator == null) {
+			incumbentEvaluator = new DeltaCostEvaluator(instance);
+		}
+	}
+	
+	/**
+	 * Stops the algorithm as soon as an individual with this fitness value (or better) is found.
+	 * 
+	 * @param targetFitnessValue fitness value to be reached.
+	 */
+	public void setTargetFitnessValue(int targetFitnessValue) {
+		this.targetFitnessValue = targetFitnessValue;
+	}
 }
@@ -0,0 +1,20 @@
+package br.ufrgs.inf.ga;
+
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+
+/**
+ * Creates and configures the genetic algorithms that solve the parts of a decomposed instance (see {@link DecomposedScheduler}).
+ *
+ * @author diego
+ *
+ */
+public interface GeneticAlgorithmFactory {
+
+	/**
+	 * Creates a genetic algorithm for an instance. Called by the threads of the {@link DecomposedScheduler}.
+	 *
+	 * @param aircrafts aircrafts static data of the instance.
+	 * @return the genetic algorithm, ready to be executed.
+	 */
+	GeneticAlgorithm create(AircraftStaticData[] aircrafts);
+}
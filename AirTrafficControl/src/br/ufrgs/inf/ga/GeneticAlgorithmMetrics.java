@@ -0,0 +1,517 @@
+package br.ufrgs.inf.ga;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters and timers of a {@link GeneticAlgorithm} execution: time spent in each phase of the generations, fitness
+ * evaluations, infeasible and accepted reproduction sons, and the best costs of the last generations.
+ *
+ * <p>
+ * The phases are timed once per generation, and the fitness evaluations (too short to be timed one by one) are sampled:
+ * one in {@link #EVALUATION_SAMPLING_PERIOD} evaluations, chosen at random, is timed and the total time is estimated from
+ * them. The counters are {@link LongAdder}s, as the evaluations of the initialization and of the local search run in
+ * several threads, so they can be read while the algorithm runs: by {@link #snapshot()}, periodically by
+ * {@link #scheduleSnapshots(ScheduledExecutorService, long, SnapshotListener)}, or by JMX (see {@link #registerMBean(String)}).
+ * </p>
+ *
+ * <p>
+ * The best cost of each generation is kept in a ring buffer of the last {@link #BEST_COST_HISTORY_SIZE} generations, so a
+ * long execution doesn't grow the memory and the convergence can still be followed by the snapshots.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class GeneticAlgorithmMetrics implements GeneticAlgorithmMetricsMBean {
+
+	/**
+	 * Phases of the algorithm. The sorting and evaluation times are also counted in the times of the phases that sort and
+	 * evaluate (initialization, selection, reproduction, mutation and improvement).
+	 */
+	public static final int INITIALIZATION = 0;
+
+	public static final int SELECTION = 1;
+
+	public static final int REPRODUCTION = 2;
+
+	public static final int MUTATION = 3;
+
+	/**
+	 * Local search and path relinking stages.
+	 */
+	public static final int IMPROVEMENT = 4;
+
+	public static final int SORTING = 5;
+
+	public static final int EVALUATION = 6;
+
+	public static final String[] PHASE_NAMES = { "initialization", "selection", "reproduction", "mutation", "improvement", "sorting", "evaluation" };
+
+	/**
+	 * One in this number of fitness evaluations is timed (a power of 2).
+	 */
+	public static final int EVALUATION_SAMPLING_PERIOD = 64;
+
+	/**
+	 * Number of generations whose best cost is kept.
+	 */
+	public static final int BEST_COST_HISTORY_SIZE = 1000;
+
+	/**
+	 * Domain of the JMX object names.
+	 */
+	public static final String OBJECT_NAME_DOMAIN = "br.ufrgs.inf.ga";
+
+	/**
+	 * Time (in nanoseconds) spent in each phase. The evaluation time is the time of the sampled evaluations.
+	 */
+	private final LongAdder[] phaseTimes = new LongAdder[PHASE_NAMES.length];
+
+	private final LongAdder sampledEvaluations = new LongAdder();
+
+	private final LongAdder offspring = new LongAdder();
+
+	private final LongAdder infeasibleOffspring = new LongAdder();
+
+	private final LongAdder acceptedOffspring = new LongAdder();
+
+	/**
+	 * Counts the fitness evaluations.
+	 */
+	private final FitnessEvaluator fitnessEvaluator;
+
+	/**
+	 * Evaluations done by the evaluator before the metrics were created.
+	 */
+	private final long previousEvaluations;
+
+	private volatile int generation;
+
+	private volatile int bestCost = Integer.MAX_VALUE;
+
+	/**
+	 * Best costs of the last generations (a ring buffer), and the number of generations added to it. Written by the
+	 * algorithm thread and read by the snapshots, so both are guarded by the buffer lock.
+	 */
+	private final int[] bestCostHistory = new int[BEST_COST_HISTORY_SIZE];
+
+	private long bestCostHistoryCount;
+
+	/**
+	 * Times (in nanoseconds, as {@link System#nanoTime()}) when the first execution started and when the last one finished
+	 * (zero while it runs).
+	 */
+	private volatile long startTime;
+
+	private volatile long endTime;
+
+	/**
+	 * Name of the registered MBean, or null if it isn't registered.
+	 */
+	private ObjectName objectName;
+
+	/**
+	 * @param fitnessEvaluator evaluator of the algorithm, which times the sampled evaluations.
+	 */
+	GeneticAlgorithmMetrics(FitnessEvaluator fitnessEvaluator) {
+		for (int i = 0; i < phaseTimes.length; i++) {
+			phaseTimes[i] = new LongAdder();
+		}
+		this.fitnessEvaluator = fitnessEvaluator;
+		this.previousEvaluations = fitnessEvaluator.getEvaluationCount();
+	}
+
+	/**
+	 * Called when an execution starts.
+	 *
+	 * @return the current time (in nanoseconds), the start of the first phase.
+	 */
+	long executionStarted() {
+		long now = System.nanoTime();
+		if (startTime == 0) {
+			startTime = now;
+		}
+		endTime = 0;
+		return now;
+	}
+
+	void executionFinished() {
+		endTime = System.nanoTime();
+	}
+
+	/**
+	 * Adds the time of a phase.
+	 *
+	 * @param phase the phase.
+	 * @param phaseStartTime time (in nanoseconds, as {@link System#nanoTime()}) when the phase started.
+	 * @return the current time, the start of the next phase.
+	 */
+	long phaseFinished(int phase, long phaseStartTime) {
+		long now = System.nanoTime();
+		phaseTimes[phase].add(now - phaseStartTime);
+		return now;
+	}
+
+	/**
+	 * @return true if the next fitness evaluation of the current thread must be timed.
+	 */
+	boolean isEvaluationSampled() {
+		return (ThreadLocalRandom.current().nextInt() & (EVALUATION_SAMPLING_PERIOD - 1)) == 0;
+	}
+
+	/**
+	 * @param evaluationTime time (in nanoseconds) of a sampled fitness evaluation.
+	 */
+	void evaluationSampled(long evaluationTime) {
+		sampledEvaluations.increment();
+		phaseTimes[EVALUATION].add(evaluationTime);
+	}
+
+	/**
+	 * Adds the sons of a reproduction.
+	 *
+	 * @param sons number of sons.
+	 * @param infeasibleSons sons without a feasible schedule.
+	 * @param acceptedSons sons that replaced a parent in the population.
+	 */
+	void offspringEvaluated(int sons, int infeasibleSons, int acceptedSons) {
+		offspring.add(sons);
+		infeasibleOffspring.add(infeasibleSons);
+		acceptedOffspring.add(acceptedSons);
+	}
+
+	void generationEvaluated(int generation, int bestCost) {
+		synchronized (bestCostHistory) {
+			bestCostHistory[(int) (bestCostHistoryCount++ % BEST_COST_HISTORY_SIZE)] = bestCost;
+		}
+		this.bestCost = bestCost;
+		this.generation = generation;
+	}
+
+	/**
+	 * @return the best costs of the last generations (up to {@link #BEST_COST_HISTORY_SIZE}), from the oldest to the last one.
+	 */
+	private int[] copyBestCostHistory() {
+		synchronized (bestCostHistory) {
+			int size = (int) Math.min(bestCostHistoryCount, BEST_COST_HISTORY_SIZE);
+			int oldest = (int) ((bestCostHistoryCount - size) % BEST_COST_HISTORY_SIZE);
+			int[] history = new int[size];
+			int firstPart = Math.min(size, BEST_COST_HISTORY_SIZE - oldest);
+			System.arraycopy(bestCostHistory, oldest, history, 0, firstPart);
+			System.arraycopy(bestCostHistory, 0, history, firstPart, size - firstPart);
+			return history;
+		}
+	}
+
+	/**
+	 * @return the counter of the sorting time, given to the population.
+	 */
+	LongAdder getSortingTimeCounter() {
+		return phaseTimes[SORTING];
+	}
+
+	/**
+	 * @return the current values of the metrics.
+	 */
+	public Snapshot snapshot() {
+		long now = System.nanoTime();
+		long start = startTime;
+		long end = endTime;
+		long evaluations = fitnessEvaluator.getEvaluationCount() - previousEvaluations;
+		long[] times = new long[phaseTimes.length];
+		for (int i = 0; i < times.length; i++) {
+			times[i] = phaseTimes[i].sum();
+		}
+		long sampled = sampledEvaluations.sum();
+		times[EVALUATION] = sampled == 0 ? 0 : (long) ((double) times[EVALUATION] * evaluations / sampled);
+		return new Snapshot(now, start == 0 ? 0 : (end != 0 ? end : now) - start, generation, bestCost, copyBestCostHistory(), evaluations,
+							times, offspring.sum(), infeasibleOffspring.sum(), acceptedOffspring.sum());
+	}
+
+	/**
+	 * Takes a snapshot periodically and gives it to a listener, with the changes since the previous one.
+	 *
+	 * @param executor executor that takes the snapshots.
+	 * @param period time (in milliseconds) between two snapshots.
+	 * @param listener receives the snapshots.
+	 * @return the periodic task, to be cancelled when the snapshots are no longer needed.
+	 */
+	public ScheduledFuture<?> scheduleSnapshots(ScheduledExecutorService executor, long period, final SnapshotListener listener) {
+		final Snapshot first = snapshot();
+		return executor.scheduleAtFixedRate(new Runnable() {
+
+			private Snapshot previous = first;
+
+			@Override
+			public void run() {
+				Snapshot current = snapshot();
+				listener.snapshotTaken(current.since(previous), current);
+				previous = current;
+			}
+		}, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Registers the metrics in the platform MBean server, as <code>br.ufrgs.inf.ga:type=GeneticAlgorithmMetrics,name=&lt;name&gt;</code>.
+	 *
+	 * @param name name of the algorithm execution (the instance, for example).
+	 * @return the object name of the MBean.
+	 * @throws JMException thrown if the MBean can't be registered (another one has the same name, for example).
+	 */
+	public synchronized ObjectName registerMBean(String name) throws JMException {
+		ObjectName newObjectName = new ObjectName(OBJECT_NAME_DOMAIN + ":type=" + GeneticAlgorithmMetrics.class.getSimpleName() +
+												  ",name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, newObjectName);
+		unregisterMBean();
+		objectName = newObjectName;
+		return objectName;
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server, if they are registered.
+	 *
+	 * @throws JMException thrown if the MBean can't be unregistered.
+	 */
+	public synchronized void unregisterMBean() throws JMException {
+		if (objectName != null) {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			objectName = null;
+		}
+	}
+
+	@Override
+	public int getGeneration() {
+		return generation;
+	}
+
+	@Override
+	public int getBestCost() {
+		return bestCost == Integer.MAX_VALUE ? -1 : bestCost;
+	}
+
+	@Override
+	public int[] getBestCostHistory() {
+		int[] history = copyBestCostHistory();
+		for (int i = 0; i < history.length; i++) {
+			if (history[i] == Integer.MAX_VALUE) {
+				history[i] = -1;
+			}
+		}
+		return history;
+	}
+
+	@Override
+	public long getEvaluations() {
+		return fitnessEvaluator.getEvaluationCount() - previousEvaluations;
+	}
+
+	@Override
+	public double getEvaluationsPerSecond() {
+		return snapshot().getEvaluationsPerSecond();
+	}
+
+	@Override
+	public double getInfeasibleOffspringRate() {
+		return snapshot().getInfeasibleOffspringRate();
+	}
+
+	@Override
+	public double getAcceptanceRate() {
+		return snapshot().getAcceptanceRate();
+	}
+
+	@Override
+	public double getElapsedMillis() {
+		return snapshot().getElapsedTime() / 1e6;
+	}
+
+	@Override
+	public double getInitializationMillis() {
+		return phaseTimes[INITIALIZATION].sum() / 1e6;
+	}
+
+	@Override
+	public double getSelectionMillis() {
+		return phaseTimes[SELECTION].sum() / 1e6;
+	}
+
+	@Override
+	public double getReproductionMillis() {
+		return phaseTimes[REPRODUCTION].sum() / 1e6;
+	}
+
+	@Override
+	public double getMutationMillis() {
+		return phaseTimes[MUTATION].sum() / 1e6;
+	}
+
+	@Override
+	public double getImprovementMillis() {
+		return phaseTimes[IMPROVEMENT].sum() / 1e6;
+	}
+
+	@Override
+	public double getSortingMillis() {
+		return phaseTimes[SORTING].sum() / 1e6;
+	}
+
+	@Override
+	public double getEvaluationMillis() {
+		return snapshot().getPhaseTime(EVALUATION) / 1e6;
+	}
+
+	/**
+	 * Receives the periodic snapshots of the metrics.
+	 */
+	public interface SnapshotListener {
+
+		/**
+		 * @param interval changes since the previous snapshot (the generation and the best cost are the current ones).
+		 * @param total current values.
+		 */
+		void snapshotTaken(Snapshot interval, Snapshot total);
+	}
+
+	/**
+	 * Values of the metrics at a time, or their changes in an interval (see {@link Snapshot#since(Snapshot)}).
+	 */
+	public static class Snapshot {
+
+		private final long time;
+
+		private final long elapsedTime;
+
+		private final int generation;
+
+		private final int bestCost;
+
+		private final int[] bestCostHistory;
+
+		private final long evaluations;
+
+		private final long[] phaseTimes;
+
+		private final long offspring;
+
+		private final long infeasibleOffspring;
+
+		private final long acceptedOffspring;
+
+		Snapshot(long time, long elapsedTime, int generation, int bestCost, int[] bestCostHistory, long evaluations, long[] phaseTimes,
+				 long offspring, long infeasibleOffspring, long acceptedOffspring) {
+			this.time = time;
+			this.elapsedTime = elapsedTime;
+			this.generation = generation;
+			this.bestCost = bestCost;
+			this.bestCostHistory = bestCostHistory;
+			this.evaluations = evaluations;
+			this.phaseTimes = phaseTimes;
+			this.offspring = offspring;
+			this.infeasibleOffspring = infeasibleOffspring;
+			this.acceptedOffspring = acceptedOffspring;
+		}
+
+		/**
+		 * @param previous a previous snapshot of the same metrics.
+		 * @return the changes since the previous snapshot. The generation, the best cost and its history are the ones of this
+		 * 		   snapshot.
+		 */
+		public Snapshot since(Snapshot previous) {
+			long[] times = new long[phaseTimes.length];
+			for (int i = 0; i < times.length; i++) {
+				times[i] = phaseTimes[i] - previous.phaseTimes[i];
+			}
+			return new Snapshot(time, elapsedTime - previous.elapsedTime, generation, bestCost, bestCostHistory,
+								evaluations - previous.evaluations, times, offspring - previous.offspring,
+								infeasibleOffspring - previous.infeasibleOffspring, acceptedOffspring - previous.acceptedOffspring);
+		}
+
+		/**
+		 * @return time (in nanoseconds, as {@link System#nanoTime()}) when the snapshot was taken.
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 * @return execution time (in nanoseconds).
+		 */
+		public long getElapsedTime() {
+			return elapsedTime;
+		}
+
+		public int getGeneration() {
+			return generation;
+		}
+
+		/**
+		 * @return best cost of the last generation, or {@link Integer#MAX_VALUE} (infeasible or before the first generation).
+		 */
+		public int getBestCost() {
+			return bestCost;
+		}
+
+		/**
+		 * @return best costs of the last generations (up to {@link GeneticAlgorithmMetrics#BEST_COST_HISTORY_SIZE}), from the
+		 * 		   oldest to the last one, or {@link Integer#MAX_VALUE} for the infeasible ones.
+		 */
+		public int[] getBestCostHistory() {
+			return bestCostHistory.clone();
+		}
+
+		public long getEvaluations() {
+			return evaluations;
+		}
+
+		/**
+		 * @param phase the phase (for example {@link GeneticAlgorithmMetrics#MUTATION}).
+		 * @return time (in nanoseconds) spent in the phase. The evaluation time is estimated from the sampled evaluations.
+		 */
+		public long getPhaseTime(int phase) {
+			return phaseTimes[phase];
+		}
+
+		public long getOffspring() {
+			return offspring;
+		}
+
+		public long getInfeasibleOffspring() {
+			return infeasibleOffspring;
+		}
+
+		public long getAcceptedOffspring() {
+			return acceptedOffspring;
+		}
+
+		public double getEvaluationsPerSecond() {
+			return elapsedTime == 0 ? 0 : evaluations * 1e9 / elapsedTime;
+		}
+
+		public double getInfeasibleOffspringRate() {
+			return offspring == 0 ? 0 : (double) infeasibleOffspring / offspring;
+		}
+
+		public double getAcceptanceRate() {
+			return offspring == 0 ? 0 : (double) acceptedOffspring / offspring;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder(String.format("generation %d cost %s evaluations %d (%.0f/s) infeasible sons %.1f%% accepted sons %.1f%% time %.1f ms",
+					generation, bestCost == Integer.MAX_VALUE ? "infeasible" : String.valueOf(bestCost), evaluations, getEvaluationsPerSecond(),
+					getInfeasibleOffspringRate() * 100, getAcceptanceRate() * 100, elapsedTime / 1e6));
+			for (int i = 0; i < phaseTimes.length; i++) {
+				text.append(String.format(" %s %.1f ms", PHASE_NAMES[i], phaseTimes[i] / 1e6));
+			}
+			return text.toString();
+		}
+	}
+}
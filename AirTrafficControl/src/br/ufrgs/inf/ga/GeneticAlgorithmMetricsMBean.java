@@ -0,0 +1,57 @@
+package br.ufrgs.inf.ga;
+
+/**
+ * JMX view of the {@link GeneticAlgorithmMetrics} of a running genetic algorithm. The times are in milliseconds, and the
+ * sorting and evaluation times are also counted in the times of the phases that sort and evaluate.
+ *
+ * @author diego
+ *
+ */
+public interface GeneticAlgorithmMetricsMBean {
+
+	int getGeneration();
+
+	/**
+	 * @return the best cost found so far, or -1 before the first generation (or if no feasible schedule was found).
+	 */
+	int getBestCost();
+
+	/**
+	 * @return the best costs of the last generations (up to {@link GeneticAlgorithmMetrics#BEST_COST_HISTORY_SIZE}), from the
+	 * 		   oldest to the last one, with -1 for the generations without a feasible schedule.
+	 */
+	int[] getBestCostHistory();
+
+	long getEvaluations();
+
+	double getEvaluationsPerSecond();
+
+	/**
+	 * @return fraction of the reproduction sons that are infeasible.
+	 */
+	double getInfeasibleOffspringRate();
+
+	/**
+	 * @return fraction of the reproduction sons that replaced a parent in the population.
+	 */
+	double getAcceptanceRate();
+
+	double getElapsedMillis();
+
+	double getInitializationMillis();
+
+	double getSelectionMillis();
+
+	double getReproductionMillis();
+
+	double getMutationMillis();
+
+	double getImprovementMillis();
+
+	double getSortingMillis();
+
+	/**
+	 * @return estimated time of the fitness evaluations (just a sample of them is timed).
+	 */
+	double getEvaluationMillis();
+}
@@ -0,0 +1,70 @@
+package br.ufrgs.inf.ga;
+
+/**
+ * Immutable snapshot of the best landing sequence found by the engines of a {@link PortfolioScheduler}.
+ *
+ * @author diego
+ *
+ */
+public final class Incumbent {
+
+	/**
+	 * Landing sequence (aircraft ids in landing order). Never changed after the construction.
+	 */
+	private final int[] aircraftIds;
+
+	/**
+	 * Cost of the landing sequence with its best landing times (see {@link DeltaCostEvaluator}).
+	 */
+	private final double cost;
+
+	/**
+	 * Name of the engine that found the landing sequence.
+	 */
+	private final String engine;
+
+	/**
+	 * True if the landing sequence is known to be optimal.
+	 */
+	private final boolean provenOptimal;
+
+	Incumbent(int[] aircraftIds, double cost, String engine, boolean provenOptimal) {
+		this.aircraftIds = aircraftIds.clone();
+		this.cost = cost;
+		this.engine = engine;
+		this.provenOptimal = provenOptimal;
+	}
+
+	/**
+	 * @return a copy of the landing sequence (aircraft ids in landing order).
+	 */
+	public int[] getAircraftIds() {
+		return aircraftIds.clone();
+	}
+
+	/**
+	 * Copies the landing sequence to a buffer, without allocations.
+	 *
+	 * @param buffer array with a position per aircraft.
+	 */
+	public void copyAircraftIds(int[] buffer) {
+		System.arraycopy(aircraftIds, 0, buffer, 0, aircraftIds.length);
+	}
+
+	public double getCost() {
+		return cost;
+	}
+
+	public String getEngine() {
+		return engine;
+	}
+
+	public boolean isProvenOptimal() {
+		return provenOptimal;
+	}
+
+	@Override
+	public String toString() {
+		return cost + " (" + engine + (provenOptimal ? ", proven optimal)" : ")");
+	}
+}
@@ -180,18 +180,19 @@ public class LandingTimeScheduler {
 		float firstCost = first.getLandingCost() + second.getLandingCost() + third.getLandingCost();
 		
 		
-		Aircraft secondCopy = second.clone();
-		Aircraft thirdCopy = third.clone();
-		secondCopy.setRandomLandingTimeLessThenTargetTime();
-		thirdCopy.setRandomLandingTimeLessThenTargetTime();
-		float secondCost = first.getLandingCost() + secondCopy.getLandingCost() + thirdCopy.getLandingCost();
+		// tries the random times in place, restoring the original times if they aren't better.
+		int secondLandingTime = second.getLandingTime();
+		int thirdLandingTime = third.getLandingTime();
+		second.setRandomLandingTimeLessThenTargetTime();
+		third.setRandomLandingTimeLessThenTargetTime();
+		float secondCost = first.getLandingCost() + second.getLandingCost() + third.getLandingCost();
 		
-		if (secondCopy.respectsGapTimeBetween(first) &&
-			thirdCopy.respectsGapTimeBetween(secondCopy) &&
-			secondCost < firstCost) {
+		if (!(second.respectsGapTimeBetween(first) &&
+			third.respectsGapTimeBetween(second) &&
+			secondCost < firstCost)) {
 
-			second.setLandingTime(secondCopy.getLandingTime());
-			third.setLandingTime(thirdCopy.getLandingTime());
+			second.setLandingTime(secondLandingTime);
+			third.setLandingTime(thirdLandingTime);
 			
 		}
 	}
@@ -0,0 +1,433 @@
+package br.ufrgs.inf.ga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.TimeWindowOverlapGraph;
+import br.ufrgs.inf.ga.exceptions.AlgorithmException;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.ParetoFront;
+import br.ufrgs.inf.ga.model.Solution;
+import br.ufrgs.inf.ga.operators.OrderCrossover;
+import br.ufrgs.inf.ga.operators.PermutationCrossover;
+
+/**
+ * Multi-objective genetic algorithm (NSGA-II) that finds the trade-offs between three objectives of a landing schedule:
+ * <ul>
+ * <li>the total cost (the objective of the {@link GeneticAlgorithm});</li>
+ * <li>the makespan: the landing time of the last aircraft;</li>
+ * <li>the number of aircrafts that don't land at their target times.</li>
+ * </ul>
+ * The schedule of a landing order has the best landing times for that order (see {@link DeltaCostEvaluator}), and the three
+ * objectives are the ones of that schedule, which is the one returned in the Pareto front. An infeasible landing order has
+ * infinite objectives, so it is dominated by any feasible one.
+ *
+ * <p>
+ * Each generation creates as many sons as parents (binary tournaments by front and crowding distance, order crossover, and a
+ * swap of aircrafts whose time windows overlap as mutation), and the next parents are the best fronts of parents and sons
+ * together (see {@link NonDominatedSorting}), the last front taken by crowding distance. The landing orders and the objectives
+ * are kept in primitive arrays reused by all the generations, and for large populations the sons are evaluated and sorted in
+ * parallel.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class MultiObjectiveGeneticAlgorithm {
+
+	public static final int TOTAL_COST = 0;
+
+	public static final int MAKESPAN = 1;
+
+	public static final int OFF_TARGET_LANDINGS = 2;
+
+	public static final String[] OBJECTIVE_NAMES = { "cost", "makespan", "off target landings" };
+
+	private static final int OBJECTIVE_COUNT = OBJECTIVE_NAMES.length;
+
+	/**
+	 * Max number of overlapping aircrafts considered by the mutation of each aircraft.
+	 */
+	private static final int MAX_CANDIDATES = 16;
+
+	private final AtcInstance instance;
+
+	private final int aircraftCount;
+
+	private final int populationSize;
+
+	private final int maxGenerations;
+
+	private final float mutationRate;
+
+	private final TimeWindowOverlapGraph overlapGraph;
+
+	private final NonDominatedSorting sorting = new NonDominatedSorting(OBJECTIVE_COUNT);
+
+	private final PermutationCrossover crossover;
+
+	/**
+	 * Evaluator of each thread.
+	 */
+	private final ThreadLocal<ObjectiveEvaluator> evaluators = new ThreadLocal<ObjectiveEvaluator>() {
+		@Override
+		protected ObjectiveEvaluator initialValue() {
+			return new ObjectiveEvaluator();
+		}
+	};
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	private Random random = new Random();
+
+	/**
+	 * Landing orders of the parents (first half) and of the sons (second half), and their objectives.
+	 */
+	private int[][] sequences;
+
+	private double[] objectives;
+
+	/**
+	 * Buffers of the next parents.
+	 */
+	private int[][] nextSequences;
+
+	private double[] nextObjectives;
+
+	/**
+	 * Front and crowding distance of each parent, used by the tournaments.
+	 */
+	private int[] parentRanks;
+
+	private double[] parentCrowdingDistances;
+
+	/**
+	 * Sort keys of the last front taken by crowding distance.
+	 */
+	private double[] crowdingKeys;
+
+	private int generationCount;
+
+	/**
+	 * Solution found by the last execution.
+	 */
+	private Solution solution;
+
+	/**
+	 * @param aircrafts aircrafts static data loaded from an input file.
+	 * @param populationSize number of parents (and of sons) of each generation.
+	 * @param maxGenerations number of generations.
+	 * @param mutationRate probability of a son to be mutated.
+	 */
+	public MultiObjectiveGeneticAlgorithm(AircraftStaticData[] aircrafts, int populationSize, int maxGenerations, float mutationRate) {
+		this.instance = new AtcInstance(aircrafts);
+		this.aircraftCount = instance.getAircraftCount();
+		this.populationSize = populationSize;
+		this.maxGenerations = maxGenerations;
+		this.mutationRate = mutationRate;
+		this.overlapGraph = new TimeWindowOverlapGraph(instance, MAX_CANDIDATES);
+		this.crossover = new OrderCrossover(aircraftCount);
+	}
+
+	/**
+	 * @param threads number of threads evaluating and sorting large populations (by default, the number of processors).
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * @param seed seed of the initial landing orders, tournaments and mutations.
+	 */
+	public void setSeed(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Runs the generations and builds the solution: the first front of the last parents, and its cheapest schedule as the best individual.
+	 *
+	 * @throws AlgorithmException thrown if an evaluation or sorting task fails.
+	 */
+	public void execute() throws AlgorithmException {
+		int slots = 2 * populationSize;
+		sequences = new int[slots][aircraftCount];
+		nextSequences = new int[slots][];
+		objectives = new double[slots * OBJECTIVE_COUNT];
+		nextObjectives = new double[slots * OBJECTIVE_COUNT];
+		parentRanks = new int[populationSize];
+		parentCrowdingDistances = new double[populationSize];
+		crowdingKeys = new double[slots];
+
+		ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+		try {
+			initializeParents();
+			evaluate(0, populationSize, pool);
+			sorting.sort(objectives, populationSize, pool);
+			for (int i = 0; i < populationSize; i++) {
+				parentRanks[i] = sorting.getRanks()[i];
+				parentCrowdingDistances[i] = sorting.getCrowdingDistances()[i];
+			}
+
+			for (generationCount = 1; generationCount < maxGenerations; generationCount++) {
+				for (int son = populationSize; son < slots; son++) {
+					crossover.cross(sequences[selectParent()], sequences[selectParent()], sequences[son]);
+					if (random.nextFloat() < mutationRate) {
+						mutate(sequences[son]);
+					}
+				}
+				evaluate(populationSize, slots, pool);
+				sorting.sort(objectives, slots, pool);
+				selectNextParents();
+			}
+		} catch (RuntimeException e) {
+			throw new AlgorithmException("The multi-objective genetic algorithm has failed.", e);
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+		this.solution = createSolution();
+	}
+
+	/**
+	 * The first parent is the best constructive heuristic landing order, and the other ones are random.
+	 */
+	private void initializeParents() {
+		int[] landingTimes = new int[aircraftCount];
+		new ConstructiveScheduler(instance).createBestSchedule(true, sequences[0], landingTimes);
+		for (int i = 1; i < populationSize; i++) {
+			int[] sequence = sequences[i];
+			for (int k = 0; k < aircraftCount; k++) {
+				sequence[k] = k;
+			}
+			for (int k = aircraftCount - 1; k > 0; k--) {
+				int j = random.nextInt(k + 1);
+				int swap = sequence[k];
+				sequence[k] = sequence[j];
+				sequence[j] = swap;
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the landing orders of a range of slots, in parallel if it is large.
+	 */
+	private void evaluate(int from, int to, ForkJoinPool pool) {
+		if (pool != null && to - from >= NonDominatedSorting.PARALLEL_THRESHOLD) {
+			pool.invoke(new Evaluation(from, to));
+		} else {
+			evaluators.get().evaluate(from, to);
+		}
+	}
+
+	/**
+	 * Binary tournament: the parent of the best front wins and, in the same front, the one with the largest crowding distance.
+	 */
+	private int selectParent() {
+		int a = random.nextInt(populationSize);
+		int b = random.nextInt(populationSize);
+		if (parentRanks[a] != parentRanks[b]) {
+			return parentRanks[a] < parentRanks[b] ? a : b;
+		}
+		return parentCrowdingDistances[a] >= parentCrowdingDistances[b] ? a : b;
+	}
+
+	/**
+	 * Swaps a random aircraft with an aircraft whose landing time window overlaps its own.
+	 */
+	private void mutate(int[] sequence) {
+		int position = random.nextInt(aircraftCount);
+		int aircraft = sequence[position];
+		int candidateCount = overlapGraph.getCandidateCount(aircraft);
+		if (candidateCount == 0) {
+			return;
+		}
+		int other = overlapGraph.getCandidate(aircraft, random.nextInt(candidateCount));
+		for (int k = 0; k < aircraftCount; k++) {
+			if (sequence[k] == other) {
+				sequence[k] = aircraft;
+				sequence[position] = other;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Moves the best fronts of parents and sons to the parent slots (the last front that doesn't fit is taken by crowding distance),
+	 * and the landing order buffers of the others to the son slots.
+	 */
+	private void selectNextParents() {
+		int[] sortedSolutions = sorting.getSortedSolutions();
+		int[] ranks = sorting.getRanks();
+		double[] crowdingDistances = sorting.getCrowdingDistances();
+
+		int front = 0;
+		while (sorting.getFrontStart(front + 1) <= populationSize) {
+			front++;
+		}
+		int frontStart = sorting.getFrontStart(front);
+		if (frontStart < populationSize) {
+			int frontEnd = sorting.getFrontStart(front + 1);
+			for (int f = frontStart; f < frontEnd; f++) {
+				crowdingKeys[sortedSolutions[f]] = -crowdingDistances[sortedSolutions[f]];
+			}
+			NonDominatedSorting.sortByKey(sortedSolutions, frontStart, frontEnd - 1, crowdingKeys);
+		}
+
+		for (int i = 0; i < sortedSolutions.length && i < 2 * populationSize; i++) {
+			int solution = sortedSolutions[i];
+			nextSequences[i] = sequences[solution];
+			if (i < populationSize) {
+				System.arraycopy(objectives, solution * OBJECTIVE_COUNT, nextObjectives, i * OBJECTIVE_COUNT, OBJECTIVE_COUNT);
+				parentRanks[i] = ranks[solution];
+				parentCrowdingDistances[i] = crowdingDistances[solution];
+			}
+		}
+		int[][] swapSequences = sequences;
+		sequences = nextSequences;
+		nextSequences = swapSequences;
+		double[] swapObjectives = objectives;
+		objectives = nextObjectives;
+		nextObjectives = swapObjectives;
+	}
+
+	/**
+	 * Builds the schedules of the first front of the parents, without repeated objective values, in order of cost.
+	 */
+	private Solution createSolution() {
+		List<Integer> front = new ArrayList<Integer>();
+		for (int i = 0; i < populationSize; i++) {
+			if (parentRanks[i] == 0 && !hasSameObjectives(front, i)) {
+				front.add(i);
+			}
+		}
+		int[] frontSolutions = new int[front.size()];
+		double[] costs = new double[populationSize];
+		for (int f = 0; f < frontSolutions.length; f++) {
+			frontSolutions[f] = front.get(f);
+			costs[frontSolutions[f]] = objectives[frontSolutions[f] * OBJECTIVE_COUNT + TOTAL_COST];
+		}
+		NonDominatedSorting.sortByKey(frontSolutions, 0, frontSolutions.length - 1, costs);
+
+		// the schedules are the ones evaluated: the best landing times of each landing order.
+		DeltaCostEvaluator evaluator = new DeltaCostEvaluator(instance);
+		FitnessEvaluator fitnessEvaluator = new FitnessEvaluator();
+		List<Individual> individuals = new ArrayList<Individual>(frontSolutions.length);
+		double[] frontObjectives = new double[frontSolutions.length * OBJECTIVE_COUNT];
+		for (int f = 0; f < frontSolutions.length; f++) {
+			int[] aircraftIds = sequences[frontSolutions[f]];
+			int[] landingTimes = new int[aircraftCount];
+			evaluator.evaluate(aircraftIds);
+			if (!evaluator.getLandingTimes(landingTimes)) {
+				// no feasible landing order was found: the aircrafts land at their target times.
+				for (int k = 0; k < aircraftCount; k++) {
+					landingTimes[k] = instance.getTargetLandingTimes()[aircraftIds[k]];
+				}
+			}
+			Aircraft[] landingSequence = instance.createLandingSequence(aircraftIds, landingTimes);
+			individuals.add(new Individual(landingSequence, fitnessEvaluator.evaluate(landingSequence)));
+			System.arraycopy(objectives, frontSolutions[f] * OBJECTIVE_COUNT, frontObjectives, f * OBJECTIVE_COUNT, OBJECTIVE_COUNT);
+		}
+		ParetoFront paretoFront = new ParetoFront(OBJECTIVE_NAMES, individuals, frontObjectives);
+		return new Solution(null, individuals.get(0), maxGenerations, generationCount, 0, false, paretoFront);
+	}
+
+	private boolean hasSameObjectives(List<Integer> solutions, int solution) {
+		for (int other : solutions) {
+			boolean same = true;
+			for (int k = 0; k < OBJECTIVE_COUNT && same; k++) {
+				same = objectives[other * OBJECTIVE_COUNT + k] == objectives[solution * OBJECTIVE_COUNT + k];
+			}
+			if (same) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the solution found by the last execution, with its Pareto front.
+	 */
+	public Solution getSolution() {
+		return solution;
+	}
+
+	/**
+	 * Calculates the objectives of the landing orders, with its own buffers (one per thread).
+	 */
+	private class ObjectiveEvaluator {
+
+		private final DeltaCostEvaluator evaluator = new DeltaCostEvaluator(instance);
+
+		private final int[] landingTimes = new int[aircraftCount];
+
+		private final int[] targetLandingTimes = instance.getTargetLandingTimes();
+
+		void evaluate(int from, int to) {
+			for (int slot = from; slot < to; slot++) {
+				evaluate(sequences[slot], slot * OBJECTIVE_COUNT);
+			}
+		}
+
+		private void evaluate(int[] sequence, int row) {
+			double cost = evaluator.evaluate(sequence);
+			if (cost == DeltaCostEvaluator.INFEASIBLE_COST) {
+				for (int k = 0; k < OBJECTIVE_COUNT; k++) {
+					objectives[row + k] = Double.POSITIVE_INFINITY;
+				}
+				return;
+			}
+			evaluator.getLandingTimes(landingTimes);
+			int offTargetLandings = 0;
+			int makespan = 0;
+			for (int k = 0; k < aircraftCount; k++) {
+				int aircraft = sequence[k];
+				if (landingTimes[k] != targetLandingTimes[aircraft]) {
+					offTargetLandings++;
+				}
+				makespan = Math.max(makespan, landingTimes[k]);
+			}
+			objectives[row + TOTAL_COST] = cost;
+			objectives[row + MAKESPAN] = makespan;
+			objectives[row + OFF_TARGET_LANDINGS] = offTargetLandings;
+		}
+	}
+
+	/**
+	 * Task evaluating a range of slots.
+	 */
+	private class Evaluation extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Number of slots evaluated by each leaf task.
+		 */
+		private static final int TASK_SIZE = 64;
+
+		private final int from;
+
+		private final int to;
+
+		Evaluation(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= TASK_SIZE) {
+				evaluators.get().evaluate(from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new Evaluation(from, middle), new Evaluation(middle, to));
+		}
+	}
+}
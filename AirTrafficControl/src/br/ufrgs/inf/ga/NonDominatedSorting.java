@@ -0,0 +1,397 @@
+package br.ufrgs.inf.ga;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fast non-dominated sorting and crowding distance (NSGA-II) over a primitive objective matrix, where all the objectives
+ * are minimized.
+ *
+ * <p>
+ * The objectives of the solution i are <code>objectives[i * objectiveCount + k]</code>. A solution dominates another one
+ * if it is not worse in any objective and better in at least one. The first front has the solutions dominated by no other
+ * one, the second front the ones dominated only by solutions of the first front, and so on.
+ * </p>
+ *
+ * <p>
+ * Instead of keeping the list of solutions dominated by each solution (<code>O(n^2)</code> memory for n solutions), the
+ * domination counts are calculated first, and the counts of the remaining solutions are decremented by the solutions of
+ * each front when it is removed: each pair of solutions is compared at most twice, and only <code>O(n)</code> memory is
+ * used. Each solution is updated by a single thread, so for large populations both steps are split in ranges of solutions
+ * run in parallel, without locks.
+ * </p>
+ *
+ * <p>
+ * The buffers are reused by the next sortings, so an instance is not thread safe.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class NonDominatedSorting {
+
+	/**
+	 * Populations smaller than this are sorted by the calling thread only.
+	 */
+	public static final int PARALLEL_THRESHOLD = 1024;
+
+	/**
+	 * Number of solutions of each parallel task.
+	 */
+	private static final int TASK_SIZE = 256;
+
+	/**
+	 * Ranges smaller than this are sorted by insertion sort.
+	 */
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+	private final int objectiveCount;
+
+	private double[] objectives;
+
+	private int size;
+
+	/**
+	 * Number of solutions of the remaining fronts that dominate each solution.
+	 */
+	private int[] dominationCounts;
+
+	/**
+	 * Front of each solution (0 is the first front).
+	 */
+	private int[] ranks;
+
+	private double[] crowdingDistances;
+
+	/**
+	 * Solutions in order of front, and the position where each front starts (plus the end of the last one).
+	 */
+	private int[] sortedSolutions;
+
+	private int[] frontStarts;
+
+	private int frontCount;
+
+	/**
+	 * Solutions out of the fronts found so far.
+	 */
+	private int[] remainingSolutions;
+
+	private int remainingCount;
+
+	/**
+	 * Sort keys of the crowding distance calculation.
+	 */
+	private double[] keys;
+
+	/**
+	 * @param objectiveCount number of objectives of each solution.
+	 */
+	public NonDominatedSorting(int objectiveCount) {
+		this.objectiveCount = objectiveCount;
+		ensureCapacity(16);
+	}
+
+	/**
+	 * Sorts the solutions in fronts and calculates their crowding distances in their fronts.
+	 *
+	 * @param objectives objective matrix: the objectives of the solution i are <code>objectives[i * objectiveCount + k]</code>.
+	 * @param size number of solutions.
+	 * @param pool pool where the comparisons of large populations are run in parallel, or null to run them in the calling thread.
+	 * @return the number of fronts.
+	 */
+	public int sort(double[] objectives, int size, ForkJoinPool pool) {
+		this.objectives = objectives;
+		this.size = size;
+		ensureCapacity(size);
+		boolean parallel = pool != null && size >= PARALLEL_THRESHOLD;
+
+		remainingCount = size;
+		for (int i = 0; i < size; i++) {
+			remainingSolutions[i] = i;
+		}
+		if (parallel) {
+			pool.invoke(new DominationCounting(0, size));
+		} else {
+			countDominations(0, size);
+		}
+
+		frontCount = 0;
+		int sorted = 0;
+		while (remainingCount > 0) {
+			// the solutions whose count reached zero form the next front.
+			frontStarts[frontCount] = sorted;
+			int kept = 0;
+			for (int r = 0; r < remainingCount; r++) {
+				int solution = remainingSolutions[r];
+				if (dominationCounts[solution] == 0) {
+					ranks[solution] = frontCount;
+					sortedSolutions[sorted++] = solution;
+				} else {
+					remainingSolutions[kept++] = solution;
+				}
+			}
+			remainingCount = kept;
+			int frontStart = frontStarts[frontCount];
+			frontCount++;
+
+			if (remainingCount > 0) {
+				if (parallel && remainingCount >= PARALLEL_THRESHOLD) {
+					pool.invoke(new FrontRemoval(frontStart, sorted, 0, remainingCount));
+				} else {
+					removeFront(frontStart, sorted, 0, remainingCount);
+				}
+			}
+		}
+		frontStarts[frontCount] = sorted;
+
+		for (int front = 0; front < frontCount; front++) {
+			calculateCrowdingDistances(frontStarts[front], frontStarts[front + 1]);
+		}
+		return frontCount;
+	}
+
+	/**
+	 * @return true if the solution a dominates the solution b.
+	 */
+	public static boolean dominates(double[] objectives, int objectiveCount, int a, int b) {
+		int rowA = a * objectiveCount;
+		int rowB = b * objectiveCount;
+		boolean better = false;
+		for (int k = 0; k < objectiveCount; k++) {
+			double valueA = objectives[rowA + k];
+			double valueB = objectives[rowB + k];
+			if (valueA > valueB) {
+				return false;
+			}
+			if (valueA < valueB) {
+				better = true;
+			}
+		}
+		return better;
+	}
+
+	/**
+	 * Counts the solutions that dominate each solution of a range.
+	 */
+	private void countDominations(int from, int to) {
+		for (int i = from; i < to; i++) {
+			int count = 0;
+			for (int j = 0; j < size; j++) {
+				if (dominates(objectives, objectiveCount, j, i)) {
+					count++;
+				}
+			}
+			dominationCounts[i] = count;
+		}
+	}
+
+	/**
+	 * Decrements the counts of a range of the remaining solutions by the solutions of a front that dominate them.
+	 */
+	private void removeFront(int frontStart, int frontEnd, int from, int to) {
+		for (int r = from; r < to; r++) {
+			int solution = remainingSolutions[r];
+			int count = dominationCounts[solution];
+			for (int f = frontStart; f < frontEnd && count > 0; f++) {
+				if (dominates(objectives, objectiveCount, sortedSolutions[f], solution)) {
+					count--;
+				}
+			}
+			dominationCounts[solution] = count;
+		}
+	}
+
+	/**
+	 * Crowding distance of each solution of a front: the sum over the objectives of the normalized distance between its
+	 * neighbours in the front. The solutions at the ends of each objective get an infinite distance.
+	 */
+	private void calculateCrowdingDistances(int from, int to) {
+		for (int f = from; f < to; f++) {
+			crowdingDistances[sortedSolutions[f]] = 0;
+		}
+		if (to - from <= 2) {
+			for (int f = from; f < to; f++) {
+				crowdingDistances[sortedSolutions[f]] = Double.POSITIVE_INFINITY;
+			}
+			return;
+		}
+
+		for (int k = 0; k < objectiveCount; k++) {
+			for (int f = from; f < to; f++) {
+				keys[sortedSolutions[f]] = objectives[sortedSolutions[f] * objectiveCount + k];
+			}
+			sortByKey(sortedSolutions, from, to - 1, keys);
+			double min = keys[sortedSolutions[from]];
+			double max = keys[sortedSolutions[to - 1]];
+			crowdingDistances[sortedSolutions[from]] = Double.POSITIVE_INFINITY;
+			crowdingDistances[sortedSolutions[to - 1]] = Double.POSITIVE_INFINITY;
+			double range = max - min;
+			if (!(range > 0) || Double.isInfinite(range)) {
+				continue;
+			}
+			for (int f = from + 1; f < to - 1; f++) {
+				crowdingDistances[sortedSolutions[f]] += (keys[sortedSolutions[f + 1]] - keys[sortedSolutions[f - 1]]) / range;
+			}
+		}
+	}
+
+	/**
+	 * Sorts a range (inclusive) of solutions by their keys (quicksort, with insertion sort for the small ranges).
+	 *
+	 * @param solutions solution indexes.
+	 * @param low first position of the range.
+	 * @param high last position of the range.
+	 * @param keys key of each solution index.
+	 */
+	public static void sortByKey(int[] solutions, int low, int high, double[] keys) {
+		while (high - low >= INSERTION_SORT_THRESHOLD) {
+			// median of three pivot.
+			int middle = (low + high) >>> 1;
+			double a = keys[solutions[low]];
+			double b = keys[solutions[middle]];
+			double c = keys[solutions[high]];
+			double pivot = a < b ? (b < c ? b : (a < c ? c : a)) : (a < c ? a : (b < c ? c : b));
+
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (keys[solutions[i]] < pivot) {
+					i++;
+				}
+				while (keys[solutions[j]] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int swap = solutions[i];
+					solutions[i++] = solutions[j];
+					solutions[j--] = swap;
+				}
+			}
+			// recursion on the smaller part keeps the stack depth logarithmic.
+			if (j - low < high - i) {
+				sortByKey(solutions, low, j, keys);
+				low = i;
+			} else {
+				sortByKey(solutions, i, high, keys);
+				high = j;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			int solution = solutions[i];
+			double key = keys[solution];
+			int j = i - 1;
+			while (j >= low && keys[solutions[j]] > key) {
+				solutions[j + 1] = solutions[j];
+				j--;
+			}
+			solutions[j + 1] = solution;
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (ranks != null && ranks.length >= capacity) {
+			return;
+		}
+		dominationCounts = new int[capacity];
+		ranks = new int[capacity];
+		crowdingDistances = new double[capacity];
+		sortedSolutions = new int[capacity];
+		frontStarts = new int[capacity + 1];
+		remainingSolutions = new int[capacity];
+		keys = new double[capacity];
+	}
+
+	/**
+	 * @return the front of each solution (0 is the first front). The vector must not be changed.
+	 */
+	public int[] getRanks() {
+		return ranks;
+	}
+
+	/**
+	 * @return the crowding distance of each solution in its front. The vector must not be changed.
+	 */
+	public double[] getCrowdingDistances() {
+		return crowdingDistances;
+	}
+
+	/**
+	 * @return the solutions in order of front. The vector must not be changed.
+	 */
+	public int[] getSortedSolutions() {
+		return sortedSolutions;
+	}
+
+	/**
+	 * @return the position of the first solution of a front in the {@link #getSortedSolutions() sorted solutions}
+	 * 		   (the front count gives the end of the last front).
+	 */
+	public int getFrontStart(int front) {
+		return frontStarts[front];
+	}
+
+	public int getFrontCount() {
+		return frontCount;
+	}
+
+	/**
+	 * Task counting the dominations of a range of solutions.
+	 */
+	private class DominationCounting extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+
+		private final int to;
+
+		DominationCounting(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= TASK_SIZE) {
+				countDominations(from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new DominationCounting(from, middle), new DominationCounting(middle, to));
+		}
+	}
+
+	/**
+	 * Task removing a front from a range of the remaining solutions.
+	 */
+	private class FrontRemoval extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int frontStart;
+
+		private final int frontEnd;
+
+		private final int from;
+
+		private final int to;
+
+		FrontRemoval(int frontStart, int frontEnd, int from, int to) {
+			this.frontStart = frontStart;
+			this.frontEnd = frontEnd;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= TASK_SIZE) {
+				removeFront(frontStart, frontEnd, from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new FrontRemoval(frontStart, frontEnd, from, middle), new FrontRemoval(frontStart, frontEnd, middle, to));
+		}
+	}
+}
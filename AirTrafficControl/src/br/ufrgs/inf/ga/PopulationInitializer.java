@@ -1,12 +1,22 @@
 package br.ufrgs.inf.ga;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import br.ufrgs.inf.atc.model.AtcInstance;
 import br.ufrgs.inf.ga.model.Individual;
 import br.ufrgs.inf.ga.model.IndividualCreator;
 import br.ufrgs.inf.ga.model.Population;
 import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.utils.RandomHelper;
 
 /**
  * Provides a set of {@link Population} initializers.
@@ -15,11 +25,37 @@ import br.ufrgs.inf.ga.model.PopulationConfig;
  * This class, basically, initializes a genetic algorithm population and
  * calculates the initial fitness for each individual in the population. 
  * </p>
+ * 
+ * <p>
+ * The randomly generated individuals are created in parallel. Each one uses its own random stream, derived from the
+ * initialization seed and its position in the population, so, for a fixed seed, the population does not depend on
+ * the number of threads or on their scheduling.
+ * </p>
  * @author diego
- *
+ * 
  */
 public class PopulationInitializer {
 	
+	/**
+	 * Percentage of the population created in the neighbourhood of the previous best individual in a warm start.
+	 */
+	private static final float WARM_START_NEIGHBOURHOOD_RATE = 0.25f;
+	
+	/**
+	 * Max number of adjacent swaps applied on the previous best landing sequence to create a neighbour individual.
+	 */
+	private static final int MAX_WARM_START_NEIGHBOUR_SWAPS = 3;
+	
+	/**
+	 * Max number of perturbations of a duplicate individual before it is replaced by a random one, in a duplicate free population.
+	 */
+	private static final int MAX_DUPLICATE_PERTURBATIONS = 5;
+	
+	/**
+	 * Max number of aircrafts for which the (cubic) regret insertion heuristic creates an individual.
+	 */
+	private static final int MAX_REGRET_INSERTION_AIRCRAFTS = 200;
+	
 	/**
 	 * Provides methods to create individual with different characteristics.
 	 */
@@ -30,6 +66,16 @@ public class PopulationInitializer {
 	 */
 	private final PopulationConfig config;
 	
+	/**
+	 * Seed of the random streams used to create the individuals.
+	 */
+	private long seed = System.nanoTime();
+	
+	/**
+	 * Number of threads creating the individuals.
+	 */
+	private int threads = Runtime.getRuntime().availableProcessors();
+	
 	/**
 	 * Resolve the class dependencies.
 	 * 
@@ -46,35 +92,235 @@ public class PopulationInitializer {
 	 */
 	public Population createPopulation() {
 		List<Individual> individuals = new LinkedList<Individual>();
+		RandomHelper.setThreadRandom(new Random(seed));
+		try {
+			Set<Long> fingerprints = new HashSet<Long>();
+			addHeuristicIndividuals(individuals, fingerprints);
+			addRandomIndividuals(individuals, fingerprints);
+		} finally {
+			RandomHelper.setThreadRandom(null);
+		}
+		
+		return new Population(config, individuals);
+	}
+	
+	/**
+	 * Initializes the population from the landing sequences of a previous solution (warm start).
+	 * 
+	 * <p>
+	 * The first landing sequence is the previous best one and the others are the previous elite.
+	 * The population is composed by the previous best individual, a set of individuals in the
+	 * neighbourhood of the previous best one, the previous elite and, to keep the population variance,
+	 * randomly generated individuals. Aircrafts that are new or missing in the previous landing sequences
+	 * are handled by the {@link IndividualCreator}.
+	 * </p>
+	 * 
+	 * @param previousLandingSequences aircraft ids of the previous landing sequences (the best one first).
+	 * @return the initialized population.
+	 */
+	public Population createPopulation(List<int[]> previousLandingSequences) {
+		List<Individual> individuals = new LinkedList<Individual>();
+		Set<Long> fingerprints = new HashSet<Long>();
+		RandomHelper.setThreadRandom(new Random(seed));
+		try {
+			addWarmStartIndividuals(individuals, fingerprints, previousLandingSequences);
+			addHeuristicIndividuals(individuals, fingerprints);
+			addRandomIndividuals(individuals, fingerprints);
+		} finally {
+			RandomHelper.setThreadRandom(null);
+		}
+		
+		return new Population(config, individuals);
+	}
+	
+	/**
+	 * Adds the previous best individual, the previous elite and the neighbourhood of the previous best individual.
+	 */
+	private void addWarmStartIndividuals(List<Individual> individuals, Set<Long> fingerprints, List<int[]> previousLandingSequences) {
+		if (!previousLandingSequences.isEmpty()) {
+			int[] previousBestLandingSequence = previousLandingSequences.get(0);
 			
-		// Generates randomly the rest of the population.
-		for (int i = individuals.size(); i < config.getMaxIndividuals(); i+=4) {
-			individuals.add(individualCreator.createIndividualClosestAsPossibleFromTargetTime());
-			individuals.add(individualCreator.createIndividualWithEarliestLandingTimes());
-			
-			//individuals.add(individualCreator.createIndividualSortedByTargetLandingTimes());
-			
-			//individuals.add(individualCreator.createRandomIndividualSortedByAircraftLandingCost());
-			
-			// Add an individual where it's landing sequence was sorted by the aircrafts penalty cost for landing after target time.
-			// This way, we try to assign a optimal landing time for those aircrafts with the higher penalty costs... doing this,
-			// we ensure many as possible optimal landing times for aircrafts with higher penalty costs.
-			//individuals.add(individualCreator.createIndividualSortedByPenaltyCost());
-			
-			//individuals.add(individualCreator.createIndividualSortedByLatestLandingTimes());
+			// the previous best individual and the previous elite.
+			for (int[] previousLandingSequence : previousLandingSequences) {
+				if (individuals.size() < config.getMaxIndividuals()) {
+					addIndividual(individuals, fingerprints, individualCreator.createIndividualFromAircraftIds(previousLandingSequence));
+				}
+			}
 			
+			// the neighbourhood of the previous best individual.
+			int neighbours = (int) (config.getMaxIndividuals() * WARM_START_NEIGHBOURHOOD_RATE);
+			for (int i = 0; i < neighbours && individuals.size() < config.getMaxIndividuals(); i++) {
+				int swaps = 1 + i % MAX_WARM_START_NEIGHBOUR_SWAPS;
+				addIndividual(individuals, fingerprints, individualCreator.createNeighbourIndividualFromAircraftIds(previousBestLandingSequence, swaps));
+			}
+		}
+	}
+	
+	/**
+	 * Adds an individual built by each constructive heuristic: they are strong (and deterministic) seeds.
+	 * 
+	 * @param individuals individuals in the population.
+	 * @param fingerprints landing schedule fingerprints of the individuals in the population.
+	 */
+	private void addHeuristicIndividuals(List<Individual> individuals, Set<Long> fingerprints) {
+		for (ConstructiveHeuristic heuristic : ConstructiveHeuristic.values()) {
+			if (individuals.size() >= config.getMaxIndividuals()) {
+				return;
+			}
+			if (heuristic.isFast() || individualCreator.getAircraftCount() <= MAX_REGRET_INSERTION_AIRCRAFTS) {
+				addIndividual(individuals, fingerprints, individualCreator.createIndividualByHeuristic(heuristic));
+			}
+		}
+	}
+	
+	/**
+	 * Fills the population with individuals generated by the individual creator methods.
+	 * 
+	 * <p>
+	 * The individuals are created in parallel, and then added in the population in their creation order.
+	 * </p>
+	 * 
+	 * @param individuals individuals in the population.
+	 * @param fingerprints landing schedule fingerprints of the individuals in the population.
+	 */
+	private void addRandomIndividuals(List<Individual> individuals, Set<Long> fingerprints) {
+		// Generates randomly the rest of the population, 4 individuals at a time (one of each kind).
+		int count = 4 * Math.max(0, (config.getMaxIndividuals() - individuals.size() + 3) / 4);
+		Individual[] randomIndividuals = createRandomIndividuals(count);
+		
+		for (int i = 0; i < count; i++) {
+			// the perturbations of a duplicate individual use the random stream of its position as well.
+			RandomHelper.setThreadRandom(RandomHelper.createStream(seed, count + i));
+			addIndividual(individuals, fingerprints, randomIndividuals[i]);
+		}
+	}
+	
+	/**
+	 * Creates the randomly generated individuals, splitting them in blocks among the threads.
+	 * 
+	 * @param count number of individuals.
+	 * @return the individuals, in the order defined by their kinds.
+	 */
+	private Individual[] createRandomIndividuals(final int count) {
+		final Individual[] randomIndividuals = new Individual[count];
+		int blocks = Math.max(1, Math.min(threads, count / 4));
+		if (blocks == 1) {
+			createRandomIndividuals(randomIndividuals, 0, count);
+			return randomIndividuals;
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(blocks);
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>(blocks);
+			for (int block = 0; block < blocks; block++) {
+				final int start = (int) ((long) count * block / blocks);
+				final int end = (int) ((long) count * (block + 1) / blocks);
+				results.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						createRandomIndividuals(randomIndividuals, start, end);
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> result : results) {
+				result.get();
+			}
+		} catch (Exception e) {
+			throw new IllegalStateException("The population initialization has failed.", e);
+		} finally {
+			executor.shutdown();
+		}
+		return randomIndividuals;
+	}
+	
+	/**
+	 * Creates the randomly generated individuals of the positions in [start, end[.
+	 * The kind of each individual is given by its position, and its random stream by the seed and its position.
+	 */
+	private void createRandomIndividuals(Individual[] randomIndividuals, int start, int end) {
+		try {
+			for (int i = start; i < end; i++) {
+				RandomHelper.setThreadRandom(RandomHelper.createStream(seed, i));
+				randomIndividuals[i] = createRandomIndividual(i % 4);
+			}
+		} finally {
+			RandomHelper.setThreadRandom(null);
+		}
+	}
+	
+	/**
+	 * Creates an individual of one of the kinds generated randomly.
+	 * 
+	 * @param kind individual kind, from 0 to 3.
+	 * @return the individual.
+	 */
+	private Individual createRandomIndividual(int kind) {
+		//individuals.add(individualCreator.createIndividualSortedByTargetLandingTimes());
+		
+		//individuals.add(individualCreator.createRandomIndividualSortedByAircraftLandingCost());
+		
+		// Add an individual where it's landing sequence was sorted by the aircrafts penalty cost for landing after target time.
+		// This way, we try to assign a optimal landing time for those aircrafts with the higher penalty costs... doing this,
+		// we ensure many as possible optimal landing times for aircrafts with higher penalty costs.
+		//individuals.add(individualCreator.createIndividualSortedByPenaltyCost());
+		
+		//individuals.add(individualCreator.createIndividualSortedByLatestLandingTimes());
+		
+		// Creates individual with the characteristic that its landing sequence aircrafts have landing times equals to the earliest landing time.
+		//individuals.add(individualCreator.createIndividualSortedByEarliestLandingTimes());
+		
+		switch (kind) {
+		case 0:
+			return individualCreator.createIndividualClosestAsPossibleFromTargetTime();
+		case 1:
+			return individualCreator.createIndividualWithEarliestLandingTimes();
+		case 2:
 			// Creates individual with a random landing sequence and times scheduled as close as possible to the target time.
-			individuals.add(individualCreator.createRandomIndividual());
-			
-			// Creates individual with the characteristic that its landing sequence aircrafts have landing times equals to the earliest landing time.
-			//individuals.add(individualCreator.createIndividualSortedByEarliestLandingTimes());
-			
+			return individualCreator.createRandomIndividual();
+		default:
 			// Creates individual where its landing sequence is sorted by its landing time that was randomly generated. 
-			individuals.add(individualCreator.createIndividualSortedByRandomLandingSequence());
+			return individualCreator.createIndividualSortedByRandomLandingSequence();
 		}
-			
-		return new Population(config, individuals);
 	}
-
 	
+	/**
+	 * Sets the seed of the random streams used to create the individuals.
+	 * For a fixed seed, the initial population is always the same.
+	 * 
+	 * @param seed the seed.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+	
+	/**
+	 * @param threads number of threads creating the individuals.
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+	
+	/**
+	 * Adds an individual in the population. In a duplicate free population, an individual with the same landing
+	 * schedule of another one is perturbed by adjacent swaps until it is unique, or replaced by a random individual.
+	 * 
+	 * @param individuals individuals in the population.
+	 * @param fingerprints landing schedule fingerprints of the individuals in the population.
+	 * @param individual individual to be added.
+	 */
+	private void addIndividual(List<Individual> individuals, Set<Long> fingerprints, Individual individual) {
+		if (config.isDuplicateFree()) {
+			int[] aircraftIds = new int[individual.getAircraftLandingSequence().length];
+			for (int swaps = 1; fingerprints.contains(individual.getLandingScheduleFingerprint()) && swaps <= MAX_DUPLICATE_PERTURBATIONS; swaps++) {
+				AtcInstance.getAircraftIds(individual.getAircraftLandingSequence(), aircraftIds);
+				individual = individualCreator.createNeighbourIndividualFromAircraftIds(aircraftIds, swaps);
+			}
+			if (fingerprints.contains(individual.getLandingScheduleFingerprint())) {
+				individual = individualCreator.createRandomIndividual();
+			}
+			fingerprints.add(individual.getLandingScheduleFingerprint());
+		}
+		individuals.add(individual);
+	}
 }
@@ -0,0 +1,194 @@
+package br.ufrgs.inf.ga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.exceptions.AlgorithmException;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.Solution;
+
+/**
+ * Runs the genetic algorithm and other landing schedulers concurrently, each one in its own thread, and returns the
+ * best landing sequence found by any of them.
+ *
+ * <p>
+ * The engines share the best landing sequence through a {@link SharedIncumbent}: the branch and bound prunes its search
+ * tree with it, and the genetic algorithm and the simulated annealing are seeded by it when another engine finds a
+ * better landing sequence. All the engines stop when the branch and bound proves a landing sequence optimal, or when
+ * the time limit is reached.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class PortfolioScheduler {
+
+	private final AtcInstance instance;
+
+	private final GeneticAlgorithm geneticAlgorithm;
+
+	private final List<SimulatedAnnealing> annealings = new ArrayList<SimulatedAnnealing>();
+
+	private final List<BranchAndBound> branchAndBounds = new ArrayList<BranchAndBound>();
+
+	/**
+	 * Max execution time in milliseconds.
+	 */
+	private long timeLimit = Long.MAX_VALUE;
+
+	/**
+	 * Best landing sequence shared by the engines in the last execution.
+	 */
+	private SharedIncumbent incumbent;
+
+	/**
+	 * Solution found by the last execution.
+	 */
+	private Solution solution;
+
+	/**
+	 * @param aircrafts aircrafts static data loaded from an input file.
+	 * @param geneticAlgorithm genetic algorithm of the portfolio, created for the same aircrafts.
+	 */
+	public PortfolioScheduler(AircraftStaticData[] aircrafts, GeneticAlgorithm geneticAlgorithm) {
+		this.instance = new AtcInstance(aircrafts);
+		this.geneticAlgorithm = geneticAlgorithm;
+	}
+
+	/**
+	 * Adds a simulated annealing engine to the portfolio. If there is a time limit, its temperature decreases with the time.
+	 *
+	 * @param annealing simulated annealing created for the same aircrafts.
+	 */
+	public void addSimulatedAnnealing(SimulatedAnnealing annealing) {
+		annealings.add(annealing);
+	}
+
+	/**
+	 * Adds a branch and bound engine to the portfolio. It stops all the engines when it finishes its search.
+	 *
+	 * @param branchAndBound branch and bound created for the same aircrafts.
+	 */
+	public void addBranchAndBound(BranchAndBound branchAndBound) {
+		branchAndBounds.add(branchAndBound);
+	}
+
+	/**
+	 * @param timeLimit max execution time in milliseconds (wall clock time of the whole portfolio).
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Runs all the engines until they finish, one of them proves a landing sequence optimal or the time limit is reached,
+	 * and builds the solution from the best landing sequence found.
+	 *
+	 * @throws AlgorithmException thrown if an engine fails.
+	 */
+	public void execute() throws AlgorithmException {
+		long now = System.currentTimeMillis();
+		incumbent = new SharedIncumbent(timeLimit > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + timeLimit);
+
+		List<Callable<Solution>> engines = new ArrayList<Callable<Solution>>();
+		geneticAlgorithm.setIncumbent(incumbent);
+		engines.add(new Callable<Solution>() {
+			@Override
+			public Solution call() throws Exception {
+				geneticAlgorithm.execute();
+				return geneticAlgorithm.getSolution();
+			}
+		});
+		for (final SimulatedAnnealing annealing : annealings) {
+			annealing.setIncumbent(incumbent);
+			if (timeLimit != Long.MAX_VALUE) {
+				annealing.setTimeLimit(timeLimit);
+			}
+			engines.add(new Callable<Solution>() {
+				@Override
+				public Solution call() throws Exception {
+					annealing.execute();
+					return annealing.getSolution();
+				}
+			});
+		}
+		for (final BranchAndBound branchAndBound : branchAndBounds) {
+			branchAndBound.setIncumbent(incumbent);
+			engines.add(new Callable<Solution>() {
+				@Override
+				public Solution call() throws Exception {
+					branchAndBound.execute();
+					return branchAndBound.getSolution();
+				}
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(engines.size());
+		try {
+			// the engines are waited in order of completion, so a failure stops the other ones at once.
+			CompletionService<Solution> results = new ExecutorCompletionService<Solution>(executor);
+			for (Callable<Solution> engine : engines) {
+				results.submit(engine);
+			}
+			for (int i = 0; i < engines.size(); i++) {
+				results.take().get();
+			}
+		} catch (InterruptedException e) {
+			incumbent.stop();
+			Thread.currentThread().interrupt();
+			throw new AlgorithmException("The portfolio scheduling was interrupted.", e);
+		} catch (ExecutionException e) {
+			incumbent.stop();
+			throw new AlgorithmException("An engine of the portfolio has failed.", e);
+		} finally {
+			executor.shutdown();
+		}
+
+		this.solution = createSolution();
+	}
+
+	/**
+	 * Schedules the best landing times of the incumbent landing sequence. The population and generations of the
+	 * solution are the ones of the genetic algorithm.
+	 */
+	private Solution createSolution() {
+		Solution geneticAlgorithmSolution = geneticAlgorithm.getSolution();
+		Incumbent best = incumbent.get();
+		if (best == null) {
+			// the genetic algorithm has finished before its first generation, and it was the only engine.
+			return geneticAlgorithmSolution;
+		}
+		int[] aircraftIds = best.getAircraftIds();
+		int[] landingTimes = new int[aircraftIds.length];
+		new ConstructiveScheduler(instance).schedule(aircraftIds, landingTimes);
+		Aircraft[] landingSequence = instance.createLandingSequence(aircraftIds, landingTimes);
+		Individual bestIndividual = new Individual(landingSequence, new FitnessEvaluator().evaluate(landingSequence));
+
+		return new Solution(geneticAlgorithmSolution.getPopulation(), bestIndividual, geneticAlgorithmSolution.getMaxGenerations(),
+							geneticAlgorithmSolution.getGenerationCount(), geneticAlgorithmSolution.getGenerationsWithoutImprovement(),
+							best.isProvenOptimal());
+	}
+
+	/**
+	 * @return the solution found by the last execution.
+	 */
+	public Solution getSolution() {
+		return solution;
+	}
+
+	/**
+	 * @return the best landing sequence found by the last execution, and the engine that found it.
+	 */
+	public Incumbent getIncumbent() {
+		return incumbent == null ? null : incumbent.get();
+	}
+}
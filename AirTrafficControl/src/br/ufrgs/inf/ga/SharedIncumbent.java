@@ -0,0 +1,117 @@
+package br.ufrgs.inf.ga;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Best landing sequence shared by engines running concurrently, without locks: an atomic reference to an immutable
+ * {@link Incumbent} snapshot, replaced by compare and set when a better landing sequence is offered.
+ *
+ * <p>
+ * The engines read it to prune their search or to restart from it, and poll {@link #isStopped()} to know when they must
+ * finish: when an engine has proven a landing sequence optimal, when the deadline is reached, or when it is stopped.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class SharedIncumbent {
+
+	/**
+	 * Costs closer than this are considered equal (the penalty costs are floats).
+	 */
+	private static final double COST_TOLERANCE = 1e-6;
+
+	private final AtomicReference<Incumbent> incumbent = new AtomicReference<Incumbent>();
+
+	/**
+	 * Time (in milliseconds, as {@link System#currentTimeMillis()}) when the engines must stop.
+	 */
+	private final long deadline;
+
+	private volatile boolean stopped;
+
+	/**
+	 * Creates a shared incumbent without deadline.
+	 */
+	public SharedIncumbent() {
+		this(Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param deadline time (in milliseconds, as {@link System#currentTimeMillis()}) when the engines must stop.
+	 */
+	public SharedIncumbent(long deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Replaces the incumbent by a landing sequence, if it is better (or if there is no incumbent).
+	 *
+	 * @param aircraftIds landing sequence (aircraft ids in landing order). It is copied only if it is kept.
+	 * @param cost cost of the landing sequence with its best landing times, or {@link DeltaCostEvaluator#INFEASIBLE_COST}.
+	 * @param engine name of the engine that found it.
+	 * @return true if the landing sequence is the new incumbent.
+	 */
+	public boolean offer(int[] aircraftIds, double cost, String engine) {
+		Incumbent candidate = null;
+		while (true) {
+			Incumbent current = incumbent.get();
+			if (current != null && (current.isProvenOptimal() || cost >= current.getCost() - COST_TOLERANCE)) {
+				return false;
+			}
+			if (candidate == null) {
+				candidate = new Incumbent(aircraftIds, cost, engine, false);
+			}
+			if (incumbent.compareAndSet(current, candidate)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Marks a landing sequence as proven optimal, and stops the engines. If the incumbent has the same cost, it is kept
+	 * (with the engine that found it).
+	 *
+	 * @param aircraftIds optimal landing sequence (aircraft ids in landing order).
+	 * @param cost cost of the landing sequence with its best landing times.
+	 * @param engine name of the engine that proved it.
+	 */
+	public void proveOptimal(int[] aircraftIds, double cost, String engine) {
+		Incumbent current = incumbent.get();
+		if (current != null && current.getCost() <= cost + COST_TOLERANCE) {
+			incumbent.set(new Incumbent(current.getAircraftIds(), current.getCost(), current.getEngine(), true));
+		} else {
+			incumbent.set(new Incumbent(aircraftIds, cost, engine, true));
+		}
+		stopped = true;
+	}
+
+	/**
+	 * @return the current incumbent, or null if no landing sequence was offered.
+	 */
+	public Incumbent get() {
+		return incumbent.get();
+	}
+
+	/**
+	 * @return the cost of the current incumbent, or {@link DeltaCostEvaluator#INFEASIBLE_COST} if there is none.
+	 */
+	public double getCost() {
+		Incumbent current = incumbent.get();
+		return current == null ? DeltaCostEvaluator.INFEASIBLE_COST : current.getCost();
+	}
+
+	/**
+	 * Asks the engines to stop.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * @return true if the engines must stop: the incumbent is proven optimal, the deadline is reached, or {@link #stop()} was called.
+	 */
+	public boolean isStopped() {
+		return stopped || System.currentTimeMillis() >= deadline;
+	}
+}
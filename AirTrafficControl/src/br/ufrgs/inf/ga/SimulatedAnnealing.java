@@ -0,0 +1,352 @@
+package br.ufrgs.inf.ga;
+
+import java.util.Random;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.TimeWindowOverlapGraph;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.Solution;
+import br.ufrgs.inf.ga.utils.LongCounter;
+
+/**
+ * Single trajectory landing scheduler: simulated annealing over the landing orders, with an optional tabu list.
+ *
+ * <p>
+ * Each move swaps an aircraft with another one whose landing time window overlaps its own, or moves it to the position of
+ * the other one, and it is evaluated by a {@link DeltaCostEvaluator} (just the changed suffix of the landing sequence is
+ * scheduled again, and only until it is known to be rejected). A worse move is accepted with probability
+ * <code>exp(-delta / temperature)</code>, and the temperature
+ * decreases geometrically from a value where half of the sampled worse moves are accepted, down to a thousandth of it
+ * at the end of the move budget (or of the time limit).
+ * </p>
+ *
+ * <p>
+ * With the tabu list, the last <code>tenure</code> (aircraft, position) pairs removed by the accepted moves are tabu,
+ * so the search doesn't put an aircraft back where it was. A tabu move is allowed only
+ * if it finds a new best landing sequence. No memory is allocated by the moves.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class SimulatedAnnealing {
+
+	/**
+	 * Name of the engine in the shared incumbent.
+	 */
+	public static final String ENGINE_NAME = "simulated annealing";
+
+	/**
+	 * Costs closer than this are considered equal (the penalty costs are floats).
+	 */
+	private static final double COST_TOLERANCE = 1e-6;
+
+	/**
+	 * Max number of overlapping aircrafts considered by the moves of each aircraft.
+	 */
+	private static final int MAX_CANDIDATES = 16;
+
+	/**
+	 * Number of random moves sampled to calculate the initial temperature.
+	 */
+	private static final int TEMPERATURE_SAMPLES = 1000;
+
+	/**
+	 * Final temperature, relative to the initial one.
+	 */
+	private static final double FINAL_TEMPERATURE_RATIO = 1e-3;
+
+	/**
+	 * Number of moves between two temperature updates (and time limit checks).
+	 */
+	private static final int COOLING_INTERVAL = 1024;
+
+	private final AtcInstance instance;
+
+	private final int aircraftCount;
+
+	private final DeltaCostEvaluator evaluator;
+
+	private final TimeWindowOverlapGraph overlapGraph;
+
+	/**
+	 * Max number of evaluated moves.
+	 */
+	private long maxMoves = 1000000;
+
+	/**
+	 * Max execution time in milliseconds.
+	 */
+	private long timeLimit = Long.MAX_VALUE;
+
+	/**
+	 * Number of the last removed (aircraft, position) pairs that are tabu. If zero, there is no tabu list.
+	 */
+	private int tabuTenure;
+
+	private Random random = new Random();
+
+	/**
+	 * Best landing sequence shared with other engines (see {@link PortfolioScheduler}). If null, the annealing runs alone.
+	 */
+	private SharedIncumbent incumbent;
+
+	/**
+	 * Position of each aircraft in the current landing sequence.
+	 */
+	private final int[] positions;
+
+	/**
+	 * Best landing sequence found.
+	 */
+	private final int[] bestAircraftIds;
+
+	/**
+	 * Tabu (aircraft, position) pairs: a ring of the last ones, and their counts (a pair may be in the ring more than once).
+	 */
+	private long[] tabuRing = new long[0];
+
+	private int tabuHead;
+
+	private int tabuSize;
+
+	private LongCounter tabuPairs;
+
+	private long evaluatedMoves;
+
+	private long acceptedMoves;
+
+	/**
+	 * Solution found by the last execution.
+	 */
+	private Solution solution;
+
+	/**
+	 * @param aircrafts aircrafts static data loaded from an input file.
+	 */
+	public SimulatedAnnealing(AircraftStaticData[] aircrafts) {
+		this.instance = new AtcInstance(aircrafts);
+		this.aircraftCount = instance.getAircraftCount();
+		this.evaluator = new DeltaCostEvaluator(instance);
+		this.overlapGraph = new TimeWindowOverlapGraph(instance, MAX_CANDIDATES);
+		this.positions = new int[aircraftCount];
+		this.bestAircraftIds = new int[aircraftCount];
+	}
+
+	/**
+	 * @param maxMoves max number of evaluated moves.
+	 */
+	public void setMaxMoves(long maxMoves) {
+		this.maxMoves = maxMoves;
+	}
+
+	/**
+	 * @param timeLimit max execution time in milliseconds. The temperature decreases with the elapsed time instead of the moves.
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * @param tabuTenure number of the last removed (aircraft, position) pairs that are tabu. If zero, there is no tabu list.
+	 */
+	public void setTabuTenure(int tabuTenure) {
+		this.tabuTenure = tabuTenure;
+	}
+
+	/**
+	 * @param seed seed of the random moves (the same seed always makes the same moves, if there is no time limit).
+	 */
+	public void setSeed(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Shares the best landing sequence with other engines running concurrently: the annealing starts from the incumbent
+	 * (if it is better than the constructive schedule), offers each new best landing sequence to it, restarts from it
+	 * when another engine finds a better one, and stops when it is stopped.
+	 *
+	 * @param incumbent best landing sequence shared by the engines.
+	 */
+	public void setIncumbent(SharedIncumbent incumbent) {
+		this.incumbent = incumbent;
+	}
+
+	/**
+	 * Anneals the best constructive heuristic schedule (or the shared incumbent) and builds the solution.
+	 */
+	public void execute() {
+		long startTime = System.currentTimeMillis();
+		evaluatedMoves = 0;
+		acceptedMoves = 0;
+		tabuRing = new long[tabuTenure];
+		tabuHead = 0;
+		tabuSize = 0;
+		tabuPairs = new LongCounter(2 * tabuTenure);
+
+		ConstructiveScheduler constructiveScheduler = new ConstructiveScheduler(instance);
+		int[] landingTimes = new int[aircraftCount];
+		constructiveScheduler.createBestSchedule(false, bestAircraftIds, landingTimes);
+		double cost = evaluator.evaluate(bestAircraftIds);
+		if (incumbent != null) {
+			incumbent.offer(bestAircraftIds, cost, ENGINE_NAME);
+			cost = restartFromIncumbent(cost);
+		}
+		double bestCost = cost;
+		updatePositions(0, aircraftCount - 1);
+
+		double initialTemperature = sampleInitialTemperature();
+		double temperature = initialTemperature;
+		while (aircraftCount > 1 && evaluatedMoves < maxMoves) {
+			if (evaluatedMoves % COOLING_INTERVAL == 0) {
+				double progress = (double) evaluatedMoves / maxMoves;
+				if (timeLimit != Long.MAX_VALUE) {
+					long elapsedTime = System.currentTimeMillis() - startTime;
+					if (elapsedTime >= timeLimit) {
+						break;
+					}
+					progress = Math.max(progress, (double) elapsedTime / timeLimit);
+				}
+				if (incumbent != null) {
+					if (incumbent.isStopped()) {
+						break;
+					}
+					cost = restartFromIncumbent(bestCost);
+					bestCost = Math.min(bestCost, cost);
+				}
+				temperature = initialTemperature * Math.pow(FINAL_TEMPERATURE_RATIO, progress);
+			}
+			evaluatedMoves++;
+
+			int from = random.nextInt(aircraftCount);
+			int aircraft = evaluator.getSequence()[from];
+			int candidateCount = overlapGraph.getCandidateCount(aircraft);
+			if (candidateCount == 0) {
+				continue;
+			}
+			int other = overlapGraph.getCandidate(aircraft, random.nextInt(candidateCount));
+			int to = positions[other];
+			boolean swap = random.nextBoolean();
+
+			// a worse move is accepted if its cost is below a random threshold, so its evaluation stops when the threshold is reached.
+			double threshold = cost == DeltaCostEvaluator.INFEASIBLE_COST ? cost : cost - temperature * Math.log(1 - random.nextDouble());
+			double moveCost = swap ? evaluator.evaluateSwap(from, to, threshold) : evaluator.evaluateInsertion(from, to, threshold);
+			if (moveCost >= threshold && cost != DeltaCostEvaluator.INFEASIBLE_COST) {
+				continue;
+			}
+			boolean newBest = moveCost < bestCost;
+			if (!newBest && (isTabu(aircraft, to) || (swap && isTabu(other, from)))) {
+				continue;
+			}
+
+			// the removed pairs become tabu.
+			makeTabu(aircraft, from);
+			if (swap) {
+				makeTabu(other, to);
+				evaluator.applySwap(from, to);
+			} else {
+				evaluator.applyInsertion(from, to);
+			}
+			updatePositions(Math.min(from, to), Math.max(from, to));
+			cost = evaluator.getCost();
+			acceptedMoves++;
+			if (newBest) {
+				bestCost = cost;
+				System.arraycopy(evaluator.getSequence(), 0, bestAircraftIds, 0, aircraftCount);
+				if (incumbent != null) {
+					incumbent.offer(bestAircraftIds, bestCost, ENGINE_NAME);
+				}
+			}
+		}
+
+		int[] aircraftIds = bestAircraftIds.clone();
+		constructiveScheduler.schedule(aircraftIds, landingTimes);
+		Aircraft[] landingSequence = instance.createLandingSequence(aircraftIds, landingTimes);
+		Individual bestIndividual = new Individual(landingSequence, new FitnessEvaluator().evaluate(landingSequence));
+		this.solution = new Solution(null, bestIndividual, 0, 0, 0);
+	}
+
+	/**
+	 * Calculates a temperature that accepts half of the worse moves, on average, from a sample of random moves of the
+	 * current landing sequence.
+	 */
+	private double sampleInitialTemperature() {
+		double deltaSum = 0;
+		int worseMoves = 0;
+		for (int sample = 0; sample < TEMPERATURE_SAMPLES && aircraftCount > 1; sample++) {
+			int from = random.nextInt(aircraftCount);
+			int to = random.nextInt(aircraftCount);
+			double delta = evaluator.evaluateSwap(from, to) - evaluator.getCost();
+			if (delta > 0 && delta != DeltaCostEvaluator.INFEASIBLE_COST) {
+				deltaSum += delta;
+				worseMoves++;
+			}
+		}
+		return worseMoves == 0 ? 1 : (deltaSum / worseMoves) / Math.log(2);
+	}
+
+	/**
+	 * Replaces the current landing sequence by the shared incumbent, if it is better than the best cost found so far.
+	 *
+	 * @return the cost of the current landing sequence.
+	 */
+	private double restartFromIncumbent(double bestCost) {
+		Incumbent current = incumbent.get();
+		if (current == null || current.getCost() >= bestCost - COST_TOLERANCE) {
+			return evaluator.getCost();
+		}
+		current.copyAircraftIds(bestAircraftIds);
+		double cost = evaluator.evaluate(bestAircraftIds);
+		updatePositions(0, aircraftCount - 1);
+		return cost;
+	}
+
+	private void updatePositions(int first, int last) {
+		int[] sequence = evaluator.getSequence();
+		for (int i = first; i <= last; i++) {
+			positions[sequence[i]] = i;
+		}
+	}
+
+	private boolean isTabu(int aircraft, int position) {
+		return tabuTenure > 0 && tabuPairs.contains(((long) aircraft << 32) | position);
+	}
+
+	private void makeTabu(int aircraft, int position) {
+		if (tabuTenure == 0) {
+			return;
+		}
+		if (tabuSize == tabuTenure) {
+			tabuPairs.decrement(tabuRing[tabuHead]);
+		} else {
+			tabuSize++;
+		}
+		long pair = ((long) aircraft << 32) | position;
+		tabuRing[tabuHead] = pair;
+		tabuHead = (tabuHead + 1) % tabuTenure;
+		tabuPairs.increment(pair);
+	}
+
+	/**
+	 * @return the solution found by the last execution.
+	 */
+	public Solution getSolution() {
+		return solution;
+	}
+
+	/**
+	 * @return number of moves evaluated by the last execution.
+	 */
+	public long getEvaluatedMoves() {
+		return evaluatedMoves;
+	}
+
+	/**
+	 * @return number of moves accepted by the last execution.
+	 */
+	public long getAcceptedMoves() {
+		return acceptedMoves;
+	}
+}
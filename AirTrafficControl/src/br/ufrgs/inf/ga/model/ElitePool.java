@@ -0,0 +1,129 @@
+package br.ufrgs.inf.ga.model;
+
+/**
+ * Small pool of good and diverse landing sequences, the ends of the paths explored by the path relinking.
+ *
+ * <p>
+ * The distance between two landing sequences is the number of positions where they have different aircrafts (the number
+ * of steps of a path between them is at most this distance). A landing sequence joins the pool if it is better than
+ * the worst one in the pool and it is at least <code>minDistance</code> away from all of them, or if it is better than
+ * all of them. It replaces the most similar sequence among the ones worse than it.
+ * </p>
+ *
+ * <p>
+ * The landing sequences are copied (the individuals of the population are changed in place and reused), and the pool
+ * is not thread safe: it must not be changed while the relinking tasks read it.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class ElitePool {
+
+	private final int capacity;
+
+	private final int minDistance;
+
+	private final int[][] sequences;
+
+	private final double[] costs;
+
+	private int size;
+
+	/**
+	 * @param capacity max number of landing sequences.
+	 * @param minDistance min number of different positions between a new landing sequence and the ones in the pool.
+	 * @param aircraftCount number of aircrafts of each landing sequence.
+	 */
+	public ElitePool(int capacity, int minDistance, int aircraftCount) {
+		this.capacity = capacity;
+		this.minDistance = minDistance;
+		this.sequences = new int[capacity][aircraftCount];
+		this.costs = new double[capacity];
+	}
+
+	/**
+	 * Adds a landing sequence to the pool, if it is good and diverse enough.
+	 *
+	 * @param aircraftIds landing sequence (aircraft ids in landing order). It is copied if it is kept.
+	 * @param cost cost of the landing sequence with its best landing times (infeasible sequences are never kept).
+	 * @return true if the landing sequence was added to the pool.
+	 */
+	public boolean offer(int[] aircraftIds, double cost) {
+		if (Double.isInfinite(cost) || capacity == 0) {
+			return false;
+		}
+		int closestDistance = Integer.MAX_VALUE;
+		boolean newBest = true;
+		for (int i = 0; i < size; i++) {
+			closestDistance = Math.min(closestDistance, distance(aircraftIds, sequences[i]));
+			newBest &= cost < costs[i];
+		}
+		if (closestDistance == 0 || (closestDistance < minDistance && !newBest)) {
+			return false;
+		}
+
+		int slot = size;
+		if (size == capacity || closestDistance < minDistance) {
+			// replaces the most similar landing sequence among the worse ones.
+			slot = -1;
+			int slotDistance = Integer.MAX_VALUE;
+			for (int i = 0; i < size; i++) {
+				if (costs[i] > cost) {
+					int distance = distance(aircraftIds, sequences[i]);
+					if (distance < slotDistance) {
+						slot = i;
+						slotDistance = distance;
+					}
+				}
+			}
+			if (slot < 0) {
+				return false;
+			}
+		} else {
+			size++;
+		}
+		System.arraycopy(aircraftIds, 0, sequences[slot], 0, aircraftIds.length);
+		costs[slot] = cost;
+		return true;
+	}
+
+	/**
+	 * @return the number of positions where two landing sequences have different aircrafts.
+	 */
+	public static int distance(int[] aircraftIds1, int[] aircraftIds2) {
+		int distance = 0;
+		for (int i = 0; i < aircraftIds1.length; i++) {
+			if (aircraftIds1[i] != aircraftIds2[i]) {
+				distance++;
+			}
+		}
+		return distance;
+	}
+
+	/**
+	 * @return the landing sequence at an index of the pool. The vector must not be changed.
+	 */
+	public int[] getSequence(int index) {
+		return sequences[index];
+	}
+
+	public double getCost(int index) {
+		return costs[index];
+	}
+
+	/**
+	 * @return the cost of the best landing sequence of the pool, or infinity if it is empty.
+	 */
+	public double getBestCost() {
+		double bestCost = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			bestCost = Math.min(bestCost, costs[i]);
+		}
+		return bestCost;
+	}
+
+	public int size() {
+		return size;
+	}
+}
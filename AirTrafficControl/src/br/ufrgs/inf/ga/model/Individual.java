@@ -29,6 +29,18 @@ public class Individual implements Comparable<Individual> {
 	 */
 	private int fitnessValue;
 	
+	/**
+	 * Fingerprint of the landing schedule when this individual was indexed by its population.
+	 * Used by the {@link Population} to update its duplicates index.
+	 */
+	long indexedFingerprint;
+	
+	/**
+	 * Aircraft ids of the landing sequence when this individual was indexed by its population.
+	 * Only kept when the population tracks its diversity (see {@link PopulationDiversity}).
+	 */
+	int[] indexedAircraftIds;
+	
 	/**
 	 * Initializes the individual data.
 	 * 
@@ -52,6 +64,36 @@ public class Individual implements Comparable<Individual> {
 		this.fitnessValue = fitnessValue;
 	}
 	
+	/**
+	 * Calculates a 64 bits hash of the landing schedule (aircraft ids and landing times, in landing order).
+	 * Two individuals with the same landing schedule have the same fingerprint.
+	 * 
+	 * <p>
+	 * Each (aircraft id, landing time) pair is packed in 64 bits and mixed with the fingerprint of the previous positions
+	 * by the SplitMix64 finalizer, so two different landing schedules have the same fingerprint with probability about
+	 * 2^-64. A polynomial hash (<code>31 * h + x</code>) is not enough: the pair (a, t) collides with (a + 1, t - 31).
+	 * </p>
+	 * 
+	 * @return the landing schedule fingerprint.
+	 */
+	public long getLandingScheduleFingerprint() {
+		long fingerprint = 1125899906842597L;
+		for (Aircraft aircraft : aircraftLandingSequence) {
+			long pair = ((long) aircraft.getId() << 32) | (aircraft.getLandingTime() & 0xFFFFFFFFL);
+			fingerprint = mix(fingerprint + pair);
+		}
+		return fingerprint;
+	}
+	
+	/**
+	 * SplitMix64 finalizer: a bijection of the 64 bits values where each input bit changes about half of the output bits.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
 	/**
 	 * Verify if this individual is more adapted than <code>that</code> one.
 	 * An individual is more adapted than another one if it fitness value is lower than the other one fitness value.
@@ -117,6 +159,55 @@ public class Individual implements Comparable<Individual> {
 		return landingSequenceCopy;
 	}
 	
+	/**
+	 * Rearranges the landing sequence of this individual to a new landing order and landing times.
+	 * 
+	 * @param aircraftIds aircraft ids in the new landing order.
+	 * @param landingTimes landing time of each position of the new landing sequence.
+	 * @param fitnessValue fitness value of the new landing sequence.
+	 */
+	public void setLandingSchedule(int[] aircraftIds, int[] landingTimes, int fitnessValue) {
+		setLandingSchedule(aircraftIds, landingTimes, fitnessValue, new Aircraft[aircraftLandingSequence.length]);
+	}
+	
+	/**
+	 * Rearranges the landing sequence of this individual to a new landing order and landing times.
+	 * 
+	 * @param aircraftIds aircraft ids in the new landing order.
+	 * @param landingTimes landing time of each position of the new landing sequence.
+	 * @param fitnessValue fitness value of the new landing sequence.
+	 * @param aircraftsById scratch vector, with a position for each aircraft.
+	 */
+	public void setLandingSchedule(int[] aircraftIds, int[] landingTimes, int fitnessValue, Aircraft[] aircraftsById) {
+		for (Aircraft aircraft : aircraftLandingSequence) {
+			aircraftsById[aircraft.getId()] = aircraft;
+		}
+		for (int i = 0; i < aircraftLandingSequence.length; i++) {
+			aircraftLandingSequence[i] = aircraftsById[aircraftIds[i]];
+			aircraftLandingSequence[i].setLandingTime(landingTimes[i]);
+		}
+		this.fitnessValue = fitnessValue;
+	}
+	
+	/**
+	 * Copies the landing order, the landing times and the fitness value of another individual of the same
+	 * ATC problem instance, reusing this individual aircrafts.
+	 * 
+	 * @param source individual to be copied.
+	 * @param aircraftsById scratch vector, with a position for each aircraft.
+	 */
+	public void copyLandingScheduleFrom(Individual source, Aircraft[] aircraftsById) {
+		for (Aircraft aircraft : aircraftLandingSequence) {
+			aircraftsById[aircraft.getId()] = aircraft;
+		}
+		Aircraft[] sourceLandingSequence = source.getAircraftLandingSequence();
+		for (int i = 0; i < aircraftLandingSequence.length; i++) {
+			aircraftLandingSequence[i] = aircraftsById[sourceLandingSequence[i].getId()];
+			aircraftLandingSequence[i].setLandingTime(sourceLandingSequence[i].getLandingTime());
+		}
+		this.fitnessValue = source.fitnessValue;
+	}
+	
 	/**
 	 * Sets for each aircraft in the landing sequence the best landing time (target time).
 	 */
@@ -1,9 +1,15 @@
 package br.ufrgs.inf.ga.model;
 
 import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftClasses;
+import br.ufrgs.inf.atc.model.AtcInstance;
 import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.atc.model.PrecedenceMatrix;
+import br.ufrgs.inf.ga.ConstructiveHeuristic;
+import br.ufrgs.inf.ga.ConstructiveScheduler;
 import br.ufrgs.inf.ga.FitnessEvaluator;
 import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.utils.RandomHelper;
 
 /**
  * Creates different individuals using the {@link LandingSequenceCreator}.
@@ -28,12 +34,50 @@ public class IndividualCreator {
 	 */
 	private final FitnessEvaluator fitnessEvaluator;
 	
+	/**
+	 * Builds landing schedules by constructive heuristics (created on the first use).
+	 */
+	private ConstructiveScheduler constructiveScheduler;
+	
+	private AtcInstance instance;
+	
+	/**
+	 * Rejects the landing orders that can't be feasible, before scheduling them. If null, every order is scheduled.
+	 */
+	private PrecedenceMatrix precedenceMatrix;
+	
+	/**
+	 * Puts the identical aircrafts in first come, first served order. If null, the landing orders are kept.
+	 */
+	private AircraftClasses aircraftClasses;
+	
 	public IndividualCreator(LandingSequenceCreator landingSequenceCreator, FitnessEvaluator fitnessEvaluator, LandingTimeScheduler scheduler) {
 		this.landingSequenceCreator = landingSequenceCreator;
 		this.fitnessEvaluator = fitnessEvaluator;
 		this.scheduler = scheduler;
 	}
 	
+	/**
+	 * @return number of aircrafts of the ATC problem instance.
+	 */
+	public int getAircraftCount() {
+		return landingSequenceCreator.getAircraftsStaticData().length;
+	}
+	
+	/**
+	 * @param precedenceMatrix precedence relations used to reject infeasible landing orders, or null to schedule every order.
+	 */
+	public void setPrecedenceMatrix(PrecedenceMatrix precedenceMatrix) {
+		this.precedenceMatrix = precedenceMatrix;
+	}
+	
+	/**
+	 * @param aircraftClasses classes of identical aircrafts whose order is enforced in the created individuals, or null to keep the orders.
+	 */
+	public void setAircraftClasses(AircraftClasses aircraftClasses) {
+		this.aircraftClasses = aircraftClasses;
+	}
+	
 	/**
 	 * Creates an individual with a random landing sequence and times scheduled as close as possible to the target time.
 	 * 
@@ -113,6 +157,63 @@ public class IndividualCreator {
 		return createIndividualForLandingSequence(landingSequence);
 	}
 	
+	/**
+	 * Creates an individual whose landing order is built by a constructive heuristic, with the best landing times for that order.
+	 * 
+	 * @param heuristic constructive heuristic.
+	 * @return an individual.
+	 */
+	public synchronized Individual createIndividualByHeuristic(ConstructiveHeuristic heuristic) {
+		if (constructiveScheduler == null) {
+			instance = new AtcInstance(landingSequenceCreator.getAircraftsStaticData());
+			constructiveScheduler = new ConstructiveScheduler(instance);
+		}
+		int[] aircraftIds = constructiveScheduler.createLandingOrder(heuristic);
+		if (aircraftClasses != null) {
+			aircraftClasses.enforce(aircraftIds);
+		}
+		int[] landingTimes = new int[aircraftIds.length];
+		constructiveScheduler.schedule(aircraftIds, landingTimes);
+		
+		Aircraft[] landingSequence = instance.createLandingSequence(aircraftIds, landingTimes);
+		return new Individual(landingSequence, fitnessEvaluator.evaluate(landingSequence));
+	}
+	
+	/**
+	 * Creates an individual whose landing sequence follows the order of a previously computed landing sequence
+	 * (a warm start from a previous solution).
+	 * 
+	 * @param aircraftIds aircraft ids in the order of a previous landing sequence.
+	 * @return an individual.
+	 */
+	public Individual createIndividualFromAircraftIds(int[] aircraftIds) {
+		Aircraft[] landingSequence = landingSequenceCreator.createLandingSequenceFromAircraftIds(aircraftIds);
+		return createIndividualForLandingSequence(landingSequence);
+	}
+	
+	/**
+	 * Creates an individual in the neighbourhood of a previously computed landing sequence.
+	 * The neighbour is the previous landing sequence with some random swaps of adjacent aircrafts.
+	 * 
+	 * @param aircraftIds aircraft ids in the order of a previous landing sequence.
+	 * @param swaps number of adjacent swaps applied on the previous landing sequence.
+	 * @return an individual.
+	 */
+	public Individual createNeighbourIndividualFromAircraftIds(int[] aircraftIds, int swaps) {
+		int[] neighbourAircraftIds = aircraftIds.clone();
+		
+		if (neighbourAircraftIds.length > 1) {
+			for (int i = 0; i < swaps; i++) {
+				int position = (int) (RandomHelper.random() * (neighbourAircraftIds.length - 1));
+				int swap = neighbourAircraftIds[position];
+				neighbourAircraftIds[position] = neighbourAircraftIds[position + 1];
+				neighbourAircraftIds[position + 1] = swap;
+			}
+		}
+		
+		return createIndividualFromAircraftIds(neighbourAircraftIds);
+	}
+	
 	/**
 	 * Calculates the landing time for each aircraft in the landing sequence.
 	 * 
@@ -120,6 +221,14 @@ public class IndividualCreator {
 	 * @return a population individual (landing sequence and it fitness value).
 	 */
 	private Individual createIndividualForLandingSequence(final Aircraft[] aircraftLandingSequence) {		
+		if (aircraftClasses != null) {
+			aircraftClasses.enforce(aircraftLandingSequence);
+		}
+		if (precedenceMatrix != null && !precedenceMatrix.isFeasibleOrder(aircraftLandingSequence)) {
+			// no landing times make this order feasible: the evaluator would reject it anyway.
+			return new Individual(aircraftLandingSequence, Integer.MAX_VALUE);
+		}
+		
 		// Schedules the landing times for each aircraft in the landing sequence.
 		scheduler.scheduleFromBegin(aircraftLandingSequence);
 		
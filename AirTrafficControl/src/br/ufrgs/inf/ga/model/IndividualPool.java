@@ -0,0 +1,145 @@
+package br.ufrgs.inf.ga.model;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AtcInstance;
+
+/**
+ * Pool of discarded individuals, reused as buffers for new individuals.
+ * 
+ * <p>
+ * Each generation creates many short lived individuals (parents copies and sons that lose a comparison).
+ * Instead of leaving them to the garbage collector, the operators release them to this pool and the next
+ * individuals are created by overwriting their landing sequences. The individuals are kept in a per thread
+ * free list, so the pool can be shared by operators running in different threads.
+ * </p>
+ * 
+ * <p>
+ * A released individual must not be referenced anymore (by the population, the parents or the best individual found).
+ * </p>
+ * 
+ * @author diego
+ * 
+ */
+public class IndividualPool {
+	
+	/**
+	 * Max number of free individuals kept by each thread.
+	 */
+	private int maxFreeIndividuals;
+	
+	/**
+	 * Free individuals of each thread.
+	 */
+	private final ThreadLocal<FreeList> freeLists = new ThreadLocal<FreeList>() {
+		@Override
+		protected FreeList initialValue() {
+			return new FreeList();
+		}
+	};
+	
+	/**
+	 * @param maxFreeIndividuals max number of free individuals kept by each thread. If zero, nothing is pooled.
+	 */
+	public IndividualPool(int maxFreeIndividuals) {
+		this.maxFreeIndividuals = maxFreeIndividuals;
+	}
+	
+	/**
+	 * @param maxFreeIndividuals max number of free individuals kept by each thread. If zero, nothing more is pooled.
+	 */
+	public void setMaxFreeIndividuals(int maxFreeIndividuals) {
+		this.maxFreeIndividuals = maxFreeIndividuals;
+	}
+	
+	/**
+	 * Creates a copy of an individual, reusing a free individual if there is one.
+	 * 
+	 * @param source individual to be copied.
+	 * @return the copy.
+	 */
+	public Individual copyOf(Individual source) {
+		FreeList freeList = freeLists.get();
+		if (freeList.size == 0) {
+			freeList.allocatedIndividuals++;
+			return source.clone();
+		}
+		
+		Individual copy = freeList.individuals[--freeList.size];
+		freeList.individuals[freeList.size] = null;
+		copy.copyLandingScheduleFrom(source, freeList.aircraftsById(source.getAircraftLandingSequence().length));
+		freeList.reusedIndividuals++;
+		return copy;
+	}
+	
+	/**
+	 * Creates an individual from a landing order and its landing times, reusing a free individual if there is one.
+	 * 
+	 * @param aircraftIds aircraft ids in landing order.
+	 * @param landingTimes landing time of each position of the landing sequence.
+	 * @param fitnessValue fitness value of the landing sequence.
+	 * @param instance the ATC problem instance.
+	 * @return the individual.
+	 */
+	public Individual create(int[] aircraftIds, int[] landingTimes, int fitnessValue, AtcInstance instance) {
+		FreeList freeList = freeLists.get();
+		if (freeList.size == 0) {
+			freeList.allocatedIndividuals++;
+			return new Individual(instance.createLandingSequence(aircraftIds, landingTimes), fitnessValue);
+		}
+		
+		Individual individual = freeList.individuals[--freeList.size];
+		freeList.individuals[freeList.size] = null;
+		individual.setLandingSchedule(aircraftIds, landingTimes, fitnessValue, freeList.aircraftsById(aircraftIds.length));
+		freeList.reusedIndividuals++;
+		return individual;
+	}
+	
+	/**
+	 * Releases an individual that is no longer referenced, so it can be reused.
+	 * 
+	 * @param individual the discarded individual.
+	 */
+	public void release(Individual individual) {
+		FreeList freeList = freeLists.get();
+		if (freeList.size < maxFreeIndividuals) {
+			if (freeList.size == freeList.individuals.length) {
+				Individual[] individuals = new Individual[Math.min(maxFreeIndividuals, 2 * freeList.size + 16)];
+				System.arraycopy(freeList.individuals, 0, individuals, 0, freeList.size);
+				freeList.individuals = individuals;
+			}
+			freeList.individuals[freeList.size++] = individual;
+		}
+	}
+	
+	/**
+	 * @return number of individuals allocated by the current thread because its free list was empty.
+	 */
+	public long getAllocatedIndividuals() {
+		return freeLists.get().allocatedIndividuals;
+	}
+	
+	/**
+	 * @return number of individuals reused by the current thread.
+	 */
+	public long getReusedIndividuals() {
+		return freeLists.get().reusedIndividuals;
+	}
+	
+	/**
+	 * Free individuals of a thread.
+	 */
+	private static class FreeList {
+		private Individual[] individuals = new Individual[0];
+		private int size;
+		private Aircraft[] aircraftsById = new Aircraft[0];
+		private long allocatedIndividuals;
+		private long reusedIndividuals;
+		
+		private Aircraft[] aircraftsById(int aircraftCount) {
+			if (aircraftsById.length < aircraftCount) {
+				aircraftsById = new Aircraft[aircraftCount];
+			}
+			return aircraftsById;
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package br.ufrgs.inf.ga.model;
+
+/**
+ * Encapsulates the local search stage configuration parameters.
+ * @author diego
+ *
+ */
+public class LocalSearchConfig {
+
+	/**
+	 * Number of most adapted individuals improved by the local search in each generation.
+	 */
+	public final int eliteSize;
+
+	/**
+	 * Max number of moves evaluated by the local search in each generation (shared by the elite individuals).
+	 */
+	public final int movesPerGeneration;
+
+	public LocalSearchConfig(int eliteSize, int movesPerGeneration) {
+		this.eliteSize = eliteSize;
+		this.movesPerGeneration = movesPerGeneration;
+	}
+
+	public int getEliteSize() {
+		return eliteSize;
+	}
+
+	public int getMovesPerGeneration() {
+		return movesPerGeneration;
+	}
+}
@@ -0,0 +1,429 @@
+package br.ufrgs.inf.ga.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AtcInstance;
+
+/**
+ * Population store for very large populations, kept out of the Java heap.
+ *
+ * <p>
+ * Each individual is a fixed width record in direct {@link ByteBuffer} slabs (optionally memory mapped from a file):
+ * its fitness value, the aircraft ids in landing order (2 bytes each) and the landing times (4 bytes each).
+ * Individuals are identified by their record slot and a ranking of the slots by fitness value is also kept
+ * off heap, so the heap usage doesn't grow with the population size.
+ * </p>
+ *
+ * <p>
+ * The ranking and replacement operations follow the {@link Population} ones (both implement {@link RankedPopulation}),
+ * so code written against the interface runs on either store: while the store is sorted, the
+ * individual of a given rank is read in O(1) and the less adapted individual is replaced by a binary search of
+ * the new rank and a shift of the ranking. Records changed in place make the store not sorted, and it is sorted
+ * again (in place, by a heap sort of the ranking) only when needed.
+ * </p>
+ *
+ * <p>
+ * The operations that take or create an {@link Individual} copy it through scratch vectors of the store, so, like the
+ * {@link Population}, a store must be used by a single thread at a time.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class OffHeapPopulation implements RankedPopulation {
+
+	/**
+	 * Max size of a slab, in bytes.
+	 */
+	private static final int MAX_SLAB_BYTES = 1 << 30;
+
+	/**
+	 * Number of aircrafts in each landing sequence.
+	 */
+	private final int aircraftCount;
+
+	/**
+	 * Size of an individual record, in bytes.
+	 */
+	private final int recordBytes;
+
+	/**
+	 * Number of records in each slab.
+	 */
+	private final int recordsPerSlab;
+
+	/**
+	 * Max number of individuals in the store.
+	 */
+	private final int capacity;
+
+	/**
+	 * Slabs of individual records.
+	 */
+	private final ByteBuffer[] slabs;
+
+	/**
+	 * Record slots ordered by fitness value, while the store is sorted.
+	 */
+	private final IntBuffer ranking;
+
+	/**
+	 * Number of individuals in the store.
+	 */
+	private int size;
+
+	/**
+	 * Flag that tell us if the ranking is sorted by fitness value.
+	 */
+	private boolean sorted = true;
+
+	/**
+	 * Scratch vectors of the landing schedules copied from and to {@link Individual} objects.
+	 */
+	private final int[] aircraftIdsBuffer;
+	private final int[] landingTimesBuffer;
+
+	/**
+	 * Creates a store in direct buffers.
+	 *
+	 * @param aircraftCount number of aircrafts in each landing sequence.
+	 * @param capacity max number of individuals.
+	 */
+	public OffHeapPopulation(int aircraftCount, int capacity) {
+		this(aircraftCount, capacity, 4 + 2 * aircraftCount + 4 * aircraftCount);
+		for (int i = 0; i < slabs.length; i++) {
+			slabs[i] = ByteBuffer.allocateDirect(slabRecords(i) * recordBytes).order(ByteOrder.nativeOrder());
+		}
+	}
+
+	/**
+	 * Creates a store memory mapped from a file. The file content is overwritten.
+	 *
+	 * @param aircraftCount number of aircrafts in each landing sequence.
+	 * @param capacity max number of individuals.
+	 * @param file file that backs the individual records.
+	 * @throws IOException thrown if the file can't be mapped.
+	 */
+	public OffHeapPopulation(int aircraftCount, int capacity, File file) throws IOException {
+		this(aircraftCount, capacity, 4 + 2 * aircraftCount + 4 * aircraftCount);
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			for (int i = 0; i < slabs.length; i++) {
+				long position = (long) i * recordsPerSlab * recordBytes;
+				slabs[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) slabRecords(i) * recordBytes).order(ByteOrder.nativeOrder());
+			}
+		} finally {
+			// the mappings stay valid after the channel is closed.
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * Initializes the store layout. The slabs are allocated by the public constructors.
+	 */
+	private OffHeapPopulation(int aircraftCount, int capacity, int recordBytes) {
+		if (aircraftCount > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("The aircraft ids are stored in 2 bytes: max " + Short.MAX_VALUE + " aircrafts.");
+		}
+		this.aircraftCount = aircraftCount;
+		this.recordBytes = recordBytes;
+		this.recordsPerSlab = MAX_SLAB_BYTES / recordBytes;
+		this.capacity = capacity;
+		this.slabs = new ByteBuffer[(capacity + recordsPerSlab - 1) / recordsPerSlab];
+		this.ranking = ByteBuffer.allocateDirect(4 * capacity).order(ByteOrder.nativeOrder()).asIntBuffer();
+		this.aircraftIdsBuffer = new int[aircraftCount];
+		this.landingTimesBuffer = new int[aircraftCount];
+	}
+
+	/**
+	 * Adds an individual in the store.
+	 *
+	 * @param aircraftIds aircraft ids in landing order.
+	 * @param landingTimes landing time of each position of the landing sequence.
+	 * @param fitnessValue fitness value of the individual.
+	 * @return the record slot of the individual.
+	 */
+	public int add(int[] aircraftIds, int[] landingTimes, int fitnessValue) {
+		if (size == capacity) {
+			throw new IllegalStateException("The population store is full: " + capacity + " individuals.");
+		}
+
+		// the individuals are appended, so a bulk load is sorted only once.
+		int slot = size;
+		write(slot, aircraftIds, landingTimes, fitnessValue);
+		ranking.put(size, slot);
+		size++;
+		sorted = size == 1;
+		return slot;
+	}
+
+	/**
+	 * Adds an individual in the store.
+	 *
+	 * @param individual individual to be copied to the store.
+	 * @return the record slot of the individual.
+	 */
+	public int add(Individual individual) {
+		copyLandingSchedule(individual);
+		return add(aircraftIdsBuffer, landingTimesBuffer, individual.getFitnessValue());
+	}
+
+	/**
+	 * Replaces the less adapted individual by a new one, if the new one is more adapted.
+	 *
+	 * @param aircraftIds aircraft ids in landing order.
+	 * @param landingTimes landing time of each position of the landing sequence.
+	 * @param fitnessValue fitness value of the new individual.
+	 * @return the record slot of the new individual, or -1 if it wasn't accepted.
+	 */
+	public int replaceLessAdaptedIndividual(int[] aircraftIds, int[] landingTimes, int fitnessValue) {
+		sortByFitness();
+		int slot = ranking.get(size - 1);
+		if (fitnessValue > getFitnessValue(slot)) {
+			return -1;
+		}
+
+		write(slot, aircraftIds, landingTimes, fitnessValue);
+		insertInRanking(slot, fitnessValue, size - 1);
+		return slot;
+	}
+
+	@Override
+	public boolean replaceWithLessAdaptedIndividual(Individual individual) {
+		copyLandingSchedule(individual);
+		return replaceLessAdaptedIndividual(aircraftIdsBuffer, landingTimesBuffer, individual.getFitnessValue()) >= 0;
+	}
+
+	/**
+	 * Overwrites the record of an individual (for instance, after a mutation).
+	 * The store is no longer sorted after this operation.
+	 *
+	 * @param slot record slot of the individual.
+	 * @param aircraftIds aircraft ids in landing order.
+	 * @param landingTimes landing time of each position of the landing sequence.
+	 * @param fitnessValue fitness value of the individual.
+	 */
+	public void replace(int slot, int[] aircraftIds, int[] landingTimes, int fitnessValue) {
+		write(slot, aircraftIds, landingTimes, fitnessValue);
+		sorted = false;
+	}
+
+	/**
+	 * Sorts the ranking by fitness value, in place.
+	 */
+	@Override
+	public void sortByFitness() {
+		if (sorted) {
+			return;
+		}
+
+		// heap sort: builds a max heap of fitness values and moves the max to the end of the ranking.
+		for (int i = size / 2 - 1; i >= 0; i--) {
+			siftDown(i, size);
+		}
+		for (int end = size - 1; end > 0; end--) {
+			int swap = ranking.get(0);
+			ranking.put(0, ranking.get(end));
+			ranking.put(end, swap);
+			siftDown(0, end);
+		}
+		sorted = true;
+	}
+
+	/**
+	 * Gets the record slot of the individual at a rank of the sorted store.
+	 *
+	 * @param rank individual position in the store sorted by fitness value.
+	 * @return the record slot of the individual.
+	 */
+	public int getSlot(int rank) {
+		sortByFitness();
+		return ranking.get(rank);
+	}
+
+	@Override
+	public int getFitnessValueAt(int rank) {
+		return getFitnessValue(getSlot(rank));
+	}
+
+	@Override
+	public void readLandingSchedule(int rank, int[] aircraftIds, int[] landingTimes) {
+		read(getSlot(rank), aircraftIds, landingTimes);
+	}
+
+	/**
+	 * @return the record slot of the most adapted individual.
+	 */
+	public int getMostAdaptedSlot() {
+		if (sorted) {
+			return ranking.get(0);
+		}
+
+		int mostAdapted = 0;
+		for (int slot = 1; slot < size; slot++) {
+			if (getFitnessValue(slot) < getFitnessValue(mostAdapted)) {
+				mostAdapted = slot;
+			}
+		}
+		return mostAdapted;
+	}
+
+	/**
+	 * @return the record slot of the less adapted individual.
+	 */
+	public int getLessAdaptedSlot() {
+		if (sorted) {
+			return ranking.get(size - 1);
+		}
+
+		int lessAdapted = 0;
+		for (int slot = 1; slot < size; slot++) {
+			if (getFitnessValue(slot) >= getFitnessValue(lessAdapted)) {
+				lessAdapted = slot;
+			}
+		}
+		return lessAdapted;
+	}
+
+	/**
+	 * Reads the fitness value of an individual.
+	 */
+	public int getFitnessValue(int slot) {
+		return slab(slot).getInt(offset(slot));
+	}
+
+	/**
+	 * Reads the landing sequence of an individual.
+	 *
+	 * @param slot record slot of the individual.
+	 * @param aircraftIds vector where the aircraft ids are written, in landing order.
+	 * @param landingTimes vector where the landing times are written.
+	 */
+	public void read(int slot, int[] aircraftIds, int[] landingTimes) {
+		ByteBuffer slab = slab(slot);
+		int idsOffset = offset(slot) + 4;
+		int timesOffset = idsOffset + 2 * aircraftCount;
+		for (int i = 0; i < aircraftCount; i++) {
+			aircraftIds[i] = slab.getShort(idsOffset + 2 * i);
+			landingTimes[i] = slab.getInt(timesOffset + 4 * i);
+		}
+	}
+
+	/**
+	 * Creates an on heap individual from a record of the store.
+	 *
+	 * @param slot record slot of the individual.
+	 * @param instance the ATC problem instance.
+	 * @return the individual.
+	 */
+	public Individual createIndividual(int slot, AtcInstance instance) {
+		read(slot, aircraftIdsBuffer, landingTimesBuffer);
+		return new Individual(instance.createLandingSequence(aircraftIdsBuffer, landingTimesBuffer), getFitnessValue(slot));
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	@Override
+	public boolean isSorted() {
+		return sorted;
+	}
+
+	@Override
+	public void setSorted(boolean sorted) {
+		this.sorted = sorted;
+	}
+
+	/**
+	 * Moves a slot, whose ranking position <code>from</code> is free, to its position in the sorted ranking.
+	 */
+	private void insertInRanking(int slot, int fitnessValue, int from) {
+		// binary search for the first rank (excluding the free one) with a fitness value not lower than the slot one.
+		int low = 0;
+		int high = from;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (getFitnessValue(ranking.get(middle)) < fitnessValue) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		if (from > low) {
+			// bulk shift of the ranks [low, from) one position up (the direct buffers copy handles the overlap).
+			IntBuffer shifted = ranking.duplicate();
+			shifted.position(low).limit(from);
+			IntBuffer destination = ranking.duplicate();
+			destination.position(low + 1);
+			destination.put(shifted);
+		}
+		ranking.put(low, slot);
+	}
+
+	/**
+	 * Copies the landing schedule of an individual to the scratch vectors.
+	 */
+	private void copyLandingSchedule(Individual individual) {
+		Aircraft[] landingSequence = individual.getAircraftLandingSequence();
+		for (int i = 0; i < aircraftCount; i++) {
+			aircraftIdsBuffer[i] = landingSequence[i].getId();
+			landingTimesBuffer[i] = landingSequence[i].getLandingTime();
+		}
+	}
+
+	private void siftDown(int root, int end) {
+		int rootSlot = ranking.get(root);
+		int rootFitnessValue = getFitnessValue(rootSlot);
+		while (2 * root + 1 < end) {
+			int child = 2 * root + 1;
+			if (child + 1 < end && getFitnessValue(ranking.get(child + 1)) > getFitnessValue(ranking.get(child))) {
+				child++;
+			}
+			int childSlot = ranking.get(child);
+			if (getFitnessValue(childSlot) <= rootFitnessValue) {
+				break;
+			}
+			ranking.put(root, childSlot);
+			root = child;
+		}
+		ranking.put(root, rootSlot);
+	}
+
+	private void write(int slot, int[] aircraftIds, int[] landingTimes, int fitnessValue) {
+		ByteBuffer slab = slab(slot);
+		int offset = offset(slot);
+		slab.putInt(offset, fitnessValue);
+		int idsOffset = offset + 4;
+		int timesOffset = idsOffset + 2 * aircraftCount;
+		for (int i = 0; i < aircraftCount; i++) {
+			slab.putShort(idsOffset + 2 * i, (short) aircraftIds[i]);
+			slab.putInt(timesOffset + 4 * i, landingTimes[i]);
+		}
+	}
+
+	private ByteBuffer slab(int slot) {
+		return slabs[slot / recordsPerSlab];
+	}
+
+	private int offset(int slot) {
+		return (slot % recordsPerSlab) * recordBytes;
+	}
+
+	private int slabRecords(int slabIndex) {
+		return Math.min(recordsPerSlab, capacity - slabIndex * recordsPerSlab);
+	}
+}
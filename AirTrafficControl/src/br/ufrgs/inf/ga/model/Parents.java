@@ -8,14 +8,22 @@ package br.ufrgs.inf.ga.model;
  */
 public class Parents {
 
-	private final Individual parent1;
-	private final Individual parent2;
+	private Individual parent1;
+	private Individual parent2;
 	
 	public Parents(final Individual parent1, final Individual parent2) {
 		this.parent1 = parent1;
 		this.parent2 = parent2;
 	}
 
+	/**
+	 * Changes the parents, so the same object can be reused for another pair.
+	 */
+	public void setParents(final Individual parent1, final Individual parent2) {
+		this.parent1 = parent1;
+		this.parent2 = parent2;
+	}
+
 	public Individual getParent1() {
 		return parent1;
 	}
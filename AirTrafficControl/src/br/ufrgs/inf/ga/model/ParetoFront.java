@@ -0,0 +1,69 @@
+package br.ufrgs.inf.ga.model;
+
+import java.util.List;
+
+/**
+ * Landing schedules that don't dominate each other in a multi-objective optimization, and their objective values.
+ *
+ * @author diego
+ *
+ */
+public class ParetoFront {
+
+	/**
+	 * Names of the objectives, in the order of the objective values.
+	 */
+	private final String[] objectiveNames;
+
+	private final List<Individual> individuals;
+
+	/**
+	 * Objective values of each individual: <code>objectives[i * objectiveCount + k]</code>.
+	 */
+	private final double[] objectives;
+
+	public ParetoFront(String[] objectiveNames, List<Individual> individuals, double[] objectives) {
+		this.objectiveNames = objectiveNames;
+		this.individuals = individuals;
+		this.objectives = objectives;
+	}
+
+	public int size() {
+		return individuals.size();
+	}
+
+	public Individual getIndividual(int index) {
+		return individuals.get(index);
+	}
+
+	public List<Individual> getIndividuals() {
+		return individuals;
+	}
+
+	/**
+	 * @return the value of an objective of an individual of the front.
+	 */
+	public double getObjective(int index, int objective) {
+		return objectives[index * objectiveNames.length + objective];
+	}
+
+	public int getObjectiveCount() {
+		return objectiveNames.length;
+	}
+
+	public String getObjectiveName(int objective) {
+		return objectiveNames[objective];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("Pareto front (" + size() + " schedules):");
+		for (int i = 0; i < size(); i++) {
+			builder.append('\n');
+			for (int k = 0; k < objectiveNames.length; k++) {
+				builder.append(k == 0 ? "" : ", ").append(objectiveNames[k]).append(' ').append(getObjective(i, k));
+			}
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,43 @@
+package br.ufrgs.inf.ga.model;
+
+/**
+ * Encapsulates the path relinking stage configuration parameters.
+ * @author diego
+ *
+ */
+public class PathRelinkingConfig {
+
+	/**
+	 * Max number of landing sequences in the elite pool.
+	 */
+	public final int poolSize;
+
+	/**
+	 * Min number of positions where a new landing sequence must differ from every sequence of the elite pool to join it
+	 * (unless it is better than all of them).
+	 */
+	public final int minDistance;
+
+	/**
+	 * Number of generations without improvement of the best individual between two path relinking stages.
+	 */
+	public final int stagnationGenerations;
+
+	public PathRelinkingConfig(int poolSize, int minDistance, int stagnationGenerations) {
+		this.poolSize = poolSize;
+		this.minDistance = minDistance;
+		this.stagnationGenerations = stagnationGenerations;
+	}
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public int getMinDistance() {
+		return minDistance;
+	}
+
+	public int getStagnationGenerations() {
+		return stagnationGenerations;
+	}
+}
@@ -1,8 +1,14 @@
 package br.ufrgs.inf.ga.model;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.utils.LongCounter;
 
 
 /**
@@ -12,9 +18,31 @@ import java.util.List;
  * Encapsulates all population data used in the genetic algorithm.
  * </p>
  * 
+ * <p>
+ * The individuals are kept in a vector ordered by fitness value, so an individual is accessed by its rank in O(1).
+ * While the population is sorted, individuals are added at their position found by a binary search and removed by
+ * identity (binary search on the fitness value and scan of the equal fitness values), the worse individual is the last one.
+ * When individuals are changed in place (mutation, local search), the population must be marked as not sorted and
+ * it will be sorted again only when needed.
+ * </p>
+ * 
+ * <p>
+ * Adding, removing or replacing an individual of a sorted population takes O(log n) comparisons, plus an O(n) shift of the
+ * vector (a single <code>System.arraycopy</code>), and so does {@link #fitnessValueChanged(int)}. For the population sizes
+ * of the genetic algorithm (hundreds to some thousands of individuals) the shift costs less than scheduling and evaluating the new
+ * individual, so the vector is kept instead of an order statistic tree, which would update the ranks in O(log n) but would allocate a
+ * node per insertion and lose the O(1) access by rank.
+ * </p>
+ * 
+ * <p>
+ * The population also keeps a hash index of its individuals landing schedules (see {@link Individual#getLandingScheduleFingerprint()}),
+ * so a duplicate individual is detected in O(1) expected time. A fingerprint match is taken as a duplicate: two different
+ * landing schedules have the same fingerprint with probability about 2^-64.
+ * </p>
+ * 
  * @author diego
  */
-public class Population implements Iterable<Individual> {
+public class Population implements Iterable<Individual>, RankedPopulation {
 	
 	/**
 	 * Population configuration parameters.
@@ -22,9 +50,14 @@ public class Population implements Iterable<Individual> {
 	private PopulationConfig config;
 	
 	/**
-	 * Set of individuals of the population.
+	 * Set of individuals of the population, in the positions <code>[0, size)</code>.
+	 */
+	private Individual[] individuals;
+	
+	/**
+	 * Number of individuals in the population.
 	 */
-	private final List<Individual> individuals;
+	private int size;
 	
 	/**
 	 * Flag that tell us if the population is sorted by individual fitness value.
@@ -32,6 +65,21 @@ public class Population implements Iterable<Individual> {
 	 */
 	private boolean sorted = false;
 	
+	/**
+	 * Number of individuals in the population for each landing schedule fingerprint.
+	 */
+	private final LongCounter fingerprintCounts = new LongCounter();
+	
+	/**
+	 * Diversity metrics of the population. If null, the diversity isn't tracked.
+	 */
+	private PopulationDiversity diversity;
+	
+	/**
+	 * Accumulates the time (in nanoseconds) spent sorting the population. If null, the sorting isn't timed.
+	 */
+	private LongAdder sortingTime;
+	
 	/**
 	 * Resolves the class dependencies.
 	 * 
@@ -40,7 +88,11 @@ public class Population implements Iterable<Individual> {
 	 */
 	public Population(PopulationConfig config, List<Individual> individuals) {
 		this.config = config;
-		this.individuals = individuals;
+		this.individuals = individuals.toArray(new Individual[Math.max(individuals.size(), config.getMaxIndividuals())]);
+		this.size = individuals.size();
+		for (int i = 0; i < size; i++) {
+			index(this.individuals[i]);
+		}
 	}
 	
 	/**
@@ -48,20 +100,42 @@ public class Population implements Iterable<Individual> {
 	 * @param individual to be added.
 	 */
 	public void add(Individual individual) {
-		this.individuals.add(0, individual);
-		this.sorted = false;
+		if (size == individuals.length) {
+			individuals = Arrays.copyOf(individuals, size * 2 + 1);
+		}
+		
+		if (this.sorted) {
+			// the new individual goes before the ones with the same fitness value.
+			int position = lowerBound(individual.getFitnessValue());
+			System.arraycopy(individuals, position, individuals, position + 1, size - position);
+			individuals[position] = individual;
+		} else {
+			individuals[size] = individual;
+		}
+		size++;
+		index(individual);
 	}
 	
 	/**
 	 * Return the most adapted individual in the population.
-	 * In this implementation, a individual with lower fitness value is more adapted than other one with a higher fitness value. 
+	 * In this implementation, a individual with lower fitness value is more adapted than other one with a higher fitness value.
 	 * @return
 	 */
 	public Individual getMostAdaptedIndividual() {
-		this.sortByFitness();
-		// the first individual in the sorted list have the lower fitness value,
-		// and this is the best one, once we trying to minimize the cost of sequence landings.
-		return individuals.get(0);
+		if (this.sorted) {
+			// the first individual in the sorted list have the lower fitness value,
+			// and this is the best one, once we trying to minimize the cost of sequence landings.
+			return individuals[0];
+		}
+		
+		// a linear scan is cheaper than sorting the population just to find its best individual.
+		Individual mostAdapted = null;
+		for (int i = 0; i < size; i++) {
+			if (mostAdapted == null || individuals[i].getFitnessValue() < mostAdapted.getFitnessValue()) {
+				mostAdapted = individuals[i];
+			}
+		}
+		return mostAdapted;
 	}
 	
 	/**
@@ -69,30 +143,195 @@ public class Population implements Iterable<Individual> {
 	 * @return the less adapted individual in population.
 	 */
 	public Individual getLessAdaptedIndividual() {
-		this.sortByFitness();
-		return individuals.get(individuals.size() - 1);
+		if (this.sorted) {
+			return individuals[size - 1];
+		}
+		
+		Individual lessAdapted = null;
+		for (int i = 0; i < size; i++) {
+			if (lessAdapted == null || individuals[i].getFitnessValue() >= lessAdapted.getFitnessValue()) {
+				lessAdapted = individuals[i];
+			}
+		}
+		return lessAdapted;
 	}
 	
 	/**
 	 * Removes an individual from the population.
+	 * The individual is found by identity, not by {@link Individual#equals(Object)}.
+	 * 
 	 * @param individual to be removed.
+	 * @return true if the individual was in the population.
 	 */
-	public void remove(Individual individual) {
-		this.individuals.remove(individual);
+	public boolean remove(Individual individual) {
+		int position = indexOf(individual);
+		if (position < 0) {
+			return false;
+		}
+		
+		System.arraycopy(individuals, position + 1, individuals, position, size - position - 1);
+		individuals[--size] = null;
+		unindex(individual);
+		return true;
 	}
-
+	
+	/**
+	 * Finds the position of an individual in the population (by identity).
+	 * 
+	 * @param individual an individual.
+	 * @return the individual position or -1 if it isn't in the population.
+	 */
+	public int indexOf(Individual individual) {
+		if (this.sorted) {
+			int fitnessValue = individual.getFitnessValue();
+			for (int i = lowerBound(fitnessValue); i < size && individuals[i].getFitnessValue() == fitnessValue; i++) {
+				if (individuals[i] == individual) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		
+		for (int i = 0; i < size; i++) {
+			if (individuals[i] == individual) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
 	@Override
 	public Iterator<Individual> iterator() {
-		return individuals.iterator();
+		return new Iterator<Individual>() {
+			private int next = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+			
+			@Override
+			public Individual next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+				return individuals[next++];
+			}
+			
+			@Override
+			public void remove() {
+				Population.this.remove(individuals[--next]);
+			}
+		};
 	}
 	
 	/**
 	 * sorts the population by individual fitness value.
 	 */
+	@Override
 	public void sortByFitness() {
 		if (!this.sorted) {
-			Collections.sort(this.individuals);
+			long startTime = sortingTime != null ? System.nanoTime() : 0;
+			Arrays.sort(this.individuals, 0, size);
 			this.sorted = true;
+			if (sortingTime != null) {
+				sortingTime.add(System.nanoTime() - startTime);
+			}
+		}
+	}
+	
+	/**
+	 * Updates the population after an individual was changed in place: if the population is sorted,
+	 * the individual is moved to its new position.
+	 * 
+	 * @param individualIndex position of the changed individual.
+	 */
+	public void fitnessValueChanged(int individualIndex) {
+		Individual individual = individuals[individualIndex];
+		if (!this.sorted) {
+			unindex(individual);
+			index(individual);
+			return;
+		}
+		
+		System.arraycopy(individuals, individualIndex + 1, individuals, individualIndex, size - individualIndex - 1);
+		size--;
+		unindex(individual);
+		add(individual);
+	}
+	
+	/**
+	 * Updates the population after an individual was changed in place.
+	 * The population is no longer sorted after this operation.
+	 * 
+	 * @param individual the changed individual.
+	 */
+	public void individualChanged(Individual individual) {
+		unindex(individual);
+		index(individual);
+		this.sorted = false;
+	}
+	
+	/**
+	 * Verifies if there is an individual with the same landing schedule in the population.
+	 * 
+	 * @param individual an individual.
+	 * @return true if there is an individual with the same landing schedule fingerprint in the population.
+	 */
+	public boolean containsLandingSchedule(Individual individual) {
+		return fingerprintCounts.contains(individual.getLandingScheduleFingerprint());
+	}
+	
+	/**
+	 * Starts tracking the population diversity. The metrics are updated as individuals are added,
+	 * removed or changed in the population.
+	 * 
+	 * @param sampledPairs number of individuals pairs sampled to estimate the Kendall distance.
+	 * @return the population diversity metrics.
+	 */
+	public PopulationDiversity enableDiversityTracking(int sampledPairs) {
+		if (diversity == null && size > 0) {
+			diversity = new PopulationDiversity(individuals[0].getAircraftLandingSequence().length, sampledPairs);
+			for (int i = 0; i < size; i++) {
+				addToDiversity(individuals[i]);
+			}
+		}
+		return diversity;
+	}
+	
+	/**
+	 * @return the population diversity metrics, or null if the diversity isn't tracked.
+	 */
+	public PopulationDiversity getDiversity() {
+		return diversity;
+	}
+	
+	/**
+	 * Times the population sorts.
+	 * 
+	 * @param sortingTime counter where the time (in nanoseconds) of each sort is added, or null to stop timing them.
+	 */
+	public void setSortingTime(LongAdder sortingTime) {
+		this.sortingTime = sortingTime;
+	}
+	
+	/**
+	 * @return number of distinct landing schedules divided by the population size.
+	 */
+	public float getUniquenessRatio() {
+		return size == 0 ? 1 : (float) fingerprintCounts.size() / size;
+	}
+	
+	/**
+	 * Copies the individuals and their fitness values to primitive vectors, in the population order.
+	 * 
+	 * @param individualsBuffer vector where the individuals are written (at least {@link #getSize()} positions).
+	 * @param fitnessValuesBuffer vector where the fitness values are written (at least {@link #getSize()} positions).
+	 */
+	public void copyTo(Individual[] individualsBuffer, int[] fitnessValuesBuffer) {
+		for (int i = 0; i < size; i++) {
+			individualsBuffer[i] = individuals[i];
+			fitnessValuesBuffer[i] = individuals[i].getFitnessValue();
 		}
 	}
 	
@@ -102,7 +341,10 @@ public class Population implements Iterable<Individual> {
 	 * @return an individual at position <code>individualIndex</code>
 	 */
 	public Individual get(int individualIndex) {
-		return individuals.get(individualIndex);
+		if (individualIndex >= size) {
+			throw new IndexOutOfBoundsException("Index: " + individualIndex + ", Size: " + size);
+		}
+		return individuals[individualIndex];
 	}
 	
 	/**
@@ -111,42 +353,132 @@ public class Population implements Iterable<Individual> {
 	 * adapted than the individual to be added in population.
 	 * 
 	 * @param individual individual to be added in population.
+	 * @return true if the individual was added in population.
 	 */
-	public void replaceWithLessAdaptedIndividual(Individual individual) {
+	@Override
+	public boolean replaceWithLessAdaptedIndividual(Individual individual) {
 		Individual worsePopulationIndividual = getLessAdaptedIndividual();
 		if (individual.isMoreAdaptedThan(worsePopulationIndividual)) {
 			this.remove(worsePopulationIndividual);
 			this.add(individual);
+			return true;
+		}
+		return false;
+	}
+	
+	@Override
+	public int getFitnessValueAt(int rank) {
+		sortByFitness();
+		return get(rank).getFitnessValue();
+	}
+	
+	@Override
+	public void readLandingSchedule(int rank, int[] aircraftIds, int[] landingTimes) {
+		sortByFitness();
+		Aircraft[] landingSequence = get(rank).getAircraftLandingSequence();
+		for (int i = 0; i < landingSequence.length; i++) {
+			aircraftIds[i] = landingSequence[i].getId();
+			landingTimes[i] = landingSequence[i].getLandingTime();
 		}
 	}
 	
 	/**
 	 * Replaces an individual by other one in population.
+	 * Nothing is done if the individual to be removed is no longer in the population or, in a duplicate free population,
+	 * if the new individual has the same landing schedule of another one in the population.
 	 * 
 	 * @param newIndividual the individual to be added in population.
 	 * @param individualToBeRemoved the individual to be removed from population.
+	 * @return true if the individual was replaced.
 	 */
-	public void replace(Individual newIndividual, Individual individualToBeRemoved) {
-		this.remove(individualToBeRemoved);
-		this.add(newIndividual);
+	public boolean replace(Individual newIndividual, Individual individualToBeRemoved) {
+		// the same individual may be selected in more than one parents pair, and it may be already replaced.
+		if (config.isDuplicateFree() && containsLandingSchedule(newIndividual)) {
+			return false;
+		}
+		if (this.remove(individualToBeRemoved)) {
+			this.add(newIndividual);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Adds an individual landing schedule in the duplicates index.
+	 */
+	private void index(Individual individual) {
+		long fingerprint = individual.getLandingScheduleFingerprint();
+		individual.indexedFingerprint = fingerprint;
+		fingerprintCounts.increment(fingerprint);
+		
+		if (diversity != null) {
+			addToDiversity(individual);
+		}
+	}
+	
+	/**
+	 * Adds an individual landing sequence in the diversity metrics.
+	 */
+	private void addToDiversity(Individual individual) {
+		Aircraft[] landingSequence = individual.getAircraftLandingSequence();
+		if (individual.indexedAircraftIds == null) {
+			individual.indexedAircraftIds = new int[landingSequence.length];
+		}
+		AtcInstance.getAircraftIds(landingSequence, individual.indexedAircraftIds);
+		diversity.add(individual.indexedAircraftIds);
 	}
 	
+	/**
+	 * Removes an individual landing schedule, as it was when indexed, from the duplicates index.
+	 */
+	private void unindex(Individual individual) {
+		if (diversity != null && individual.indexedAircraftIds != null) {
+			diversity.remove(individual.indexedAircraftIds);
+		}
+		
+		fingerprintCounts.decrement(individual.indexedFingerprint);
+	}
+	
+	/**
+	 * Binary search for the first position of the sorted population with a fitness value not lower than <code>fitnessValue</code>.
+	 */
+	private int lowerBound(int fitnessValue) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (individuals[middle].getFitnessValue() < fitnessValue) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+	
+	@Override
 	public void setSorted(boolean sorted) {
 		this.sorted = sorted;
 	}
 	
+	@Override
+	public boolean isSorted() {
+		return sorted;
+	}
+	
+	@Override
 	public int getSize() {
-		return this.individuals.size();
+		return this.size;
 	}
 	
 	public int getMaxIndividuals() {
 		return config.getMaxIndividuals();
 	}
-
+	
 	public float getReproductionRate() {
 		return config.getReproductionRate();
 	}
-
+	
 	public float getMutationRate() {
 		return config.getMutationRate();
 	}
@@ -21,11 +21,21 @@ public class PopulationConfig {
 	 * Mutation rate for this population.
 	 */
 	public final float mutationRate;
+	
+	/**
+	 * If true, individuals with the same landing schedule of another one in the population are not accepted.
+	 */
+	public final boolean duplicateFree;
 
 	public PopulationConfig(int maxIndividuals, float reproductionRate, float mutationRate) {
+		this(maxIndividuals, reproductionRate, mutationRate, false);
+	}
+
+	public PopulationConfig(int maxIndividuals, float reproductionRate, float mutationRate, boolean duplicateFree) {
 		this.maxIndividuals = maxIndividuals;
 		this.reproductionRate = reproductionRate;
 		this.mutationRate = mutationRate;
+		this.duplicateFree = duplicateFree;
 	}
 
 	public int getMaxIndividuals() {
@@ -39,4 +49,8 @@ public class PopulationConfig {
 	public float getMutationRate() {
 		return mutationRate;
 	}
+
+	public boolean isDuplicateFree() {
+		return duplicateFree;
+	}
 }
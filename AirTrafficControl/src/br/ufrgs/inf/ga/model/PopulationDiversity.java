@@ -0,0 +1,189 @@
+package br.ufrgs.inf.ga.model;
+
+/**
+ * Diversity metrics of the landing sequences in a population.
+ * 
+ * <p>
+ * Two metrics are provided:
+ * <ul>
+ * <li>position entropy: for each aircraft, the entropy of the frequency of the landing positions of that aircraft
+ * in the population, normalized to [0, 1] and averaged over the aircrafts. It is updated incrementally
+ * as individuals are added, removed or changed in the population, and read in O(aircrafts).</li>
+ * <li>Kendall distance: the number of aircraft pairs landing in different order in two landing sequences,
+ * normalized to [0, 1], averaged over randomly sampled pairs of individuals. Each distance is calculated
+ * in O(n log n) by counting inversions with a Fenwick tree.</li>
+ * </ul>
+ * A collapsed population has both metrics near 0.
+ * </p>
+ * 
+ * @author diego
+ * 
+ */
+public class PopulationDiversity {
+	
+	/**
+	 * Number of aircrafts in each landing sequence.
+	 */
+	private final int aircraftCount;
+	
+	/**
+	 * Number of individuals sampled pairs used to estimate the Kendall distance.
+	 */
+	private final int sampledPairs;
+	
+	/**
+	 * <code>positionCounts[aircraftId * aircraftCount + position]</code> is the number of individuals where
+	 * the aircraft lands at that position.
+	 */
+	private final int[] positionCounts;
+	
+	/**
+	 * For each aircraft, the sum of <code>c * ln(c)</code> over its position counts.
+	 */
+	private final double[] countLogCountSums;
+	
+	/**
+	 * Number of landing sequences counted.
+	 */
+	private int landingSequences;
+	
+	/**
+	 * Mean Kendall distance of the last sample.
+	 */
+	private double kendallDistance = 1;
+	
+	/**
+	 * Buffers of the Kendall distance calculation.
+	 */
+	private final int[] positions;
+	private final int[] fenwickTree;
+	
+	/**
+	 * @param aircraftCount number of aircrafts in each landing sequence.
+	 * @param sampledPairs number of individuals pairs sampled to estimate the Kendall distance.
+	 */
+	public PopulationDiversity(int aircraftCount, int sampledPairs) {
+		this.aircraftCount = aircraftCount;
+		this.sampledPairs = sampledPairs;
+		this.positionCounts = new int[aircraftCount * aircraftCount];
+		this.countLogCountSums = new double[aircraftCount];
+		this.positions = new int[aircraftCount];
+		this.fenwickTree = new int[aircraftCount + 1];
+	}
+	
+	/**
+	 * Counts a landing sequence in the position frequencies.
+	 * 
+	 * @param aircraftIds aircraft ids in landing order.
+	 */
+	void add(int[] aircraftIds) {
+		for (int position = 0; position < aircraftCount; position++) {
+			int aircraftId = aircraftIds[position];
+			int count = positionCounts[aircraftId * aircraftCount + position]++;
+			countLogCountSums[aircraftId] += countLogCount(count + 1) - countLogCount(count);
+		}
+		landingSequences++;
+	}
+	
+	/**
+	 * Removes a landing sequence from the position frequencies.
+	 * 
+	 * @param aircraftIds aircraft ids in landing order, as they were when added.
+	 */
+	void remove(int[] aircraftIds) {
+		for (int position = 0; position < aircraftCount; position++) {
+			int aircraftId = aircraftIds[position];
+			int count = positionCounts[aircraftId * aircraftCount + position]--;
+			countLogCountSums[aircraftId] += countLogCount(count - 1) - countLogCount(count);
+		}
+		landingSequences--;
+	}
+	
+	/**
+	 * Calculates the mean normalized position entropy of the aircrafts.
+	 * 
+	 * @return the position entropy, between 0 (all individuals land each aircraft at the same position) and 1.
+	 */
+	public double getPositionEntropy() {
+		int maxDistinctPositions = Math.min(landingSequences, aircraftCount);
+		if (maxDistinctPositions < 2) {
+			return 0;
+		}
+		
+		// entropy of an aircraft: ln(N) - sum(c * ln(c)) / N, where N is the number of landing sequences.
+		double logLandingSequences = Math.log(landingSequences);
+		double entropySum = 0;
+		for (int aircraftId = 0; aircraftId < aircraftCount; aircraftId++) {
+			entropySum += logLandingSequences - countLogCountSums[aircraftId] / landingSequences;
+		}
+		return Math.max(0, entropySum / aircraftCount / Math.log(maxDistinctPositions));
+	}
+	
+	/**
+	 * Estimates the mean Kendall distance of the population by sampling random pairs of individuals.
+	 * The result is also available later by {@link #getKendallDistance()}.
+	 * 
+	 * @param population population of individuals.
+	 * @return the mean normalized Kendall distance, between 0 (identical landing orders) and 1 (reversed ones).
+	 */
+	public double sampleKendallDistance(Population population) {
+		int size = population.getSize();
+		if (size < 2 || aircraftCount < 2) {
+			kendallDistance = 0;
+			return kendallDistance;
+		}
+		
+		long maxDistance = (long) aircraftCount * (aircraftCount - 1) / 2;
+		double distanceSum = 0;
+		for (int i = 0; i < sampledPairs; i++) {
+			Individual individual1 = population.get((int) (Math.random() * size));
+			Individual individual2 = population.get((int) (Math.random() * size));
+			distanceSum += (double) calculateKendallDistance(individual1.indexedAircraftIds, individual2.indexedAircraftIds) / maxDistance;
+		}
+		kendallDistance = distanceSum / sampledPairs;
+		return kendallDistance;
+	}
+	
+	/**
+	 * Counts the aircraft pairs that land in different order in two landing sequences
+	 * (inversions of the first sequence written in positions of the second one).
+	 * 
+	 * @param aircraftIds1 aircraft ids of the first landing sequence.
+	 * @param aircraftIds2 aircraft ids of the second landing sequence.
+	 * @return the Kendall distance between the landing sequences.
+	 */
+	public long calculateKendallDistance(int[] aircraftIds1, int[] aircraftIds2) {
+		for (int position = 0; position < aircraftCount; position++) {
+			positions[aircraftIds2[position]] = position;
+		}
+		for (int i = 1; i <= aircraftCount; i++) {
+			fenwickTree[i] = 0;
+		}
+		
+		long inversions = 0;
+		for (int i = 0; i < aircraftCount; i++) {
+			int position = positions[aircraftIds1[i]] + 1;
+			// counts the aircrafts already seen that land before this one in the second sequence, the other ones are inversions.
+			int notAfter = 0;
+			for (int k = position; k > 0; k -= k & -k) {
+				notAfter += fenwickTree[k];
+			}
+			inversions += i - notAfter;
+			for (int k = position; k <= aircraftCount; k += k & -k) {
+				fenwickTree[k]++;
+			}
+		}
+		return inversions;
+	}
+	
+	/**
+	 * @return the mean normalized Kendall distance of the last sample.
+	 */
+	public double getKendallDistance() {
+		return kendallDistance;
+	}
+	
+	private static double countLogCount(int count) {
+		return count < 2 ? 0 : count * Math.log(count);
+	}
+}
@@ -0,0 +1,55 @@
+package br.ufrgs.inf.ga.model;
+
+/**
+ * Ranking and replacement operations of a population store, implemented by the on heap {@link Population}
+ * and by the {@link OffHeapPopulation}.
+ *
+ * <p>
+ * Individuals are addressed by their rank (position by fitness value, the most adapted first). A store changed in place
+ * is marked as not sorted, and it is sorted again when a rank is read.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public interface RankedPopulation {
+
+	/**
+	 * @return number of individuals in the store.
+	 */
+	int getSize();
+
+	/**
+	 * Sorts the store by fitness value, if it isn't sorted.
+	 */
+	void sortByFitness();
+
+	boolean isSorted();
+
+	void setSorted(boolean sorted);
+
+	/**
+	 * Reads the fitness value of the individual at a rank. The store is sorted first, if needed.
+	 *
+	 * @param rank individual position in the store sorted by fitness value.
+	 * @return the fitness value.
+	 */
+	int getFitnessValueAt(int rank);
+
+	/**
+	 * Reads the landing schedule of the individual at a rank. The store is sorted first, if needed.
+	 *
+	 * @param rank individual position in the store sorted by fitness value.
+	 * @param aircraftIds vector where the aircraft ids are written, in landing order.
+	 * @param landingTimes vector where the landing times are written.
+	 */
+	void readLandingSchedule(int rank, int[] aircraftIds, int[] landingTimes);
+
+	/**
+	 * Replaces the less adapted individual of the store by a new one, if the new one is not less adapted.
+	 *
+	 * @param individual the new individual.
+	 * @return true if the individual was added to the store.
+	 */
+	boolean replaceWithLessAdaptedIndividual(Individual individual);
+}
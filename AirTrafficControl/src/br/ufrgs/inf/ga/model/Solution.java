@@ -35,14 +35,38 @@ public class Solution {
 	 */
 	private final int generationsWithoutImprovement;
 	
+	/**
+	 * True if the best individual is known to be an optimal solution (found by an exact algorithm that finished its search).
+	 */
+	private final boolean provenOptimal;
+	
+	/**
+	 * Non dominated landing schedules of a multi-objective optimization, or null.
+	 */
+	private final ParetoFront paretoFront;
+	
 	public Solution(Population population, Individual bestIndividualFound,
 					int maxGenerations, int generationCount, int generationsWithoutImprovement) {
 		
+		this(population, bestIndividualFound, maxGenerations, generationCount, generationsWithoutImprovement, false);
+	}
+	
+	public Solution(Population population, Individual bestIndividualFound,
+					int maxGenerations, int generationCount, int generationsWithoutImprovement, boolean provenOptimal) {
+		
+		this(population, bestIndividualFound, maxGenerations, generationCount, generationsWithoutImprovement, provenOptimal, null);
+	}
+	
+	public Solution(Population population, Individual bestIndividualFound,
+					int maxGenerations, int generationCount, int generationsWithoutImprovement, boolean provenOptimal, ParetoFront paretoFront) {
+		
 		this.population = population;
 		this.bestIndividualFound = bestIndividualFound;
 		this.maxGenerations = maxGenerations;
 		this.generationCount = generationCount;
 		this.generationsWithoutImprovement = generationsWithoutImprovement;
+		this.provenOptimal = provenOptimal;
+		this.paretoFront = paretoFront;
 	}
 
 	public Population getPopulation() {
@@ -64,10 +88,22 @@ public class Solution {
 	public int getGenerationsWithoutImprovement() {
 		return generationsWithoutImprovement;
 	}
+
+	public boolean isProvenOptimal() {
+		return provenOptimal;
+	}
+	
+	/**
+	 * @return the non dominated landing schedules of a multi-objective optimization, or null.
+	 */
+	public ParetoFront getParetoFront() {
+		return paretoFront;
+	}
 	
 	@Override
 	public String toString() {
-		return "\nSolution cost: " + this.getBestIndividualFound().getFitnessValue() +
-			   "\nLanding sequence: " + Arrays.toString(this.getBestIndividualFound().getAircraftLandingSequence());
+		return "\nSolution cost: " + this.getBestIndividualFound().getFitnessValue() + (provenOptimal ? " (proven optimal)" : "") +
+			   "\nLanding sequence: " + Arrays.toString(this.getBestIndividualFound().getAircraftLandingSequence()) +
+			   (paretoFront != null ? "\n" + paretoFront : "");
 	}
 }
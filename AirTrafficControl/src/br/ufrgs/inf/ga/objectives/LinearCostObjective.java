@@ -0,0 +1,30 @@
+package br.ufrgs.inf.ga.objectives;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+
+/**
+ * The objective of the ATC problem: the sum of the linear earliness and tardiness costs of the aircrafts,
+ * gi ∗ αi + hi ∗ βi (see {@link Aircraft#getLandingCost()}).
+ *
+ * <p>
+ * The costs are accumulated in an int, as the fitness values have always been computed: the fractional part of each
+ * partial sum is truncated, so the values are comparable with the results (and warm starts) of the previous versions.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public final class LinearCostObjective extends ObjectiveFunction {
+
+	@Override
+	public int evaluate(Aircraft[] landingSequence) {
+		int cost = 0;
+		for (int i = 0; i < landingSequence.length; i++) {
+			if (!isFeasibleLanding(landingSequence, i)) {
+				return INFEASIBLE;
+			}
+			cost += landingSequence[i].getLandingCost();
+		}
+		return cost;
+	}
+}
@@ -0,0 +1,24 @@
+package br.ufrgs.inf.ga.objectives;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+
+/**
+ * The makespan of the landing schedule: the landing time of the last aircraft (runway throughput).
+ *
+ * @author diego
+ *
+ */
+public final class MakespanObjective extends ObjectiveFunction {
+
+	@Override
+	public int evaluate(Aircraft[] landingSequence) {
+		int makespan = 0;
+		for (int i = 0; i < landingSequence.length; i++) {
+			if (!isFeasibleLanding(landingSequence, i)) {
+				return INFEASIBLE;
+			}
+			makespan = Math.max(makespan, landingSequence[i].getLandingTime());
+		}
+		return makespan;
+	}
+}
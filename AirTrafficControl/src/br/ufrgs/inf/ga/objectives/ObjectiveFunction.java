@@ -0,0 +1,48 @@
+package br.ufrgs.inf.ga.objectives;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+
+/**
+ * Objective function minimized by the genetic algorithm: the fitness value of a landing schedule.
+ *
+ * <p>
+ * Each implementation evaluates the whole landing sequence in its own loop, so the only virtual call is the one per
+ * schedule (in {@link br.ufrgs.inf.ga.FitnessEvaluator}), and the per aircraft code is monomorphic and inlined by the JIT.
+ * The implementations are final and stateless, so they may be shared by threads.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public abstract class ObjectiveFunction {
+
+	/**
+	 * Fitness value of an infeasible landing schedule.
+	 */
+	public static final int INFEASIBLE = Integer.MAX_VALUE;
+
+	/**
+	 * Calculates the fitness value of a landing schedule.
+	 *
+	 * @param landingSequence aircrafts in landing order, with their landing times.
+	 * @return the objective value (rounded or truncated to an int), or {@link #INFEASIBLE} if an aircraft lands out of its time window or too close
+	 * 		   to the previous one.
+	 */
+	public abstract int evaluate(Aircraft[] landingSequence);
+
+	/**
+	 * Checks the restrictions of the aircraft at a position of the landing sequence:
+	 * xi ∈ [Ei , Li] (landing time window) and xj ≥ xi + Sij (gap time after the previous aircraft).
+	 */
+	protected static boolean isFeasibleLanding(Aircraft[] landingSequence, int position) {
+		Aircraft aircraft = landingSequence[position];
+		return aircraft.landingTimeIsInLandingTimeWindow() && (position == 0 || aircraft.respectsGapTimeBetween(landingSequence[position - 1]));
+	}
+
+	/**
+	 * Rounds an objective value accumulated in double precision (a feasible value never reaches {@link #INFEASIBLE}).
+	 */
+	protected static int toFitnessValue(double value) {
+		return value >= INFEASIBLE - 1 ? INFEASIBLE - 1 : (int) Math.round(value);
+	}
+}
@@ -0,0 +1,46 @@
+package br.ufrgs.inf.ga.objectives;
+
+/**
+ * Objective functions available for the genetic algorithm.
+ *
+ * @author diego
+ *
+ */
+public enum ObjectiveType {
+
+	/**
+	 * Linear earliness and tardiness cost (the ATC problem objective), see {@link LinearCostObjective}.
+	 */
+	LINEAR_COST,
+
+	/**
+	 * Landing time of the last aircraft, see {@link MakespanObjective}.
+	 */
+	MAKESPAN,
+
+	/**
+	 * Tardiness cost only, see {@link WeightedDelayObjective}.
+	 */
+	WEIGHTED_DELAY,
+
+	/**
+	 * Quadratic earliness and tardiness cost, see {@link QuadraticDelayObjective}.
+	 */
+	QUADRATIC_DELAY;
+
+	/**
+	 * @return a new objective function of this type.
+	 */
+	public ObjectiveFunction createObjectiveFunction() {
+		switch (this) {
+		case MAKESPAN:
+			return new MakespanObjective();
+		case WEIGHTED_DELAY:
+			return new WeightedDelayObjective();
+		case QUADRATIC_DELAY:
+			return new QuadraticDelayObjective();
+		default:
+			return new LinearCostObjective();
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package br.ufrgs.inf.ga.objectives;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+
+/**
+ * Quadratic earliness and tardiness cost, gi ∗ αi² + hi ∗ βi²: large deviations from the target times cost much more than
+ * several small ones, so the deviations are spread among the aircrafts.
+ *
+ * @author diego
+ *
+ */
+public final class QuadraticDelayObjective extends ObjectiveFunction {
+
+	@Override
+	public int evaluate(Aircraft[] landingSequence) {
+		double cost = 0;
+		for (int i = 0; i < landingSequence.length; i++) {
+			if (!isFeasibleLanding(landingSequence, i)) {
+				return INFEASIBLE;
+			}
+			Aircraft aircraft = landingSequence[i];
+			double earliness = aircraft.getTimeUnitsBeforeTargetTime();
+			double tardiness = aircraft.getTimeUnitsAfterTargetTime();
+			cost += aircraft.getLandingBeforeTargetTimePenaltyCost() * earliness * earliness +
+					aircraft.getLandingAfterTargetTimePenaltyCost() * tardiness * tardiness;
+		}
+		return toFitnessValue(cost);
+	}
+}
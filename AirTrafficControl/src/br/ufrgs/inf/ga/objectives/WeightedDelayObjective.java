@@ -0,0 +1,25 @@
+package br.ufrgs.inf.ga.objectives;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+
+/**
+ * The weighted delay of the landing schedule: the sum of the tardiness costs hi ∗ βi only (landing early costs nothing).
+ *
+ * @author diego
+ *
+ */
+public final class WeightedDelayObjective extends ObjectiveFunction {
+
+	@Override
+	public int evaluate(Aircraft[] landingSequence) {
+		double delay = 0;
+		for (int i = 0; i < landingSequence.length; i++) {
+			if (!isFeasibleLanding(landingSequence, i)) {
+				return INFEASIBLE;
+			}
+			Aircraft aircraft = landingSequence[i];
+			delay += aircraft.getLandingAfterTargetTimePenaltyCost() * aircraft.getTimeUnitsAfterTargetTime();
+		}
+		return toFitnessValue(delay);
+	}
+}
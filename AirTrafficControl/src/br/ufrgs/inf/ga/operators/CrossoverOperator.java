@@ -1,12 +1,13 @@
 package br.ufrgs.inf.ga.operators;
 
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
-
+import br.ufrgs.inf.atc.model.AircraftClasses;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.PrecedenceMatrix;
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
 import br.ufrgs.inf.ga.FitnessEvaluator;
 import br.ufrgs.inf.ga.LandingTimeScheduler;
 import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.IndividualPool;
 import br.ufrgs.inf.ga.model.Parents;
 
 /**
@@ -32,6 +33,44 @@ public class CrossoverOperator {
 	 */
 	private final FitnessEvaluator fitnessEvaluator;
 	
+	/**
+	 * Provides the buffers of the parents copies and sons, and receives the discarded ones.
+	 */
+	private final IndividualPool individualPool;
+	
+	/**
+	 * Recombines the parents landing sequences. If null, the son is the best rescheduled copy of the parents.
+	 */
+	private PermutationCrossover permutationCrossover;
+	
+	/**
+	 * ATC problem instance, used to create the son landing sequence.
+	 */
+	private AtcInstance instance;
+	
+	/**
+	 * Calculates the best landing times for the son landing sequence.
+	 */
+	private DeltaCostEvaluator deltaCostEvaluator;
+	
+	/**
+	 * Rejects the landing orders that can't be feasible, before scheduling them. If null, every order is scheduled.
+	 */
+	private PrecedenceMatrix precedenceMatrix;
+	
+	/**
+	 * Puts the identical aircrafts of the sons in first come, first served order. If null, the landing orders are kept.
+	 */
+	private AircraftClasses aircraftClasses;
+	
+	/**
+	 * Scratch buffers for the parents and son aircraft ids and the son landing times.
+	 */
+	private int[] parent1AircraftIds;
+	private int[] parent2AircraftIds;
+	private int[] sonAircraftIds;
+	private int[] sonLandingTimes;
+	
 	/**
 	 * Resolves the dependencies.
 	 * 
@@ -39,8 +78,20 @@ public class CrossoverOperator {
 	 * @param fitnessEvaluator evaluate the landing sequence cost.
 	 */
 	public CrossoverOperator(final LandingTimeScheduler scheduler, final FitnessEvaluator fitnessEvaluator) {
+		this(scheduler, fitnessEvaluator, new IndividualPool(0));
+	}
+	
+	/**
+	 * Resolves the dependencies.
+	 * 
+	 * @param scheduler Schedules the landing time for each aircraft at a landing sequence.
+	 * @param fitnessEvaluator evaluate the landing sequence cost.
+	 * @param individualPool pool of discarded individuals.
+	 */
+	public CrossoverOperator(final LandingTimeScheduler scheduler, final FitnessEvaluator fitnessEvaluator, final IndividualPool individualPool) {
 		this.scheduler = scheduler;
 		this.fitnessEvaluator = fitnessEvaluator;
+		this.individualPool = individualPool;
 	}
 
 	/**
@@ -51,68 +102,182 @@ public class CrossoverOperator {
 	 * @return the generated individual.
 	 */
 	public Individual execute(final Parents parents) {
+		if (permutationCrossover != null) {
+			return recombine(parents);
+		}
 		
-		Individual individual1 = createIndividualRondomlyCheduledFromBegin(parents);
-		Individual individual2 = createIndividualCheduledByTargetTimes(parents);
+		// the copies keep the parents landing orders: an infeasible order is never rescheduled.
+		boolean parent1Feasible = isFeasibleOrder(parents.getParent1());
+		boolean parent2Feasible = isFeasibleOrder(parents.getParent2());
+		if (!parent1Feasible && !parent2Feasible) {
+			Individual rejectedCopy = individualPool.copyOf(parents.getParent1());
+			rejectedCopy.setFitnessValue(Integer.MAX_VALUE);
+			return rejectedCopy;
+		}
+		
+		Individual individual1 = createIndividualRondomlyCheduledFromBegin(parents, parent1Feasible, parent2Feasible);
+		Individual individual2 = createIndividualCheduledByTargetTimes(parents, parent1Feasible, parent2Feasible);
 		
 		// return the most adapted copy as result of the crossover.
-		return individual1.isMoreAdaptedThan(individual2) ? individual1 : individual2;
+		if (individual1.isMoreAdaptedThan(individual2)) {
+			individualPool.release(individual2);
+			return individual1;
+		}
+		individualPool.release(individual1);
+		return individual2;
+	}
+	
+	/**
+	 * Recombines the parents landing sequences with a permutation crossover in a son and
+	 * schedules the son with the best landing times for its landing order.
+	 * 
+	 * @param parents parents used to generate a new solution.
+	 * @return new individual
+	 */
+	private Individual recombine(final Parents parents) {
+		AtcInstance.getAircraftIds(parents.getParent1().getAircraftLandingSequence(), parent1AircraftIds);
+		AtcInstance.getAircraftIds(parents.getParent2().getAircraftLandingSequence(), parent2AircraftIds);
+		permutationCrossover.cross(parent1AircraftIds, parent2AircraftIds, sonAircraftIds);
+		if (aircraftClasses != null) {
+			aircraftClasses.enforce(sonAircraftIds);
+		}
+		
+		if (precedenceMatrix != null && !precedenceMatrix.isFeasibleOrder(sonAircraftIds)) {
+			// no landing times make this order feasible: the evaluator would reject it anyway.
+			for (int i = 0; i < sonAircraftIds.length; i++) {
+				sonLandingTimes[i] = instance.getTargetLandingTimes()[sonAircraftIds[i]];
+			}
+			return individualPool.create(sonAircraftIds, sonLandingTimes, Integer.MAX_VALUE, instance);
+		}
+		
+		deltaCostEvaluator.evaluate(sonAircraftIds);
+		if (!deltaCostEvaluator.getLandingTimes(sonLandingTimes)) {
+			// there are no valid landing times for this landing order.
+			for (int i = 0; i < sonAircraftIds.length; i++) {
+				sonLandingTimes[i] = instance.getTargetLandingTimes()[sonAircraftIds[i]];
+			}
+		}
+		Individual son = individualPool.create(sonAircraftIds, sonLandingTimes, 0, instance);
+		setNewFitnessValueTo(son);
+		return son;
+	}
+	
+	/**
+	 * Combines the genetic material of both parents with a permutation crossover, instead of rescheduling copies of each parent.
+	 * 
+	 * @param permutationCrossover recombination of the parents landing sequences, or null to reschedule copies of the parents.
+	 * @param instance ATC problem instance.
+	 */
+	public void setPermutationCrossover(PermutationCrossover permutationCrossover, AtcInstance instance) {
+		this.permutationCrossover = permutationCrossover;
+		this.instance = instance;
+		this.deltaCostEvaluator = new DeltaCostEvaluator(instance);
+		this.parent1AircraftIds = new int[instance.getAircraftCount()];
+		this.parent2AircraftIds = new int[instance.getAircraftCount()];
+		this.sonAircraftIds = new int[instance.getAircraftCount()];
+		this.sonLandingTimes = new int[instance.getAircraftCount()];
+	}
+	
+	/**
+	 * Rejects the landing orders that can't be feasible (the sons and the copies of the parents), before scheduling them.
+	 * 
+	 * @param precedenceMatrix precedence relations of the instance, or null to schedule every order.
+	 */
+	public void setPrecedenceMatrix(PrecedenceMatrix precedenceMatrix) {
+		this.precedenceMatrix = precedenceMatrix;
+	}
+	
+	/**
+	 * Enforces the order of the identical aircrafts in the sons of the permutation crossover
+	 * (the copies of the parents keep the parents orders).
+	 * 
+	 * @param aircraftClasses classes of identical aircrafts, or null to keep the orders.
+	 */
+	public void setAircraftClasses(AircraftClasses aircraftClasses) {
+		this.aircraftClasses = aircraftClasses;
+	}
+	
+	/**
+	 * @return false if the precedence matrix proves that the individual landing order can't be feasible.
+	 */
+	private boolean isFeasibleOrder(Individual individual) {
+		return precedenceMatrix == null || precedenceMatrix.isFeasibleOrder(individual.getAircraftLandingSequence());
 	}
 	
 	/**
 	 * Creates a new individual where its landing times are scheduled randomly around the target time.
 	 * @param parents parents used to generate a new solution.
+	 * @param parent1Feasible false if the copies of the parent 1 are skipped.
+	 * @param parent2Feasible false if the copies of the parent 2 are skipped.
 	 * @return new individual
 	 */
-	private Individual createIndividualRondomlyCheduledFromBegin(final Parents parents) {
-		// list with parents copies for manipulation without mess up with parents data.
-		List<Individual> parentsCopies = new LinkedList<Individual>();
+	private Individual createIndividualRondomlyCheduledFromBegin(final Parents parents, boolean parent1Feasible, boolean parent2Feasible) {
+		// copies of the parents for manipulation without mess up with parents data: only the most adapted one is kept.
+		Individual mostAdaptedCopy = null;
 		
 		for (int i = 0; i < MAX_RANDOM_COPIES; i++) {
-			Individual parent1Copy1 = parents.getParent1().clone();
-			Individual parent2Copy1 = parents.getParent2().clone();
-			
-			parentsCopies.add(parent1Copy1);
-			parentsCopies.add(parent2Copy1);
+			if (parent1Feasible) {
+				Individual parent1Copy1 = individualPool.copyOf(parents.getParent1());
+				scheduler.scheduleRandomTimesFromBegin(parent1Copy1.getAircraftLandingSequence());
+				setNewFitnessValueTo(parent1Copy1);
+				mostAdaptedCopy = keepMostAdapted(mostAdaptedCopy, parent1Copy1);
+			}
 			
-			scheduler.scheduleRandomTimesFromBegin(parent1Copy1.getAircraftLandingSequence());
-			scheduler.scheduleRandomTimesFromBegin(parent2Copy1.getAircraftLandingSequence());
-			
-			setNewFitnessValueTo(parent1Copy1);
-			setNewFitnessValueTo(parent2Copy1);
+			if (parent2Feasible) {
+				Individual parent2Copy1 = individualPool.copyOf(parents.getParent2());
+				scheduler.scheduleRandomTimesFromBegin(parent2Copy1.getAircraftLandingSequence());
+				setNewFitnessValueTo(parent2Copy1);
+				mostAdaptedCopy = keepMostAdapted(mostAdaptedCopy, parent2Copy1);
+			}
 		}
-		// put the most adapted copy in front of the list.
-		Collections.sort(parentsCopies);
 
-		return parentsCopies.get(0);
+		return mostAdaptedCopy;
 	}
 	
 	/**
 	 * Creates an individual where the landing sequence times are scheduled by target times.
 	 * @param parents parents used to generate a new solution.
+	 * @param parent1Feasible false if the copies of the parent 1 are skipped.
+	 * @param parent2Feasible false if the copies of the parent 2 are skipped.
 	 * @return new individual
 	 */
-	private Individual createIndividualCheduledByTargetTimes(final Parents parents) {
-		// list with parents copies for manipulation without mess up with parents data.
-		List<Individual> parentsCopies = new LinkedList<Individual>();
+	private Individual createIndividualCheduledByTargetTimes(final Parents parents, boolean parent1Feasible, boolean parent2Feasible) {
+		// copies of the parents for manipulation without mess up with parents data: only the most adapted one is kept.
+		Individual mostAdaptedCopy = null;
 		
 		for (int i = 0; i < 5; i++) {
-			Individual parent1Copy1 = parents.getParent1().clone();
-			Individual parent2Copy1 = parents.getParent2().clone();
-			
-			parentsCopies.add(parent1Copy1);
-			parentsCopies.add(parent2Copy1);
-			
-			scheduler.scheduleTargetTimesFromBegin(parent1Copy1.getAircraftLandingSequence());
-			scheduler.scheduleTargetTimesFromBegin(parent2Copy1.getAircraftLandingSequence());
+			if (parent1Feasible) {
+				Individual parent1Copy1 = individualPool.copyOf(parents.getParent1());
+				scheduler.scheduleTargetTimesFromBegin(parent1Copy1.getAircraftLandingSequence());
+				setNewFitnessValueTo(parent1Copy1);
+				mostAdaptedCopy = keepMostAdapted(mostAdaptedCopy, parent1Copy1);
+			}
 			
-			setNewFitnessValueTo(parent1Copy1);
-			setNewFitnessValueTo(parent2Copy1);
+			if (parent2Feasible) {
+				Individual parent2Copy1 = individualPool.copyOf(parents.getParent2());
+				scheduler.scheduleTargetTimesFromBegin(parent2Copy1.getAircraftLandingSequence());
+				setNewFitnessValueTo(parent2Copy1);
+				mostAdaptedCopy = keepMostAdapted(mostAdaptedCopy, parent2Copy1);
+			}
 		}
-		// put the most adapted copy in front of the list.
-		Collections.sort(parentsCopies);
 
-		return parentsCopies.get(0);
+		return mostAdaptedCopy;
+	}
+	
+	/**
+	 * Keeps the most adapted of two copies (the first one on a tie, as the stable sort of all copies did)
+	 * and releases the other one to the individual pool.
+	 */
+	private Individual keepMostAdapted(Individual mostAdaptedCopy, Individual copy) {
+		if (mostAdaptedCopy == null) {
+			return copy;
+		}
+		if (copy.compareTo(mostAdaptedCopy) < 0) {
+			individualPool.release(mostAdaptedCopy);
+			return copy;
+		}
+		individualPool.release(copy);
+		return mostAdaptedCopy;
 	}
 	
 	/**
@@ -0,0 +1,51 @@
+package br.ufrgs.inf.ga.operators;
+
+import br.ufrgs.inf.atc.model.AtcInstance;
+
+/**
+ * Crossover operations available for the {@link CrossoverOperator}.
+ *
+ * @author diego
+ *
+ */
+public enum CrossoverType {
+
+	/**
+	 * Reschedules copies of each parent and keeps the best copy (no genetic material is combined).
+	 */
+	PARENT_COPIES,
+
+	/**
+	 * Order crossover, see {@link OrderCrossover}.
+	 */
+	OX,
+
+	/**
+	 * Partially mapped crossover, see {@link PartiallyMappedCrossover}.
+	 */
+	PMX,
+
+	/**
+	 * Separation aware edge recombination, see {@link EdgeRecombinationCrossover}.
+	 */
+	ERX;
+
+	/**
+	 * Creates the permutation recombination for this crossover type.
+	 *
+	 * @param instance ATC problem instance.
+	 * @return the permutation recombination, or null for {@link #PARENT_COPIES}.
+	 */
+	public PermutationCrossover createPermutationCrossover(AtcInstance instance) {
+		switch (this) {
+		case OX:
+			return new OrderCrossover(instance.getAircraftCount());
+		case PMX:
+			return new PartiallyMappedCrossover(instance.getAircraftCount());
+		case ERX:
+			return new EdgeRecombinationCrossover(instance);
+		default:
+			return null;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package br.ufrgs.inf.ga.operators;
+
+import br.ufrgs.inf.atc.model.AtcInstance;
+
+/**
+ * Separation aware edge recombination crossover (ERX).
+ *
+ * <p>
+ * The son is built from the adjacencies (edges) of both parents: starting from the first aircraft of the first parent,
+ * the next aircraft is, among the neighbours of the last one in the parents, the one with fewer remaining neighbours
+ * (ties are broken by the smallest gap time after the last aircraft, and then by the earliest target time). If the last
+ * aircraft has no remaining neighbour, the aircraft with the earliest target time is chosen.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class EdgeRecombinationCrossover implements PermutationCrossover {
+
+	/**
+	 * Max number of neighbours of an aircraft (two in each parent).
+	 */
+	private static final int MAX_NEIGHBOURS = 4;
+
+	private final AtcInstance instance;
+
+	/**
+	 * Neighbours of each aircraft: <code>neighbours[aircraft * MAX_NEIGHBOURS + k]</code>, for k less than its neighbour count.
+	 */
+	private final int[] neighbours;
+
+	private final int[] neighbourCounts;
+
+	/**
+	 * Marks the aircrafts already in the son: an aircraft is marked if its stamp is the current one.
+	 */
+	private final int[] stamps;
+
+	private int currentStamp = 0;
+
+	/**
+	 * @param instance ATC problem instance, used to read the gap times and target times.
+	 */
+	public EdgeRecombinationCrossover(AtcInstance instance) {
+		this.instance = instance;
+		this.neighbours = new int[instance.getAircraftCount() * MAX_NEIGHBOURS];
+		this.neighbourCounts = new int[instance.getAircraftCount()];
+		this.stamps = new int[instance.getAircraftCount()];
+	}
+
+	@Override
+	public void cross(int[] parent1, int[] parent2, int[] son) {
+		int length = parent1.length;
+		int[] targetLandingTimes = instance.getTargetLandingTimes();
+		currentStamp++;
+
+		for (int i = 0; i < length; i++) {
+			neighbourCounts[i] = 0;
+		}
+		addEdges(parent1);
+		addEdges(parent2);
+
+		int current = parent1[0];
+		for (int position = 0; position < length; position++) {
+			son[position] = current;
+			stamps[current] = currentStamp;
+			if (position == length - 1) {
+				break;
+			}
+
+			// removes the current aircraft from the neighbours of its neighbours.
+			for (int k = 0; k < neighbourCounts[current]; k++) {
+				removeEdge(neighbours[current * MAX_NEIGHBOURS + k], current);
+			}
+
+			int next = -1;
+			for (int k = 0; k < neighbourCounts[current]; k++) {
+				int candidate = neighbours[current * MAX_NEIGHBOURS + k];
+				if (next < 0 || isBetterCandidate(current, candidate, next)) {
+					next = candidate;
+				}
+			}
+			if (next < 0) {
+				for (int aircraft = 0; aircraft < length; aircraft++) {
+					if (stamps[aircraft] != currentStamp && (next < 0 || targetLandingTimes[aircraft] < targetLandingTimes[next])) {
+						next = aircraft;
+					}
+				}
+			}
+			current = next;
+		}
+	}
+
+	private boolean isBetterCandidate(int current, int candidate, int best) {
+		if (neighbourCounts[candidate] != neighbourCounts[best]) {
+			return neighbourCounts[candidate] < neighbourCounts[best];
+		}
+		int candidateSeparation = instance.getSeparationTime(current, candidate);
+		int bestSeparation = instance.getSeparationTime(current, best);
+		if (candidateSeparation != bestSeparation) {
+			return candidateSeparation < bestSeparation;
+		}
+		return instance.getTargetLandingTimes()[candidate] < instance.getTargetLandingTimes()[best];
+	}
+
+	private void addEdges(int[] parent) {
+		for (int i = 0; i < parent.length - 1; i++) {
+			addEdge(parent[i], parent[i + 1]);
+			addEdge(parent[i + 1], parent[i]);
+		}
+	}
+
+	private void addEdge(int aircraft, int neighbour) {
+		int offset = aircraft * MAX_NEIGHBOURS;
+		for (int k = 0; k < neighbourCounts[aircraft]; k++) {
+			if (neighbours[offset + k] == neighbour) {
+				return;
+			}
+		}
+		neighbours[offset + neighbourCounts[aircraft]++] = neighbour;
+	}
+
+	private void removeEdge(int aircraft, int neighbour) {
+		int offset = aircraft * MAX_NEIGHBOURS;
+		for (int k = 0; k < neighbourCounts[aircraft]; k++) {
+			if (neighbours[offset + k] == neighbour) {
+				neighbours[offset + k] = neighbours[offset + --neighbourCounts[aircraft]];
+				return;
+			}
+		}
+	}
+}
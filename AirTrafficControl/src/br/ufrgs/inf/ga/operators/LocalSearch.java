@@ -0,0 +1,21 @@
+package br.ufrgs.inf.ga.operators;
+
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+
+/**
+ * A local search method that improves a landing sequence.
+ *
+ * @author diego
+ *
+ */
+public interface LocalSearch {
+
+	/**
+	 * Improves the current landing sequence of an evaluator, applying the improving moves on it.
+	 *
+	 * @param evaluator evaluator with the landing sequence to be improved.
+	 * @param moveBudget max number of moves to be evaluated.
+	 * @return true if the landing sequence was improved.
+	 */
+	boolean improve(DeltaCostEvaluator evaluator, int moveBudget);
+}
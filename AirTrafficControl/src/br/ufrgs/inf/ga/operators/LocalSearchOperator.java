@@ -0,0 +1,200 @@
+package br.ufrgs.inf.ga.operators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.LocalSearchConfig;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.objectives.LinearCostObjective;
+
+/**
+ * Implements the memetic stage of the genetic algorithm: a local search applied on the most adapted individuals.
+ *
+ * <p>
+ * The elite individuals are improved in parallel, each one by a task with its own {@link DeltaCostEvaluator}
+ * (evaluators are confined to the worker threads, which are shared by all the operators). The search walks by the linear
+ * cost, so the landing order found and its best landing times are evaluated by the {@link FitnessEvaluator}, and they replace
+ * the individual ones only if its fitness value (by the objective function of the algorithm) is improved.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class LocalSearchOperator {
+
+	/**
+	 * Worker threads, shared by all the operators (one per processor, whatever the number of genetic algorithms). They are
+	 * daemon threads, so the pool doesn't need to be shut down.
+	 */
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "atc-local-search");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * Local search method applied on each elite individual.
+	 */
+	private final LocalSearch localSearch;
+
+	/**
+	 * Local search stage configuration parameters.
+	 */
+	private final LocalSearchConfig config;
+
+	/**
+	 * Calculates the fitness value of an improved individual.
+	 */
+	private final FitnessEvaluator fitnessEvaluator;
+
+	/**
+	 * Delta cost evaluator and buffers of each worker thread.
+	 */
+	private final ThreadLocal<Workspace> workspaces;
+
+	/**
+	 * Resolves the dependencies.
+	 *
+	 * @param localSearch local search method applied on each elite individual.
+	 * @param config local search stage configuration parameters.
+	 * @param instance ATC problem instance.
+	 * @param fitnessEvaluator calculates the fitness value of an improved individual.
+	 */
+	public LocalSearchOperator(LocalSearch localSearch, LocalSearchConfig config, final AtcInstance instance, FitnessEvaluator fitnessEvaluator) {
+		this.localSearch = localSearch;
+		this.config = config;
+		this.fitnessEvaluator = fitnessEvaluator;
+		this.workspaces = new ThreadLocal<Workspace>() {
+			@Override
+			protected Workspace initialValue() {
+				return new Workspace(instance);
+			}
+		};
+	}
+
+	/**
+	 * Applies the local search on the most adapted individuals of the population (it is sorted first, if needed).
+	 * The individuals are changed in place, so the population is no longer sorted after this operation.
+	 *
+	 * @param population population of individuals.
+	 * @return number of improved individuals.
+	 * @throws InterruptedException thrown if the thread is interrupted while waiting for the workers.
+	 * @throws ExecutionException thrown if a local search task fails.
+	 */
+	public int execute(Population population) throws InterruptedException, ExecutionException {
+		population.sortByFitness();
+		int eliteSize = Math.min(config.getEliteSize(), population.getSize());
+		if (eliteSize == 0) {
+			return 0;
+		}
+		final int moveBudget = Math.max(1, config.getMovesPerGeneration() / eliteSize);
+
+		List<Individual> elite = new ArrayList<Individual>(eliteSize);
+		List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>(eliteSize);
+		for (int i = 0; i < eliteSize; i++) {
+			final Individual individual = population.get(i);
+			elite.add(individual);
+			tasks.add(new Callable<Boolean>() {
+				@Override
+				public Boolean call() {
+					return improve(individual, moveBudget);
+				}
+			});
+		}
+
+		int improvedIndividuals = 0;
+		List<Future<Boolean>> results = EXECUTOR.invokeAll(tasks);
+		for (int i = 0; i < eliteSize; i++) {
+			if (results.get(i).get()) {
+				population.individualChanged(elite.get(i));
+				improvedIndividuals++;
+			}
+		}
+		return improvedIndividuals;
+	}
+
+	/**
+	 * Applies the local search on an individual.
+	 *
+	 * @return true if the individual was improved.
+	 */
+	private boolean improve(Individual individual, int moveBudget) {
+		Workspace workspace = workspaces.get();
+		DeltaCostEvaluator evaluator = workspace.evaluator;
+		evaluator.evaluate(individual.getAircraftLandingSequence());
+		localSearch.improve(evaluator, moveBudget);
+
+		// with the linear cost, the fitness value is the cost of the evaluator: just the cheaper landing orders are evaluated.
+		boolean linearObjective = fitnessEvaluator.getObjectiveFunction() instanceof LinearCostObjective;
+		int[] landingTimes = workspace.landingTimes;
+		if ((linearObjective && evaluator.getCost() >= individual.getFitnessValue()) || !evaluator.getLandingTimes(landingTimes)) {
+			return false;
+		}
+		int[] aircraftIds = evaluator.getSequence();
+		Aircraft[] landingSequence = workspace.landingSequence;
+		for (int i = 0; i < aircraftIds.length; i++) {
+			landingSequence[i] = workspace.aircrafts[aircraftIds[i]];
+			landingSequence[i].setLandingTime(landingTimes[i]);
+		}
+		int fitnessValue = fitnessEvaluator.evaluate(landingSequence);
+		if (fitnessValue >= individual.getFitnessValue()) {
+			return false;
+		}
+		individual.setLandingSchedule(aircraftIds, landingTimes, fitnessValue, workspace.aircraftsById);
+		return true;
+	}
+
+	/**
+	 * Evaluator and buffers confined to a worker thread, so an accepted improvement doesn't allocate anything.
+	 */
+	private static class Workspace {
+
+		private final DeltaCostEvaluator evaluator;
+
+		/**
+		 * Landing time of each position of the improved landing order.
+		 */
+		private final int[] landingTimes;
+
+		/**
+		 * Aircraft of each id, rearranged in the improved landing order to be evaluated by the objective function.
+		 */
+		private final Aircraft[] aircrafts;
+
+		/**
+		 * Improved landing sequence, evaluated by the objective function.
+		 */
+		private final Aircraft[] landingSequence;
+
+		/**
+		 * Scratch vector of {@link Individual#setLandingSchedule(int[], int[], int, Aircraft[])}.
+		 */
+		private final Aircraft[] aircraftsById;
+
+		private Workspace(AtcInstance instance) {
+			int aircraftCount = instance.getAircraftCount();
+			this.evaluator = new DeltaCostEvaluator(instance);
+			this.landingTimes = new int[aircraftCount];
+			this.aircrafts = new Aircraft[aircraftCount];
+			for (int id = 0; id < aircraftCount; id++) {
+				aircrafts[id] = new Aircraft(instance.getAircraftsStaticData()[id]);
+			}
+			this.landingSequence = new Aircraft[aircraftCount];
+			this.aircraftsById = new Aircraft[aircraftCount];
+		}
+	}
+}
@@ -1,8 +1,14 @@
 package br.ufrgs.inf.ga.operators;
 
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftClasses;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.PrecedenceMatrix;
+import br.ufrgs.inf.atc.model.TimeWindowOverlapGraph;
 import br.ufrgs.inf.ga.FitnessEvaluator;
 import br.ufrgs.inf.ga.LandingTimeScheduler;
 import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.utils.RandomHelper;
 import br.ufrgs.inf.ga.utils.ShuffleHelper;
 
 /**
@@ -13,6 +19,11 @@ import br.ufrgs.inf.ga.utils.ShuffleHelper;
  */
 public class MutationOperator {
 
+	/**
+	 * Max number of candidates (the nearest by target time) of each aircraft in the neighbourhood mutations.
+	 */
+	private static final int MAX_CANDIDATES = 16;
+	
 	/**
 	 * Schedules the landing time for each aircraft at a landing sequence.
 	 */
@@ -23,6 +34,31 @@ public class MutationOperator {
 	 */
 	private final FitnessEvaluator fitnessEvaluator;
 	
+	/**
+	 * Mutation operation.
+	 */
+	private MutationType mutationType = MutationType.SHUFFLE;
+	
+	/**
+	 * Aircrafts that can trade places, used by the neighbourhood mutations.
+	 */
+	private TimeWindowOverlapGraph overlapGraph;
+	
+	/**
+	 * Position of each aircraft in the landing sequence being mutated.
+	 */
+	private int[] positions;
+	
+	/**
+	 * Rejects the mutated landing orders that can't be feasible, before scheduling them. If null, every order is scheduled.
+	 */
+	private PrecedenceMatrix precedenceMatrix;
+	
+	/**
+	 * Puts the identical aircrafts of the mutated orders in first come, first served order. If null, the orders are kept.
+	 */
+	private AircraftClasses aircraftClasses;
+	
 	/**
 	 * Resolves the dependencies.
 	 * 
@@ -41,12 +77,183 @@ public class MutationOperator {
 	 * @return the generated individual.
 	 */
 	public void execute(final Individual individual) {
+		Aircraft[] landingSequence = individual.getAircraftLandingSequence();
 	
-		// Shuffle the landing sequence of the individual.
-		ShuffleHelper.shuffle(individual.getAircraftLandingSequence());
+		if (mutationType == MutationType.SHUFFLE) {
+			// Shuffle the landing sequence of the individual.
+			ShuffleHelper.shuffle(landingSequence);
+		} else {
+			// Changes the place of one aircraft, keeping the other landing times as the base of the new schedule.
+			moveInNeighbourhood(landingSequence);
+		}
+		if (aircraftClasses != null) {
+			aircraftClasses.enforce(landingSequence);
+		}
+		
+		if (precedenceMatrix != null && !precedenceMatrix.isFeasibleOrder(landingSequence)) {
+			// no landing times make this order feasible: the evaluator would reject it anyway.
+			individual.setFitnessValue(Integer.MAX_VALUE);
+			return;
+		}
+		
+		if (mutationType == MutationType.SHUFFLE) {
+			scheduler.scheduleRandomTimesFromBegin(landingSequence);
+		} else {
+			scheduler.scheduleFromBegin(landingSequence);
+		}
 		
-		scheduler.scheduleRandomTimesFromBegin(individual.getAircraftLandingSequence());
 		int fitnessValue = fitnessEvaluator.evaluate(individual.getAircraftLandingSequence());
 		individual.setFitnessValue(fitnessValue);
 	}
+	
+	/**
+	 * Selects the mutation operation.
+	 * 
+	 * @param mutationType mutation operation.
+	 * @param instance ATC problem instance, used to build the time window overlap graph.
+	 */
+	public void setMutationType(MutationType mutationType, AtcInstance instance) {
+		this.mutationType = mutationType;
+		if (mutationType != MutationType.SHUFFLE && overlapGraph == null) {
+			this.overlapGraph = new TimeWindowOverlapGraph(instance, MAX_CANDIDATES);
+			this.positions = new int[instance.getAircraftCount()];
+		}
+	}
+	
+	/**
+	 * Rejects the infeasible landing orders before scheduling them, and restricts the neighbourhood mutations
+	 * to the moves that keep the precedence relations.
+	 * 
+	 * @param precedenceMatrix precedence relations of the instance, or null to schedule every order.
+	 */
+	public void setPrecedenceMatrix(PrecedenceMatrix precedenceMatrix) {
+		this.precedenceMatrix = precedenceMatrix;
+	}
+	
+	/**
+	 * Enforces the order of the identical aircrafts in the mutated landing orders. The neighbour mutations
+	 * skip the candidates whose order is fixed with the moved aircraft.
+	 * 
+	 * @param aircraftClasses classes of identical aircrafts, or null to keep the orders.
+	 */
+	public void setAircraftClasses(AircraftClasses aircraftClasses) {
+		this.aircraftClasses = aircraftClasses;
+	}
+	
+	/**
+	 * Swaps or moves a random aircraft with one of its candidates in the overlap graph.
+	 * With a precedence matrix or aircraft classes, the first candidate (from a random one) whose move is allowed is used.
+	 */
+	private void moveInNeighbourhood(Aircraft[] landingSequence) {
+		for (int i = 0; i < landingSequence.length; i++) {
+			positions[landingSequence[i].getId()] = i;
+		}
+		
+		int from = (int) (RandomHelper.random() * landingSequence.length);
+		int aircraft = landingSequence[from].getId();
+		int candidateCount = overlapGraph.getCandidateCount(aircraft);
+		if (candidateCount == 0) {
+			return;
+		}
+		int firstCandidate = (int) (RandomHelper.random() * candidateCount);
+		int to = positions[overlapGraph.getCandidate(aircraft, firstCandidate)];
+		if (precedenceMatrix != null || aircraftClasses != null) {
+			int tries = 1;
+			while (!isAllowedMove(landingSequence, from, to)) {
+				if (tries++ == candidateCount) {
+					return;
+				}
+				to = positions[overlapGraph.getCandidate(aircraft, (firstCandidate + tries - 1) % candidateCount)];
+			}
+		}
+		
+		if (mutationType == MutationType.NEIGHBOUR_SWAP) {
+			ShuffleHelper.swap(landingSequence, from, to);
+		} else {
+			Aircraft movedAircraft = landingSequence[from];
+			if (from < to) {
+				System.arraycopy(landingSequence, from + 1, landingSequence, from, to - from);
+			} else {
+				System.arraycopy(landingSequence, to, landingSequence, to + 1, from - to);
+			}
+			landingSequence[to] = movedAircraft;
+		}
+	}
+	
+	/**
+	 * @return false if the move breaks a precedence relation, or if it is undone by the order of the identical aircrafts.
+	 */
+	private boolean isAllowedMove(Aircraft[] landingSequence, int from, int to) {
+		if (aircraftClasses != null) {
+			int moved = landingSequence[from].getId();
+			int other = landingSequence[to].getId();
+			if (aircraftClasses.mustLandBefore(moved, other) || aircraftClasses.mustLandBefore(other, moved)) {
+				return false;
+			}
+		}
+		return precedenceMatrix == null || keepsPrecedences(landingSequence, from, to);
+	}
+	
+	/**
+	 * Checks, pair by pair, the precedence relations changed by the move of the aircraft at <code>from</code> to <code>to</code>.
+	 */
+	private boolean keepsPrecedences(Aircraft[] landingSequence, int from, int to) {
+		int first = Math.min(from, to);
+		int last = Math.max(from, to);
+		int moved = landingSequence[from].getId();
+		
+		if (mutationType == MutationType.NEIGHBOUR_SWAP) {
+			int other = landingSequence[to].getId();
+			int earlier = from < to ? other : moved;
+			int later = from < to ? moved : other;
+			// after the swap, "earlier" is at the first position and "later" at the last one.
+			if (precedenceMatrix.mustLandBefore(later, earlier)) {
+				return false;
+			}
+			for (int i = first + 1; i < last; i++) {
+				int between = landingSequence[i].getId();
+				if (precedenceMatrix.mustLandBefore(between, earlier) || precedenceMatrix.mustLandBefore(later, between)) {
+					return false;
+				}
+			}
+			return canLandImmediatelyBefore(landingSequence, first - 1, earlier)
+				&& canLandImmediatelyBefore(earlier, last == first + 1 ? later : landingSequence[first + 1].getId())
+				&& (last == first + 1 || canLandImmediatelyBefore(landingSequence[last - 1].getId(), later))
+				&& canLandImmediatelyBefore(later, landingSequence, last + 1);
+		}
+		
+		// insertion: the aircrafts between the positions move one place towards the old position of the moved aircraft.
+		for (int i = first; i <= last; i++) {
+			int between = landingSequence[i].getId();
+			if (i != from && (from < to ? precedenceMatrix.mustLandBefore(moved, between) : precedenceMatrix.mustLandBefore(between, moved))) {
+				return false;
+			}
+		}
+		if (from > 0 && from < landingSequence.length - 1
+				&& !precedenceMatrix.canLandImmediatelyBefore(landingSequence[from - 1].getId(), landingSequence[from + 1].getId())) {
+			return false;
+		}
+		if (from < to) {
+			return canLandImmediatelyBefore(landingSequence[to].getId(), moved) && canLandImmediatelyBefore(moved, landingSequence, to + 1);
+		}
+		return canLandImmediatelyBefore(landingSequence, to - 1, moved) && canLandImmediatelyBefore(moved, landingSequence[to].getId());
+	}
+	
+	private boolean canLandImmediatelyBefore(int previous, int next) {
+		return precedenceMatrix.canLandImmediatelyBefore(previous, next);
+	}
+	
+	/**
+	 * @return true if the aircraft at the position (if any) may land immediately before the aircraft <code>next</code>.
+	 */
+	private boolean canLandImmediatelyBefore(Aircraft[] landingSequence, int position, int next) {
+		return position < 0 || precedenceMatrix.canLandImmediatelyBefore(landingSequence[position].getId(), next);
+	}
+	
+	/**
+	 * @return true if the aircraft <code>previous</code> may land immediately before the aircraft at the position (if any).
+	 */
+	private boolean canLandImmediatelyBefore(int previous, Aircraft[] landingSequence, int position) {
+		return position >= landingSequence.length || precedenceMatrix.canLandImmediatelyBefore(previous, landingSequence[position].getId());
+	}
 }
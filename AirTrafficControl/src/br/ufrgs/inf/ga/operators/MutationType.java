@@ -0,0 +1,25 @@
+package br.ufrgs.inf.ga.operators;
+
+/**
+ * Mutation operations available for the {@link MutationOperator}.
+ *
+ * @author diego
+ *
+ */
+public enum MutationType {
+
+	/**
+	 * Shuffles the whole landing sequence.
+	 */
+	SHUFFLE,
+
+	/**
+	 * Swaps a random aircraft with one of its candidates in the time window overlap graph.
+	 */
+	NEIGHBOUR_SWAP,
+
+	/**
+	 * Moves a random aircraft to the position of one of its candidates in the time window overlap graph.
+	 */
+	NEIGHBOUR_INSERTION
+}
@@ -0,0 +1,101 @@
+package br.ufrgs.inf.ga.operators;
+
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+
+/**
+ * Neighbourhoods of a landing sequence explored by the local search.
+ *
+ * <p>
+ * Each neighbourhood is scanned with a first improvement strategy: the first move that lowers the
+ * landing sequence cost is applied on the {@link DeltaCostEvaluator} current sequence.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public enum Neighbourhood {
+
+	/**
+	 * Swaps the landing positions of two aircrafts.
+	 */
+	SWAP {
+		@Override
+		public boolean applyFirstImprovement(DeltaCostEvaluator evaluator, long moveLimit) {
+			int aircraftCount = evaluator.getInstance().getAircraftCount();
+			for (int i = 0; i < aircraftCount - 1; i++) {
+				for (int j = i + 1; j < aircraftCount; j++) {
+					if (evaluator.getEvaluatedMoves() >= moveLimit) {
+						return false;
+					}
+					if (evaluator.evaluateSwap(i, j) < evaluator.getCost() - IMPROVEMENT_THRESHOLD) {
+						evaluator.applySwap(i, j);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	},
+
+	/**
+	 * Moves an aircraft to another landing position.
+	 */
+	INSERTION {
+		@Override
+		public boolean applyFirstImprovement(DeltaCostEvaluator evaluator, long moveLimit) {
+			int aircraftCount = evaluator.getInstance().getAircraftCount();
+			for (int from = 0; from < aircraftCount; from++) {
+				for (int to = 0; to < aircraftCount; to++) {
+					// moving an aircraft to the next position is the same move as a swap with its successor.
+					if (to == from || to == from - 1) {
+						continue;
+					}
+					if (evaluator.getEvaluatedMoves() >= moveLimit) {
+						return false;
+					}
+					if (evaluator.evaluateInsertion(from, to) < evaluator.getCost() - IMPROVEMENT_THRESHOLD) {
+						evaluator.applyInsertion(from, to);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	},
+
+	/**
+	 * Reverses a segment of the landing sequence (2-opt).
+	 */
+	TWO_OPT {
+		@Override
+		public boolean applyFirstImprovement(DeltaCostEvaluator evaluator, long moveLimit) {
+			int aircraftCount = evaluator.getInstance().getAircraftCount();
+			for (int i = 0; i < aircraftCount - 2; i++) {
+				for (int j = i + 2; j < aircraftCount; j++) {
+					if (evaluator.getEvaluatedMoves() >= moveLimit) {
+						return false;
+					}
+					if (evaluator.evaluateReversal(i, j) < evaluator.getCost() - IMPROVEMENT_THRESHOLD) {
+						evaluator.applyReversal(i, j);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * Minimal cost reduction for a move to be considered an improvement.
+	 */
+	private static final double IMPROVEMENT_THRESHOLD = 1e-6;
+
+	/**
+	 * Scans the neighbourhood of the evaluator current sequence and applies the first improving move.
+	 *
+	 * @param evaluator evaluator with the current landing sequence.
+	 * @param moveLimit the scan stops when the evaluator has evaluated this number of moves.
+	 * @return true if an improving move was applied, false if there is none (or the move limit was reached).
+	 */
+	public abstract boolean applyFirstImprovement(DeltaCostEvaluator evaluator, long moveLimit);
+}
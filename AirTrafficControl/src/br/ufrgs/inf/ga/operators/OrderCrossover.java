@@ -0,0 +1,54 @@
+package br.ufrgs.inf.ga.operators;
+
+import br.ufrgs.inf.ga.utils.RandomHelper;
+
+/**
+ * Order crossover (OX).
+ *
+ * <p>
+ * The son inherits a random segment of the first parent at the same positions, and the other
+ * positions are filled with the remaining aircrafts in the order they land in the second parent.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class OrderCrossover implements PermutationCrossover {
+
+	/**
+	 * Marks the aircrafts already in the son: an aircraft is marked if its stamp is the current one.
+	 */
+	private final int[] stamps;
+
+	private int currentStamp = 0;
+
+	/**
+	 * @param aircraftCount number of aircrafts of the ATC problem instance.
+	 */
+	public OrderCrossover(int aircraftCount) {
+		this.stamps = new int[aircraftCount];
+	}
+
+	@Override
+	public void cross(int[] parent1, int[] parent2, int[] son) {
+		int length = parent1.length;
+		int start = (int) (RandomHelper.random() * length);
+		int end = start + (int) (RandomHelper.random() * (length - start));
+		currentStamp++;
+
+		for (int i = start; i <= end; i++) {
+			son[i] = parent1[i];
+			stamps[parent1[i]] = currentStamp;
+		}
+
+		// fills the positions after the segment (wrapping around) in the second parent order, starting after the segment.
+		int position = (end + 1) % length;
+		for (int k = 0; k < length; k++) {
+			int aircraft = parent2[(end + 1 + k) % length];
+			if (stamps[aircraft] != currentStamp) {
+				son[position] = aircraft;
+				position = (position + 1) % length;
+			}
+		}
+	}
+}
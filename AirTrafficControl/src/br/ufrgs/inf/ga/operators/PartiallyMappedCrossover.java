@@ -0,0 +1,66 @@
+package br.ufrgs.inf.ga.operators;
+
+import br.ufrgs.inf.ga.utils.RandomHelper;
+
+/**
+ * Partially mapped crossover (PMX).
+ *
+ * <p>
+ * The son inherits a random segment of the first parent and the other positions of the second parent.
+ * An aircraft of the second parent that is already in the segment is replaced following the mapping
+ * between the parents segments.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class PartiallyMappedCrossover implements PermutationCrossover {
+
+	/**
+	 * Position of each aircraft in the first parent.
+	 */
+	private final int[] parent1Positions;
+
+	/**
+	 * Marks the aircrafts in the segment: an aircraft is marked if its stamp is the current one.
+	 */
+	private final int[] stamps;
+
+	private int currentStamp = 0;
+
+	/**
+	 * @param aircraftCount number of aircrafts of the ATC problem instance.
+	 */
+	public PartiallyMappedCrossover(int aircraftCount) {
+		this.parent1Positions = new int[aircraftCount];
+		this.stamps = new int[aircraftCount];
+	}
+
+	@Override
+	public void cross(int[] parent1, int[] parent2, int[] son) {
+		int length = parent1.length;
+		int start = (int) (RandomHelper.random() * length);
+		int end = start + (int) (RandomHelper.random() * (length - start));
+		currentStamp++;
+
+		for (int i = 0; i < length; i++) {
+			parent1Positions[parent1[i]] = i;
+		}
+		for (int i = start; i <= end; i++) {
+			son[i] = parent1[i];
+			stamps[parent1[i]] = currentStamp;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (i >= start && i <= end) {
+				continue;
+			}
+			int aircraft = parent2[i];
+			// follows the mapping segment of parent1 -> segment of parent2 until an aircraft out of the segment is found.
+			while (stamps[aircraft] == currentStamp) {
+				aircraft = parent2[parent1Positions[aircraft]];
+			}
+			son[i] = aircraft;
+		}
+	}
+}
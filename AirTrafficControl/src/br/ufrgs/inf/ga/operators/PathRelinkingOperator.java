@@ -0,0 +1,355 @@
+package br.ufrgs.inf.ga.operators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.model.ElitePool;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.PathRelinkingConfig;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.objectives.LinearCostObjective;
+
+/**
+ * Implements the path relinking stage of the genetic algorithm: an intensification between the landing sequences of an
+ * {@link ElitePool}, used when the best individual stops improving.
+ *
+ * <p>
+ * For each pair of elite landing sequences, a path is walked from the better one (initial) to the other one (guide):
+ * each step swaps an aircraft of the current sequence into the position it has in the guide, and the swap with the
+ * lowest cost is chosen among all the positions that still differ. The steps are evaluated by a {@link DeltaCostEvaluator}
+ * (a step that costs more than the best one of its position is not evaluated to the end), and the best intermediate
+ * sequence of the path is kept. The pairs are relinked in parallel, each one by a task with its own evaluator (the worker threads
+ * are shared by all the operators).
+ * </p>
+ *
+ * <p>
+ * The best intermediate sequences join the elite pool (if they are good and diverse enough) and, if they are better
+ * than both ends of their path, they replace the less adapted individuals of the population. The paths are walked by the
+ * linear cost so, with another objective function, the best intermediate sequence and the ends are compared by their
+ * fitness values (the objective function of their schedules with the best landing times).
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class PathRelinkingOperator {
+
+	/**
+	 * Worker threads, shared by all the operators (one per processor, whatever the number of genetic algorithms). They are
+	 * daemon threads, so the pool doesn't need to be shut down.
+	 */
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "atc-path-relinking");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * Path relinking stage configuration parameters.
+	 */
+	private final PathRelinkingConfig config;
+
+	private final AtcInstance instance;
+
+	/**
+	 * Calculates the fitness value of an individual created from a relinked sequence.
+	 */
+	private final FitnessEvaluator fitnessEvaluator;
+
+	/**
+	 * Elite landing sequences, kept between the stages.
+	 */
+	private final ElitePool elitePool;
+
+	/**
+	 * Calculates the cost of the landing sequences offered to the elite pool (used by the caller thread only).
+	 */
+	private final DeltaCostEvaluator poolEvaluator;
+
+	/**
+	 * Delta cost evaluator of each worker thread.
+	 */
+	private final ThreadLocal<DeltaCostEvaluator> evaluators;
+
+	private long relinkedPaths;
+
+	/**
+	 * Number of paths whose best intermediate sequence is better than both ends.
+	 */
+	private long improvingPaths;
+
+	/**
+	 * Sum of the cost reductions of the improving paths (relative to the better end, in fitness values with an objective
+	 * function other than the linear cost).
+	 */
+	private double totalImprovement;
+
+	/**
+	 * Resolves the dependencies.
+	 *
+	 * @param config path relinking stage configuration parameters.
+	 * @param instance ATC problem instance.
+	 * @param fitnessEvaluator calculates the fitness value of a relinked individual.
+	 */
+	public PathRelinkingOperator(PathRelinkingConfig config, final AtcInstance instance, FitnessEvaluator fitnessEvaluator) {
+		this.config = config;
+		this.instance = instance;
+		this.fitnessEvaluator = fitnessEvaluator;
+		this.elitePool = new ElitePool(config.getPoolSize(), config.getMinDistance(), instance.getAircraftCount());
+		this.poolEvaluator = new DeltaCostEvaluator(instance);
+		this.evaluators = new ThreadLocal<DeltaCostEvaluator>() {
+			@Override
+			protected DeltaCostEvaluator initialValue() {
+				return new DeltaCostEvaluator(instance);
+			}
+		};
+	}
+
+	/**
+	 * Offers the most adapted individuals of the population (it is sorted first, if needed) to the elite pool, relinks
+	 * every pair of elite landing sequences and adds the improved sequences to the population.
+	 *
+	 * @param population population of individuals.
+	 * @return number of paths whose best intermediate sequence is better than both ends (by the objective function).
+	 * @throws InterruptedException thrown if the thread is interrupted while waiting for the workers.
+	 * @throws ExecutionException thrown if a relinking task fails.
+	 */
+	public int execute(Population population) throws InterruptedException, ExecutionException {
+		population.sortByFitness();
+		int[] aircraftIds = new int[instance.getAircraftCount()];
+		for (int i = 0; i < Math.min(2 * config.getPoolSize(), population.getSize()); i++) {
+			AtcInstance.getAircraftIds(population.get(i).getAircraftLandingSequence(), aircraftIds);
+			elitePool.offer(aircraftIds, poolEvaluator.evaluate(aircraftIds));
+		}
+
+		final boolean linearObjective = fitnessEvaluator.getObjectiveFunction() instanceof LinearCostObjective;
+		List<Callable<RelinkedPath>> tasks = new ArrayList<Callable<RelinkedPath>>();
+		for (int i = 0; i < elitePool.size(); i++) {
+			for (int j = i + 1; j < elitePool.size(); j++) {
+				boolean iIsBetter = elitePool.getCost(i) <= elitePool.getCost(j);
+				final int[] initial = elitePool.getSequence(iIsBetter ? i : j);
+				final int[] guide = elitePool.getSequence(iIsBetter ? j : i);
+				final double endCost = Math.min(elitePool.getCost(i), elitePool.getCost(j));
+				tasks.add(new Callable<RelinkedPath>() {
+					@Override
+					public RelinkedPath call() {
+						RelinkedPath path = walkPath(initial, guide, endCost);
+						if (!linearObjective && path.aircraftIds != null) {
+							// the ends are read before the pool is changed.
+							DeltaCostEvaluator evaluator = evaluators.get();
+							path.individual = createIndividual(path.aircraftIds, evaluator);
+							path.endFitnessValue = Math.min(getFitnessValue(initial, evaluator), getFitnessValue(guide, evaluator));
+						}
+						return path;
+					}
+				});
+			}
+		}
+
+		int improvedPaths = 0;
+		List<RelinkedPath> paths = new ArrayList<RelinkedPath>(tasks.size());
+		for (Future<RelinkedPath> result : EXECUTOR.invokeAll(tasks)) {
+			paths.add(result.get());
+		}
+		// the pool is changed only after all the tasks have finished reading it.
+		for (RelinkedPath path : paths) {
+			relinkedPaths++;
+			if (path.aircraftIds == null) {
+				continue;
+			}
+			elitePool.offer(path.aircraftIds, path.cost);
+			if (linearObjective && path.cost < path.endCost) {
+				improvedPaths++;
+				totalImprovement += path.endCost - path.cost;
+				addToPopulation(population, createIndividual(path.aircraftIds, poolEvaluator));
+			} else if (!linearObjective && path.individual != null && path.individual.getFitnessValue() < path.endFitnessValue) {
+				improvedPaths++;
+				totalImprovement += path.endFitnessValue - path.individual.getFitnessValue();
+				addToPopulation(population, path.individual);
+			}
+		}
+		improvingPaths += improvedPaths;
+		return improvedPaths;
+	}
+
+	/**
+	 * Walks the path from a landing sequence to another one, in the current thread.
+	 *
+	 * @param initial landing sequence where the path starts.
+	 * @param guide landing sequence where the path ends.
+	 * @param bestIntermediate vector where the best intermediate sequence of the path is written.
+	 * @return the cost of the best intermediate sequence, or {@link DeltaCostEvaluator#INFEASIBLE_COST} if the path has
+	 * 		   no feasible intermediate sequence (nothing is written).
+	 */
+	public double relink(int[] initial, int[] guide, int[] bestIntermediate) {
+		RelinkedPath path = walkPath(initial, guide, DeltaCostEvaluator.INFEASIBLE_COST);
+		if (path.aircraftIds != null) {
+			System.arraycopy(path.aircraftIds, 0, bestIntermediate, 0, path.aircraftIds.length);
+		}
+		return path.cost;
+	}
+
+	/**
+	 * Walks the path from a landing sequence to another one.
+	 *
+	 * @return the best intermediate sequence of the path (its aircraft ids are null if there is none).
+	 */
+	private RelinkedPath walkPath(int[] initial, int[] guide, double endCost) {
+		DeltaCostEvaluator evaluator = evaluators.get();
+		evaluator.evaluate(initial);
+		int[] sequence = evaluator.getSequence();
+		int aircraftCount = sequence.length;
+		int[] positions = new int[aircraftCount];
+		int differentPositions = 0;
+		for (int i = 0; i < aircraftCount; i++) {
+			positions[sequence[i]] = i;
+			if (sequence[i] != guide[i]) {
+				differentPositions++;
+			}
+		}
+
+		RelinkedPath path = new RelinkedPath(endCost);
+		while (differentPositions > 0) {
+			int bestStep = -1;
+			double bestStepCost = DeltaCostEvaluator.INFEASIBLE_COST;
+			for (int i = 0; i < aircraftCount; i++) {
+				if (sequence[i] == guide[i]) {
+					continue;
+				}
+				double stepCost = evaluator.evaluateSwap(i, positions[guide[i]], bestStepCost);
+				if (bestStep < 0 || stepCost < bestStepCost) {
+					bestStep = i;
+					bestStepCost = stepCost;
+				}
+			}
+
+			int other = positions[guide[bestStep]];
+			differentPositions -= sequence[other] == guide[bestStep] && guide[other] == sequence[bestStep] ? 2 : 1;
+			evaluator.applySwap(bestStep, other);
+			positions[sequence[bestStep]] = bestStep;
+			positions[sequence[other]] = other;
+
+			// the last step reaches the guide, which is not an intermediate sequence.
+			if (differentPositions > 0 && evaluator.getCost() < path.cost) {
+				path.cost = evaluator.getCost();
+				if (path.aircraftIds == null) {
+					path.aircraftIds = new int[aircraftCount];
+				}
+				System.arraycopy(sequence, 0, path.aircraftIds, 0, aircraftCount);
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * Creates an individual with a landing sequence and its best landing times.
+	 *
+	 * @return the individual, or null if the landing sequence has no feasible landing times.
+	 */
+	private Individual createIndividual(int[] aircraftIds, DeltaCostEvaluator evaluator) {
+		evaluator.evaluate(aircraftIds);
+		int[] landingTimes = new int[aircraftIds.length];
+		if (!evaluator.getLandingTimes(landingTimes)) {
+			return null;
+		}
+		Aircraft[] landingSequence = instance.createLandingSequence(aircraftIds, landingTimes);
+		return new Individual(landingSequence, fitnessEvaluator.evaluate(landingSequence));
+	}
+
+	/**
+	 * @return the fitness value of a landing sequence with its best landing times, or {@link Integer#MAX_VALUE} if it has none.
+	 */
+	private int getFitnessValue(int[] aircraftIds, DeltaCostEvaluator evaluator) {
+		Individual individual = createIndividual(aircraftIds, evaluator);
+		return individual == null ? Integer.MAX_VALUE : individual.getFitnessValue();
+	}
+
+	/**
+	 * Replaces the less adapted individual of the population by an individual with a relinked sequence, if it is more adapted.
+	 */
+	private void addToPopulation(Population population, Individual individual) {
+		if (individual == null) {
+			return;
+		}
+		Individual lessAdaptedIndividual = population.getLessAdaptedIndividual();
+		if (individual.isMoreAdaptedThan(lessAdaptedIndividual)) {
+			population.replace(individual, lessAdaptedIndividual);
+		}
+	}
+
+	/**
+	 * @return the elite landing sequences.
+	 */
+	public ElitePool getElitePool() {
+		return elitePool;
+	}
+
+	/**
+	 * @return number of generations without improvement of the best individual between two stages.
+	 */
+	public int getStagnationGenerations() {
+		return config.getStagnationGenerations();
+	}
+
+	/**
+	 * @return number of paths walked so far.
+	 */
+	public long getRelinkedPathCount() {
+		return relinkedPaths;
+	}
+
+	/**
+	 * @return number of paths whose best intermediate sequence was better than both ends.
+	 */
+	public long getImprovingPathCount() {
+		return improvingPaths;
+	}
+
+	/**
+	 * @return sum of the cost reductions of the improving paths, relative to their better end (in fitness values, with an
+	 * 		   objective function other than the linear cost).
+	 */
+	public double getTotalImprovement() {
+		return totalImprovement;
+	}
+
+	/**
+	 * Best intermediate sequence of a path.
+	 */
+	private static class RelinkedPath {
+
+		/**
+		 * Cost of the better end of the path.
+		 */
+		final double endCost;
+
+		int[] aircraftIds;
+
+		double cost = DeltaCostEvaluator.INFEASIBLE_COST;
+
+		/**
+		 * With an objective function other than the linear cost: the best intermediate sequence with its best landing times
+		 * (null if it has none), and the fitness value of the better end.
+		 */
+		Individual individual;
+
+		int endFitnessValue = Integer.MAX_VALUE;
+
+		RelinkedPath(double endCost) {
+			this.endCost = endCost;
+		}
+	}
+}
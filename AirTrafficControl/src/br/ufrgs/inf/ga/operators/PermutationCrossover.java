@@ -0,0 +1,23 @@
+package br.ufrgs.inf.ga.operators;
+
+/**
+ * A recombination of two landing sequences represented as permutations of aircraft ids.
+ *
+ * <p>
+ * Implementations keep reusable scratch buffers, so they are not thread safe.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public interface PermutationCrossover {
+
+	/**
+	 * Combines two parents landing sequences in a son landing sequence.
+	 *
+	 * @param parent1 first parent aircraft ids, in landing order.
+	 * @param parent2 second parent aircraft ids, in landing order.
+	 * @param son vector where the son aircraft ids are written, in landing order.
+	 */
+	void cross(int[] parent1, int[] parent2, int[] son);
+}
@@ -1,41 +1,268 @@
 package br.ufrgs.inf.ga.operators;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
+import br.ufrgs.inf.ga.model.Individual;
 import br.ufrgs.inf.ga.model.Parents;
 import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.utils.RandomHelper;
 
 /**
  * Implements a genetic selection operation.
  * 
+ * <p>
+ * The tournament and the stochastic universal sampling selections work on a snapshot of the population
+ * individuals and fitness values in primitive vectors, so they don't need the population sorted by fitness value.
+ * The random choices come from {@link RandomHelper}, so they follow the random stream of the run.
+ * </p>
+ * 
  * @author diego
  *
  */
 public class SelectionOperator {
 
+	/**
+	 * Selection method.
+	 */
+	private final SelectionType selectionType;
+	
+	/**
+	 * Number of individuals in each tournament.
+	 */
+	private final int tournamentSize;
+	
+	/**
+	 * Exponent applied on the individuals weights in the stochastic universal sampling.
+	 * 1 is a fitness proportional selection, higher values increase the selection pressure.
+	 */
+	private final float selectionPressure;
+	
+	/**
+	 * Population snapshot buffers.
+	 */
+	private Individual[] individuals = new Individual[0];
+	private int[] fitnessValues = new int[0];
+	private double[] cumulativeWeights = new double[0];
+	private int[] selectedIndexes = new int[0];
+	
+	/**
+	 * Selected parents, reused by each selection to avoid garbage in every generation.
+	 */
+	private final List<Parents> selectedParents = new ArrayList<Parents>();
+	private final List<Parents> parentsPool = new ArrayList<Parents>();
+	
+	/**
+	 * Creates the original selection operator, that pairs the most adapted individuals.
+	 */
+	public SelectionOperator() {
+		this(SelectionType.RANK_PAIRS, 2, 1);
+	}
+	
+	/**
+	 * @param selectionType selection method.
+	 * @param tournamentSize number of individuals in each tournament.
+	 * @param selectionPressure exponent applied on the individuals weights in the stochastic universal sampling.
+	 */
+	public SelectionOperator(SelectionType selectionType, int tournamentSize, float selectionPressure) {
+		this.selectionType = selectionType;
+		this.tournamentSize = tournamentSize;
+		this.selectionPressure = selectionPressure;
+	}
+	
 	/**
 	 * Selects a list of parents to reproduction.
 	 * 
 	 * <p>
-	 * The selected parents are the most adapted in the population.
 	 * The number of selected parents is equal to <code>(int)(population.MAX_INDIVIDUALS * population.REPRODUCTION_RATE)</code>
 	 * </p>
 	 * 
 	 * @param population population used to select the parents.
-	 * @return list of selected parents.
+	 * @return list of selected parents. The list and its parents are reused by the next selection.
 	 */
 	public List<Parents> selectParents(Population population) {
-		List<Parents> selectedParents = new LinkedList<Parents>();
-		
 		int selectedIndividualsCount = (int)(population.getMaxIndividuals() * population.getReproductionRate());
+		selectedParents.clear();
+		
+		switch (selectionType) {
+		case TOURNAMENT:
+			return selectParentsByTournament(population, selectedIndividualsCount);
+		case STOCHASTIC_UNIVERSAL_SAMPLING:
+			return selectParentsByStochasticUniversalSampling(population, selectedIndividualsCount);
+		default:
+			return selectMostAdaptedParents(population, selectedIndividualsCount);
+		}
+	}
+	
+	/**
+	 * Selects a less adapted individual of the population: the least adapted among <code>tournamentSize</code>
+	 * individuals randomly chosen. The population doesn't need to be sorted.
+	 * 
+	 * @param population population of individuals.
+	 * @return a less adapted individual.
+	 */
+	public Individual selectLessAdapted(Population population) {
+		int size = population.getSize();
+		Individual lessAdapted = population.get((int) (RandomHelper.random() * size));
+		for (int k = 1; k < tournamentSize; k++) {
+			Individual candidate = population.get((int) (RandomHelper.random() * size));
+			if (lessAdapted.isMoreAdaptedThan(candidate)) {
+				lessAdapted = candidate;
+			}
+		}
+		return lessAdapted;
+	}
+	
+	/**
+	 * @return true if this selection method needs the population sorted by fitness value.
+	 */
+	public boolean requiresSortedPopulation() {
+		return selectionType == SelectionType.RANK_PAIRS;
+	}
+	
+	/**
+	 * The selected parents are the most adapted in the population.
+	 */
+	private List<Parents> selectMostAdaptedParents(Population population, int selectedIndividualsCount) {
+		population.sortByFitness();
 		
 		// selects the individuals and create the parents
 		for(int i = 0; i < selectedIndividualsCount; i++) {
-			Parents parents = new Parents(population.get(i), population.get(i + 1));
-			selectedParents.add(parents);
+			addParents(population.get(i), population.get(i + 1));
+		}
+		
+		return selectedParents;
+	}
+	
+	/**
+	 * Each parent is the winner of a tournament among <code>tournamentSize</code> individuals (O(k) per parent).
+	 */
+	private List<Parents> selectParentsByTournament(Population population, int selectedIndividualsCount) {
+		int size = takeSnapshot(population);
+		
+		for (int i = 0; i < selectedIndividualsCount; i++) {
+			int parent1 = runTournament(size);
+			int parent2 = runTournament(size);
+			// avoids, if possible, an individual reproducing with itself.
+			for (int attempt = 0; parent2 == parent1 && attempt < tournamentSize; attempt++) {
+				parent2 = runTournament(size);
+			}
+			addParents(individuals[parent1], individuals[parent2]);
+		}
+		
+		return selectedParents;
+	}
+	
+	/**
+	 * Samples <code>2 * selectedIndividualsCount</code> parents with evenly spaced pointers over the cumulative weights
+	 * (a single pass over the population), and pairs them in random order.
+	 */
+	private List<Parents> selectParentsByStochasticUniversalSampling(Population population, int selectedIndividualsCount) {
+		int size = takeSnapshot(population);
+		int samples = 2 * selectedIndividualsCount;
+		if (selectedIndexes.length < samples) {
+			selectedIndexes = new int[samples];
+		}
+		
+		double totalWeight = calculateCumulativeWeights(size);
+		double step = totalWeight / samples;
+		double pointer = RandomHelper.random() * step;
+		int index = 0;
+		for (int i = 0; i < samples; i++) {
+			while (index < size - 1 && cumulativeWeights[index] <= pointer) {
+				index++;
+			}
+			selectedIndexes[i] = index;
+			pointer += step;
+		}
+		
+		// shuffles the samples, so the parents are not paired with their neighbours in the population.
+		for (int i = samples - 1; i > 0; i--) {
+			int j = (int) (RandomHelper.random() * (i + 1));
+			int swap = selectedIndexes[i];
+			selectedIndexes[i] = selectedIndexes[j];
+			selectedIndexes[j] = swap;
+		}
+		
+		for (int i = 0; i < samples; i += 2) {
+			addParents(individuals[selectedIndexes[i]], individuals[selectedIndexes[i + 1]]);
 		}
 		
 		return selectedParents;
 	}
+	
+	/**
+	 * Adds a parents pair to the selected parents, reusing the pairs created by the previous selections.
+	 */
+	private void addParents(Individual parent1, Individual parent2) {
+		int index = selectedParents.size();
+		if (index == parentsPool.size()) {
+			parentsPool.add(new Parents(parent1, parent2));
+		} else {
+			parentsPool.get(index).setParents(parent1, parent2);
+		}
+		selectedParents.add(parentsPool.get(index));
+	}
+	
+	/**
+	 * Calculates the cumulative weights of the individuals in the snapshot.
+	 * The weight of an individual is <code>(worse valid fitness value - fitness value + 1) ^ selectionPressure</code>,
+	 * and invalid individuals (maximum fitness value) have no weight.
+	 * 
+	 * @return the total weight.
+	 */
+	private double calculateCumulativeWeights(int size) {
+		int worseFitnessValue = Integer.MIN_VALUE;
+		for (int i = 0; i < size; i++) {
+			if (fitnessValues[i] != Integer.MAX_VALUE && fitnessValues[i] > worseFitnessValue) {
+				worseFitnessValue = fitnessValues[i];
+			}
+		}
+		
+		double totalWeight = 0;
+		for (int i = 0; i < size; i++) {
+			double weight;
+			if (worseFitnessValue == Integer.MIN_VALUE) {
+				// there is no valid individual: all individuals have the same weight.
+				weight = 1;
+			} else if (fitnessValues[i] == Integer.MAX_VALUE) {
+				weight = 0;
+			} else {
+				weight = Math.pow((double) worseFitnessValue - fitnessValues[i] + 1, selectionPressure);
+			}
+			totalWeight += weight;
+			cumulativeWeights[i] = totalWeight;
+		}
+		return totalWeight;
+	}
+	
+	/**
+	 * @return the snapshot index of the most adapted among <code>tournamentSize</code> random individuals.
+	 */
+	private int runTournament(int size) {
+		int winner = (int) (RandomHelper.random() * size);
+		for (int k = 1; k < tournamentSize; k++) {
+			int candidate = (int) (RandomHelper.random() * size);
+			if (fitnessValues[candidate] < fitnessValues[winner]) {
+				winner = candidate;
+			}
+		}
+		return winner;
+	}
+	
+	/**
+	 * Copies the population individuals and fitness values to the snapshot buffers.
+	 * 
+	 * @return the population size.
+	 */
+	private int takeSnapshot(Population population) {
+		int size = population.getSize();
+		if (individuals.length < size) {
+			individuals = new Individual[size];
+			fitnessValues = new int[size];
+			cumulativeWeights = new double[size];
+		}
+		population.copyTo(individuals, fitnessValues);
+		return size;
+	}
 }
@@ -0,0 +1,25 @@
+package br.ufrgs.inf.ga.operators;
+
+/**
+ * Parents selection methods available for the {@link SelectionOperator}.
+ *
+ * @author diego
+ *
+ */
+public enum SelectionType {
+
+	/**
+	 * Pairs each one of the most adapted individuals with the next one in the population sorted by fitness value.
+	 */
+	RANK_PAIRS,
+
+	/**
+	 * Each parent is the most adapted among k individuals randomly chosen.
+	 */
+	TOURNAMENT,
+
+	/**
+	 * Stochastic universal sampling: the parents are sampled at evenly spaced pointers over the individuals weights.
+	 */
+	STOCHASTIC_UNIVERSAL_SAMPLING
+}
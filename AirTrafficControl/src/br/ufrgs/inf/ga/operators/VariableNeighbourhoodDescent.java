@@ -0,0 +1,48 @@
+package br.ufrgs.inf.ga.operators;
+
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+
+/**
+ * Variable neighbourhood descent local search.
+ *
+ * <p>
+ * The neighbourhoods are explored in order: when a neighbourhood has an improving move, the move is applied
+ * and the search restarts from the first neighbourhood; otherwise, the next neighbourhood is explored.
+ * The search stops at a local optimum of all neighbourhoods or when the move budget is over.
+ * With a single neighbourhood, this is a first improvement hill climbing.
+ * </p>
+ *
+ * @author diego
+ *
+ */
+public class VariableNeighbourhoodDescent implements LocalSearch {
+
+	/**
+	 * Neighbourhoods explored by the search, in order.
+	 */
+	private final Neighbourhood[] neighbourhoods;
+
+	/**
+	 * @param neighbourhoods neighbourhoods explored by the search, in order.
+	 */
+	public VariableNeighbourhoodDescent(Neighbourhood... neighbourhoods) {
+		this.neighbourhoods = neighbourhoods;
+	}
+
+	@Override
+	public boolean improve(DeltaCostEvaluator evaluator, int moveBudget) {
+		long moveLimit = evaluator.getEvaluatedMoves() + moveBudget;
+		boolean improved = false;
+
+		int k = 0;
+		while (k < neighbourhoods.length && evaluator.getEvaluatedMoves() < moveLimit) {
+			if (neighbourhoods[k].applyFirstImprovement(evaluator, moveLimit)) {
+				improved = true;
+				k = 0;
+			} else {
+				k++;
+			}
+		}
+		return improved;
+	}
+}
@@ -0,0 +1,28 @@
+package br.ufrgs.inf.ga.utils;
+
+/**
+ * Helper Class used to write the JSON results of the batch runner and of the scheduling service.
+ * 
+ * @author diego
+ *
+ */
+public class JsonHelper {
+
+	/**
+	 * @return a JSON string with the given value (quotes, backslashes and control characters escaped).
+	 */
+	public static String quote(String value) {
+		StringBuilder builder = new StringBuilder("\"");
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			} else if (c < ' ') {
+				builder.append(String.format("\\u%04x", (int) c));
+			} else {
+				builder.append(c);
+			}
+		}
+		return builder.append('"').toString();
+	}
+}
@@ -0,0 +1,134 @@
+package br.ufrgs.inf.ga.utils;
+
+/**
+ * Counts occurrences of <code>long</code> keys in an open addressing hash table (linear probing),
+ * without boxing and without allocations after the table has grown to its working size.
+ * 
+ * @author diego
+ * 
+ */
+public class LongCounter {
+	
+	private static final float MAX_LOAD_FACTOR = 0.5f;
+	
+	private long[] keys;
+	
+	private int[] counts;
+	
+	/**
+	 * Number of distinct keys (keys with a positive count).
+	 */
+	private int size;
+	
+	public LongCounter() {
+		this(16);
+	}
+	
+	/**
+	 * @param expectedKeys expected number of distinct keys.
+	 */
+	public LongCounter(int expectedKeys) {
+		int capacity = 16;
+		while (capacity * MAX_LOAD_FACTOR < expectedKeys) {
+			capacity <<= 1;
+		}
+		keys = new long[capacity];
+		counts = new int[capacity];
+	}
+	
+	/**
+	 * Increments the count of a key.
+	 * 
+	 * @return the new count.
+	 */
+	public int increment(long key) {
+		if (size + 1 > keys.length * MAX_LOAD_FACTOR) {
+			resize(keys.length << 1);
+		}
+		int slot = find(key);
+		if (counts[slot] == 0) {
+			keys[slot] = key;
+			size++;
+		}
+		return ++counts[slot];
+	}
+	
+	/**
+	 * Decrements the count of a key. Nothing is done if the key isn't counted.
+	 * 
+	 * @return the new count.
+	 */
+	public int decrement(long key) {
+		int slot = find(key);
+		if (counts[slot] == 0) {
+			return 0;
+		}
+		if (--counts[slot] > 0) {
+			return counts[slot];
+		}
+		
+		// backward shift deletion: moves the next keys of the probe sequence to the free slot.
+		size--;
+		int mask = keys.length - 1;
+		int free = slot;
+		for (int next = (free + 1) & mask; counts[next] != 0; next = (next + 1) & mask) {
+			int home = hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				keys[free] = keys[next];
+				counts[free] = counts[next];
+				counts[next] = 0;
+				free = next;
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 * @return the count of a key.
+	 */
+	public int get(long key) {
+		return counts[find(key)];
+	}
+	
+	public boolean contains(long key) {
+		return get(key) > 0;
+	}
+	
+	/**
+	 * @return number of distinct keys.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @return the slot of the key, or the free slot where it would be inserted.
+	 */
+	private int find(long key) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (counts[slot] != 0 && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldCounts = counts;
+		keys = new long[capacity];
+		counts = new int[capacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldCounts[i] != 0) {
+				int slot = find(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				counts[slot] = oldCounts[i];
+			}
+		}
+	}
+	
+	private static int hash(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key ^ (key >>> 32));
+	}
+}
@@ -0,0 +1,58 @@
+package br.ufrgs.inf.ga.utils;
+
+import java.util.Random;
+
+/**
+ * Helper Class that provides the random numbers used to create individuals.
+ * 
+ * <p>
+ * By default, the numbers come from {@link Math#random()}. A thread may use its own random stream instead,
+ * so the individuals it creates depend only on the stream seed, and not on the other threads.
+ * </p>
+ * 
+ * @author diego
+ * 
+ */
+public class RandomHelper {
+	
+	/**
+	 * Random stream of each thread, or null if the thread uses {@link Math#random()}.
+	 */
+	private static final ThreadLocal<Random> threadRandom = new ThreadLocal<Random>();
+	
+	/**
+	 * @return a random number between 0 (inclusive) and 1 (exclusive).
+	 */
+	public static double random() {
+		Random random = threadRandom.get();
+		return random == null ? Math.random() : random.nextDouble();
+	}
+	
+	/**
+	 * Sets the random stream of the current thread.
+	 * 
+	 * @param random random stream, or null to use {@link Math#random()} again.
+	 */
+	public static void setThreadRandom(Random random) {
+		if (random == null) {
+			threadRandom.remove();
+		} else {
+			threadRandom.set(random);
+		}
+	}
+	
+	/**
+	 * Creates an independent random stream for each element of a sequence (e.g. each individual of a population).
+	 * 
+	 * @param seed seed of the sequence.
+	 * @param index element index.
+	 * @return the random stream of the element.
+	 */
+	public static Random createStream(long seed, long index) {
+		// SplitMix64 finalizer: neighbour indexes get uncorrelated seeds.
+		long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return new Random(z ^ (z >>> 31));
+	}
+}
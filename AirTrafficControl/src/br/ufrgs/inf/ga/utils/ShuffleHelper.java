@@ -19,7 +19,7 @@ public class ShuffleHelper {
     public static void shuffle(Object[] a) {
         int N = a.length;
         for (int i = 0; i < N; i++) {
-            int r = i + (int) (Math.random() * (N-i));   // between i and N-1
+            int r = i + (int) (RandomHelper.random() * (N-i));   // between i and N-1
             swap(a, i, r);
         }
     }
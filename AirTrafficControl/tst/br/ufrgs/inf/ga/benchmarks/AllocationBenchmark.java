@@ -0,0 +1,81 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GenerationListener;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+/**
+ * Measures the bytes allocated by each steady state generation of the genetic algorithm (after a warm up),
+ * and the GC count and time of the whole run, with and without the individual pool.
+ *
+ * Usage: AllocationBenchmark &lt;instance file&gt; [population size] [generations]
+ *
+ * @author diego
+ *
+ */
+public class AllocationBenchmark {
+
+	private static final int WARM_UP_GENERATIONS = 100;
+
+	public static void main(String[] args) throws Exception {
+		AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(args[0]);
+		int populationSize = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+		int generations = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+		for (int run = 0; run < 2; run++) {
+			run(aircrafts, populationSize, generations, false);
+			run(aircrafts, populationSize, generations, true);
+		}
+	}
+
+	private static void run(AircraftStaticData[] aircrafts, int populationSize, int generations, boolean pooling) throws Exception {
+		final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		final long threadId = Thread.currentThread().getId();
+		final long[] allocatedBytes = new long[2];
+		final int[] measuredGenerations = new int[1];
+
+		GeneticAlgorithm algorithm = new GeneticAlgorithm(new PopulationConfig(populationSize, 0.3f, 0.1f), generations, aircrafts);
+		if (!pooling) {
+			algorithm.getIndividualPool().setMaxFreeIndividuals(0);
+		}
+		algorithm.setGenerationListener(new GenerationListener() {
+			@Override
+			public void generationEvaluated(int generation, Individual bestIndividual) {
+				if (generation == WARM_UP_GENERATIONS) {
+					allocatedBytes[0] = threadBean.getThreadAllocatedBytes(threadId);
+				} else if (generation > WARM_UP_GENERATIONS) {
+					allocatedBytes[1] = threadBean.getThreadAllocatedBytes(threadId);
+					measuredGenerations[0] = generation - WARM_UP_GENERATIONS;
+				}
+			}
+		});
+
+		System.gc();
+		long[] gc = getGcCountAndTime();
+		long start = System.nanoTime();
+		algorithm.execute();
+		long time = System.nanoTime() - start;
+		long[] gcAfter = getGcCountAndTime();
+
+		long bytesPerGeneration = measuredGenerations[0] == 0 ? 0 : (allocatedBytes[1] - allocatedBytes[0]) / measuredGenerations[0];
+		System.out.println((pooling ? "pool on " : "pool off") + "\tgenerations " + algorithm.getSolution().getGenerationCount()
+				+ "\tbytes/gen " + bytesPerGeneration + "\tGC count " + (gcAfter[0] - gc[0]) + "\tGC time " + (gcAfter[1] - gc[1]) + " ms"
+				+ "\ttime " + time / 1000000 + " ms\treused " + algorithm.getIndividualPool().getReusedIndividuals()
+				+ "\tallocated " + algorithm.getIndividualPool().getAllocatedIndividuals());
+	}
+
+	private static long[] getGcCountAndTime() {
+		long[] gc = new long[2];
+		for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			gc[0] += Math.max(0, garbageCollector.getCollectionCount());
+			gc[1] += Math.max(0, garbageCollector.getCollectionTime());
+		}
+		return gc;
+	}
+}
@@ -0,0 +1,52 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.BranchAndBound;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.Solution;
+
+/**
+ * Compares the branch and bound (with 1 thread and with all the processors) with the genetic algorithm:
+ * cost, time and, for the branch and bound, whether the cost is proven optimal and the explored nodes.
+ *
+ * Usage: BranchAndBoundBenchmark &lt;time limit in ms&gt; &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class BranchAndBoundBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(500, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 300;
+
+	public static void main(String[] args) throws Exception {
+		long timeLimit = Long.parseLong(args[0]);
+		int processors = Runtime.getRuntime().availableProcessors();
+		for (int i = 1; i < args.length; i++) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(args[i]);
+			System.out.println(args[i] + " (" + aircrafts.length + " aircrafts)");
+
+			long startTime = System.nanoTime();
+			GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+			geneticAlgorithm.setInitializationSeed(1);
+			geneticAlgorithm.execute();
+			System.out.println(String.format("  genetic algorithm:         cost %d in %d ms",
+					geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue(), (System.nanoTime() - startTime) / 1000000));
+
+			for (int threads : new int[] { 1, processors }) {
+				startTime = System.nanoTime();
+				BranchAndBound branchAndBound = new BranchAndBound(aircrafts, threads);
+				branchAndBound.setTimeLimit(timeLimit);
+				branchAndBound.execute();
+				long time = (System.nanoTime() - startTime) / 1000000;
+				Solution solution = branchAndBound.getSolution();
+				System.out.println(String.format("  branch and bound %2d thr.: cost %d in %d ms (%s, %d nodes)", threads,
+						solution.getBestIndividualFound().getFitnessValue(), time,
+						solution.isProvenOptimal() ? "proven optimal" : "time limit", branchAndBound.getExploredNodeCount()));
+			}
+		}
+	}
+}
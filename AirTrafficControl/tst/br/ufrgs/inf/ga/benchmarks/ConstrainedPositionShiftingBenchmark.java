@@ -0,0 +1,45 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.ConstrainedPositionShifting;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+/**
+ * Measures the constrained position shifting scheduler for each max shift (cost, time and reached states),
+ * and compares it with the genetic algorithm. The instance may be repeated to build a long horizon instance
+ * (see {@link DecompositionBenchmark}).
+ *
+ * Usage: ConstrainedPositionShiftingBenchmark &lt;instance file&gt; &lt;copies&gt; &lt;max shift&gt;
+ *
+ * @author diego
+ *
+ */
+public class ConstrainedPositionShiftingBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(100, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 100;
+
+	public static void main(String[] args) throws Exception {
+		AircraftStaticData[] aircrafts = DecompositionBenchmark.createLongHorizonInstance(AtcLoader.createATCInstanceFromFile(args[0]), Integer.parseInt(args[1]));
+		int maxShift = Integer.parseInt(args[2]);
+		System.out.println(args[0] + " x " + args[1] + ": " + aircrafts.length + " aircrafts");
+
+		for (int shift = 0; shift <= maxShift; shift++) {
+			long start = System.nanoTime();
+			ConstrainedPositionShifting scheduler = new ConstrainedPositionShifting(aircrafts, shift);
+			scheduler.execute();
+			System.out.println("\tcps k=" + shift + "\tcost " + scheduler.getSolution().getBestIndividualFound().getFitnessValue() +
+							   "\t" + (System.nanoTime() - start) / 1000000 + " ms\t" + scheduler.getReachedStateCount() + " states");
+		}
+
+		long start = System.nanoTime();
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+		geneticAlgorithm.setInitializationSeed(1);
+		geneticAlgorithm.execute();
+		System.out.println("\tgenetic algorithm\tcost " + geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue() +
+						   "\t" + (System.nanoTime() - start) / 1000000 + " ms");
+	}
+}
@@ -0,0 +1,65 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import java.util.Arrays;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.ga.ConstructiveHeuristic;
+import br.ufrgs.inf.ga.ConstructiveScheduler;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.model.IndividualCreator;
+
+/**
+ * Measures the latency (median of warm runs) and the cost of each constructive heuristic, and compares the costs
+ * with the best of the random individuals created by the population initializer methods.
+ *
+ * Usage: ConstructiveHeuristicBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class ConstructiveHeuristicBenchmark {
+
+	private static final int WARM_UP_RUNS = 500;
+
+	private static final int MEASURED_RUNS = 501;
+
+	private static final int RANDOM_INDIVIDUALS = 100;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+			ConstructiveScheduler scheduler = new ConstructiveScheduler(new AtcInstance(aircrafts));
+			int[] landingTimes = new int[aircrafts.length];
+
+			StringBuilder report = new StringBuilder(fileName + " (" + aircrafts.length + " aircrafts):");
+			for (ConstructiveHeuristic heuristic : ConstructiveHeuristic.values()) {
+				double cost = 0;
+				for (int i = 0; i < WARM_UP_RUNS; i++) {
+					cost = scheduler.schedule(scheduler.createLandingOrder(heuristic), landingTimes);
+				}
+				long[] times = new long[MEASURED_RUNS];
+				for (int i = 0; i < MEASURED_RUNS; i++) {
+					long start = System.nanoTime();
+					scheduler.schedule(scheduler.createLandingOrder(heuristic), landingTimes);
+					times[i] = System.nanoTime() - start;
+				}
+				Arrays.sort(times);
+				report.append("\n\t" + heuristic + "\tcost " + (Double.isInfinite(cost) ? "infeasible" : String.valueOf(cost)) + "\tmedian " + times[MEASURED_RUNS / 2] / 1000 + " us");
+			}
+
+			IndividualCreator individualCreator = new IndividualCreator(new LandingSequenceCreator(aircrafts), new FitnessEvaluator(), new LandingTimeScheduler());
+			int bestRandomCost = Integer.MAX_VALUE;
+			for (int i = 0; i < RANDOM_INDIVIDUALS; i++) {
+				bestRandomCost = Math.min(bestRandomCost, individualCreator.createIndividualClosestAsPossibleFromTargetTime().getFitnessValue());
+				bestRandomCost = Math.min(bestRandomCost, individualCreator.createRandomIndividual().getFitnessValue());
+				bestRandomCost = Math.min(bestRandomCost, individualCreator.createIndividualSortedByRandomLandingSequence().getFitnessValue());
+			}
+			report.append("\n\tbest of " + 3 * RANDOM_INDIVIDUALS + " random individuals\tcost " + (bestRandomCost == Integer.MAX_VALUE ? "infeasible" : String.valueOf(bestRandomCost)));
+			System.out.println(report);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GenerationListener;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.operators.CrossoverType;
+
+/**
+ * Compares the number of fitness evaluations each crossover operation needs to reach the cost found
+ * with the parents copies crossover (the original operator).
+ *
+ * Usage: CrossoverBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class CrossoverBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(500, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 300;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+
+			GeneticAlgorithm baseline = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+			baseline.execute();
+			int targetCost = baseline.getSolution().getBestIndividualFound().getFitnessValue();
+			System.out.println(fileName + " target cost " + targetCost);
+
+			for (CrossoverType crossoverType : CrossoverType.values()) {
+				GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+				geneticAlgorithm.setCrossoverType(crossoverType);
+				geneticAlgorithm.setTargetFitnessValue(targetCost);
+				EvaluationsToTarget evaluationsToTarget = new EvaluationsToTarget(geneticAlgorithm, targetCost);
+				geneticAlgorithm.setGenerationListener(evaluationsToTarget);
+				geneticAlgorithm.execute();
+
+				System.out.println("\t" + crossoverType + "\tfinal cost " + geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue() +
+								   "\tevaluations to target " + (evaluationsToTarget.evaluations < 0 ? "not reached" : evaluationsToTarget.evaluations));
+			}
+		}
+	}
+
+	private static class EvaluationsToTarget implements GenerationListener {
+		private final GeneticAlgorithm geneticAlgorithm;
+		private final int targetCost;
+		private long evaluations = -1;
+
+		EvaluationsToTarget(GeneticAlgorithm geneticAlgorithm, int targetCost) {
+			this.geneticAlgorithm = geneticAlgorithm;
+			this.targetCost = targetCost;
+		}
+
+		@Override
+		public void generationEvaluated(int generation, Individual bestIndividual) {
+			if (evaluations < 0 && bestIndividual.getFitnessValue() <= targetCost) {
+				evaluations = geneticAlgorithm.getEvaluationCount();
+			}
+		}
+	}
+}
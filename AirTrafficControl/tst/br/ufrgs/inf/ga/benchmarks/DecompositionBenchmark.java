@@ -0,0 +1,91 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.InstanceDecomposition;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.DecomposedScheduler;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.GeneticAlgorithmFactory;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+/**
+ * Compares one genetic algorithm over a long horizon instance with the decomposed scheduling of its independent clusters.
+ * The long horizon instance is made of copies of a bundled instance, each one shifted after the end of the previous one.
+ *
+ * Usage: DecompositionBenchmark &lt;instance file&gt; &lt;copies&gt;
+ *
+ * @author diego
+ *
+ */
+public class DecompositionBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(100, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 100;
+
+	public static void main(String[] args) throws Exception {
+		AircraftStaticData[] aircrafts = createLongHorizonInstance(AtcLoader.createATCInstanceFromFile(args[0]), Integer.parseInt(args[1]));
+		InstanceDecomposition decomposition = new InstanceDecomposition(aircrafts);
+		System.out.println(args[0] + " x " + args[1] + ": " + aircrafts.length + " aircrafts, " + decomposition.getClusterCount() +
+						   " clusters (largest: " + decomposition.getMaxClusterSize() + " aircrafts)");
+
+		long start = System.nanoTime();
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+		geneticAlgorithm.setInitializationSeed(1);
+		geneticAlgorithm.execute();
+		System.out.println("\tsingle genetic algorithm\tcost " + geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue() +
+						   "\t" + (System.nanoTime() - start) / 1000000 + " ms");
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		start = System.nanoTime();
+		DecomposedScheduler scheduler = new DecomposedScheduler(aircrafts, new GeneticAlgorithmFactory() {
+			@Override
+			public GeneticAlgorithm create(AircraftStaticData[] clusterAircrafts) {
+				GeneticAlgorithm clusterGeneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, clusterAircrafts);
+				clusterGeneticAlgorithm.setInitializationSeed(1);
+				clusterGeneticAlgorithm.setInitializationThreads(1);
+				return clusterGeneticAlgorithm;
+			}
+		}, MAX_GENERATIONS, threads);
+		scheduler.execute();
+		System.out.println("\tdecomposed (" + threads + " threads)\tcost " + scheduler.getSolution().getBestIndividualFound().getFitnessValue() +
+						   "\t" + (System.nanoTime() - start) / 1000000 + " ms");
+	}
+
+	/**
+	 * Concatenates copies of an instance, each one shifted after the latest landing time (plus the max gap time) of the previous one.
+	 */
+	static AircraftStaticData[] createLongHorizonInstance(AircraftStaticData[] aircrafts, int copies) {
+		int aircraftCount = aircrafts.length;
+		int begin = Integer.MAX_VALUE;
+		int end = Integer.MIN_VALUE;
+		int maxGapTime = 0;
+		for (AircraftStaticData aircraft : aircrafts) {
+			begin = Math.min(begin, aircraft.getEarliestLandingTime());
+			end = Math.max(end, aircraft.getLatestLandingTime());
+			for (int j = 0; j < aircraftCount; j++) {
+				if (j != aircraft.getAircraftId()) {
+					maxGapTime = Math.max(maxGapTime, aircraft.getGapTimeBetweenLandings()[j]);
+				}
+			}
+		}
+		int shift = end + maxGapTime - begin;
+
+		AircraftStaticData[] longHorizonAircrafts = new AircraftStaticData[copies * aircraftCount];
+		for (int i = 0; i < longHorizonAircrafts.length; i++) {
+			AircraftStaticData aircraft = aircrafts[i % aircraftCount];
+			int offset = (i / aircraftCount) * shift;
+			// the gap after another copy of the same aircraft (always in another cluster) is taken from the next aircraft.
+			int[] gapTimeBetweenLandings = new int[longHorizonAircrafts.length];
+			for (int j = 0; j < longHorizonAircrafts.length; j++) {
+				gapTimeBetweenLandings[j] = i == j ? aircraft.getGapTimeBetweenLandings()[aircraft.getAircraftId()]
+												  : aircraft.getGapTimeBetweenLandings()[j % aircraftCount == i % aircraftCount ? (j + 1) % aircraftCount : j % aircraftCount];
+			}
+			longHorizonAircrafts[i] = new AircraftStaticData(i, aircraft.getAppearanceTime() + offset, aircraft.getEarliestLandingTime() + offset,
+					aircraft.getTargetLandingTime() + offset, aircraft.getLatestLandingTime() + offset,
+					aircraft.getLandingBeforeTargetTimePenaltyCost(), aircraft.getLandingAfterTargetTimePenaltyCost(), gapTimeBetweenLandings);
+		}
+		AtcLoader.detectAircraftClasses(longHorizonAircrafts);
+		return longHorizonAircrafts;
+	}
+}
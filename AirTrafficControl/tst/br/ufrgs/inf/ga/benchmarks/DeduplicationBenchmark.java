@@ -0,0 +1,52 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GenerationListener;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+/**
+ * Prints the best cost versus fitness evaluations curve of the genetic algorithm with and without the
+ * duplicate free population, one line per improvement of the best individual, and the uniqueness ratio
+ * of the final population.
+ *
+ * Usage: DeduplicationBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class DeduplicationBenchmark {
+
+	private static final int MAX_GENERATIONS = 300;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+
+			System.out.println("# " + fileName + " without deduplication");
+			run(new GeneticAlgorithm(new PopulationConfig(500, 0.3f, 0.1f, false), MAX_GENERATIONS, aircrafts));
+
+			System.out.println("# " + fileName + " with deduplication");
+			run(new GeneticAlgorithm(new PopulationConfig(500, 0.3f, 0.1f, true), MAX_GENERATIONS, aircrafts));
+		}
+	}
+
+	private static void run(final GeneticAlgorithm geneticAlgorithm) throws Exception {
+		geneticAlgorithm.setGenerationListener(new GenerationListener() {
+			private int lastCost = -1;
+
+			@Override
+			public void generationEvaluated(int generation, Individual bestIndividual) {
+				if (bestIndividual.getFitnessValue() != lastCost) {
+					lastCost = bestIndividual.getFitnessValue();
+					System.out.println(geneticAlgorithm.getEvaluationCount() + " evaluations\tgeneration " + generation + "\tcost " + lastCost);
+				}
+			}
+		});
+		geneticAlgorithm.execute();
+		System.out.println(geneticAlgorithm.getEvaluationCount() + " evaluations\tfinished, cost " + geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue() +
+						   "\tuniqueness ratio " + geneticAlgorithm.getSolution().getPopulation().getUniquenessRatio());
+	}
+}
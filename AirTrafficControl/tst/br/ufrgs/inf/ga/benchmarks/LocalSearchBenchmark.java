@@ -0,0 +1,56 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GenerationListener;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.LocalSearchConfig;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.operators.Neighbourhood;
+import br.ufrgs.inf.ga.operators.VariableNeighbourhoodDescent;
+
+/**
+ * Prints the best cost versus time curve of the plain genetic algorithm and of the memetic one
+ * (local search on the elite individuals), one line per improvement of the best individual.
+ *
+ * Usage: LocalSearchBenchmark &lt;instance file&gt; [elite size] [moves per generation]
+ *
+ * @author diego
+ *
+ */
+public class LocalSearchBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(args[0]);
+		int eliteSize = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		int moves = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+		PopulationConfig config = new PopulationConfig(500, 0.3f, 0.1f);
+
+		System.out.println("# plain genetic algorithm");
+		run(new GeneticAlgorithm(config, 300, aircrafts));
+
+		System.out.println("# memetic genetic algorithm (elite " + eliteSize + ", " + moves + " moves per generation)");
+		GeneticAlgorithm memetic = new GeneticAlgorithm(config, 300, aircrafts);
+		memetic.enableLocalSearch(new VariableNeighbourhoodDescent(Neighbourhood.SWAP, Neighbourhood.INSERTION, Neighbourhood.TWO_OPT),
+								  new LocalSearchConfig(eliteSize, moves));
+		run(memetic);
+	}
+
+	private static void run(GeneticAlgorithm geneticAlgorithm) throws Exception {
+		final long start = System.nanoTime();
+		geneticAlgorithm.setGenerationListener(new GenerationListener() {
+			private int lastCost = -1;
+
+			@Override
+			public void generationEvaluated(int generation, Individual bestIndividual) {
+				if (bestIndividual.getFitnessValue() != lastCost) {
+					lastCost = bestIndividual.getFitnessValue();
+					System.out.println((System.nanoTime() - start) / 1000000 + " ms\tgeneration " + generation + "\tcost " + lastCost);
+				}
+			}
+		});
+		geneticAlgorithm.execute();
+		System.out.println((System.nanoTime() - start) / 1000000 + " ms\tfinished, cost " + geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue());
+	}
+}
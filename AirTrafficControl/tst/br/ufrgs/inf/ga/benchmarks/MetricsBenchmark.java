@@ -0,0 +1,67 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import java.util.Arrays;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.GeneticAlgorithmMetrics;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+/**
+ * Measures the overhead of the metrics: runs the genetic algorithm alternately with and without them and prints the median
+ * time per fitness evaluation of each one (the runs stop at different generations, so the time of a run can't be compared),
+ * and the metrics of the last measured run.
+ *
+ * Usage: MetricsBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class MetricsBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(500, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 300;
+
+	private static final int WARM_UP_ROUNDS = 3;
+
+	private static final int ROUNDS = 11;
+
+	private static final long SEED = 42;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+			double[] withoutMetrics = new double[ROUNDS];
+			double[] withMetrics = new double[ROUNDS];
+			GeneticAlgorithmMetrics lastMetrics = null;
+			for (int round = -WARM_UP_ROUNDS; round < ROUNDS; round++) {
+				for (boolean measured : new boolean[] { false, true }) {
+					GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+					geneticAlgorithm.setInitializationSeed(SEED);
+					if (measured) {
+						lastMetrics = geneticAlgorithm.enableMetrics();
+					}
+					long start = System.nanoTime();
+					geneticAlgorithm.execute();
+					double timePerEvaluation = (double) (System.nanoTime() - start) / geneticAlgorithm.getEvaluationCount();
+					if (round >= 0) {
+						(measured ? withMetrics : withoutMetrics)[round] = timePerEvaluation;
+					}
+				}
+			}
+			double without = median(withoutMetrics);
+			double with = median(withMetrics);
+			System.out.println(String.format("%s (%d aircrafts)\twithout metrics %.1f ns/evaluation\twith metrics %.1f ns/evaluation\toverhead %.2f%%",
+											 fileName, aircrafts.length, without, with, (with / without - 1) * 100));
+			System.out.println("\t" + lastMetrics.snapshot());
+		}
+	}
+
+	private static double median(double[] values) {
+		double[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+}
@@ -0,0 +1,90 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.atc.model.TimeWindowOverlapGraph;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.IndividualCreator;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.operators.MutationOperator;
+import br.ufrgs.inf.ga.operators.MutationType;
+
+/**
+ * Compares the mutation operations: rate of feasible offsprings, rate of offsprings better than the mutated individual,
+ * mean cost change of the feasible offsprings of feasible individuals, and the final cost of the genetic algorithm.
+ *
+ * Usage: MutationBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class MutationBenchmark {
+
+	private static final int PARENTS = 100;
+
+	private static final int MUTATIONS = 20000;
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(500, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 300;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+			AtcInstance instance = new AtcInstance(aircrafts);
+			System.out.println(fileName + " (" + aircrafts.length + " aircrafts, " +
+							   new TimeWindowOverlapGraph(instance, 0).getAverageCandidateCount() + " overlapping windows per aircraft)");
+
+			FitnessEvaluator fitnessEvaluator = new FitnessEvaluator();
+			LandingTimeScheduler scheduler = new LandingTimeScheduler();
+			IndividualCreator individualCreator = new IndividualCreator(new LandingSequenceCreator(aircrafts), fitnessEvaluator, scheduler);
+			Individual[] parents = new Individual[PARENTS];
+			for (int i = 0; i < PARENTS; i++) {
+				parents[i] = i % 2 == 0 ? individualCreator.createIndividualClosestAsPossibleFromTargetTime() : individualCreator.createRandomIndividual();
+			}
+
+			for (MutationType mutationType : MutationType.values()) {
+				MutationOperator mutationOperator = new MutationOperator(scheduler, fitnessEvaluator);
+				mutationOperator.setMutationType(mutationType, instance);
+
+				int feasible = 0;
+				int improved = 0;
+				int measured = 0;
+				double costChange = 0;
+				long start = System.nanoTime();
+				for (int i = 0; i < MUTATIONS; i++) {
+					Individual parent = parents[i % PARENTS];
+					Individual son = parent.clone();
+					mutationOperator.execute(son);
+					if (son.getFitnessValue() != Integer.MAX_VALUE) {
+						feasible++;
+						if (parent.getFitnessValue() != Integer.MAX_VALUE) {
+							measured++;
+							costChange += son.getFitnessValue() - parent.getFitnessValue();
+						}
+					}
+					if (son.getFitnessValue() < parent.getFitnessValue()) {
+						improved++;
+					}
+				}
+				long elapsed = System.nanoTime() - start;
+
+				GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+				geneticAlgorithm.setMutationType(mutationType);
+				geneticAlgorithm.execute();
+
+				System.out.println("\t" + mutationType +
+								   "\tfeasible " + 100.0 * feasible / MUTATIONS + "%" +
+								   "\timproved " + 100.0 * improved / MUTATIONS + "%" +
+								   "\tmean cost change " + (measured == 0 ? "-" : String.valueOf(costChange / measured)) +
+								   "\t" + elapsed / MUTATIONS / 1000.0 + " us/mutation" +
+								   "\tGA final cost " + geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue());
+			}
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.MultiObjectiveGeneticAlgorithm;
+import br.ufrgs.inf.ga.NonDominatedSorting;
+import br.ufrgs.inf.ga.model.ParetoFront;
+
+/**
+ * Measures the time of the non-dominated sorting of random 3-objective populations (sequential and parallel), and runs
+ * the multi-objective genetic algorithm on each instance, printing its time and the size of its Pareto front.
+ *
+ * Usage: NonDominatedSortingBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class NonDominatedSortingBenchmark {
+
+	private static final int OBJECTIVE_COUNT = 3;
+
+	private static final int[] SIZES = { 1000, 2000, 4000, 8000 };
+
+	private static final int REPETITIONS = 5;
+
+	private static final int POPULATION_SIZE = 500;
+
+	private static final int MAX_GENERATIONS = 200;
+
+	public static void main(String[] args) throws Exception {
+		Random random = new Random(46);
+		NonDominatedSorting sorting = new NonDominatedSorting(OBJECTIVE_COUNT);
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			for (int size : SIZES) {
+				double[] objectives = new double[size * OBJECTIVE_COUNT];
+				for (int i = 0; i < size; i++) {
+					// conflicting objectives, like the ones of a population close to the front.
+					double cost = random.nextDouble();
+					objectives[i * OBJECTIVE_COUNT] = cost;
+					objectives[i * OBJECTIVE_COUNT + 1] = 1 - cost + random.nextDouble() * 0.5;
+					objectives[i * OBJECTIVE_COUNT + 2] = random.nextInt(20);
+				}
+				long sequentialTime = Long.MAX_VALUE;
+				long parallelTime = Long.MAX_VALUE;
+				int frontCount = 0;
+				for (int r = 0; r < REPETITIONS; r++) {
+					long start = System.nanoTime();
+					frontCount = sorting.sort(objectives, size, null);
+					sequentialTime = Math.min(sequentialTime, System.nanoTime() - start);
+					start = System.nanoTime();
+					sorting.sort(objectives, size, pool);
+					parallelTime = Math.min(parallelTime, System.nanoTime() - start);
+				}
+				System.out.println(String.format("size %d\tfronts %d\tsequential %.2f ms\tparallel %.2f ms (%d threads)",
+						size, frontCount, sequentialTime / 1e6, parallelTime / 1e6, pool.getParallelism()));
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+			long start = System.nanoTime();
+			MultiObjectiveGeneticAlgorithm algorithm = new MultiObjectiveGeneticAlgorithm(aircrafts, POPULATION_SIZE, MAX_GENERATIONS, 0.2f);
+			algorithm.setSeed(1);
+			algorithm.execute();
+			ParetoFront front = algorithm.getSolution().getParetoFront();
+			System.out.println(String.format("%s (%d aircrafts)\t%d ms\tfront size %d\tbest cost %d",
+					fileName, aircrafts.length, (System.nanoTime() - start) / 1000000, front.size(),
+					algorithm.getSolution().getBestIndividualFound().getFitnessValue()));
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.model.IndividualCreator;
+import br.ufrgs.inf.ga.objectives.ObjectiveType;
+
+/**
+ * Compares the time per evaluation of the objective functions (through the {@link FitnessEvaluator}) with the linear cost
+ * loop that was hardcoded in the evaluator, over the same landing schedules. Each measure is the best of several rounds,
+ * after warm up rounds, and the results are summed, so the JIT can't remove the evaluations.
+ *
+ * <p>
+ * If an objective is given, only the baseline and that objective are measured, so the objective call in the evaluator
+ * sees a single class (as in a real run). Otherwise all of them are measured in the same JVM.
+ * </p>
+ *
+ * Usage: ObjectiveBenchmark &lt;instance file&gt; [linear_cost|makespan|weighted_delay|quadratic_delay]
+ *
+ * @author diego
+ *
+ */
+public class ObjectiveBenchmark {
+
+	private static final int SCHEDULES = 1000;
+
+	private static final int EVALUATIONS = 2000000;
+
+	private static final int WARM_UP_ROUNDS = 5;
+
+	private static final int ROUNDS = 10;
+
+	private static final LongAdder BASELINE_EVALUATIONS = new LongAdder();
+
+	public static void main(String[] args) throws Exception {
+		AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(args[0]);
+		ObjectiveType[] objectiveTypes = args.length > 1 ? new ObjectiveType[] { ObjectiveType.valueOf(args[1].toUpperCase()) } : ObjectiveType.values();
+
+		IndividualCreator individualCreator = new IndividualCreator(new LandingSequenceCreator(aircrafts), new FitnessEvaluator(), new LandingTimeScheduler());
+		Aircraft[][] landingSequences = new Aircraft[SCHEDULES][];
+		int feasible = 0;
+		for (int i = 0; i < SCHEDULES; i++) {
+			landingSequences[i] = (i % 2 == 0 ? individualCreator.createIndividualClosestAsPossibleFromTargetTime() :
+												individualCreator.createRandomIndividual()).getAircraftLandingSequence();
+			if (hardcodedEvaluate(landingSequences[i]) != Integer.MAX_VALUE) {
+				feasible++;
+			}
+		}
+		System.out.println(args[0] + " (" + aircrafts.length + " aircrafts, " + feasible + " of " + SCHEDULES + " schedules feasible)");
+
+		long sink = 0;
+		long baselineTime = Long.MAX_VALUE;
+		for (int round = 0; round < WARM_UP_ROUNDS + ROUNDS; round++) {
+			long start = System.nanoTime();
+			sink += evaluateHardcoded(landingSequences);
+			if (round >= WARM_UP_ROUNDS) {
+				baselineTime = Math.min(baselineTime, System.nanoTime() - start);
+			}
+		}
+		System.out.println(String.format("\thardcoded linear cost\t%.1f ns/evaluation", baselineTime / (double) EVALUATIONS));
+
+		for (ObjectiveType objectiveType : objectiveTypes) {
+			FitnessEvaluator fitnessEvaluator = new FitnessEvaluator(objectiveType.createObjectiveFunction());
+			long time = Long.MAX_VALUE;
+			for (int round = 0; round < WARM_UP_ROUNDS + ROUNDS; round++) {
+				long start = System.nanoTime();
+				sink += evaluate(fitnessEvaluator, landingSequences);
+				if (round >= WARM_UP_ROUNDS) {
+					time = Math.min(time, System.nanoTime() - start);
+				}
+			}
+			System.out.println(String.format("\t%s\t%.1f ns/evaluation (%.2fx the hardcoded loop)",
+					objectiveType, time / (double) EVALUATIONS, time / (double) baselineTime));
+		}
+		System.out.println("\tchecksum " + sink);
+	}
+
+	/**
+	 * A round of evaluations (a method per round, so it is compiled as a whole and not replaced on the stack).
+	 */
+	private static long evaluate(FitnessEvaluator fitnessEvaluator, Aircraft[][] landingSequences) {
+		long sum = 0;
+		for (int i = 0; i < EVALUATIONS; i++) {
+			sum += fitnessEvaluator.evaluate(landingSequences[i % SCHEDULES]);
+		}
+		return sum;
+	}
+
+	private static long evaluateHardcoded(Aircraft[][] landingSequences) {
+		long sum = 0;
+		for (int i = 0; i < EVALUATIONS; i++) {
+			sum += hardcodedEvaluate(landingSequences[i % SCHEDULES]);
+		}
+		return sum;
+	}
+
+	/**
+	 * The linear cost evaluation as it was hardcoded in the {@link FitnessEvaluator} (accumulated in an int, and counted).
+	 */
+	private static int hardcodedEvaluate(Aircraft[] aircraftLandingSequence) {
+		BASELINE_EVALUATIONS.increment();
+		int fitnessValue = 0;
+		for (int i = 0; i < aircraftLandingSequence.length; i++) {
+			Aircraft aircraft = aircraftLandingSequence[i];
+			if (!aircraft.landingTimeIsInLandingTimeWindow()) {
+				return Integer.MAX_VALUE;
+			}
+			if (i != 0 && !aircraft.respectsGapTimeBetween(aircraftLandingSequence[i - 1])) {
+				return Integer.MAX_VALUE;
+			}
+			fitnessValue += aircraft.getLandingCost();
+		}
+		return fitnessValue;
+	}
+}
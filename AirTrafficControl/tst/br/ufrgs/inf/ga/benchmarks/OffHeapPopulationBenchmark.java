@@ -0,0 +1,133 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.IndividualCreator;
+import br.ufrgs.inf.ga.model.OffHeapPopulation;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+/**
+ * Compares the heap usage and the GC time of the on heap {@link Population} and of the {@link OffHeapPopulation}
+ * for large populations. Each replacement creates a son from a random individual (one swap of adjacent aircrafts)
+ * and replaces the less adapted individual by it.
+ *
+ * Usage: OffHeapPopulationBenchmark &lt;instance file&gt; [replacements] (run with a large -Xmx, e.g. -Xmx3g)
+ *
+ * @author diego
+ *
+ */
+public class OffHeapPopulationBenchmark {
+
+	private static final int[] POPULATION_SIZES = { 100000, 200000, 400000 };
+
+	public static void main(String[] args) throws Exception {
+		AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(args[0]);
+		int replacements = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		IndividualCreator individualCreator = new IndividualCreator(new LandingSequenceCreator(aircrafts), new FitnessEvaluator(), new LandingTimeScheduler());
+		Individual[] seeds = new Individual[100];
+		for (int i = 0; i < seeds.length; i++) {
+			seeds[i] = individualCreator.createRandomIndividual();
+		}
+
+		for (int populationSize : POPULATION_SIZES) {
+			runOnHeap(seeds, populationSize, replacements);
+			runOffHeap(seeds, aircrafts.length, populationSize, replacements);
+		}
+	}
+
+	private static void runOnHeap(Individual[] seeds, int populationSize, int replacements) {
+		Random random = new Random(1);
+		long gcTime = getGcTime();
+		long start = System.nanoTime();
+
+		List<Individual> individuals = new ArrayList<Individual>(populationSize);
+		for (int i = 0; i < populationSize; i++) {
+			Individual individual = seeds[i % seeds.length].clone();
+			individual.setFitnessValue(random.nextInt(100000));
+			individuals.add(individual);
+		}
+		Population population = new Population(new PopulationConfig(populationSize, 0.3f, 0.1f), individuals);
+		population.sortByFitness();
+
+		for (int i = 0; i < replacements; i++) {
+			Individual son = population.get(random.nextInt(population.getSize())).clone();
+			Aircraft[] landingSequence = son.getAircraftLandingSequence();
+			int position = random.nextInt(landingSequence.length - 1);
+			Aircraft swap = landingSequence[position];
+			landingSequence[position] = landingSequence[position + 1];
+			landingSequence[position + 1] = swap;
+			son.setFitnessValue(son.getFitnessValue() + random.nextInt(100) - 50);
+			population.replaceWithLessAdaptedIndividual(son);
+		}
+
+		long time = System.nanoTime() - start;
+		gcTime = getGcTime() - gcTime;
+		// the population is used after the measure, so it is still reachable.
+		long heapUsed = getHeapUsed();
+		report("on heap ", population.getSize(), time, gcTime, heapUsed);
+	}
+
+	private static void runOffHeap(Individual[] seeds, int aircraftCount, int populationSize, int replacements) {
+		Random random = new Random(1);
+		long gcTime = getGcTime();
+		long start = System.nanoTime();
+
+		OffHeapPopulation population = new OffHeapPopulation(aircraftCount, populationSize);
+		int[] aircraftIds = new int[aircraftCount];
+		int[] landingTimes = new int[aircraftCount];
+		for (int i = 0; i < populationSize; i++) {
+			Aircraft[] landingSequence = seeds[i % seeds.length].getAircraftLandingSequence();
+			for (int j = 0; j < aircraftCount; j++) {
+				aircraftIds[j] = landingSequence[j].getId();
+				landingTimes[j] = landingSequence[j].getLandingTime();
+			}
+			population.add(aircraftIds, landingTimes, random.nextInt(100000));
+		}
+		population.sortByFitness();
+
+		for (int i = 0; i < replacements; i++) {
+			int slot = population.getSlot(random.nextInt(population.getSize()));
+			population.read(slot, aircraftIds, landingTimes);
+			int position = random.nextInt(aircraftCount - 1);
+			int swap = aircraftIds[position];
+			aircraftIds[position] = aircraftIds[position + 1];
+			aircraftIds[position + 1] = swap;
+			population.replaceLessAdaptedIndividual(aircraftIds, landingTimes, population.getFitnessValue(slot) + random.nextInt(100) - 50);
+		}
+
+		long time = System.nanoTime() - start;
+		gcTime = getGcTime() - gcTime;
+		long heapUsed = getHeapUsed();
+		report("off heap", population.getSize(), time, gcTime, heapUsed);
+	}
+
+	private static void report(String store, int populationSize, long time, long gcTime, long heapUsed) {
+		System.out.println(store + "\tpopulation " + populationSize + "\ttime " + time / 1000000 + " ms\tGC time " + gcTime + " ms\theap used " + heapUsed / (1024 * 1024) + " MB");
+	}
+
+	private static long getHeapUsed() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static long getGcTime() {
+		long gcTime = 0;
+		for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			gcTime += Math.max(0, garbageCollector.getCollectionTime());
+		}
+		return gcTime;
+	}
+}
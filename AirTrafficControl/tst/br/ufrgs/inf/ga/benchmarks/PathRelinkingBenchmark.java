@@ -0,0 +1,56 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.PathRelinkingConfig;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.operators.PathRelinkingOperator;
+
+/**
+ * Compares the final cost and time of the genetic algorithm without and with the path relinking stage, for the same
+ * initial populations (seeds), and prints the cost reductions found by the relinking.
+ *
+ * Usage: PathRelinkingBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class PathRelinkingBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(500, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 300;
+
+	private static final PathRelinkingConfig RELINKING_CONFIG = new PathRelinkingConfig(6, 2, 10);
+
+	private static final int SEEDS = 3;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+			System.out.println(fileName + " (" + aircrafts.length + " aircrafts)");
+
+			for (int seed = 1; seed <= SEEDS; seed++) {
+				long start = System.nanoTime();
+				GeneticAlgorithm plain = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+				plain.setInitializationSeed(seed);
+				plain.execute();
+				long plainTime = (System.nanoTime() - start) / 1000000;
+
+				start = System.nanoTime();
+				GeneticAlgorithm relinked = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+				relinked.setInitializationSeed(seed);
+				relinked.enablePathRelinking(RELINKING_CONFIG);
+				relinked.execute();
+				long relinkedTime = (System.nanoTime() - start) / 1000000;
+
+				PathRelinkingOperator relinking = relinked.getPathRelinkingOperator();
+				System.out.println(String.format("\tseed %d\tplain cost %d (%d ms)\trelinking cost %d (%d ms)\tpaths %d, improving %d, cost reduction %.0f",
+						seed, plain.getSolution().getBestIndividualFound().getFitnessValue(), plainTime,
+						relinked.getSolution().getBestIndividualFound().getFitnessValue(), relinkedTime,
+						relinking.getRelinkedPathCount(), relinking.getImprovingPathCount(), relinking.getTotalImprovement()));
+			}
+		}
+	}
+}
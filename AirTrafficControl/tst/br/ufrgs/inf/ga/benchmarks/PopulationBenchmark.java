@@ -0,0 +1,133 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.IndividualCreator;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+/**
+ * Compares the population bookkeeping cost of a generation (rank selection, replacement of the parents by
+ * their sons, mutation of the bottom half and search for the best individual) in the array-backed
+ * {@link Population} and in the original <code>LinkedList</code> implementation (replacement by
+ * {@link Individual#equals(Object)} and full sort after every change).
+ * Only the population operations are timed: the sons and the mutations just change fitness values.
+ *
+ * Usage: PopulationBenchmark &lt;instance file&gt; [generations]
+ *
+ * @author diego
+ *
+ */
+public class PopulationBenchmark {
+
+	private static final int[] POPULATION_SIZES = { 500, 1000, 10000 };
+
+	private static final float REPRODUCTION_RATE = 0.3f;
+
+	private static final float MUTATION_RATE = 0.1f;
+
+	public static void main(String[] args) throws Exception {
+		AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(args[0]);
+		int generations = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		IndividualCreator individualCreator = new IndividualCreator(new LandingSequenceCreator(aircrafts), new FitnessEvaluator(), new LandingTimeScheduler());
+
+		for (int populationSize : POPULATION_SIZES) {
+			List<Individual> individuals = new ArrayList<Individual>();
+			for (int i = 0; i < populationSize; i++) {
+				individuals.add(individualCreator.createRandomIndividual());
+			}
+			PopulationConfig config = new PopulationConfig(populationSize, REPRODUCTION_RATE, MUTATION_RATE);
+
+			// warm up
+			runArrayPopulation(config, individuals, generations / 10 + 1);
+			runLinkedListPopulation(config, individuals, generations / 10 + 1);
+
+			long arrayTime = runArrayPopulation(config, individuals, generations);
+			long linkedListTime = runLinkedListPopulation(config, individuals, generations);
+			System.out.println("population " + populationSize + "\tarray " + (arrayTime / generations / 1000) + " us/generation" +
+							   "\tlinked list " + (linkedListTime / generations / 1000) + " us/generation");
+		}
+	}
+
+	private static long runArrayPopulation(PopulationConfig config, List<Individual> individuals, int generations) {
+		Random random = new Random(1);
+		Population population = new Population(config, copy(individuals));
+		int pairs = (int) (config.getMaxIndividuals() * config.getReproductionRate());
+		int mutations = (int) (config.getMaxIndividuals() * config.getMutationRate());
+
+		long start = System.nanoTime();
+		for (int generation = 0; generation < generations; generation++) {
+			population.getMostAdaptedIndividual();
+			population.sortByFitness();
+			List<Individual[]> parents = new ArrayList<Individual[]>(pairs);
+			for (int i = 0; i < pairs; i++) {
+				parents.add(new Individual[] { population.get(i), population.get(i + 1) });
+			}
+			for (Individual[] pair : parents) {
+				population.replace(createSon(pair[1], random), pair[1]);
+			}
+			int mutationStartIndex = population.getSize() / 2;
+			for (int i = 0; i < mutations; i++) {
+				int index = mutationStartIndex + random.nextInt(population.getSize() - mutationStartIndex);
+				mutate(population.get(index), random);
+				population.fitnessValueChanged(index);
+			}
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static long runLinkedListPopulation(PopulationConfig config, List<Individual> individuals, int generations) {
+		Random random = new Random(1);
+		LinkedList<Individual> population = new LinkedList<Individual>(copy(individuals));
+		int pairs = (int) (config.getMaxIndividuals() * config.getReproductionRate());
+		int mutations = (int) (config.getMaxIndividuals() * config.getMutationRate());
+
+		long start = System.nanoTime();
+		for (int generation = 0; generation < generations; generation++) {
+			Collections.sort(population);
+			population.get(0);
+			List<Individual[]> parents = new ArrayList<Individual[]>(pairs);
+			for (int i = 0; i < pairs; i++) {
+				parents.add(new Individual[] { population.get(i), population.get(i + 1) });
+			}
+			for (Individual[] pair : parents) {
+				Individual son = createSon(pair[1], random);
+				if (population.remove(pair[1])) {
+					population.add(0, son);
+				}
+			}
+			int mutationStartIndex = population.size() / 2;
+			for (int i = 0; i < mutations; i++) {
+				mutate(population.get(mutationStartIndex + random.nextInt(population.size() - mutationStartIndex)), random);
+			}
+			Collections.sort(population);
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static List<Individual> copy(List<Individual> individuals) {
+		List<Individual> copy = new ArrayList<Individual>(individuals.size());
+		for (Individual individual : individuals) {
+			copy.add(individual.clone());
+		}
+		return copy;
+	}
+
+	private static Individual createSon(Individual parent, Random random) {
+		return new Individual(parent.getAircraftLandingSequence(), Math.max(0, parent.getFitnessValue() - random.nextInt(100)));
+	}
+
+	private static void mutate(Individual individual, Random random) {
+		individual.setFitnessValue(Math.max(0, individual.getFitnessValue() + random.nextInt(200) - 100));
+	}
+}
@@ -0,0 +1,71 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import java.util.Random;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.PopulationInitializer;
+import br.ufrgs.inf.ga.model.IndividualCreator;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+/**
+ * Measures the time to create the initial population with 1, 2, 4, ... threads (up to the number of processors).
+ * Without an instance file, a random instance with 500 aircrafts is used.
+ *
+ * Usage: PopulationInitializationBenchmark [instance file] [population size]
+ *
+ * @author diego
+ *
+ */
+public class PopulationInitializationBenchmark {
+
+	private static final int RANDOM_INSTANCE_AIRCRAFTS = 500;
+
+	private static final int REPETITIONS = 5;
+
+	public static void main(String[] args) throws Exception {
+		AircraftStaticData[] aircrafts = args.length > 0 ? AtcLoader.createATCInstanceFromFile(args[0]) : createRandomInstance(RANDOM_INSTANCE_AIRCRAFTS);
+		int populationSize = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		PopulationConfig config = new PopulationConfig(populationSize, 0.3f, 0.1f);
+		int processors = Runtime.getRuntime().availableProcessors();
+
+		for (int threads = 1; ; threads = Math.min(2 * threads, processors)) {
+			IndividualCreator individualCreator = new IndividualCreator(new LandingSequenceCreator(aircrafts), new FitnessEvaluator(), new LandingTimeScheduler());
+			PopulationInitializer initializer = new PopulationInitializer(individualCreator, config);
+			initializer.setSeed(1);
+			initializer.setThreads(threads);
+
+			long best = Long.MAX_VALUE;
+			Population population = null;
+			for (int i = 0; i < REPETITIONS; i++) {
+				long start = System.nanoTime();
+				population = initializer.createPopulation();
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			System.out.println("threads " + threads + "\tindividuals " + population.getSize() + "\taircrafts " + aircrafts.length
+					+ "\tbest time " + best / 1000000 + " ms\tbest fitness " + population.getMostAdaptedIndividual().getFitnessValue());
+
+			if (threads == processors) {
+				break;
+			}
+		}
+	}
+
+	private static AircraftStaticData[] createRandomInstance(int aircraftCount) {
+		Random random = new Random(5);
+		AircraftStaticData[] aircrafts = new AircraftStaticData[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			int target = 100 + random.nextInt(10 * aircraftCount);
+			int[] gaps = new int[aircraftCount];
+			for (int j = 0; j < aircraftCount; j++) {
+				gaps[j] = i == j ? 0 : 3 + random.nextInt(8);
+			}
+			aircrafts[i] = new AircraftStaticData(i, target - 100, target - 60, target, target + 600, 1 + random.nextInt(30), 1 + random.nextInt(30), gaps);
+		}
+		return aircrafts;
+	}
+}
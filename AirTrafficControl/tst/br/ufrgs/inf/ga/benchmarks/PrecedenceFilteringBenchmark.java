@@ -0,0 +1,62 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.PrecedenceMatrix;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.operators.CrossoverType;
+import br.ufrgs.inf.ga.operators.MutationType;
+
+/**
+ * Counts the fitness evaluations saved by the precedence filtering: runs the genetic algorithm with and without it
+ * (with the original operators and with OX and neighbour insertion) and prints the evaluations, the landing orders
+ * rejected before evaluation, the final cost and the time of each run.
+ *
+ * Usage: PrecedenceFilteringBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class PrecedenceFilteringBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(500, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 300;
+
+	private static final long SEED = 42;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+			int[] relations = new PrecedenceMatrix(new AtcInstance(aircrafts)).countRelations();
+			System.out.println(fileName + " (" + aircrafts.length + " aircrafts, " + relations[0] + " forbidden immediate precedences, " +
+							   relations[1] + " forced precedences)");
+
+			for (boolean recombination : new boolean[] { false, true }) {
+				for (boolean filtering : new boolean[] { false, true }) {
+					GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+					geneticAlgorithm.setInitializationSeed(SEED);
+					if (recombination) {
+						geneticAlgorithm.setCrossoverType(CrossoverType.OX);
+						geneticAlgorithm.setMutationType(MutationType.NEIGHBOUR_INSERTION);
+					}
+					if (filtering) {
+						geneticAlgorithm.enablePrecedenceFiltering();
+					}
+					long start = System.nanoTime();
+					geneticAlgorithm.execute();
+					long elapsed = System.nanoTime() - start;
+
+					System.out.println("\t" + (recombination ? "ox + neighbour insertion" : "parent copies + shuffle") +
+									   "\tfiltering " + filtering +
+									   "\tevaluations " + geneticAlgorithm.getEvaluationCount() +
+									   "\trejected orders " + (filtering ? geneticAlgorithm.getPrecedenceMatrix().getRejectedOrderCount() : 0) +
+									   "\tfinal cost " + geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue() +
+									   "\t" + elapsed / 1000000 + " ms");
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.SimulatedAnnealing;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+/**
+ * Head to head comparison of cost versus time: the genetic algorithm until its max generations, and the simulated
+ * annealing (with and without the tabu list) with increasing time limits.
+ *
+ * Usage: SimulatedAnnealingBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class SimulatedAnnealingBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(500, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 300;
+
+	private static final long[] TIME_LIMITS = { 10, 100, 1000 };
+
+	private static final int TABU_TENURE = 20;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+			System.out.println(fileName + " (" + aircrafts.length + " aircrafts)");
+
+			long start = System.nanoTime();
+			GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+			geneticAlgorithm.setInitializationSeed(1);
+			geneticAlgorithm.execute();
+			System.out.println(String.format("\tgenetic algorithm\tcost %d\t%d ms",
+					geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue(), (System.nanoTime() - start) / 1000000));
+
+			for (int tabuTenure : new int[] { 0, TABU_TENURE }) {
+				for (long timeLimit : TIME_LIMITS) {
+					SimulatedAnnealing annealing = new SimulatedAnnealing(aircrafts);
+					annealing.setSeed(1);
+					annealing.setMaxMoves(Long.MAX_VALUE);
+					annealing.setTimeLimit(timeLimit);
+					annealing.setTabuTenure(tabuTenure);
+					start = System.nanoTime();
+					annealing.execute();
+					long time = (System.nanoTime() - start) / 1000000;
+					System.out.println(String.format("\tannealing%s\tcost %d\t%d ms\t%.2f M moves/s",
+							tabuTenure > 0 ? " + tabu" : "", annealing.getSolution().getBestIndividualFound().getFitnessValue(), time,
+							annealing.getEvaluatedMoves() / (time * 1000.0)));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftClasses;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.GenerationListener;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.operators.CrossoverType;
+import br.ufrgs.inf.ga.operators.MutationType;
+
+/**
+ * Measures the search space reduction of the aircraft classes symmetry breaking and compares the genetic algorithm
+ * with and without it: mean final cost, and mean time and evaluations until the final best individual was found.
+ *
+ * Usage: SymmetryBreakingBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class SymmetryBreakingBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(500, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 300;
+
+	private static final int SEEDS = 3;
+
+	public static void main(String[] args) throws Exception {
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+			AircraftClasses aircraftClasses = new AircraftClasses(new AtcInstance(aircrafts));
+			double permutationsLog10 = 0;
+			for (int k = 2; k <= aircrafts.length; k++) {
+				permutationsLog10 += Math.log10(k);
+			}
+			System.out.println(String.format("%s (%d aircrafts, %d classes, %d chains): search space 10^%.1f -> 10^%.1f landing orders",
+					fileName, aircrafts.length, aircraftClasses.getClassCount(), aircraftClasses.getChainCount(),
+					permutationsLog10, permutationsLog10 - aircraftClasses.getSearchSpaceReductionLog10()));
+
+			for (boolean recombination : new boolean[] { false, true }) {
+				for (boolean symmetryBreaking : new boolean[] { false, true }) {
+					double cost = 0;
+					double timeToBest = 0;
+					double evaluationsToBest = 0;
+					for (int seed = 1; seed <= SEEDS; seed++) {
+						GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+						geneticAlgorithm.setInitializationSeed(seed);
+						if (recombination) {
+							geneticAlgorithm.setCrossoverType(CrossoverType.OX);
+							geneticAlgorithm.setMutationType(MutationType.NEIGHBOUR_INSERTION);
+						}
+						if (symmetryBreaking) {
+							geneticAlgorithm.enableSymmetryBreaking();
+						}
+						BestTracker bestTracker = new BestTracker(geneticAlgorithm);
+						geneticAlgorithm.setGenerationListener(bestTracker);
+						geneticAlgorithm.execute();
+
+						cost += geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue();
+						timeToBest += (bestTracker.bestTime - bestTracker.start) / 1e6;
+						evaluationsToBest += bestTracker.bestEvaluations;
+					}
+					System.out.println(String.format("\t%s\tsymmetry breaking %s\tmean cost %.1f\ttime to best %.0f ms\tevaluations to best %.0f",
+							recombination ? "ox + neighbour insertion" : "parent copies + shuffle", symmetryBreaking,
+							cost / SEEDS, timeToBest / SEEDS, evaluationsToBest / SEEDS));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Records when the best individual was last improved.
+	 */
+	private static class BestTracker implements GenerationListener {
+		private final GeneticAlgorithm geneticAlgorithm;
+		private final long start = System.nanoTime();
+		private int bestFitnessValue = Integer.MAX_VALUE;
+		private long bestTime = start;
+		private long bestEvaluations;
+
+		BestTracker(GeneticAlgorithm geneticAlgorithm) {
+			this.geneticAlgorithm = geneticAlgorithm;
+		}
+
+		@Override
+		public void generationEvaluated(int generation, Individual bestIndividual) {
+			if (bestIndividual.getFitnessValue() < bestFitnessValue) {
+				bestFitnessValue = bestIndividual.getFitnessValue();
+				bestTime = System.nanoTime();
+				bestEvaluations = geneticAlgorithm.getEvaluationCount();
+			}
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package br.ufrgs.inf.ga.benchmarks;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+
+import br.ufrgs.inf.atc.AirTrafficControl;
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.SolutionFile;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.Solution;
+
+/**
+ * Measures the time a warm started run takes to reach the quality of a cold started run
+ * on a perturbed version of an instance (a re-plan).
+ *
+ * <p>
+ * For each instance: solves the original instance and exports the solution, perturbs the
+ * target times of some aircrafts, solves the perturbed instance from scratch and then solves it
+ * again warm started from the exported solution, stopping as soon as the cold start cost is reached.
+ * </p>
+ *
+ * Usage: WarmStartBenchmark &lt;instance file&gt;...
+ *
+ * @author diego
+ *
+ */
+public class WarmStartBenchmark {
+
+	private static final PopulationConfig CONFIG = new PopulationConfig(500, 0.3f, 0.1f);
+
+	private static final int MAX_GENERATIONS = 300;
+
+	public static void main(String[] args) throws Exception {
+		Random random = new Random(42);
+		File solutionFile = File.createTempFile("atc-warmstart", ".txt");
+		solutionFile.deleteOnExit();
+
+		for (String fileName : args) {
+			AircraftStaticData[] aircrafts = AtcLoader.createATCInstanceFromFile(fileName);
+			Solution previousSolution = new GeneticAlgorithmRun(aircrafts).solve(null, Integer.MIN_VALUE).solution;
+			SolutionFile.exportSolutionToFile(previousSolution, solutionFile.getPath(), 10);
+			List<int[]> previousLandingSequences = SolutionFile.loadLandingSequencesFromFile(solutionFile.getPath());
+
+			AircraftStaticData[] perturbedAircrafts = perturb(aircrafts, random);
+			GeneticAlgorithmRun cold = new GeneticAlgorithmRun(perturbedAircrafts).solve(null, Integer.MIN_VALUE);
+			int coldCost = cold.solution.getBestIndividualFound().getFitnessValue();
+			GeneticAlgorithmRun warm = new GeneticAlgorithmRun(perturbedAircrafts).solve(previousLandingSequences, coldCost);
+			int warmCost = warm.solution.getBestIndividualFound().getFitnessValue();
+
+			System.out.println(fileName + ": cold cost " + coldCost + " in " + cold.millis + " ms (" + cold.solution.getGenerationCount() + " generations)" +
+							   ", warm cost " + warmCost + " in " + warm.millis + " ms (" + warm.solution.getGenerationCount() + " generations)");
+		}
+	}
+
+	/**
+	 * Shifts the target time of 10% of the aircrafts by up to 10 time units, inside the landing time window.
+	 */
+	private static AircraftStaticData[] perturb(AircraftStaticData[] aircrafts, Random random) {
+		AircraftStaticData[] perturbed = aircrafts.clone();
+		for (int n = 0; n < Math.max(1, aircrafts.length / 10); n++) {
+			AircraftStaticData a = aircrafts[random.nextInt(aircrafts.length)];
+			int target = a.getTargetLandingTime() + random.nextInt(21) - 10;
+			target = Math.max(a.getEarliestLandingTime(), Math.min(a.getLatestLandingTime(), target));
+			perturbed[a.getAircraftId()] = new AircraftStaticData(a.getAircraftId(), a.getAppearanceTime(), a.getEarliestLandingTime(), target,
+					a.getLatestLandingTime(), a.getLandingBeforeTargetTimePenaltyCost(), a.getLandingAfterTargetTimePenaltyCost(), a.getGapTimeBetweenLandings());
+		}
+		return perturbed;
+	}
+
+	private static class GeneticAlgorithmRun {
+		private final AircraftStaticData[] aircrafts;
+		private Solution solution;
+		private long millis;
+
+		GeneticAlgorithmRun(AircraftStaticData[] aircrafts) {
+			this.aircrafts = aircrafts;
+		}
+
+		GeneticAlgorithmRun solve(List<int[]> warmStartLandingSequences, int targetFitnessValue) throws Exception {
+			GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(CONFIG, MAX_GENERATIONS, aircrafts);
+			geneticAlgorithm.setWarmStartLandingSequences(warmStartLandingSequences);
+			geneticAlgorithm.setTargetFitnessValue(targetFitnessValue);
+			long start = System.nanoTime();
+			solution = new AirTrafficControl(geneticAlgorithm).scheduleAircraftsLandings();
+			millis = (System.nanoTime() - start) / 1000000;
+			return this;
+		}
+	}
+}
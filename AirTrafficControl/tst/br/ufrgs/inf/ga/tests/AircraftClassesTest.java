@@ -0,0 +1,104 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftClasses;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+
+public class AircraftClassesTest {
+
+	private static final int AIRCRAFT_COUNT = 24;
+
+	/**
+	 * Gap times between the aircraft types (heavy, medium, light): <code>GAP_TIMES[previous][next]</code>.
+	 */
+	private static final int[][] GAP_TIMES = { { 3, 8, 15 }, { 3, 3, 8 }, { 3, 3, 3 } };
+
+	@Test
+	public void classesAreDetectedTest() {
+		AircraftStaticData[] aircrafts = createAircrafts(new Random(17));
+		Assert.assertEquals(3, AtcLoader.detectAircraftClasses(aircrafts));
+		for (AircraftStaticData aircraft : aircrafts) {
+			Assert.assertEquals(aircraftType(aircraft.getAircraftId()), aircraft.getAircraftClass());
+		}
+
+		// a different penalty cost makes a class of its own.
+		aircrafts[5] = new AircraftStaticData(5, 0, aircrafts[5].getEarliestLandingTime(), aircrafts[5].getTargetLandingTime(),
+				aircrafts[5].getLatestLandingTime(), 99, 99, aircrafts[5].getGapTimeBetweenLandings());
+		Assert.assertEquals(4, AtcLoader.detectAircraftClasses(aircrafts));
+	}
+
+	@Test
+	public void enforcedOrderKeepsFeasibilityAndDoesNotIncreaseCostTest() {
+		Random random = new Random(19);
+		AircraftStaticData[] aircrafts = createAircrafts(random);
+		AtcLoader.detectAircraftClasses(aircrafts);
+		AtcInstance instance = new AtcInstance(aircrafts);
+		AircraftClasses aircraftClasses = new AircraftClasses(instance);
+		Assert.assertTrue(aircraftClasses.getSearchSpaceReductionLog10() > 0);
+
+		DeltaCostEvaluator deltaCostEvaluator = new DeltaCostEvaluator(instance);
+		FitnessEvaluator fitnessEvaluator = new FitnessEvaluator();
+		int[] aircraftIds = new int[AIRCRAFT_COUNT];
+		int[] landingTimes = new int[AIRCRAFT_COUNT];
+		int feasible = 0;
+		for (int n = 0; n < 500; n++) {
+			// orders near the target times order, with the best landing times of each order.
+			for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+				aircraftIds[i] = i;
+			}
+			for (int k = 0; k < 6; k++) {
+				int i = random.nextInt(AIRCRAFT_COUNT - 1);
+				int j = Math.min(AIRCRAFT_COUNT - 1, i + 1 + random.nextInt(3));
+				int swap = aircraftIds[i];
+				aircraftIds[i] = aircraftIds[j];
+				aircraftIds[j] = swap;
+			}
+			deltaCostEvaluator.evaluate(aircraftIds);
+			if (!deltaCostEvaluator.getLandingTimes(landingTimes)) {
+				continue;
+			}
+			feasible++;
+			Aircraft[] landingSequence = instance.createLandingSequence(aircraftIds, landingTimes);
+			int cost = fitnessEvaluator.evaluate(landingSequence);
+			Assert.assertTrue(cost != Integer.MAX_VALUE);
+
+			aircraftClasses.enforce(landingSequence);
+			int[] enforcedAircraftIds = new int[AIRCRAFT_COUNT];
+			AtcInstance.getAircraftIds(landingSequence, enforcedAircraftIds);
+			Assert.assertTrue(aircraftClasses.isCanonical(enforcedAircraftIds));
+			Assert.assertTrue(fitnessEvaluator.evaluate(landingSequence) <= cost);
+
+			aircraftClasses.enforce(aircraftIds);
+			Assert.assertArrayEquals(enforcedAircraftIds, aircraftIds);
+		}
+		Assert.assertTrue(feasible > 0);
+	}
+
+	private int aircraftType(int aircraftId) {
+		return aircraftId % 3;
+	}
+
+	private AircraftStaticData[] createAircrafts(Random random) {
+		AircraftStaticData[] aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int target = 100 + 6 * i + random.nextInt(10);
+			int[] gaps = new int[AIRCRAFT_COUNT];
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				// the gap is read from the aircraft that lands later.
+				gaps[j] = i == j ? 99999 : GAP_TIMES[aircraftType(j)][aircraftType(i)];
+			}
+			float cost = 10 * (aircraftType(i) + 1);
+			aircrafts[i] = new AircraftStaticData(i, 0, target - 10 - random.nextInt(30), target, target + 50 + random.nextInt(100), cost, cost, gaps);
+		}
+		return aircrafts;
+	}
+}
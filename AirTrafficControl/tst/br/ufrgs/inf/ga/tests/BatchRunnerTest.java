@@ -0,0 +1,93 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.BatchRunner;
+import br.ufrgs.inf.BatchRunner.Aggregate;
+import br.ufrgs.inf.BatchRunner.RunResult;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+
+public class BatchRunnerTest {
+
+	private static final int AIRCRAFT_COUNT = 10;
+
+	private static final int REPETITIONS = 3;
+
+	@Test
+	public void batchRunsEveryCombinationTest() throws Exception {
+		BatchRunner batchRunner = new BatchRunner(2);
+		batchRunner.addInstance("first", TestInstances.createAircrafts(new Random(49), AIRCRAFT_COUNT));
+		batchRunner.addInstance("second", TestInstances.createAircrafts(new Random(50), AIRCRAFT_COUNT));
+		batchRunner.addConfig("plain", new String[] { "30", "0.3", "0.1", "20" });
+		batchRunner.addConfig("ox", new String[] { "30", "0.3", "0.1", "20", "-crossover", "ox" });
+		batchRunner.setRepetitions(REPETITIONS);
+		batchRunner.setSeed(7);
+		batchRunner.setWarmUpRuns(1);
+
+		List<RunResult> results = batchRunner.execute();
+		Assert.assertEquals(2 * 2 * REPETITIONS, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			RunResult result = results.get(i);
+			Assert.assertEquals(i < 2 * REPETITIONS ? "first" : "second", result.getInstance());
+			Assert.assertEquals(7 + i % REPETITIONS, result.getSeed());
+			Assert.assertTrue(result.getGenerations() > 0);
+			Assert.assertTrue(result.getEvaluations() > 0);
+			Assert.assertTrue(result.getTimeToBest() <= result.getTime());
+		}
+
+		List<Aggregate> aggregates = batchRunner.aggregate(results);
+		Assert.assertEquals(4, aggregates.size());
+		Aggregate aggregate = aggregates.get(0);
+		Assert.assertEquals(REPETITIONS, aggregate.getRuns());
+		double sum = 0;
+		double squareSum = 0;
+		int minCost = Integer.MAX_VALUE;
+		for (RunResult result : results.subList(0, REPETITIONS)) {
+			if (result.isFeasible()) {
+				sum += result.getCost();
+				squareSum += (double) result.getCost() * result.getCost();
+				minCost = Math.min(minCost, result.getCost());
+			}
+		}
+		int feasibleRuns = aggregate.getFeasibleRuns();
+		if (feasibleRuns > 0) {
+			Assert.assertEquals(minCost, aggregate.getMinCost());
+			Assert.assertEquals(sum / feasibleRuns, aggregate.getMeanCost(), 1e-9);
+		}
+		if (feasibleRuns > 1) {
+			Assert.assertEquals(Math.sqrt((squareSum - sum * sum / feasibleRuns) / (feasibleRuns - 1)), aggregate.getCostStandardDeviation(), 1e-6);
+		}
+
+		StringWriter writer = new StringWriter();
+		batchRunner.writeResults(results, writer);
+		String[] lines = writer.toString().split("\n");
+		Assert.assertEquals(results.size() + aggregates.size(), lines.length);
+		Assert.assertTrue(lines[0].startsWith("{\"type\":\"run\",\"instance\":\"first\",\"config\":\"plain\",\"repetition\":1,\"seed\":7,"));
+		Assert.assertTrue(lines[lines.length - 1].startsWith("{\"type\":\"aggregate\",\"instance\":\"second\",\"config\":\"ox\",\"runs\":3,"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void otherModesAreRejectedTest() {
+		new BatchRunner(1).addConfig("annealing", new String[] { "30", "0.3", "0.1", "20", "-annealing", "1000" });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void multithreadedStagesAreRejectedTest() {
+		new BatchRunner(1).addConfig("memetic", new String[] { "30", "0.3", "0.1", "20", "-localsearch", "5" });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownOptionsAreRejectedTest() {
+		new BatchRunner(1).addConfig("typo", new String[] { "30", "0.3", "0.1", "20", "-crosover", "ox" });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void optionsWithoutValueAreRejectedTest() {
+		new BatchRunner(1).addConfig("truncated", new String[] { "30", "0.3", "0.1", "20", "-crossover", "ox", "-dedup" });
+	}
+}
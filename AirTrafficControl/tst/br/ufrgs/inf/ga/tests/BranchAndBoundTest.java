@@ -0,0 +1,103 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.AtcLoader;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.BranchAndBound;
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+import br.ufrgs.inf.ga.model.Solution;
+
+public class BranchAndBoundTest {
+
+	private static final int AIRCRAFT_COUNT = 7;
+
+	@Test
+	public void branchAndBoundFindsTheOptimalOrderTest() throws Exception {
+		Random random = new Random(31);
+		for (int round = 0; round < 20; round++) {
+			AircraftStaticData[] aircrafts = createAircrafts(random);
+			AtcInstance instance = new AtcInstance(aircrafts);
+			double optimalCost = enumerateOrders(instance);
+
+			for (int threads = 1; threads <= 3; threads += 2) {
+				BranchAndBound branchAndBound = new BranchAndBound(aircrafts, threads);
+				branchAndBound.execute();
+				Solution solution = branchAndBound.getSolution();
+				Assert.assertTrue(solution.isProvenOptimal());
+				if (optimalCost == DeltaCostEvaluator.INFEASIBLE_COST) {
+					Assert.assertEquals(Integer.MAX_VALUE, solution.getBestIndividualFound().getFitnessValue());
+				} else {
+					double cost = new DeltaCostEvaluator(instance).evaluate(solution.getBestIndividualFound().getAircraftLandingSequence());
+					Assert.assertEquals(optimalCost, cost, 1e-6);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the least cost of all the landing orders (Heap's algorithm).
+	 */
+	private double enumerateOrders(AtcInstance instance) {
+		DeltaCostEvaluator evaluator = new DeltaCostEvaluator(instance);
+		int[] aircraftIds = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			aircraftIds[i] = i;
+		}
+		double bestCost = evaluator.evaluate(aircraftIds);
+		int[] counters = new int[AIRCRAFT_COUNT];
+		int i = 1;
+		while (i < AIRCRAFT_COUNT) {
+			if (counters[i] < i) {
+				int j = i % 2 == 0 ? 0 : counters[i];
+				int swap = aircraftIds[i];
+				aircraftIds[i] = aircraftIds[j];
+				aircraftIds[j] = swap;
+				bestCost = Math.min(bestCost, evaluator.evaluate(aircraftIds));
+				counters[i]++;
+				i = 1;
+			} else {
+				counters[i] = 0;
+				i++;
+			}
+		}
+		return bestCost;
+	}
+
+	/**
+	 * Creates aircrafts with narrow time windows (so there are precedence relations), the last two of them identical
+	 * to the first two ones.
+	 */
+	private AircraftStaticData[] createAircrafts(Random random) {
+		int[] types = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			types[i] = i < AIRCRAFT_COUNT - 2 ? i : i - (AIRCRAFT_COUNT - 2);
+		}
+		int[][] typeGaps = new int[AIRCRAFT_COUNT][AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				typeGaps[i][j] = 5 + random.nextInt(10);
+			}
+		}
+		int[] targets = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			targets[i] = 100 + random.nextInt(50);
+		}
+
+		AircraftStaticData[] aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int[] gaps = new int[AIRCRAFT_COUNT];
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				gaps[j] = i == j ? 99999 : typeGaps[types[i]][types[j]];
+			}
+			aircrafts[i] = new AircraftStaticData(i, 0, targets[i] - 20 - random.nextInt(20), targets[i], targets[i] + 40 + random.nextInt(60),
+												   10 + types[i], 20 + 3 * types[i], gaps);
+		}
+		Assert.assertEquals(AIRCRAFT_COUNT - 2, AtcLoader.detectAircraftClasses(aircrafts));
+		return aircrafts;
+	}
+}
@@ -0,0 +1,96 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.ConstrainedPositionShifting;
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+
+public class ConstrainedPositionShiftingTest {
+
+	private static final int AIRCRAFT_COUNT = 8;
+
+	@Test
+	public void noShiftKeepsTheFcfsOrderTest() {
+		AircraftStaticData[] aircrafts = createAircrafts(new Random(37), false);
+		ConstrainedPositionShifting scheduler = new ConstrainedPositionShifting(aircrafts, 0);
+		scheduler.execute();
+		Aircraft[] landingSequence = scheduler.getSolution().getBestIndividualFound().getAircraftLandingSequence();
+		int[] fcfsOrder = scheduler.getFcfsOrder();
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			Assert.assertEquals(fcfsOrder[i], landingSequence[i].getId());
+		}
+	}
+
+	@Test
+	public void shiftedOrdersAreOptimalWithoutEarlyLandingsTest() {
+		Random random = new Random(41);
+		for (int round = 0; round < 20; round++) {
+			// without early landings, landing each aircraft as soon as possible is optimal for any order, so the search is exact.
+			AircraftStaticData[] aircrafts = createAircrafts(random, true);
+			AtcInstance instance = new AtcInstance(aircrafts);
+			for (int maxShift = 1; maxShift <= 3; maxShift++) {
+				ConstrainedPositionShifting scheduler = new ConstrainedPositionShifting(aircrafts, maxShift);
+				scheduler.execute();
+				Aircraft[] landingSequence = scheduler.getSolution().getBestIndividualFound().getAircraftLandingSequence();
+				int[] fcfsPositions = new int[AIRCRAFT_COUNT];
+				int[] fcfsOrder = scheduler.getFcfsOrder();
+				for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+					fcfsPositions[fcfsOrder[i]] = i;
+				}
+				for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+					Assert.assertTrue(Math.abs(fcfsPositions[landingSequence[i].getId()] - i) <= maxShift);
+				}
+
+				double optimalCost = enumerateShiftedOrders(instance, fcfsOrder, maxShift, new int[AIRCRAFT_COUNT], new boolean[AIRCRAFT_COUNT], 0);
+				if (optimalCost == DeltaCostEvaluator.INFEASIBLE_COST) {
+					Assert.assertEquals(Integer.MAX_VALUE, scheduler.getSolution().getBestIndividualFound().getFitnessValue());
+				} else {
+					Assert.assertEquals(optimalCost, new DeltaCostEvaluator(instance).evaluate(landingSequence), 1e-6);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the least cost of the landing orders where no aircraft is more than maxShift positions away from its FCFS position.
+	 */
+	private double enumerateShiftedOrders(AtcInstance instance, int[] fcfsOrder, int maxShift, int[] aircraftIds, boolean[] landed, int position) {
+		if (position == AIRCRAFT_COUNT) {
+			return new DeltaCostEvaluator(instance).evaluate(aircraftIds);
+		}
+		double bestCost = DeltaCostEvaluator.INFEASIBLE_COST;
+		for (int i = Math.max(0, position - maxShift); i <= Math.min(AIRCRAFT_COUNT - 1, position + maxShift); i++) {
+			if (!landed[i]) {
+				landed[i] = true;
+				aircraftIds[position] = fcfsOrder[i];
+				// the aircraft whose window ends at this position must have landed.
+				if (position - maxShift < 0 || landed[position - maxShift]) {
+					bestCost = Math.min(bestCost, enumerateShiftedOrders(instance, fcfsOrder, maxShift, aircraftIds, landed, position + 1));
+				}
+				landed[i] = false;
+			}
+		}
+		return bestCost;
+	}
+
+	private AircraftStaticData[] createAircrafts(Random random, boolean earliestAtTarget) {
+		AircraftStaticData[] aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int[] gaps = new int[AIRCRAFT_COUNT];
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				gaps[j] = i == j ? 99999 : 3 + random.nextInt(12);
+			}
+			int target = 100 + random.nextInt(40);
+			int earliest = earliestAtTarget ? target : target - 10 - random.nextInt(20);
+			aircrafts[i] = new AircraftStaticData(i, 0, earliest, target, target + 60 + random.nextInt(60),
+												   1 + random.nextInt(10), 1 + random.nextInt(30), gaps);
+		}
+		return aircrafts;
+	}
+}
@@ -0,0 +1,50 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.ConstructiveHeuristic;
+import br.ufrgs.inf.ga.ConstructiveScheduler;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+
+public class ConstructiveSchedulerTest {
+
+	private static final int AIRCRAFT_COUNT = 40;
+
+	@Test
+	public void heuristicsBuildFeasibleSchedulesTest() {
+		Random random = new Random(5);
+		AircraftStaticData[] aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int target = 100 + random.nextInt(20 * AIRCRAFT_COUNT);
+			int[] gaps = new int[AIRCRAFT_COUNT];
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				gaps[j] = i == j ? 0 : 3 + random.nextInt(8);
+			}
+			aircrafts[i] = new AircraftStaticData(i, 0, target - 60, target, target + 1000, 1 + random.nextInt(30), 1 + random.nextInt(30), gaps);
+		}
+		AtcInstance instance = new AtcInstance(aircrafts);
+		ConstructiveScheduler scheduler = new ConstructiveScheduler(instance);
+		int[] landingTimes = new int[AIRCRAFT_COUNT];
+
+		for (ConstructiveHeuristic heuristic : ConstructiveHeuristic.values()) {
+			int[] aircraftIds = scheduler.createLandingOrder(heuristic);
+			boolean[] seen = new boolean[AIRCRAFT_COUNT];
+			for (int aircraftId : aircraftIds) {
+				Assert.assertFalse(heuristic + " repeats an aircraft", seen[aircraftId]);
+				seen[aircraftId] = true;
+			}
+
+			double cost = scheduler.schedule(aircraftIds, landingTimes);
+			Aircraft[] landingSequence = instance.createLandingSequence(aircraftIds, landingTimes);
+			int fitnessValue = new FitnessEvaluator().evaluate(landingSequence);
+			Assert.assertTrue(heuristic + " schedule is infeasible", fitnessValue != Integer.MAX_VALUE);
+			Assert.assertEquals(cost, fitnessValue, 1);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package br.ufrgs.inf.ga.tests;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+
+public class DeltaCostEvaluatorTest {
+
+	private DeltaCostEvaluator evaluator;
+	
+	@Before
+	public void setUp() {
+		AircraftStaticData[] aircrafts = new AircraftStaticData[] {
+			new AircraftStaticData(0, 0, 0, 10, 20, 1, 1, new int[] {99999, 5, 5}),
+			new AircraftStaticData(1, 0, 0, 12, 100, 1, 5, new int[] {5, 99999, 5}),
+			new AircraftStaticData(2, 0, 30, 40, 45, 2, 2, new int[] {5, 5, 99999})
+		};
+		evaluator = new DeltaCostEvaluator(new AtcInstance(aircrafts));
+	}
+	
+	@Test
+	public void landsEarlierWhenItIsCheaperTest() {
+		// the aircraft 0 lands 3 time units early, so the aircraft 1 lands at its target time.
+		Assert.assertEquals(3, evaluator.evaluate(new int[] {0, 1, 2}), 0);
+		
+		int[] landingTimes = new int[3];
+		Assert.assertTrue(evaluator.getLandingTimes(landingTimes));
+		Assert.assertArrayEquals(new int[] {7, 12, 40}, landingTimes);
+	}
+	
+	@Test
+	public void movesAreEvaluatedAsFullSequencesTest() {
+		evaluator.evaluate(new int[] {0, 1, 2});
+		double swapCost = evaluator.evaluateSwap(0, 1);
+		double insertionCost = evaluator.evaluateInsertion(2, 0);
+		double reversalCost = evaluator.evaluateReversal(0, 2);
+		
+		// moves evaluation does not change the current sequence.
+		Assert.assertEquals(3, evaluator.getCost(), 0);
+		
+		Assert.assertEquals(7, swapCost, 0);
+		Assert.assertEquals(evaluator.evaluate(new int[] {2, 0, 1}), insertionCost, 0);
+		Assert.assertEquals(evaluator.evaluate(new int[] {2, 1, 0}), reversalCost, 0);
+	}
+	
+	@Test
+	public void infeasibleSequenceTest() {
+		// the aircraft 2 can't land before 30, so the aircraft 0 can't land after it before its latest landing time (20).
+		Assert.assertEquals(DeltaCostEvaluator.INFEASIBLE_COST, evaluator.evaluate(new int[] {2, 0, 1}), 0);
+		Assert.assertFalse(evaluator.getLandingTimes(new int[3]));
+		
+		// moves the aircraft 2 to the end of the sequence.
+		evaluator.applyInsertion(0, 2);
+		Assert.assertEquals(3, evaluator.getCost(), 0);
+	}
+}
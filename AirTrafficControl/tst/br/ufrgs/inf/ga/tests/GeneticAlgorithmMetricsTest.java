@@ -0,0 +1,144 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GenerationListener;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.GeneticAlgorithmMetrics;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.Solution;
+
+public class GeneticAlgorithmMetricsTest {
+
+	private static final int AIRCRAFT_COUNT = 10;
+
+	@Test
+	public void metricsMatchTheExecutionTest() throws Exception {
+		GeneticAlgorithm geneticAlgorithm = createGeneticAlgorithm(50);
+		GeneticAlgorithmMetrics metrics = geneticAlgorithm.enableMetrics();
+		GeneticAlgorithmMetrics.Snapshot before = metrics.snapshot();
+		geneticAlgorithm.execute();
+		GeneticAlgorithmMetrics.Snapshot after = metrics.snapshot();
+		Solution solution = geneticAlgorithm.getSolution();
+
+		Assert.assertEquals(0, before.getEvaluations());
+		Assert.assertEquals(geneticAlgorithm.getEvaluationCount(), after.getEvaluations());
+		Assert.assertEquals(solution.getGenerationCount() - 1, after.getGeneration());
+		Assert.assertEquals(solution.getBestIndividualFound().getFitnessValue(), after.getBestCost());
+		// one best cost per generation, from the first one (the best individual so far never gets worse).
+		int[] history = after.getBestCostHistory();
+		Assert.assertEquals(after.getGeneration(), history.length);
+		Assert.assertEquals(after.getBestCost(), history[history.length - 1]);
+		for (int i = 1; i < history.length; i++) {
+			Assert.assertTrue(history[i] <= history[i - 1]);
+		}
+		Assert.assertEquals(0, before.getBestCostHistory().length);
+		Assert.assertTrue(after.getPhaseTime(GeneticAlgorithmMetrics.INITIALIZATION) > 0);
+		Assert.assertTrue(after.getPhaseTime(GeneticAlgorithmMetrics.REPRODUCTION) > 0);
+		Assert.assertTrue(after.getPhaseTime(GeneticAlgorithmMetrics.MUTATION) > 0);
+		Assert.assertTrue(after.getPhaseTime(GeneticAlgorithmMetrics.EVALUATION) > 0);
+		long phasesTime = 0;
+		for (int phase = GeneticAlgorithmMetrics.INITIALIZATION; phase <= GeneticAlgorithmMetrics.IMPROVEMENT; phase++) {
+			phasesTime += after.getPhaseTime(phase);
+		}
+		Assert.assertTrue(phasesTime <= after.getElapsedTime());
+		Assert.assertTrue(after.getOffspring() > 0);
+		Assert.assertTrue(after.getAcceptedOffspring() <= after.getOffspring());
+		Assert.assertTrue(after.getAcceptanceRate() > 0 && after.getAcceptanceRate() <= 1);
+		Assert.assertTrue(after.getEvaluationsPerSecond() > 0);
+
+		// the execution has finished, so the elapsed time doesn't change.
+		GeneticAlgorithmMetrics.Snapshot interval = metrics.snapshot().since(after);
+		Assert.assertEquals(0, interval.getElapsedTime());
+		Assert.assertEquals(0, interval.getEvaluations());
+		Assert.assertEquals(after.getBestCost(), interval.getBestCost());
+		Assert.assertEquals(after.getEvaluations(), after.since(before).getEvaluations());
+	}
+
+	@Test
+	public void metricsArePublishedTest() throws Exception {
+		GeneticAlgorithm geneticAlgorithm = createGeneticAlgorithm(51);
+		GeneticAlgorithmMetrics metrics = geneticAlgorithm.enableMetrics();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = metrics.registerMBean("test");
+		try {
+			Assert.assertEquals(-1, server.getAttribute(objectName, "BestCost"));
+			geneticAlgorithm.execute();
+			Assert.assertEquals(geneticAlgorithm.getEvaluationCount(), server.getAttribute(objectName, "Evaluations"));
+			Assert.assertEquals(geneticAlgorithm.getSolution().getBestIndividualFound().getFitnessValue(), server.getAttribute(objectName, "BestCost"));
+			int[] history = (int[]) server.getAttribute(objectName, "BestCostHistory");
+			Assert.assertEquals(metrics.getGeneration(), history.length);
+			Assert.assertEquals(metrics.getBestCost(), history[history.length - 1]);
+		} finally {
+			metrics.unregisterMBean();
+		}
+		Assert.assertFalse(server.isRegistered(objectName));
+
+		final CountDownLatch snapshots = new CountDownLatch(2);
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			metrics.scheduleSnapshots(executor, 5, new GeneticAlgorithmMetrics.SnapshotListener() {
+				@Override
+				public void snapshotTaken(GeneticAlgorithmMetrics.Snapshot interval, GeneticAlgorithmMetrics.Snapshot total) {
+					if (interval.getEvaluations() == 0 && total.getGeneration() > 0) {
+						snapshots.countDown();
+					}
+				}
+			});
+			Assert.assertTrue(snapshots.await(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void bestCostHistoryKeepsTheLastGenerationsTest() throws Exception {
+		// even if the best cost stops improving, the algorithm runs 2/3 of the generations.
+		int generations = 3 * GeneticAlgorithmMetrics.BEST_COST_HISTORY_SIZE;
+		AircraftStaticData[] aircrafts = TestInstances.createAircrafts(new Random(52), AIRCRAFT_COUNT);
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(new PopulationConfig(10, 0.3f, 0.1f), generations, aircrafts);
+		geneticAlgorithm.setInitializationSeed(52);
+		geneticAlgorithm.setInitializationThreads(1);
+		final List<Integer> bestCosts = new ArrayList<Integer>();
+		geneticAlgorithm.setGenerationListener(new GenerationListener() {
+			@Override
+			public void generationEvaluated(int generation, Individual bestIndividual) {
+				bestCosts.add(bestIndividual.getFitnessValue());
+			}
+		});
+		GeneticAlgorithmMetrics metrics = geneticAlgorithm.enableMetrics();
+		geneticAlgorithm.execute();
+
+		// the ring buffer has wrapped: only the last generations are kept, in order.
+		int[] history = metrics.snapshot().getBestCostHistory();
+		Assert.assertTrue(bestCosts.size() > GeneticAlgorithmMetrics.BEST_COST_HISTORY_SIZE);
+		Assert.assertEquals(GeneticAlgorithmMetrics.BEST_COST_HISTORY_SIZE, history.length);
+		int offset = bestCosts.size() - history.length;
+		for (int i = 0; i < history.length; i++) {
+			Assert.assertEquals(bestCosts.get(offset + i).intValue(), history[i]);
+		}
+	}
+
+	private GeneticAlgorithm createGeneticAlgorithm(long seed) {
+		AircraftStaticData[] aircrafts = TestInstances.createAircrafts(new Random(seed), AIRCRAFT_COUNT);
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(new PopulationConfig(100, 0.3f, 0.1f), 150, aircrafts);
+		geneticAlgorithm.setInitializationSeed(seed);
+		geneticAlgorithm.setInitializationThreads(1);
+		return geneticAlgorithm;
+	}
+}
@@ -1,13 +1,74 @@
 package br.ufrgs.inf.ga.tests;
 
+import java.util.Random;
+
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.operators.CrossoverType;
+import br.ufrgs.inf.ga.operators.MutationType;
 
 public class GeneticAlgorithmTest {
 
+	private AircraftStaticData[] aircrafts;
+
 	@Before
 	public void setUp() {
-		
+		aircrafts = TestInstances.createAircrafts(new Random(35), 15);
+	}
+
+	@Test
+	public void sameSeedRepeatsTheRunTest() throws Exception {
+		assertSameRun(null, null);
+	}
+
+	@Test
+	public void sameSeedRepeatsTheRunWithNeighbourMutationsTest() throws Exception {
+		assertSameRun(CrossoverType.OX, MutationType.NEIGHBOUR_SWAP);
+		assertSameRun(CrossoverType.PMX, MutationType.NEIGHBOUR_INSERTION);
+	}
+
+	private void assertSameRun(CrossoverType crossoverType, MutationType mutationType) throws Exception {
+		GeneticAlgorithm first = run(7, crossoverType, mutationType);
+		GeneticAlgorithm second = run(7, crossoverType, mutationType);
+
+		Assert.assertEquals(first.getEvaluationCount(), second.getEvaluationCount());
+		assertSameSchedule(first.getSolution().getBestIndividualFound(), second.getSolution().getBestIndividualFound());
+		// the whole final population is the same, not only the best individual.
+		int size = first.getPopulation().getSize();
+		Assert.assertEquals(size, second.getPopulation().getSize());
+		for (int i = 0; i < size; i++) {
+			assertSameSchedule(first.getPopulation().get(i), second.getPopulation().get(i));
+		}
+	}
+
+	private GeneticAlgorithm run(long seed, CrossoverType crossoverType, MutationType mutationType) throws Exception {
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(new PopulationConfig(30, 0.5f, 0.3f), 40, aircrafts);
+		geneticAlgorithm.setInitializationSeed(seed);
+		geneticAlgorithm.setInitializationThreads(1);
+		if (crossoverType != null) {
+			geneticAlgorithm.setCrossoverType(crossoverType);
+		}
+		if (mutationType != null) {
+			geneticAlgorithm.setMutationType(mutationType);
+		}
+		geneticAlgorithm.execute();
+		return geneticAlgorithm;
+	}
+
+	private void assertSameSchedule(Individual expected, Individual actual) {
+		Assert.assertEquals(expected.getFitnessValue(), actual.getFitnessValue());
+		Aircraft[] expectedSequence = expected.getAircraftLandingSequence();
+		Aircraft[] actualSequence = actual.getAircraftLandingSequence();
+		for (int i = 0; i < expectedSequence.length; i++) {
+			Assert.assertEquals(expectedSequence[i].getId(), actualSequence[i].getId());
+			Assert.assertEquals(expectedSequence[i].getLandingTime(), actualSequence[i].getLandingTime());
+		}
 	}
-	
-	
 }
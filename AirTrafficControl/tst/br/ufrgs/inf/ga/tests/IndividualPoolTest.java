@@ -0,0 +1,179 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.GenerationListener;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.SharedIncumbent;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.IndividualPool;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+public class IndividualPoolTest {
+
+	private static final int AIRCRAFT_COUNT = 10;
+
+	private final AircraftStaticData[] aircrafts = TestInstances.createAircrafts(new Random(34), AIRCRAFT_COUNT);
+
+	private final AtcInstance instance = new AtcInstance(aircrafts);
+
+	@Test
+	public void reusedIndividualsAreFullyOverwrittenTest() {
+		Random random = new Random(35);
+		IndividualPool pool = new IndividualPool(4);
+		Individual source = createIndividual(random, 10);
+
+		Individual released = createIndividual(random, 99);
+		pool.release(released);
+		Individual copy = pool.copyOf(source);
+		Assert.assertSame(released, copy);
+		assertSameSchedule(source, copy);
+		Assert.assertEquals(10, copy.getFitnessValue());
+		Assert.assertEquals(source.getLandingScheduleFingerprint(), copy.getLandingScheduleFingerprint());
+
+		pool.release(copy);
+		int[] aircraftIds = shuffle(random);
+		int[] landingTimes = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			landingTimes[i] = random.nextInt(1000);
+		}
+		Individual created = pool.create(aircraftIds, landingTimes, 20, instance);
+		Assert.assertSame(released, created);
+		Assert.assertEquals(20, created.getFitnessValue());
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			Assert.assertEquals(aircraftIds[i], created.getAircraftLandingSequence()[i].getId());
+			Assert.assertEquals(landingTimes[i], created.getAircraftLandingSequence()[i].getLandingTime());
+		}
+
+		// the free list is empty: a new individual is allocated.
+		Assert.assertNotSame(released, pool.copyOf(source));
+		Assert.assertEquals(2, pool.getReusedIndividuals());
+		Assert.assertEquals(1, pool.getAllocatedIndividuals());
+	}
+
+	@Test
+	public void reusedIndividualsAreReindexedTest() {
+		Random random = new Random(36);
+		List<Individual> individuals = new ArrayList<Individual>();
+		for (int i = 0; i < 6; i++) {
+			individuals.add(createIndividual(random, i));
+		}
+		Population population = new Population(new PopulationConfig(6, 0.3f, 0.1f, true), individuals);
+		IndividualPool pool = new IndividualPool(6);
+
+		// a removed individual comes back to the population with the schedule of another one (a new son).
+		Individual removed = individuals.get(2);
+		Individual removedSchedule = removed.clone();
+		Assert.assertTrue(population.remove(removed));
+		pool.release(removed);
+		Individual son = pool.copyOf(createIndividual(random, 1));
+		Assert.assertSame(removed, son);
+		population.add(son);
+
+		Assert.assertFalse(population.containsLandingSchedule(removedSchedule));
+		Assert.assertTrue(population.containsLandingSchedule(son));
+		Assert.assertEquals(1f, population.getUniquenessRatio(), 0);
+		// its old index entry is gone: removing it empties the index of its new schedule.
+		Assert.assertTrue(population.remove(son));
+		Assert.assertFalse(population.containsLandingSchedule(son));
+		Assert.assertEquals(1f, population.getUniquenessRatio(), 0);
+	}
+
+	@Test
+	public void releasedIndividualsAreNoLongerReferencedTest() throws Exception {
+		final FitnessEvaluator fitnessEvaluator = new FitnessEvaluator();
+		final DeltaCostEvaluator deltaCostEvaluator = new DeltaCostEvaluator(instance);
+		final SharedIncumbent incumbent = new SharedIncumbent();
+		final GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(new PopulationConfig(40, 0.5f, 0.2f), 60, aircrafts);
+		geneticAlgorithm.setInitializationSeed(34);
+		geneticAlgorithm.setInitializationThreads(1);
+		geneticAlgorithm.setIncumbent(incumbent);
+		final int[] bestFitnessValues = new int[1];
+		bestFitnessValues[0] = Integer.MAX_VALUE;
+
+		geneticAlgorithm.setGenerationListener(new GenerationListener() {
+			@Override
+			public void generationEvaluated(int generation, Individual bestIndividual) {
+				// the best individual found so far is never overwritten by a reuse.
+				Assert.assertTrue(bestIndividual.getFitnessValue() <= bestFitnessValues[0]);
+				bestFitnessValues[0] = bestIndividual.getFitnessValue();
+				if (bestIndividual.getFitnessValue() != Integer.MAX_VALUE) {
+					Assert.assertEquals(fitnessEvaluator.evaluate(bestIndividual.getAircraftLandingSequence()), bestIndividual.getFitnessValue());
+					// and the incumbent has been offered its landing sequence.
+					int[] aircraftIds = new int[AIRCRAFT_COUNT];
+					AtcInstance.getAircraftIds(bestIndividual.getAircraftLandingSequence(), aircraftIds);
+					Assert.assertTrue(incumbent.getCost() <= deltaCostEvaluator.evaluate(aircraftIds) + 1e-6);
+				}
+				// a released individual is no longer in the population: no individual (or aircraft) is there twice.
+				assertNoSharedState(geneticAlgorithm.getPopulation());
+			}
+		});
+		geneticAlgorithm.execute();
+
+		Population population = geneticAlgorithm.getSolution().getPopulation();
+		assertNoSharedState(population);
+		for (Individual individual : population) {
+			if (individual.getFitnessValue() != Integer.MAX_VALUE) {
+				Assert.assertEquals(fitnessEvaluator.evaluate(individual.getAircraftLandingSequence()), individual.getFitnessValue());
+			}
+		}
+		Individual best = geneticAlgorithm.getSolution().getBestIndividualFound();
+		Assert.assertEquals(bestFitnessValues[0], best.getFitnessValue());
+		Assert.assertTrue(geneticAlgorithm.getIndividualPool().getReusedIndividuals() > 0);
+	}
+
+	private void assertNoSharedState(Population population) {
+		Map<Aircraft, Individual> owners = new IdentityHashMap<Aircraft, Individual>();
+		for (Individual individual : population) {
+			for (Aircraft aircraft : individual.getAircraftLandingSequence()) {
+				Assert.assertNull(owners.put(aircraft, individual));
+			}
+		}
+	}
+
+	private void assertSameSchedule(Individual expected, Individual actual) {
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			Aircraft expectedAircraft = expected.getAircraftLandingSequence()[i];
+			Aircraft actualAircraft = actual.getAircraftLandingSequence()[i];
+			Assert.assertNotSame(expectedAircraft, actualAircraft);
+			Assert.assertEquals(expectedAircraft.getId(), actualAircraft.getId());
+			Assert.assertEquals(expectedAircraft.getLandingTime(), actualAircraft.getLandingTime());
+		}
+	}
+
+	private Individual createIndividual(Random random, int fitnessValue) {
+		int[] aircraftIds = shuffle(random);
+		int[] landingTimes = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			landingTimes[i] = random.nextInt(1000);
+		}
+		return new Individual(instance.createLandingSequence(aircraftIds, landingTimes), fitnessValue);
+	}
+
+	private int[] shuffle(Random random) {
+		int[] aircraftIds = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			aircraftIds[i] = i;
+		}
+		for (int i = AIRCRAFT_COUNT - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = aircraftIds[i];
+			aircraftIds[i] = aircraftIds[j];
+			aircraftIds[j] = swap;
+		}
+		return aircraftIds;
+	}
+}
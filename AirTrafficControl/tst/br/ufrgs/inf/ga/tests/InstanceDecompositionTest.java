@@ -0,0 +1,94 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.InstanceDecomposition;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.DecomposedScheduler;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.GeneticAlgorithmFactory;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+public class InstanceDecompositionTest {
+
+	private static final int GROUP_SIZE = 6;
+
+	private static final int GROUPS = 5;
+
+	private static final int GROUP_SHIFT = 1000;
+
+	@Test
+	public void independentGroupsAreSolvedSeparatelyTest() throws Exception {
+		AircraftStaticData[] group = createAircrafts(new Random(23), 1);
+		AircraftStaticData[] instance = createAircrafts(new Random(23), GROUPS);
+
+		InstanceDecomposition decomposition = new InstanceDecomposition(instance);
+		Assert.assertEquals(GROUPS, decomposition.getClusterCount());
+		Assert.assertEquals(GROUP_SIZE, decomposition.getMaxClusterSize());
+		for (int cluster = 0; cluster < GROUPS; cluster++) {
+			for (int aircraftId : decomposition.getAircraftIds(cluster)) {
+				Assert.assertEquals(cluster, aircraftId / GROUP_SIZE);
+			}
+		}
+
+		DecomposedScheduler groupScheduler = new DecomposedScheduler(group, createFactory(), 10, 1);
+		groupScheduler.execute();
+		int groupCost = groupScheduler.getSolution().getBestIndividualFound().getFitnessValue();
+		Assert.assertTrue(groupCost != Integer.MAX_VALUE);
+
+		// the groups are copies of the same group shifted in time, so they have the same cost.
+		DecomposedScheduler scheduler = new DecomposedScheduler(instance, createFactory(), 10, 2);
+		scheduler.execute();
+		Assert.assertEquals(GROUPS * groupCost, scheduler.getSolution().getBestIndividualFound().getFitnessValue());
+		Assert.assertEquals(GROUPS * GROUP_SIZE, scheduler.getSolution().getBestIndividualFound().getAircraftLandingSequence().length);
+	}
+
+	@Test
+	public void overlappingGroupsAreNotSplitTest() {
+		AircraftStaticData[] instance = createAircrafts(new Random(29), GROUPS);
+		// a wide window joins all the groups.
+		AircraftStaticData first = instance[0];
+		instance[0] = new AircraftStaticData(0, 0, first.getEarliestLandingTime(), first.getTargetLandingTime(), GROUPS * GROUP_SHIFT,
+				first.getLandingBeforeTargetTimePenaltyCost(), first.getLandingAfterTargetTimePenaltyCost(), first.getGapTimeBetweenLandings());
+		Assert.assertEquals(1, new InstanceDecomposition(instance).getClusterCount());
+	}
+
+	private GeneticAlgorithmFactory createFactory() {
+		return new GeneticAlgorithmFactory() {
+			@Override
+			public GeneticAlgorithm create(AircraftStaticData[] aircrafts) {
+				return new GeneticAlgorithm(new PopulationConfig(20, 0.3f, 0.1f), 10, aircrafts);
+			}
+		};
+	}
+
+	/**
+	 * Creates copies of a group of aircrafts, each copy shifted in time by {@link #GROUP_SHIFT}.
+	 */
+	private AircraftStaticData[] createAircrafts(Random random, int groups) {
+		int aircraftCount = groups * GROUP_SIZE;
+		int[] targets = new int[GROUP_SIZE];
+		int[] separations = new int[GROUP_SIZE * GROUP_SIZE];
+		for (int i = 0; i < GROUP_SIZE; i++) {
+			targets[i] = 100 + random.nextInt(60);
+			for (int j = 0; j < GROUP_SIZE; j++) {
+				separations[i * GROUP_SIZE + j] = 3 + random.nextInt(10);
+			}
+		}
+
+		AircraftStaticData[] aircrafts = new AircraftStaticData[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			int groupPosition = i % GROUP_SIZE;
+			int target = targets[groupPosition] + (i / GROUP_SIZE) * GROUP_SHIFT;
+			int[] gaps = new int[aircraftCount];
+			for (int j = 0; j < aircraftCount; j++) {
+				gaps[j] = i == j ? 99999 : separations[(j % GROUP_SIZE) * GROUP_SIZE + groupPosition];
+			}
+			aircrafts[i] = new AircraftStaticData(i, 0, target - 50, target, target + 300, 10 + groupPosition, 20 + groupPosition, gaps);
+		}
+		return aircrafts;
+	}
+}
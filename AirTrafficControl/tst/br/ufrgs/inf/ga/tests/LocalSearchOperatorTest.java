@@ -0,0 +1,67 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.PopulationInitializer;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.IndividualCreator;
+import br.ufrgs.inf.ga.model.LocalSearchConfig;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.operators.LocalSearchOperator;
+import br.ufrgs.inf.ga.operators.Neighbourhood;
+import br.ufrgs.inf.ga.operators.VariableNeighbourhoodDescent;
+
+public class LocalSearchOperatorTest {
+
+	private static final int AIRCRAFT_COUNT = 15;
+
+	private static final int ELITE_SIZE = 6;
+
+	@Test
+	public void improvedIndividualsDontShareAircraftsTest() throws Exception {
+		AircraftStaticData[] aircrafts = TestInstances.createAircrafts(new Random(27), AIRCRAFT_COUNT);
+		FitnessEvaluator fitnessEvaluator = new FitnessEvaluator();
+		PopulationInitializer initializer = new PopulationInitializer(new IndividualCreator(new LandingSequenceCreator(aircrafts), fitnessEvaluator,
+																	  new LandingTimeScheduler()), new PopulationConfig(30, 0.3f, 0.1f, false));
+		initializer.setSeed(27);
+		initializer.setThreads(1);
+		Population population = initializer.createPopulation();
+		LocalSearchOperator operator = new LocalSearchOperator(new VariableNeighbourhoodDescent(Neighbourhood.SWAP, Neighbourhood.INSERTION),
+															   new LocalSearchConfig(ELITE_SIZE, 2000), new AtcInstance(aircrafts), fitnessEvaluator);
+
+		int improvedIndividuals = 0;
+		for (int round = 0; round < 3; round++) {
+			improvedIndividuals += operator.execute(population);
+			for (int i = 0; i < population.getSize(); i++) {
+				Individual individual = population.get(i);
+				Aircraft[] landingSequence = individual.getAircraftLandingSequence();
+				// the landing schedule is still a permutation, and its fitness value is up to date.
+				boolean[] landed = new boolean[AIRCRAFT_COUNT];
+				for (Aircraft aircraft : landingSequence) {
+					Assert.assertFalse(landed[aircraft.getId()]);
+					landed[aircraft.getId()] = true;
+				}
+				Assert.assertEquals(fitnessEvaluator.evaluate(landingSequence), individual.getFitnessValue());
+				// the aircrafts belong to a single individual, not to the buffers of the operator.
+				for (int j = 0; j < i; j++) {
+					for (Aircraft aircraft : population.get(j).getAircraftLandingSequence()) {
+						for (Aircraft other : landingSequence) {
+							Assert.assertNotSame(aircraft, other);
+						}
+					}
+				}
+			}
+		}
+		Assert.assertTrue(improvedIndividuals > 0);
+	}
+}
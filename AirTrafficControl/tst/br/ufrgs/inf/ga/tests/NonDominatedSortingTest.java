@@ -0,0 +1,130 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.MultiObjectiveGeneticAlgorithm;
+import br.ufrgs.inf.ga.NonDominatedSorting;
+import br.ufrgs.inf.ga.model.ParetoFront;
+
+public class NonDominatedSortingTest {
+
+	private static final int OBJECTIVE_COUNT = 3;
+
+	private static final int AIRCRAFT_COUNT = 10;
+
+	@Test
+	public void ranksMatchTheFrontDefinitionTest() {
+		Random random = new Random(46);
+		for (int round = 0; round < 5; round++) {
+			int size = 50 + random.nextInt(150);
+			double[] objectives = createObjectives(random, size);
+			NonDominatedSorting sorting = new NonDominatedSorting(OBJECTIVE_COUNT);
+			int frontCount = sorting.sort(objectives, size, null);
+
+			int[] ranks = sorting.getRanks();
+			for (int i = 0; i < size; i++) {
+				// a solution is in the front after the last front of the solutions that dominate it.
+				int expectedRank = 0;
+				for (int j = 0; j < size; j++) {
+					if (NonDominatedSorting.dominates(objectives, OBJECTIVE_COUNT, j, i)) {
+						expectedRank = Math.max(expectedRank, ranks[j] + 1);
+					}
+				}
+				Assert.assertEquals(expectedRank, ranks[i]);
+			}
+			for (int front = 0; front < frontCount; front++) {
+				for (int f = sorting.getFrontStart(front); f < sorting.getFrontStart(front + 1); f++) {
+					Assert.assertEquals(front, ranks[sorting.getSortedSolutions()[f]]);
+				}
+			}
+			Assert.assertEquals(size, sorting.getFrontStart(frontCount));
+		}
+	}
+
+	@Test
+	public void parallelSortingMatchesSequentialSortingTest() {
+		Random random = new Random(47);
+		int size = 3 * NonDominatedSorting.PARALLEL_THRESHOLD;
+		double[] objectives = createObjectives(random, size);
+		NonDominatedSorting sequential = new NonDominatedSorting(OBJECTIVE_COUNT);
+		NonDominatedSorting parallel = new NonDominatedSorting(OBJECTIVE_COUNT);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Assert.assertEquals(sequential.sort(objectives, size, null), parallel.sort(objectives, size, pool));
+		} finally {
+			pool.shutdown();
+		}
+		for (int i = 0; i < size; i++) {
+			Assert.assertEquals(sequential.getRanks()[i], parallel.getRanks()[i]);
+			Assert.assertEquals(sequential.getCrowdingDistances()[i], parallel.getCrowdingDistances()[i], 1e-9);
+		}
+	}
+
+	@Test
+	public void crowdingDistanceKeepsTheExtremesTest() {
+		// a single front of 4 solutions: the cost decreases while the other objectives increase.
+		double[] objectives = { 10, 1, 1,
+								7, 2, 2,
+								5, 4, 3,
+								0, 8, 4 };
+		NonDominatedSorting sorting = new NonDominatedSorting(OBJECTIVE_COUNT);
+		Assert.assertEquals(1, sorting.sort(objectives, 4, null));
+		double[] crowdingDistances = sorting.getCrowdingDistances();
+		Assert.assertEquals(Double.POSITIVE_INFINITY, crowdingDistances[0], 0);
+		Assert.assertEquals(Double.POSITIVE_INFINITY, crowdingDistances[3], 0);
+		Assert.assertEquals(5 / 10.0 + 3 / 7.0 + 2 / 3.0, crowdingDistances[1], 1e-9);
+		Assert.assertEquals(7 / 10.0 + 6 / 7.0 + 2 / 3.0, crowdingDistances[2], 1e-9);
+	}
+
+	@Test
+	public void paretoFrontIsNonDominatedTest() throws Exception {
+		AircraftStaticData[] aircrafts = TestInstances.createAircrafts(new Random(48), AIRCRAFT_COUNT);
+		MultiObjectiveGeneticAlgorithm algorithm = new MultiObjectiveGeneticAlgorithm(aircrafts, 60, 80, 0.2f);
+		algorithm.setSeed(48);
+		algorithm.setThreads(1);
+		algorithm.execute();
+
+		ParetoFront front = algorithm.getSolution().getParetoFront();
+		Assert.assertTrue(front.size() > 0);
+		double[] objectives = new double[front.size() * OBJECTIVE_COUNT];
+		for (int i = 0; i < front.size(); i++) {
+			for (int k = 0; k < OBJECTIVE_COUNT; k++) {
+				objectives[i * OBJECTIVE_COUNT + k] = front.getObjective(i, k);
+			}
+			Assert.assertEquals(front.getObjective(i, MultiObjectiveGeneticAlgorithm.TOTAL_COST), front.getIndividual(i).getFitnessValue(), 0);
+			// the objectives are the ones of the returned schedule.
+			int makespan = 0;
+			int offTargetLandings = 0;
+			for (Aircraft aircraft : front.getIndividual(i).getAircraftLandingSequence()) {
+				makespan = Math.max(makespan, aircraft.getLandingTime());
+				if (aircraft.getLandingTime() != aircraft.getTargetLandingTime()) {
+					offTargetLandings++;
+				}
+			}
+			Assert.assertEquals(makespan, front.getObjective(i, MultiObjectiveGeneticAlgorithm.MAKESPAN), 0);
+			Assert.assertEquals(offTargetLandings, front.getObjective(i, MultiObjectiveGeneticAlgorithm.OFF_TARGET_LANDINGS), 0);
+		}
+		for (int i = 0; i < front.size(); i++) {
+			for (int j = 0; j < front.size(); j++) {
+				Assert.assertFalse(NonDominatedSorting.dominates(objectives, OBJECTIVE_COUNT, i, j));
+			}
+		}
+		// the best individual is the cheapest schedule of the front.
+		Assert.assertSame(front.getIndividual(0), algorithm.getSolution().getBestIndividualFound());
+	}
+
+	private double[] createObjectives(Random random, int size) {
+		double[] objectives = new double[size * OBJECTIVE_COUNT];
+		for (int i = 0; i < objectives.length; i++) {
+			// few distinct values, so there are ties.
+			objectives[i] = random.nextInt(20);
+		}
+		return objectives;
+	}
+}
@@ -0,0 +1,79 @@
+package br.ufrgs.inf.ga.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.objectives.ObjectiveFunction;
+import br.ufrgs.inf.ga.objectives.ObjectiveType;
+
+public class ObjectiveFunctionTest {
+
+	private static final int GAP_TIME = 5;
+
+	@Test
+	public void objectivesOfAFeasibleScheduleTest() {
+		// 1 time unit early (cost 1.5), 5 time units late (cost 15) and on target: the linear cost truncates 16.5.
+		Aircraft[] landingSequence = createLandingSequence(9, 25, 30);
+		Assert.assertEquals(16, ObjectiveType.LINEAR_COST.createObjectiveFunction().evaluate(landingSequence));
+		Assert.assertEquals(30, ObjectiveType.MAKESPAN.createObjectiveFunction().evaluate(landingSequence));
+		Assert.assertEquals(15, ObjectiveType.WEIGHTED_DELAY.createObjectiveFunction().evaluate(landingSequence));
+		Assert.assertEquals(77, ObjectiveType.QUADRATIC_DELAY.createObjectiveFunction().evaluate(landingSequence));
+	}
+
+	@Test
+	public void infeasibleSchedulesAreRejectedByAllObjectivesTest() {
+		// the last aircraft lands 3 time units after the previous one (gap time 5).
+		Aircraft[] tooClose = createLandingSequence(9, 25, 28);
+		// the first aircraft lands after its latest landing time.
+		Aircraft[] tooLate = createLandingSequence(51, 60, 70);
+		for (ObjectiveType objectiveType : ObjectiveType.values()) {
+			ObjectiveFunction objectiveFunction = objectiveType.createObjectiveFunction();
+			Assert.assertEquals(ObjectiveFunction.INFEASIBLE, objectiveFunction.evaluate(tooClose));
+			Assert.assertEquals(ObjectiveFunction.INFEASIBLE, objectiveFunction.evaluate(tooLate));
+		}
+	}
+
+	@Test
+	public void fitnessEvaluatorUsesTheLinearCostByDefaultTest() {
+		Aircraft[] landingSequence = createLandingSequence(9, 25, 30);
+		FitnessEvaluator fitnessEvaluator = new FitnessEvaluator();
+		Assert.assertEquals(16, fitnessEvaluator.evaluate(landingSequence));
+		fitnessEvaluator.setObjectiveFunction(ObjectiveType.MAKESPAN.createObjectiveFunction());
+		Assert.assertEquals(30, fitnessEvaluator.evaluate(landingSequence));
+		Assert.assertEquals(2, fitnessEvaluator.getEvaluationCount());
+	}
+
+	@Test
+	public void linearCostTruncatesLikeTheIntAccumulationTest() {
+		// 1 time unit early twice (cost 1.5 and 2) and 1 late (cost 1): each partial sum is truncated, 1 + 2 + 1.
+		Aircraft[] landingSequence = createLandingSequence(9, 19, 31);
+		int expected = 0;
+		for (Aircraft aircraft : landingSequence) {
+			expected += aircraft.getLandingCost();
+		}
+		Assert.assertEquals(4, expected);
+		Assert.assertEquals(expected, ObjectiveType.LINEAR_COST.createObjectiveFunction().evaluate(landingSequence));
+	}
+
+	private Aircraft[] createLandingSequence(int... landingTimes) {
+		AircraftStaticData[] aircrafts = {
+				new AircraftStaticData(0, 0, 0, 10, 50, 1.5f, 2.5f, createGaps(0)),
+				new AircraftStaticData(1, 0, 0, 20, 60, 2, 3, createGaps(1)),
+				new AircraftStaticData(2, 0, 0, 30, 70, 1, 1, createGaps(2)) };
+		Aircraft[] landingSequence = new Aircraft[aircrafts.length];
+		for (int i = 0; i < aircrafts.length; i++) {
+			landingSequence[i] = new Aircraft(aircrafts[i]);
+			landingSequence[i].setLandingTime(landingTimes[i]);
+		}
+		return landingSequence;
+	}
+
+	private int[] createGaps(int aircraftId) {
+		int[] gaps = { GAP_TIME, GAP_TIME, GAP_TIME };
+		gaps[aircraftId] = 99999;
+		return gaps;
+	}
+}
@@ -0,0 +1,141 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.OffHeapPopulation;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.RankedPopulation;
+
+public class OffHeapPopulationTest {
+
+	private static final int AIRCRAFT_COUNT = 10;
+
+	@Test
+	public void rankingIsKeptSortedTest() throws Exception {
+		OffHeapPopulation population = new OffHeapPopulation(AIRCRAFT_COUNT, 200);
+		fillAndReplace(population);
+	}
+
+	@Test
+	public void fileBackedStoreTest() throws Exception {
+		File file = File.createTempFile("population", ".bin");
+		file.deleteOnExit();
+		OffHeapPopulation population = new OffHeapPopulation(AIRCRAFT_COUNT, 200, file);
+		fillAndReplace(population);
+		Assert.assertEquals(200L * (4 + 6 * AIRCRAFT_COUNT), file.length());
+	}
+
+	@Test
+	public void bothStoresRankTheSameIndividualsTest() {
+		AircraftStaticData[] aircrafts = TestInstances.createAircrafts(new Random(33), AIRCRAFT_COUNT);
+		Random random = new Random(4);
+		// distinct fitness values, so the ranking doesn't depend on how each store breaks ties.
+		int[] fitnessValues = new int[400];
+		for (int i = 0; i < fitnessValues.length; i++) {
+			fitnessValues[i] = i;
+		}
+		for (int i = fitnessValues.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = fitnessValues[i];
+			fitnessValues[i] = fitnessValues[j];
+			fitnessValues[j] = swap;
+		}
+
+		List<Individual> individuals = new ArrayList<Individual>();
+		OffHeapPopulation offHeapPopulation = new OffHeapPopulation(AIRCRAFT_COUNT, 100);
+		for (int i = 0; i < 100; i++) {
+			Individual individual = createIndividual(aircrafts, random, fitnessValues[i]);
+			individuals.add(individual);
+			offHeapPopulation.add(individual);
+		}
+		RankedPopulation[] stores = { new Population(new PopulationConfig(100, 0.3f, 0.1f), individuals), offHeapPopulation };
+		for (int i = 100; i < fitnessValues.length; i++) {
+			Individual individual = createIndividual(aircrafts, random, fitnessValues[i]);
+			Assert.assertEquals(stores[0].replaceWithLessAdaptedIndividual(individual), stores[1].replaceWithLessAdaptedIndividual(individual));
+		}
+
+		int[][] aircraftIds = new int[2][AIRCRAFT_COUNT];
+		int[][] landingTimes = new int[2][AIRCRAFT_COUNT];
+		for (int rank = 0; rank < 100; rank++) {
+			// the 100 lowest fitness values remain.
+			for (int store = 0; store < 2; store++) {
+				Assert.assertEquals(rank, stores[store].getFitnessValueAt(rank));
+				stores[store].readLandingSchedule(rank, aircraftIds[store], landingTimes[store]);
+			}
+			Assert.assertArrayEquals(aircraftIds[0], aircraftIds[1]);
+			Assert.assertArrayEquals(landingTimes[0], landingTimes[1]);
+		}
+	}
+
+	private Individual createIndividual(AircraftStaticData[] aircrafts, Random random, int fitnessValue) {
+		Aircraft[] landingSequence = new Aircraft[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			landingSequence[i] = new Aircraft(aircrafts[(i + fitnessValue) % AIRCRAFT_COUNT]);
+			landingSequence[i].setLandingTime(random.nextInt(1000));
+		}
+		return new Individual(landingSequence, fitnessValue);
+	}
+
+	private void fillAndReplace(OffHeapPopulation population) {
+		Random random = new Random(3);
+		int[] aircraftIds = new int[AIRCRAFT_COUNT];
+		int[] landingTimes = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < population.getCapacity(); i++) {
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				aircraftIds[j] = (i + j) % AIRCRAFT_COUNT;
+				landingTimes[j] = i * 100 + j;
+			}
+			population.add(aircraftIds, landingTimes, random.nextInt(1000));
+		}
+		assertRankingIsSorted(population);
+
+		int accepted = 0;
+		for (int i = 0; i < 1000; i++) {
+			int fitnessValue = random.nextInt(1000);
+			int worstFitnessValue = population.getFitnessValue(population.getLessAdaptedSlot());
+			int slot = population.replaceLessAdaptedIndividual(aircraftIds, landingTimes, fitnessValue);
+			Assert.assertEquals(fitnessValue <= worstFitnessValue, slot >= 0);
+			if (slot >= 0) {
+				accepted++;
+				Assert.assertEquals(fitnessValue, population.getFitnessValue(slot));
+			}
+		}
+		Assert.assertTrue(accepted > 0);
+		assertRankingIsSorted(population);
+
+		// changes a record in place: the store is sorted again when needed.
+		int slot = population.getSlot(0);
+		population.replace(slot, aircraftIds, landingTimes, 5000);
+		Assert.assertEquals(slot, population.getLessAdaptedSlot());
+		assertRankingIsSorted(population);
+
+		int[] readAircraftIds = new int[AIRCRAFT_COUNT];
+		int[] readLandingTimes = new int[AIRCRAFT_COUNT];
+		population.read(slot, readAircraftIds, readLandingTimes);
+		Assert.assertArrayEquals(aircraftIds, readAircraftIds);
+		Assert.assertArrayEquals(landingTimes, readLandingTimes);
+	}
+
+	private void assertRankingIsSorted(OffHeapPopulation population) {
+		boolean[] seen = new boolean[population.getSize()];
+		int previousFitnessValue = Integer.MIN_VALUE;
+		for (int rank = 0; rank < population.getSize(); rank++) {
+			int slot = population.getSlot(rank);
+			Assert.assertFalse("slot " + slot + " ranked twice in " + Arrays.toString(seen), seen[slot]);
+			seen[slot] = true;
+			Assert.assertTrue(population.getFitnessValue(slot) >= previousFitnessValue);
+			previousFitnessValue = population.getFitnessValue(slot);
+		}
+	}
+}
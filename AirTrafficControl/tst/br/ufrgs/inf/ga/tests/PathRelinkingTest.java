@@ -0,0 +1,98 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.DeltaCostEvaluator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.model.ElitePool;
+import br.ufrgs.inf.ga.model.PathRelinkingConfig;
+import br.ufrgs.inf.ga.operators.PathRelinkingOperator;
+
+public class PathRelinkingTest {
+
+	private static final int AIRCRAFT_COUNT = 12;
+
+	@Test
+	public void elitePoolKeepsGoodAndDiverseSequencesTest() {
+		ElitePool pool = new ElitePool(2, 3, 4);
+		Assert.assertTrue(pool.offer(new int[] { 0, 1, 2, 3 }, 10));
+		// too close to the first one, and not better.
+		Assert.assertFalse(pool.offer(new int[] { 1, 0, 2, 3 }, 20));
+		Assert.assertFalse(pool.offer(new int[] { 0, 1, 2, 3 }, 5));
+		Assert.assertFalse(pool.offer(new int[] { 0, 1, 3, 2 }, DeltaCostEvaluator.INFEASIBLE_COST));
+		Assert.assertTrue(pool.offer(new int[] { 3, 2, 1, 0 }, 20));
+		Assert.assertEquals(2, pool.size());
+
+		// the pool is full: a new sequence replaces the most similar one among the worse ones.
+		Assert.assertFalse(pool.offer(new int[] { 2, 3, 0, 1 }, 30));
+		Assert.assertTrue(pool.offer(new int[] { 2, 3, 0, 1 }, 15));
+		Assert.assertEquals(10, pool.getBestCost(), 0);
+		Assert.assertEquals(15, pool.getCost(1), 0);
+
+		// a new best sequence is kept even if it is close to another one.
+		Assert.assertTrue(pool.offer(new int[] { 1, 0, 2, 3 }, 1));
+		Assert.assertEquals(1, pool.getCost(0), 0);
+		Assert.assertEquals(2, pool.size());
+	}
+
+	@Test
+	public void relinkingKeepsTheBestIntermediateSequenceTest() {
+		Random random = new Random(46);
+		for (int round = 0; round < 20; round++) {
+			AtcInstance instance = new AtcInstance(createAircrafts(random));
+			int[] initial = shuffle(random);
+			int[] guide = shuffle(random);
+			int distance = ElitePool.distance(initial, guide);
+			PathRelinkingOperator relinking = new PathRelinkingOperator(new PathRelinkingConfig(5, 2, 10), instance, new FitnessEvaluator());
+
+			int[] bestIntermediate = new int[AIRCRAFT_COUNT];
+			double cost = relinking.relink(initial, guide, bestIntermediate);
+			if (cost == DeltaCostEvaluator.INFEASIBLE_COST) {
+				continue;
+			}
+			// a permutation strictly between the ends of the path.
+			boolean[] landed = new boolean[AIRCRAFT_COUNT];
+			for (int aircraft : bestIntermediate) {
+				Assert.assertFalse(landed[aircraft]);
+				landed[aircraft] = true;
+			}
+			Assert.assertTrue(ElitePool.distance(bestIntermediate, initial) > 0);
+			Assert.assertTrue(ElitePool.distance(bestIntermediate, guide) > 0);
+			Assert.assertTrue(ElitePool.distance(bestIntermediate, initial) + ElitePool.distance(bestIntermediate, guide) <= 2 * distance);
+			Assert.assertEquals(new DeltaCostEvaluator(instance).evaluate(bestIntermediate), cost, 1e-6);
+		}
+	}
+
+	private int[] shuffle(Random random) {
+		int[] aircraftIds = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			aircraftIds[i] = i;
+		}
+		for (int i = AIRCRAFT_COUNT - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = aircraftIds[i];
+			aircraftIds[i] = aircraftIds[j];
+			aircraftIds[j] = swap;
+		}
+		return aircraftIds;
+	}
+
+	private AircraftStaticData[] createAircrafts(Random random) {
+		AircraftStaticData[] aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int[] gaps = new int[AIRCRAFT_COUNT];
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				gaps[j] = i == j ? 99999 : 1 + random.nextInt(4);
+			}
+			int target = 100 + random.nextInt(60);
+			aircrafts[i] = new AircraftStaticData(i, 0, target - 10 - random.nextInt(20), target, target + 100 + random.nextInt(60),
+												   1 + random.nextInt(10), 1 + random.nextInt(30), gaps);
+		}
+		return aircrafts;
+	}
+}
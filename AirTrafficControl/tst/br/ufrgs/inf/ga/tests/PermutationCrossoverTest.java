@@ -0,0 +1,96 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.operators.CrossoverType;
+import br.ufrgs.inf.ga.operators.PermutationCrossover;
+import br.ufrgs.inf.ga.utils.RandomHelper;
+
+public class PermutationCrossoverTest {
+
+	private static final int AIRCRAFT_COUNT = 12;
+	
+	private AtcInstance instance;
+	
+	private int[] parent1;
+	
+	private int[] parent2;
+	
+	@Before
+	public void setUp() {
+		AircraftStaticData[] aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int[] gapTimes = new int[AIRCRAFT_COUNT];
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				gapTimes[j] = (i == j) ? 99999 : 3 + (i + j) % 5;
+			}
+			aircrafts[i] = new AircraftStaticData(i, 0, 10 * i, 10 * i + 20, 10 * i + 200, 10, 30, gapTimes);
+		}
+		instance = new AtcInstance(aircrafts);
+		
+		parent1 = new int[AIRCRAFT_COUNT];
+		parent2 = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			parent1[i] = i;
+			parent2[i] = (5 * i + 3) % AIRCRAFT_COUNT;
+		}
+	}
+	
+	@Test
+	public void sonsArePermutationsTest() {
+		for (CrossoverType crossoverType : new CrossoverType[] {CrossoverType.OX, CrossoverType.PMX, CrossoverType.ERX}) {
+			PermutationCrossover crossover = crossoverType.createPermutationCrossover(instance);
+			int[] son = new int[AIRCRAFT_COUNT];
+			
+			// the scratch buffers are reused between calls.
+			for (int n = 0; n < 100; n++) {
+				crossover.cross(parent1, parent2, son);
+				assertIsPermutation(crossoverType, son);
+			}
+		}
+	}
+	
+	@Test
+	public void identicalParentsGenerateTheSameSonTest() {
+		for (CrossoverType crossoverType : new CrossoverType[] {CrossoverType.OX, CrossoverType.PMX, CrossoverType.ERX}) {
+			int[] son = new int[AIRCRAFT_COUNT];
+			crossoverType.createPermutationCrossover(instance).cross(parent2, parent2, son);
+			Assert.assertArrayEquals(parent2, son);
+		}
+	}
+	
+	@Test
+	public void cutPointsDependOnlyOnTheThreadRandomStreamTest() {
+		for (CrossoverType crossoverType : new CrossoverType[] {CrossoverType.OX, CrossoverType.PMX}) {
+			int[][] sons = new int[2][AIRCRAFT_COUNT * 20];
+			for (int run = 0; run < 2; run++) {
+				PermutationCrossover crossover = crossoverType.createPermutationCrossover(instance);
+				int[] son = new int[AIRCRAFT_COUNT];
+				RandomHelper.setThreadRandom(new Random(28));
+				try {
+					for (int n = 0; n < 20; n++) {
+						crossover.cross(parent1, parent2, son);
+						System.arraycopy(son, 0, sons[run], n * AIRCRAFT_COUNT, AIRCRAFT_COUNT);
+					}
+				} finally {
+					RandomHelper.setThreadRandom(null);
+				}
+			}
+			Assert.assertArrayEquals(sons[0], sons[1]);
+		}
+	}
+	
+	private void assertIsPermutation(CrossoverType crossoverType, int[] son) {
+		boolean[] found = new boolean[AIRCRAFT_COUNT];
+		for (int aircraft : son) {
+			Assert.assertFalse(crossoverType + " repeated aircraft " + aircraft, found[aircraft]);
+			found[aircraft] = true;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.PopulationDiversity;
+
+public class PopulationDiversityTest {
+
+	private static final int AIRCRAFT_COUNT = 20;
+
+	private AircraftStaticData[] aircrafts;
+
+	private Random random;
+
+	@Before
+	public void setUp() {
+		aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			aircrafts[i] = new AircraftStaticData(i, 0, 10 * i, 10 * i + 20, 10 * i + 200, 10, 30, new int[AIRCRAFT_COUNT]);
+		}
+		random = new Random(7);
+	}
+
+	@Test
+	public void kendallDistanceCountsDiscordantPairsTest() {
+		PopulationDiversity diversity = new PopulationDiversity(AIRCRAFT_COUNT, 1);
+		for (int n = 0; n < 50; n++) {
+			int[] aircraftIds1 = randomPermutation();
+			int[] aircraftIds2 = randomPermutation();
+
+			int[] positions2 = new int[AIRCRAFT_COUNT];
+			for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+				positions2[aircraftIds2[i]] = i;
+			}
+			long discordantPairs = 0;
+			for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+				for (int j = i + 1; j < AIRCRAFT_COUNT; j++) {
+					if (positions2[aircraftIds1[i]] > positions2[aircraftIds1[j]]) {
+						discordantPairs++;
+					}
+				}
+			}
+
+			Assert.assertEquals(discordantPairs, diversity.calculateKendallDistance(aircraftIds1, aircraftIds2));
+		}
+	}
+
+	@Test
+	public void incrementalPositionEntropyTest() {
+		int[] aircraftIds = randomPermutation();
+		List<Individual> identicalIndividuals = new ArrayList<Individual>();
+		for (int i = 0; i < 10; i++) {
+			identicalIndividuals.add(createIndividual(aircraftIds, i));
+		}
+		Population population = new Population(new PopulationConfig(10, 0.3f, 0.1f), identicalIndividuals);
+		PopulationDiversity diversity = population.enableDiversityTracking(4);
+		Assert.assertEquals(0, diversity.getPositionEntropy(), 1e-9);
+		Assert.assertEquals(0, diversity.sampleKendallDistance(population), 1e-9);
+
+		// replaces and changes individuals, and compares to the metrics of a population built from scratch.
+		List<Individual> individuals = new ArrayList<Individual>();
+		for (int i = 0; i < 10; i++) {
+			Individual individual = createIndividual(randomPermutation(), 100 + i);
+			population.replace(individual, population.get(random.nextInt(population.getSize())));
+		}
+		for (int i = 0; i < 3; i++) {
+			Individual individual = population.get(i);
+			Aircraft[] landingSequence = individual.getAircraftLandingSequence();
+			Aircraft swap = landingSequence[0];
+			landingSequence[0] = landingSequence[AIRCRAFT_COUNT - 1];
+			landingSequence[AIRCRAFT_COUNT - 1] = swap;
+			population.individualChanged(individual);
+		}
+		for (Individual individual : population) {
+			individuals.add(individual);
+		}
+
+		Population rebuiltPopulation = new Population(new PopulationConfig(10, 0.3f, 0.1f), individuals);
+		Assert.assertEquals(rebuiltPopulation.enableDiversityTracking(4).getPositionEntropy(), diversity.getPositionEntropy(), 1e-9);
+		Assert.assertTrue(diversity.getPositionEntropy() > 0);
+	}
+
+	private Individual createIndividual(int[] aircraftIds, int fitnessValue) {
+		Aircraft[] landingSequence = new Aircraft[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			landingSequence[i] = new Aircraft(aircrafts[aircraftIds[i]]);
+		}
+		return new Individual(landingSequence, fitnessValue);
+	}
+
+	private int[] randomPermutation() {
+		int[] permutation = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			permutation[i] = i;
+		}
+		for (int i = AIRCRAFT_COUNT - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = permutation[i];
+			permutation[i] = permutation[j];
+			permutation[j] = swap;
+		}
+		return permutation;
+	}
+}
@@ -0,0 +1,108 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.PopulationInitializer;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.IndividualCreator;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+public class PopulationInitializerTest {
+
+	private static final int AIRCRAFT_COUNT = 30;
+
+	private AircraftStaticData[] aircrafts;
+
+	@Before
+	public void setUp() {
+		Random random = new Random(11);
+		aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int target = random.nextInt(500) + 50;
+			int[] gaps = new int[AIRCRAFT_COUNT];
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				gaps[j] = i == j ? 0 : 3 + random.nextInt(5);
+			}
+			aircrafts[i] = new AircraftStaticData(i, 0, target - 40, target, target + 200, 1 + random.nextInt(5), 1 + random.nextInt(5), gaps);
+		}
+	}
+
+	@Test
+	public void populationDependsOnlyOnTheSeedTest() {
+		for (boolean duplicateFree : new boolean[] { false, true }) {
+			PopulationConfig config = new PopulationConfig(101, 0.3f, 0.1f, duplicateFree);
+			long[] sequential = getFingerprints(createPopulation(config, 42, 1));
+			long[] parallel = getFingerprints(createPopulation(config, 42, 4));
+			Assert.assertArrayEquals(sequential, parallel);
+			Assert.assertArrayEquals(sequential, getFingerprints(createPopulation(config, 42, 3)));
+			Assert.assertFalse(Arrays.equals(sequential, getFingerprints(createPopulation(config, 43, 4))));
+		}
+	}
+
+	@Test
+	public void cachedOrderingsTest() {
+		LandingSequenceCreator creator = new LandingSequenceCreator(aircrafts);
+		for (int n = 0; n < 2; n++) {
+			Aircraft[] byTarget = creator.createLandingSequenceSortedByTargetLandingTimes();
+			Aircraft[] byLatest = creator.createLandingSequenceSortedByLatestLandingTimes();
+			Aircraft[] byPenalty = creator.createLandingSequenceSortedByPenaltyCost();
+			Assert.assertEquals(AIRCRAFT_COUNT, byTarget.length);
+			for (int i = 1; i < AIRCRAFT_COUNT; i++) {
+				Assert.assertTrue(byTarget[i - 1].getTargetLandingTime() <= byTarget[i].getTargetLandingTime());
+				Assert.assertEquals(byTarget[i].getTargetLandingTime(), byTarget[i].getLandingTime());
+				Assert.assertTrue(byLatest[i - 1].getLatestLandingTime() <= byLatest[i].getLatestLandingTime());
+				Assert.assertEquals(byLatest[i].getLatestLandingTime(), byLatest[i].getLandingTime());
+				Assert.assertTrue(byPenalty[i - 1].getLandingAfterTargetTimePenaltyCost() >= byPenalty[i].getLandingAfterTargetTimePenaltyCost());
+			}
+		}
+	}
+
+	@Test
+	public void duplicatesArePerturbedTest() {
+		// 4 aircrafts: the random individuals repeat the landing schedules of each other.
+		aircrafts = TestInstances.createAircrafts(new Random(31), 4);
+		for (boolean duplicateFree : new boolean[] { false, true }) {
+			Population population = createPopulation(new PopulationConfig(40, 0.3f, 0.1f, duplicateFree), 31, 1);
+			Set<String> schedules = new HashSet<String>();
+			for (Individual individual : population) {
+				StringBuilder schedule = new StringBuilder();
+				for (Aircraft aircraft : individual.getAircraftLandingSequence()) {
+					schedule.append(aircraft.getId()).append(':').append(aircraft.getLandingTime()).append(' ');
+				}
+				schedules.add(schedule.toString());
+			}
+			Assert.assertEquals(40, population.getSize());
+			Assert.assertEquals(duplicateFree, schedules.size() == population.getSize());
+			Assert.assertEquals((float) schedules.size() / population.getSize(), population.getUniquenessRatio(), 1e-6);
+		}
+	}
+
+	private Population createPopulation(PopulationConfig config, long seed, int threads) {
+		IndividualCreator individualCreator = new IndividualCreator(new LandingSequenceCreator(aircrafts), new FitnessEvaluator(), new LandingTimeScheduler());
+		PopulationInitializer initializer = new PopulationInitializer(individualCreator, config);
+		initializer.setSeed(seed);
+		initializer.setThreads(threads);
+		return initializer.createPopulation();
+	}
+
+	private long[] getFingerprints(Population population) {
+		long[] fingerprints = new long[population.getSize()];
+		for (int i = 0; i < fingerprints.length; i++) {
+			fingerprints[i] = population.get(i).getLandingScheduleFingerprint();
+		}
+		return fingerprints;
+	}
+}
@@ -0,0 +1,184 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+
+public class PopulationTest {
+
+	private static final int POPULATION_SIZE = 40;
+
+	private static final int AIRCRAFT_COUNT = 6;
+
+	private final AircraftStaticData[] aircrafts = TestInstances.createAircrafts(new Random(30), AIRCRAFT_COUNT);
+
+	@Test
+	public void sortedPopulationStaysOrderedTest() {
+		Random random = new Random(31);
+		Population population = createPopulation(random, POPULATION_SIZE);
+		population.sortByFitness();
+		for (int n = 0; n < 500; n++) {
+			// few distinct fitness values, so there are many ties.
+			Individual individual = createIndividual(random, random.nextInt(8));
+			if (random.nextBoolean()) {
+				population.add(individual);
+			} else {
+				Assert.assertTrue(population.replace(individual, population.get(random.nextInt(population.getSize()))));
+			}
+			assertOrdered(population);
+		}
+		Assert.assertSame(population.get(0), population.getMostAdaptedIndividual());
+		Assert.assertSame(population.get(population.getSize() - 1), population.getLessAdaptedIndividual());
+	}
+
+	@Test
+	public void individualsAreRemovedByIdentityTest() {
+		Random random = new Random(32);
+		List<Individual> individuals = new ArrayList<Individual>();
+		for (int i = 0; i < 10; i++) {
+			individuals.add(createIndividual(random, 7));
+		}
+		for (boolean sorted : new boolean[] { false, true }) {
+			Population population = new Population(new PopulationConfig(10, 0.3f, 0.1f), individuals);
+			if (sorted) {
+				population.sortByFitness();
+			}
+			Individual equalClone = individuals.get(4).clone();
+			Assert.assertEquals(individuals.get(4), equalClone);
+			Assert.assertEquals(-1, population.indexOf(equalClone));
+			Assert.assertFalse(population.remove(equalClone));
+
+			Assert.assertTrue(population.remove(individuals.get(4)));
+			Assert.assertFalse(population.remove(individuals.get(4)));
+			Assert.assertEquals(9, population.getSize());
+			for (int i = 0; i < individuals.size(); i++) {
+				Assert.assertEquals(i == 4, population.indexOf(individuals.get(i)) < 0);
+			}
+		}
+	}
+
+	@Test
+	public void changedIndividualsAreMovedAndReindexedTest() {
+		Random random = new Random(33);
+		Population population = createPopulation(random, POPULATION_SIZE);
+		population.sortByFitness();
+		for (int n = 0; n < 200; n++) {
+			int index = random.nextInt(population.getSize());
+			Individual individual = population.get(index);
+			individual.setFitnessValue(random.nextInt(1000));
+			population.fitnessValueChanged(index);
+			Assert.assertTrue(population.isSorted());
+			Assert.assertEquals(POPULATION_SIZE, population.getSize());
+			Assert.assertTrue(population.indexOf(individual) >= 0);
+			assertOrdered(population);
+		}
+
+		// a landing schedule changed in place: the old one is no longer indexed.
+		Individual individual = population.get(3);
+		Individual previousSchedule = individual.clone();
+		Aircraft[] landingSequence = individual.getAircraftLandingSequence();
+		Aircraft first = landingSequence[0];
+		landingSequence[0] = landingSequence[1];
+		landingSequence[1] = first;
+		int occurrences = countSchedule(population, previousSchedule);
+		population.individualChanged(individual);
+		Assert.assertFalse(population.isSorted());
+		Assert.assertTrue(population.containsLandingSchedule(individual));
+		Assert.assertEquals(occurrences > 1, population.containsLandingSchedule(previousSchedule));
+	}
+
+	@Test
+	public void duplicateFreePopulationRejectsTheSameScheduleTest() {
+		Individual original = createIndividual(new int[] { 0, 1, 2, 3, 4, 5 }, new int[] { 100, 150, 200, 250, 300, 350 }, 10);
+		// (id + 1, time - 31) then (id - 1, time + 31): the same polynomial hash as the original schedule.
+		Individual shifted = createIndividual(new int[] { 1, 0, 2, 3, 4, 5 }, new int[] { 69, 181, 200, 250, 300, 350 }, 10);
+		Assert.assertTrue(original.getLandingScheduleFingerprint() != shifted.getLandingScheduleFingerprint());
+
+		List<Individual> individuals = new ArrayList<Individual>();
+		individuals.add(original);
+		individuals.add(createIndividual(new int[] { 5, 4, 3, 2, 1, 0 }, new int[] { 100, 150, 200, 250, 300, 350 }, 20));
+		Population population = new Population(new PopulationConfig(2, 0.3f, 0.1f, true), individuals);
+		Assert.assertTrue(population.containsLandingSchedule(original.clone()));
+		Assert.assertFalse(population.containsLandingSchedule(shifted));
+
+		// a copy of the original schedule is rejected, the shifted one isn't.
+		Assert.assertFalse(population.replace(original.clone(), individuals.get(1)));
+		Assert.assertTrue(population.replace(shifted, individuals.get(1)));
+		Assert.assertEquals(1f, population.getUniquenessRatio(), 0);
+	}
+
+	@Test
+	public void uniquenessRatioCountsDistinctSchedulesTest() {
+		List<Individual> individuals = new ArrayList<Individual>();
+		Random random = new Random(34);
+		for (int i = 0; i < 5; i++) {
+			Individual individual = createIndividual(random, i);
+			individuals.add(individual);
+			individuals.add(individual.clone());
+		}
+		Population population = new Population(new PopulationConfig(10, 0.3f, 0.1f), individuals);
+		Assert.assertEquals(0.5f, population.getUniquenessRatio(), 1e-6);
+
+		population.remove(individuals.get(0));
+		Assert.assertEquals(5f / 9, population.getUniquenessRatio(), 1e-6);
+		population.remove(individuals.get(1));
+		Assert.assertEquals(4f / 8, population.getUniquenessRatio(), 1e-6);
+
+		// the copy of the third schedule becomes unique.
+		Individual copy = individuals.get(5);
+		copy.getAircraftLandingSequence()[0].setLandingTime(copy.getAircraftLandingSequence()[0].getLandingTime() + 1000);
+		population.individualChanged(copy);
+		Assert.assertEquals(5f / 8, population.getUniquenessRatio(), 1e-6);
+	}
+
+	private Individual createIndividual(int[] aircraftIds, int[] landingTimes, int fitnessValue) {
+		Aircraft[] landingSequence = new Aircraft[aircraftIds.length];
+		for (int i = 0; i < aircraftIds.length; i++) {
+			landingSequence[i] = new Aircraft(aircrafts[aircraftIds[i]]);
+			landingSequence[i].setLandingTime(landingTimes[i]);
+		}
+		return new Individual(landingSequence, fitnessValue);
+	}
+
+	private Population createPopulation(Random random, int size) {
+		List<Individual> individuals = new ArrayList<Individual>();
+		for (int i = 0; i < size; i++) {
+			individuals.add(createIndividual(random, random.nextInt(1000)));
+		}
+		return new Population(new PopulationConfig(size, 0.3f, 0.1f), individuals);
+	}
+
+	private Individual createIndividual(Random random, int fitnessValue) {
+		Aircraft[] landingSequence = new Aircraft[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			landingSequence[i] = new Aircraft(aircrafts[i]);
+			landingSequence[i].setLandingTime(aircrafts[i].getTargetLandingTime() + random.nextInt(3));
+		}
+		return new Individual(landingSequence, fitnessValue);
+	}
+
+	private int countSchedule(Population population, Individual schedule) {
+		int count = 0;
+		for (Individual individual : population) {
+			if (individual.getLandingScheduleFingerprint() == schedule.getLandingScheduleFingerprint()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private void assertOrdered(Population population) {
+		for (int i = 1; i < population.getSize(); i++) {
+			Assert.assertTrue(population.get(i - 1).getFitnessValue() <= population.get(i).getFitnessValue());
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.AirTrafficControl;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.ga.BranchAndBound;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.PortfolioScheduler;
+import br.ufrgs.inf.ga.SharedIncumbent;
+import br.ufrgs.inf.ga.SimulatedAnnealing;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.Solution;
+
+public class PortfolioSchedulerTest {
+
+	private static final int AIRCRAFT_COUNT = 10;
+
+	private static final int OFFERING_THREADS = 4;
+
+	@Test
+	public void portfolioFindsTheOptimalScheduleTest() throws Exception {
+		Random random = new Random(44);
+		for (int round = 0; round < 3; round++) {
+			AircraftStaticData[] aircrafts = TestInstances.createAircrafts(random, AIRCRAFT_COUNT);
+			BranchAndBound branchAndBound = new BranchAndBound(aircrafts, 1);
+			branchAndBound.execute();
+			int optimalCost = branchAndBound.getSolution().getBestIndividualFound().getFitnessValue();
+
+			GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(new PopulationConfig(50, 0.3f, 0.1f), 100000, aircrafts);
+			geneticAlgorithm.setInitializationThreads(1);
+			PortfolioScheduler portfolioScheduler = new PortfolioScheduler(aircrafts, geneticAlgorithm);
+			SimulatedAnnealing annealing = new SimulatedAnnealing(aircrafts);
+			annealing.setSeed(round);
+			portfolioScheduler.addSimulatedAnnealing(annealing);
+			portfolioScheduler.addBranchAndBound(new BranchAndBound(aircrafts, 1));
+
+			// the branch and bound stops the genetic algorithm long before its max generations.
+			Solution solution = new AirTrafficControl(portfolioScheduler).scheduleAircraftsLandings();
+			Assert.assertTrue(solution.isProvenOptimal());
+			Assert.assertEquals(optimalCost, solution.getBestIndividualFound().getFitnessValue());
+			Assert.assertTrue(portfolioScheduler.getIncumbent().isProvenOptimal());
+		}
+	}
+
+	@Test
+	public void portfolioStopsAtTheTimeLimitTest() throws Exception {
+		AircraftStaticData[] aircrafts = TestInstances.createAircrafts(new Random(45), AIRCRAFT_COUNT);
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(new PopulationConfig(50, 0.3f, 0.1f), Integer.MAX_VALUE, aircrafts);
+		geneticAlgorithm.setInitializationThreads(1);
+		PortfolioScheduler portfolioScheduler = new PortfolioScheduler(aircrafts, geneticAlgorithm);
+		SimulatedAnnealing annealing = new SimulatedAnnealing(aircrafts);
+		annealing.setMaxMoves(Long.MAX_VALUE);
+		portfolioScheduler.addSimulatedAnnealing(annealing);
+		portfolioScheduler.setTimeLimit(200);
+
+		long startTime = System.currentTimeMillis();
+		portfolioScheduler.execute();
+		Assert.assertTrue(System.currentTimeMillis() - startTime < 5000);
+		Assert.assertFalse(portfolioScheduler.getSolution().isProvenOptimal());
+		Assert.assertTrue(portfolioScheduler.getSolution().getBestIndividualFound().getFitnessValue() <= portfolioScheduler.getIncumbent().getCost() + 1);
+	}
+
+	@Test
+	public void concurrentOffersKeepTheBestTest() throws Exception {
+		final SharedIncumbent incumbent = new SharedIncumbent();
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[OFFERING_THREADS];
+		for (int t = 0; t < threads.length; t++) {
+			final int thread = t;
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int cost = 10000; cost >= 0; cost--) {
+						incumbent.offer(new int[] { thread, cost }, cost * OFFERING_THREADS + thread, "thread " + thread);
+					}
+				}
+			};
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(0, incumbent.getCost(), 0);
+		Assert.assertEquals("thread 0", incumbent.get().getEngine());
+		Assert.assertFalse(incumbent.offer(new int[] { 0, 0 }, 1, "late"));
+		Assert.assertFalse(incumbent.isStopped());
+
+		incumbent.proveOptimal(new int[] { 1, 1 }, 0, "prover");
+		Assert.assertTrue(incumbent.isStopped());
+		Assert.assertTrue(incumbent.get().isProvenOptimal());
+		Assert.assertEquals("thread 0", incumbent.get().getEngine());
+	}
+}
@@ -0,0 +1,120 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.PrecedenceMatrix;
+import br.ufrgs.inf.ga.ConstructiveHeuristic;
+import br.ufrgs.inf.ga.ConstructiveScheduler;
+import br.ufrgs.inf.ga.FitnessEvaluator;
+import br.ufrgs.inf.ga.LandingTimeScheduler;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.operators.MutationOperator;
+import br.ufrgs.inf.ga.operators.MutationType;
+
+public class PrecedenceMatrixTest {
+
+	private static final int AIRCRAFT_COUNT = 30;
+
+	@Test
+	public void rejectedOrdersAreInfeasibleTest() {
+		Random random = new Random(11);
+		AtcInstance instance = createInstance(random);
+		PrecedenceMatrix precedenceMatrix = new PrecedenceMatrix(instance);
+
+		int rejected = 0;
+		for (int n = 0; n < 2000; n++) {
+			// random orders near the target times order, so that both outcomes happen.
+			int[] aircraftIds = identity();
+			for (int k = 0; k < 2; k++) {
+				int i = random.nextInt(AIRCRAFT_COUNT - 1);
+				int j = Math.min(AIRCRAFT_COUNT - 1, i + 1 + random.nextInt(4));
+				int swap = aircraftIds[i];
+				aircraftIds[i] = aircraftIds[j];
+				aircraftIds[j] = swap;
+			}
+
+			boolean breaksRelation = false;
+			for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+				if (i > 0 && !precedenceMatrix.canLandImmediatelyBefore(aircraftIds[i - 1], aircraftIds[i])) {
+					breaksRelation = true;
+				}
+				for (int j = i + 1; j < AIRCRAFT_COUNT; j++) {
+					if (precedenceMatrix.mustLandBefore(aircraftIds[j], aircraftIds[i])) {
+						breaksRelation = true;
+					}
+				}
+			}
+			Assert.assertEquals(!breaksRelation, precedenceMatrix.isFeasibleOrder(aircraftIds));
+			if (breaksRelation) {
+				rejected++;
+				Assert.assertFalse(hasFeasibleSchedule(instance, aircraftIds));
+			}
+		}
+		Assert.assertTrue(rejected > 0 && rejected < 2000);
+		Assert.assertEquals(rejected, precedenceMatrix.getRejectedOrderCount());
+	}
+
+	@Test
+	public void neighbourMutationsKeepThePrecedencesTest() {
+		Random random = new Random(13);
+		AtcInstance instance = createInstance(random);
+		PrecedenceMatrix precedenceMatrix = new PrecedenceMatrix(instance);
+		ConstructiveScheduler constructiveScheduler = new ConstructiveScheduler(instance);
+		int[] aircraftIds = constructiveScheduler.createLandingOrder(ConstructiveHeuristic.EARLIEST_DEADLINE_FIRST);
+		int[] landingTimes = new int[AIRCRAFT_COUNT];
+		constructiveScheduler.schedule(aircraftIds, landingTimes);
+		Assert.assertTrue(precedenceMatrix.isFeasibleOrder(aircraftIds));
+
+		for (MutationType mutationType : new MutationType[] { MutationType.NEIGHBOUR_SWAP, MutationType.NEIGHBOUR_INSERTION }) {
+			MutationOperator mutationOperator = new MutationOperator(new LandingTimeScheduler(), new FitnessEvaluator());
+			mutationOperator.setMutationType(mutationType, instance);
+			mutationOperator.setPrecedenceMatrix(precedenceMatrix);
+			Individual individual = new Individual(instance.createLandingSequence(aircraftIds, landingTimes), 0);
+			for (int i = 0; i < 1000; i++) {
+				mutationOperator.execute(individual);
+				Assert.assertTrue(mutationType + " broke a precedence", precedenceMatrix.isFeasibleOrder(individual.getAircraftLandingSequence()));
+			}
+		}
+	}
+
+	private AtcInstance createInstance(Random random) {
+		AircraftStaticData[] aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int target = 100 + 15 * i + random.nextInt(30);
+			int[] gaps = new int[AIRCRAFT_COUNT];
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				gaps[j] = i == j ? 0 : 3 + random.nextInt(8);
+			}
+			aircrafts[i] = new AircraftStaticData(i, 0, target - random.nextInt(40), target, target + random.nextInt(100), 1, 1, gaps);
+		}
+		return new AtcInstance(aircrafts);
+	}
+
+	private int[] identity() {
+		int[] aircraftIds = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			aircraftIds[i] = i;
+		}
+		return aircraftIds;
+	}
+
+	/**
+	 * Earliest landing times schedule: the order has a feasible schedule if and only if this one is feasible.
+	 */
+	private boolean hasFeasibleSchedule(AtcInstance instance, int[] aircraftIds) {
+		int time = Integer.MIN_VALUE;
+		for (int i = 0; i < aircraftIds.length; i++) {
+			int aircraft = aircraftIds[i];
+			time = Math.max(instance.getEarliestLandingTimes()[aircraft], i == 0 ? time : time + instance.getSeparationTime(aircraftIds[i - 1], aircraft));
+			if (time > instance.getLatestLandingTimes()[aircraft]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,161 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.SchedulingService;
+
+public class SchedulingServiceTest {
+
+	private static final int AIRCRAFT_COUNT = 10;
+
+	private static final String LONG_RUN = "/solve?instance=small&population=30&generations=100000000&timelimit=20000";
+
+	@Test
+	public void solvesLoadedInstancesTest() throws Exception {
+		SchedulingService service = new SchedulingService(0, 1, 1, 20000);
+		service.start();
+		try {
+			Assert.assertEquals(201, request(service, "PUT", "/instances/small", TestInstances.toText(TestInstances.createAircrafts(new Random(51), AIRCRAFT_COUNT))).status);
+
+			HttpResult geneticAlgorithm = request(service, "POST", "/solve?instance=small&population=30&generations=50&seed=1", null);
+			Assert.assertEquals(200, geneticAlgorithm.status);
+			Assert.assertTrue(geneticAlgorithm.body.contains("\"feasible\":true"));
+			Assert.assertTrue(geneticAlgorithm.body.contains("\"total_ms\":"));
+
+			HttpResult exact = request(service, "POST", "/solve?instance=small&engine=exact", null);
+			Assert.assertEquals(200, exact.status);
+			Assert.assertTrue(exact.body.contains("\"proven_optimal\":true"));
+			Assert.assertTrue(cost(exact.body) <= cost(geneticAlgorithm.body));
+
+			Assert.assertEquals(404, request(service, "POST", "/solve?instance=unknown", null).status);
+			Assert.assertEquals(400, request(service, "POST", "/solve?instance=small&engine=unknown", null).status);
+			Assert.assertEquals(400, request(service, "POST", "/solve?instance=small&relinking=4", null).status);
+			Assert.assertTrue(request(service, "GET", "/status", null).body.contains("\"completed\":2"));
+		} finally {
+			service.stop();
+		}
+	}
+
+	@Test
+	public void rejectsAndCancelsRequestsTest() throws Exception {
+		final SchedulingService service = new SchedulingService(0, 1, 1, 20000);
+		service.start();
+		ExecutorService clients = Executors.newCachedThreadPool();
+		try {
+			request(service, "PUT", "/instances/small", TestInstances.toText(TestInstances.createAircrafts(new Random(52), AIRCRAFT_COUNT)));
+			Future<HttpResult> running = clients.submit(createRequest(service, LONG_RUN + "&id=running"));
+			waitForStatus(service, "\"running\":1");
+			Future<HttpResult> queued = clients.submit(createRequest(service, LONG_RUN + "&id=queued"));
+			waitForStatus(service, "\"queued\":1");
+
+			// the worker is busy and the queue is full.
+			HttpResult rejected = request(service, "POST", LONG_RUN, null);
+			Assert.assertEquals(503, rejected.status);
+
+			Assert.assertEquals(200, request(service, "DELETE", "/jobs/queued", null).status);
+			Assert.assertEquals(409, queued.get().status);
+			long cancelTime = System.currentTimeMillis();
+			Assert.assertEquals(200, request(service, "DELETE", "/jobs/running", null).status);
+			HttpResult cancelled = running.get();
+			Assert.assertTrue(System.currentTimeMillis() - cancelTime < 5000);
+			Assert.assertEquals(200, cancelled.status);
+			Assert.assertTrue(cancelled.body.contains("\"cancelled\":true"));
+			Assert.assertTrue(cancelled.body.contains("\"feasible\":true"));
+
+			long startTime = System.currentTimeMillis();
+			HttpResult deadline = request(service, "POST", "/solve?instance=small&population=30&generations=100000000&timelimit=300", null);
+			Assert.assertEquals(200, deadline.status);
+			Assert.assertTrue(deadline.body.contains("\"deadline_reached\":true"));
+			Assert.assertTrue(System.currentTimeMillis() - startTime < 5000);
+			Assert.assertTrue(request(service, "GET", "/status", null).body.contains("\"rejected\":1"));
+		} finally {
+			clients.shutdownNow();
+			service.stop();
+		}
+	}
+
+	@Test
+	public void unexpectedFailuresAreAnsweredInJsonTest() throws Exception {
+		SchedulingService service = new SchedulingService(0, 1, 1, 20000);
+		service.start();
+		try {
+			// a negative aircraft count fails the loader with a NegativeArraySizeException.
+			HttpResult failed = request(service, "PUT", "/instances/broken", " -1 10 \n");
+			Assert.assertEquals(500, failed.status);
+			Assert.assertTrue(failed.body.startsWith("{\"error\":\"Internal error: java.lang.NegativeArraySizeException"));
+
+			// the service keeps answering.
+			Assert.assertEquals(200, request(service, "GET", "/status", null).status);
+		} finally {
+			service.stop();
+		}
+	}
+
+	private void waitForStatus(SchedulingService service, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!request(service, "GET", "/status", null).body.contains(expected)) {
+			Assert.assertTrue(System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private Callable<HttpResult> createRequest(final SchedulingService service, final String path) {
+		return new Callable<HttpResult>() {
+			@Override
+			public HttpResult call() throws IOException {
+				return request(service, "POST", path, null);
+			}
+		};
+	}
+
+	private int cost(String body) {
+		Matcher matcher = Pattern.compile("\"cost\":(\\d+)").matcher(body);
+		Assert.assertTrue(matcher.find());
+		return Integer.parseInt(matcher.group(1));
+	}
+
+	private HttpResult request(SchedulingService service, String method, String path, String body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + service.getPort() + path).openConnection();
+		connection.setRequestMethod(method);
+		if (body != null) {
+			connection.setDoOutput(true);
+			OutputStream output = connection.getOutputStream();
+			output.write(body.getBytes("UTF-8"));
+			output.close();
+		}
+		HttpResult result = new HttpResult();
+		result.status = connection.getResponseCode();
+		InputStream input = result.status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = input.read(buffer)) > 0) {
+			bytes.write(buffer, 0, read);
+		}
+		input.close();
+		result.body = bytes.toString("UTF-8");
+		return result;
+	}
+
+	private static class HttpResult {
+
+		int status;
+
+		String body;
+	}
+}
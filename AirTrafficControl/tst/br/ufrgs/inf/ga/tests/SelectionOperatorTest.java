@@ -0,0 +1,151 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.Parents;
+import br.ufrgs.inf.ga.model.Population;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.operators.SelectionOperator;
+import br.ufrgs.inf.ga.operators.SelectionType;
+import br.ufrgs.inf.ga.utils.RandomHelper;
+
+public class SelectionOperatorTest {
+
+	private static final int POPULATION_SIZE = 20;
+
+	@Before
+	public void setUp() {
+		RandomHelper.setThreadRandom(new Random(29));
+	}
+
+	@After
+	public void tearDown() {
+		RandomHelper.setThreadRandom(null);
+	}
+
+	@Test
+	public void biggerTournamentsSelectBetterParentsTest() {
+		// the fitness value of each individual is its index.
+		Population population = createPopulation(createFitnessValues());
+		double previousMeanFitnessValue = Double.MAX_VALUE;
+		for (int tournamentSize : new int[] { 1, 2, 4, 8 }) {
+			SelectionOperator selection = new SelectionOperator(SelectionType.TOURNAMENT, tournamentSize, 1);
+			long sum = 0;
+			int parents = 0;
+			for (int n = 0; n < 100; n++) {
+				for (Parents pair : selection.selectParents(population)) {
+					sum += pair.getParent1().getFitnessValue() + pair.getParent2().getFitnessValue();
+					parents += 2;
+				}
+			}
+			double meanFitnessValue = (double) sum / parents;
+			// the expected rank of the best among k uniform draws is about n / (k + 1).
+			Assert.assertEquals((double) POPULATION_SIZE / (tournamentSize + 1), meanFitnessValue + 0.5, 1.5);
+			Assert.assertTrue(meanFitnessValue < previousMeanFitnessValue);
+			previousMeanFitnessValue = meanFitnessValue;
+		}
+	}
+
+	@Test
+	public void stochasticUniversalSamplingIsEvenlySpacedTest() {
+		int[] fitnessValues = createFitnessValues();
+		fitnessValues[3] = Integer.MAX_VALUE;
+		Population population = createPopulation(fitnessValues);
+		int samples = 2 * (int) (POPULATION_SIZE * population.getReproductionRate());
+		for (float pressure : new float[] { 1, 2 }) {
+			double[] weights = new double[POPULATION_SIZE];
+			double totalWeight = 0;
+			for (int i = 0; i < POPULATION_SIZE; i++) {
+				// the worse valid fitness value is the last one.
+				weights[i] = fitnessValues[i] == Integer.MAX_VALUE ? 0 : Math.pow(POPULATION_SIZE - i, pressure);
+				totalWeight += weights[i];
+			}
+			SelectionOperator selection = new SelectionOperator(SelectionType.STOCHASTIC_UNIVERSAL_SAMPLING, 2, pressure);
+			for (int n = 0; n < 50; n++) {
+				int[] counts = new int[POPULATION_SIZE];
+				for (Parents pair : selection.selectParents(population)) {
+					counts[indexOf(population, pair.getParent1())]++;
+					counts[indexOf(population, pair.getParent2())]++;
+				}
+				// a single spin with evenly spaced pointers: each count is its expected value rounded down or up.
+				for (int i = 0; i < POPULATION_SIZE; i++) {
+					double expectedCount = samples * weights[i] / totalWeight;
+					Assert.assertTrue(counts[i] >= Math.floor(expectedCount) && counts[i] <= Math.ceil(expectedCount));
+				}
+				Assert.assertEquals(0, counts[3]);
+			}
+		}
+	}
+
+	@Test
+	public void lessAdaptedIsTheWorseOfTheTournamentTest() {
+		Population population = createPopulation(createFitnessValues());
+		Individual worse = population.getLessAdaptedIndividual();
+		SelectionOperator bigTournament = new SelectionOperator(SelectionType.TOURNAMENT, 50 * POPULATION_SIZE, 1);
+		for (int n = 0; n < 20; n++) {
+			Assert.assertSame(worse, bigTournament.selectLessAdapted(population));
+		}
+
+		SelectionOperator singleDraw = new SelectionOperator(SelectionType.TOURNAMENT, 1, 1);
+		Set<Individual> selected = new HashSet<Individual>();
+		for (int n = 0; n < 200; n++) {
+			selected.add(singleDraw.selectLessAdapted(population));
+		}
+		Assert.assertEquals(POPULATION_SIZE, selected.size());
+	}
+
+	@Test
+	public void selectionFollowsTheThreadRandomStreamTest() {
+		Population population = createPopulation(createFitnessValues());
+		for (SelectionType selectionType : new SelectionType[] { SelectionType.TOURNAMENT, SelectionType.STOCHASTIC_UNIVERSAL_SAMPLING }) {
+			int[][] selectedFitnessValues = new int[2][];
+			for (int run = 0; run < 2; run++) {
+				RandomHelper.setThreadRandom(new Random(30));
+				SelectionOperator selection = new SelectionOperator(selectionType, 3, 1);
+				List<Parents> parents = selection.selectParents(population);
+				selectedFitnessValues[run] = new int[2 * parents.size()];
+				for (int i = 0; i < parents.size(); i++) {
+					selectedFitnessValues[run][2 * i] = parents.get(i).getParent1().getFitnessValue();
+					selectedFitnessValues[run][2 * i + 1] = parents.get(i).getParent2().getFitnessValue();
+				}
+			}
+			Assert.assertArrayEquals(selectedFitnessValues[0], selectedFitnessValues[1]);
+		}
+	}
+
+	private int[] createFitnessValues() {
+		int[] fitnessValues = new int[POPULATION_SIZE];
+		for (int i = 0; i < POPULATION_SIZE; i++) {
+			fitnessValues[i] = i;
+		}
+		return fitnessValues;
+	}
+
+	private Population createPopulation(int[] fitnessValues) {
+		List<Individual> individuals = new ArrayList<Individual>();
+		for (int fitnessValue : fitnessValues) {
+			individuals.add(new Individual(new Aircraft[0], fitnessValue));
+		}
+		return new Population(new PopulationConfig(POPULATION_SIZE, 0.5f, 0.1f), individuals);
+	}
+
+	private int indexOf(Population population, Individual individual) {
+		for (int i = 0; i < population.getSize(); i++) {
+			if (population.get(i) == individual) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,59 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.ga.BranchAndBound;
+import br.ufrgs.inf.ga.ConstructiveScheduler;
+import br.ufrgs.inf.ga.SimulatedAnnealing;
+
+public class SimulatedAnnealingTest {
+
+	private static final int AIRCRAFT_COUNT = 12;
+
+	@Test
+	public void annealingImprovesTheConstructiveScheduleTest() throws Exception {
+		Random random = new Random(43);
+		for (int round = 0; round < 5; round++) {
+			AircraftStaticData[] aircrafts = TestInstances.createAircrafts(random, AIRCRAFT_COUNT);
+			int[] aircraftIds = new int[AIRCRAFT_COUNT];
+			int[] landingTimes = new int[AIRCRAFT_COUNT];
+			ConstructiveScheduler constructiveScheduler = new ConstructiveScheduler(new AtcInstance(aircrafts));
+			constructiveScheduler.createBestSchedule(false, aircraftIds, landingTimes);
+			double constructiveCost = constructiveScheduler.schedule(aircraftIds, landingTimes);
+
+			BranchAndBound branchAndBound = new BranchAndBound(aircrafts, 1);
+			branchAndBound.execute();
+			int optimalCost = branchAndBound.getSolution().getBestIndividualFound().getFitnessValue();
+
+			for (int tabuTenure : new int[] { 0, 10 }) {
+				SimulatedAnnealing annealing = new SimulatedAnnealing(aircrafts);
+				annealing.setSeed(round);
+				annealing.setMaxMoves(100000);
+				annealing.setTabuTenure(tabuTenure);
+				annealing.execute();
+				int cost = annealing.getSolution().getBestIndividualFound().getFitnessValue();
+				Assert.assertTrue(cost <= constructiveCost);
+				Assert.assertTrue(cost >= optimalCost);
+				Assert.assertEquals(100000, annealing.getEvaluatedMoves());
+
+				// the same seed makes the same moves.
+				SimulatedAnnealing sameAnnealing = new SimulatedAnnealing(aircrafts);
+				sameAnnealing.setSeed(round);
+				sameAnnealing.setMaxMoves(100000);
+				sameAnnealing.setTabuTenure(tabuTenure);
+				sameAnnealing.execute();
+				Aircraft[] landingSequence = annealing.getSolution().getBestIndividualFound().getAircraftLandingSequence();
+				Aircraft[] sameLandingSequence = sameAnnealing.getSolution().getBestIndividualFound().getAircraftLandingSequence();
+				for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+					Assert.assertEquals(landingSequence[i].getId(), sameLandingSequence[i].getId());
+				}
+			}
+		}
+	}
+}
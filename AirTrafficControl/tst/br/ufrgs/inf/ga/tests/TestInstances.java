@@ -0,0 +1,63 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+
+/**
+ * Random ATC problem instances shared by the tests. It is the generator of the simulated annealing tests, also used by the
+ * portfolio, batch runner, non-dominated sorting, metrics and scheduling service tests (and by the later ones), so they
+ * all run on the same kind of instance.
+ *
+ * @author diego
+ *
+ */
+final class TestInstances {
+
+	private TestInstances() {
+	}
+
+	/**
+	 * Creates a random instance: target times in [100, 160), time windows of 10 to 30 time units before and 60 to 120 after
+	 * the target times, and gap times from 3 to 14.
+	 *
+	 * @param random random number generator (the same seed always creates the same instance).
+	 * @param aircraftCount number of aircrafts.
+	 * @return the aircrafts data.
+	 */
+	static AircraftStaticData[] createAircrafts(Random random, int aircraftCount) {
+		AircraftStaticData[] aircrafts = new AircraftStaticData[aircraftCount];
+		for (int i = 0; i < aircraftCount; i++) {
+			int[] gaps = new int[aircraftCount];
+			for (int j = 0; j < aircraftCount; j++) {
+				gaps[j] = i == j ? 99999 : 3 + random.nextInt(12);
+			}
+			int target = 100 + random.nextInt(60);
+			aircrafts[i] = new AircraftStaticData(i, 0, target - 10 - random.nextInt(20), target, target + 60 + random.nextInt(60),
+												   1 + random.nextInt(10), 1 + random.nextInt(30), gaps);
+		}
+		return aircrafts;
+	}
+
+	/**
+	 * Writes an instance in the input file format: aircraft count and freeze time, then the times, penalty costs and gap
+	 * times of each aircraft.
+	 *
+	 * @param aircrafts the aircrafts data.
+	 * @return the instance text.
+	 */
+	static String toText(AircraftStaticData[] aircrafts) {
+		StringBuilder text = new StringBuilder(" " + aircrafts.length + " 10 \n");
+		for (AircraftStaticData aircraft : aircrafts) {
+			text.append(' ').append(aircraft.getAppearanceTime()).append(' ').append(aircraft.getEarliestLandingTime())
+				.append(' ').append(aircraft.getTargetLandingTime()).append(' ').append(aircraft.getLatestLandingTime())
+				.append(' ').append(aircraft.getLandingBeforeTargetTimePenaltyCost()).append(' ').append(aircraft.getLandingAfterTargetTimePenaltyCost())
+				.append(" \n");
+			for (int gap : aircraft.getGapTimeBetweenLandings()) {
+				text.append(' ').append(gap);
+			}
+			text.append(" \n");
+		}
+		return text.toString();
+	}
+}
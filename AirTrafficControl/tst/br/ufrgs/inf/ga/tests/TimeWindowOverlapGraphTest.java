@@ -0,0 +1,57 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.AtcInstance;
+import br.ufrgs.inf.atc.model.TimeWindowOverlapGraph;
+
+public class TimeWindowOverlapGraphTest {
+
+	private static final int AIRCRAFT_COUNT = 60;
+
+	@Test
+	public void candidatesAreOverlappingWindowsSortedByTargetTimeTest() {
+		Random random = new Random(7);
+		AircraftStaticData[] aircrafts = new AircraftStaticData[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int target = 100 + random.nextInt(50 * AIRCRAFT_COUNT);
+			aircrafts[i] = new AircraftStaticData(i, 0, target - random.nextInt(80), target, target + random.nextInt(200), 1, 1, new int[AIRCRAFT_COUNT]);
+		}
+		AtcInstance instance = new AtcInstance(aircrafts);
+		int[] earliest = instance.getEarliestLandingTimes();
+		int[] target = instance.getTargetLandingTimes();
+		int[] latest = instance.getLatestLandingTimes();
+
+		TimeWindowOverlapGraph graph = new TimeWindowOverlapGraph(instance, 0);
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			int overlapping = 0;
+			for (int j = 0; j < AIRCRAFT_COUNT; j++) {
+				if (i != j && earliest[j] <= latest[i] && earliest[i] <= latest[j]) {
+					overlapping++;
+				}
+			}
+			Assert.assertEquals(overlapping, graph.getCandidateCount(i));
+
+			int previousDistance = 0;
+			for (int k = 0; k < graph.getCandidateCount(i); k++) {
+				int j = graph.getCandidate(i, k);
+				Assert.assertTrue(i != j && earliest[j] <= latest[i] && earliest[i] <= latest[j]);
+				int distance = Math.abs(target[j] - target[i]);
+				Assert.assertTrue(distance >= previousDistance);
+				previousDistance = distance;
+			}
+		}
+
+		TimeWindowOverlapGraph limitedGraph = new TimeWindowOverlapGraph(instance, 3);
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			Assert.assertEquals(Math.min(3, graph.getCandidateCount(i)), limitedGraph.getCandidateCount(i));
+			for (int k = 0; k < limitedGraph.getCandidateCount(i); k++) {
+				Assert.assertEquals(graph.getCandidate(i, k), limitedGraph.getCandidate(i, k));
+			}
+		}
+	}
+}
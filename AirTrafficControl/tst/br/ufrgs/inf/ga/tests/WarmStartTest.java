@@ -0,0 +1,114 @@
+package br.ufrgs.inf.ga.tests;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.ufrgs.inf.atc.SolutionFile;
+import br.ufrgs.inf.atc.model.Aircraft;
+import br.ufrgs.inf.atc.model.AircraftStaticData;
+import br.ufrgs.inf.atc.model.LandingSequenceCreator;
+import br.ufrgs.inf.ga.GeneticAlgorithm;
+import br.ufrgs.inf.ga.exceptions.AlgorithmException;
+import br.ufrgs.inf.ga.model.Individual;
+import br.ufrgs.inf.ga.model.PopulationConfig;
+import br.ufrgs.inf.ga.model.Solution;
+
+public class WarmStartTest {
+
+	private static final int AIRCRAFT_COUNT = 12;
+
+	private static final int ELITE_SIZE = 5;
+
+	@Test
+	public void exportedSolutionIsLoadedBackTest() throws Exception {
+		Solution solution = execute(TestInstances.createAircrafts(new Random(26), AIRCRAFT_COUNT), null);
+		File file = File.createTempFile("solution", ".txt");
+		try {
+			SolutionFile.exportSolutionToFile(solution, file.getPath(), ELITE_SIZE);
+			List<int[]> landingSequences = SolutionFile.loadLandingSequencesFromFile(file.getPath());
+
+			Assert.assertEquals(1 + ELITE_SIZE, landingSequences.size());
+			Assert.assertArrayEquals(getAircraftIds(solution.getBestIndividualFound()), landingSequences.get(0));
+			for (int[] landingSequence : landingSequences) {
+				int[] sortedIds = landingSequence.clone();
+				Arrays.sort(sortedIds);
+				for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+					Assert.assertEquals(i, sortedIds[i]);
+				}
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void missingAndNewAircraftsAreSequencedTest() throws Exception {
+		AircraftStaticData[] aircrafts = TestInstances.createAircrafts(new Random(27), AIRCRAFT_COUNT);
+		// the previous plan had the aircrafts 12 and 15 (gone now), but neither the aircraft 3 nor the aircraft 8 (new ones).
+		int[] previousIds = { 5, 12, 0, 11, 1, 15, 2, 4, 6, 7, 9, 10 };
+
+		Aircraft[] landingSequence = new LandingSequenceCreator(aircrafts).createLandingSequenceFromAircraftIds(previousIds);
+		Assert.assertEquals(AIRCRAFT_COUNT, landingSequence.length);
+		int[] ids = new int[AIRCRAFT_COUNT];
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			ids[i] = landingSequence[i].getId();
+		}
+		// the aircrafts of the previous plan keep their relative order.
+		int previous = -1;
+		for (int id : new int[] { 5, 0, 11, 1, 2, 4, 6, 7, 9, 10 }) {
+			int position = indexOf(ids, id);
+			Assert.assertTrue(position > previous);
+			previous = position;
+		}
+		// the new aircrafts land before the first aircraft with a greater target time.
+		for (int newId : new int[] { 3, 8 }) {
+			int position = indexOf(ids, newId);
+			Assert.assertTrue(position >= 0);
+			for (int i = 0; i < position; i++) {
+				if (ids[i] != 3 && ids[i] != 8) {
+					Assert.assertTrue(aircrafts[ids[i]].getTargetLandingTime() <= aircrafts[newId].getTargetLandingTime());
+				}
+			}
+		}
+
+		Solution solution = execute(aircrafts, Collections.singletonList(previousIds));
+		int[] bestIds = getAircraftIds(solution.getBestIndividualFound());
+		Arrays.sort(bestIds);
+		for (int i = 0; i < AIRCRAFT_COUNT; i++) {
+			Assert.assertEquals(i, bestIds[i]);
+		}
+	}
+
+	private static Solution execute(AircraftStaticData[] aircrafts, List<int[]> warmStartLandingSequences) throws AlgorithmException {
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(new PopulationConfig(40, 0.3f, 0.1f, false), 30, aircrafts);
+		geneticAlgorithm.setInitializationSeed(1);
+		geneticAlgorithm.setInitializationThreads(1);
+		geneticAlgorithm.setWarmStartLandingSequences(warmStartLandingSequences);
+		geneticAlgorithm.execute();
+		return geneticAlgorithm.getSolution();
+	}
+
+	private static int[] getAircraftIds(Individual individual) {
+		Aircraft[] landingSequence = individual.getAircraftLandingSequence();
+		int[] ids = new int[landingSequence.length];
+		for (int i = 0; i < landingSequence.length; i++) {
+			ids[i] = landingSequence[i].getId();
+		}
+		return ids;
+	}
+
+	private static int indexOf(int[] values, int value) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}